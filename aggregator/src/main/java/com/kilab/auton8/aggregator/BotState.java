@@ -0,0 +1,262 @@
+package com.kilab.auton8.aggregator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Live state of one bot, folded from its event stream. Owned by exactly one {@link Shard}
+ * and only ever touched on that shard's thread, so nothing here is synchronized.
+ */
+final class BotState {
+    /** Connection as seen from the events: a status/session event or, for "stale", silence. */
+    enum Link { ONLINE, LOST, OFFLINE, ENDED }
+
+    /** Another player the bot reported inside its proximity radius. */
+    static final class Nearby {
+        double x, y, z, dist;
+        boolean danger;
+        long seenMs;
+    }
+
+    final String clientId;
+    String sessionId;       // of the current run, once its session_start was seen
+    Link link = Link.ONLINE;
+    boolean inWorld;
+    long firstSeenMs, lastSeenMs;
+    long events, staleDropped;
+    long lastSeq = -1;
+
+    // telemetry
+    boolean hasPos;
+    double x, y, z;
+    float health = -1f, saturation;
+    int hunger = -1;
+    String dimension, server;
+
+    // plan / baritone
+    String planId, planStatus, planCmd;
+    int planSize, planIndex = -1;
+    String lastGoal;        // goal_reached detail
+    long stuckCount;
+    String lastLife;        // dead / respawned
+    long deaths;
+
+    final Map<String, Nearby> nearby = new HashMap<>();
+
+    // session ids of earlier runs (oldest first), so their late events can be told apart
+    private static final int MAX_RETIRED = 8;
+    private final Set<String> retired = new LinkedHashSet<>();
+
+    BotState(String clientId, long nowMs) {
+        this.clientId = clientId;
+        this.firstSeenMs = this.lastSeenMs = nowMs;
+    }
+
+    /**
+     * Fold one event in. A bot's core announces each run with a session_start carrying its new
+     * session id (no detail; world joins send their own "begin" one). Events of a run that has
+     * since been replaced — typically the LWT of a crashed run arriving after the restart — are
+     * counted and ignored.
+     *
+     * @return false if the event was dropped as stale
+     */
+    boolean apply(JsonObject j, long nowMs) {
+        String type = str(j, "event");
+        if (type == null) type = str(j, "type");
+        if (type == null) type = "";
+        String sid = str(j, "session_id");
+
+        if (sid != null && !sid.equals(sessionId)) {
+            if ("session_start".equals(type) && !j.has("detail")) {
+                newRun(sid);
+            } else if (retired.contains(sid) || (sessionId != null && "status".equals(type) && "offline".equals(str(j, "detail")))) {
+                staleDropped++;
+                return false;
+            }
+        }
+        lastSeenMs = nowMs;
+        events++;
+        if (j.has("seq")) lastSeq = j.get("seq").getAsLong();
+        String s = str(j, "server");
+        if (s != null) server = s;
+
+        switch (type) {
+            case "telemetry" -> telemetry(j);
+            case "status" -> status(str(j, "detail"));
+            case "session_start" -> link = Link.ONLINE;
+            case "session_end" -> { if (!j.has("detail")) { link = Link.ENDED; inWorld = false; } }
+            case "world" -> {
+                inWorld = "joined".equals(str(j, "detail"));
+                if (!inWorld) nearby.clear();
+            }
+            case "dimension_changed" -> { dimension = str(j, "detail"); nearby.clear(); }
+            case "player_spotted", "player_danger_enter", "player_left_radius", "player_danger_left" -> proximity(type, j, nowMs);
+            case "plan_started", "plan_step_started", "plan_step_finished", "plan_finished" -> plan(type, j);
+            case "goal_reached" -> lastGoal = str(j, "detail");
+            case "stuck_detected" -> stuckCount++;
+            case "cmd_accepted" -> planCmd = str(j, "detail");
+            case "life" -> {
+                lastLife = str(j, "status");
+                if ("dead".equals(lastLife)) { deaths++; nearby.clear(); }
+            }
+            default -> { }
+        }
+        return true;
+    }
+
+    private void newRun(String sid) {
+        if (sessionId != null) {
+            retired.add(sessionId);
+            if (retired.size() > MAX_RETIRED) retired.remove(retired.iterator().next());
+        }
+        sessionId = sid;
+        link = Link.ONLINE;
+        nearby.clear();
+        planId = planStatus = planCmd = null;
+        planSize = 0;
+        planIndex = -1;
+        lastSeq = -1;
+    }
+
+    private void status(String detail) {
+        if (detail == null) return;
+        switch (detail) {
+            case "connected", "reconnected" -> link = Link.ONLINE;
+            case "connection_lost" -> link = Link.LOST;
+            case "disconnected" -> inWorld = false;
+            case "offline" -> { link = Link.OFFLINE; inWorld = false; nearby.clear(); }
+            default -> { }
+        }
+    }
+
+    private void telemetry(JsonObject j) {
+        // flat TelemetryEvent, or the one-shot {obs:{coords:{x,y,z}, health, ...}} sent on enable
+        JsonObject src = j.has("obs") && j.get("obs").isJsonObject() ? j.getAsJsonObject("obs") : j;
+        JsonObject pos = src.has("coords") && src.get("coords").isJsonObject() ? src.getAsJsonObject("coords") : src;
+        if (pos.has("x") && pos.has("z")) {
+            x = pos.get("x").getAsDouble();
+            y = pos.has("y") ? pos.get("y").getAsDouble() : y;
+            z = pos.get("z").getAsDouble();
+            hasPos = inWorld = true;
+        }
+        if (src.has("health")) health = src.get("health").getAsFloat();
+        if (src.has("hunger")) hunger = src.get("hunger").getAsInt();
+        if (src.has("saturation")) saturation = src.get("saturation").getAsFloat();
+        String dim = str(src, "dimension");
+        if (dim != null) dimension = dim;
+    }
+
+    private void proximity(String type, JsonObject j, long nowMs) {
+        String name = str(j, "name");
+        if (name == null) return;
+        if ("player_left_radius".equals(type)) {
+            nearby.remove(name);
+            return;
+        }
+        Nearby n = nearby.computeIfAbsent(name, k -> new Nearby());
+        if (j.has("x")) n.x = j.get("x").getAsDouble();
+        if (j.has("y")) n.y = j.get("y").getAsDouble();
+        if (j.has("z")) n.z = j.get("z").getAsDouble();
+        if (j.has("dist")) n.dist = j.get("dist").getAsDouble();
+        if ("player_danger_enter".equals(type)) n.danger = true;
+        else if ("player_danger_left".equals(type)) n.danger = false;
+        n.seenMs = nowMs;
+    }
+
+    private void plan(String type, JsonObject j) {
+        JsonObject d = j.has("data") && j.get("data").isJsonObject() ? j.getAsJsonObject("data") : j;
+        String id = str(d, "planId");
+        if (id != null) planId = id;
+        if (d.has("size")) planSize = d.get("size").getAsInt();
+        if (d.has("index")) planIndex = d.get("index").getAsInt();
+        String cmd = str(d, "cmd");
+        if (cmd != null) planCmd = cmd;
+        switch (type) {
+            case "plan_started" -> { planStatus = "running"; planIndex = -1; }
+            case "plan_finished" -> planStatus = str(d, "status") != null ? str(d, "status") : "done";
+            default -> { }
+        }
+    }
+
+    /** Link as reported, or "stale" when an online bot has gone quiet for longer than {@code staleMs}. */
+    String linkName(long nowMs, long staleMs) {
+        if (link == Link.ONLINE && nowMs - lastSeenMs > staleMs) return "stale";
+        return link.name().toLowerCase();
+    }
+
+    int dangerCount() {
+        int n = 0;
+        for (Nearby p : nearby.values()) if (p.danger) n++;
+        return n;
+    }
+
+    /** Full state, for the query endpoint. */
+    JsonObject toJson(long nowMs, long staleMs) {
+        JsonObject o = compact(nowMs, staleMs);
+        o.addProperty("first_seen_ms", firstSeenMs);
+        o.addProperty("events", events);
+        o.addProperty("stale_dropped", staleDropped);
+        o.addProperty("last_seq", lastSeq);
+        if (server != null) o.addProperty("server", server);
+        if (health >= 0) {
+            o.addProperty("hunger", hunger);
+            o.addProperty("saturation", saturation);
+        }
+        if (planCmd != null) o.addProperty("cmd", planCmd);
+        if (lastGoal != null) o.addProperty("last_goal", lastGoal);
+        o.addProperty("stuck", stuckCount);
+        if (lastLife != null) o.addProperty("life", lastLife);
+        o.addProperty("deaths", deaths);
+        JsonArray players = new JsonArray();
+        for (Map.Entry<String, Nearby> e : nearby.entrySet()) {
+            Nearby n = e.getValue();
+            JsonObject p = new JsonObject();
+            p.addProperty("name", e.getKey());
+            p.addProperty("x", n.x);
+            p.addProperty("y", n.y);
+            p.addProperty("z", n.z);
+            p.addProperty("dist", n.dist);
+            p.addProperty("danger", n.danger);
+            players.add(p);
+        }
+        o.add("nearby", players);
+        return o;
+    }
+
+    /** The few fields that go into the fleet summary for every bot. */
+    JsonObject compact(long nowMs, long staleMs) {
+        JsonObject o = new JsonObject();
+        o.addProperty("client_id", clientId);
+        if (sessionId != null) o.addProperty("session_id", sessionId);
+        o.addProperty("link", linkName(nowMs, staleMs));
+        o.addProperty("age_ms", nowMs - lastSeenMs);
+        o.addProperty("in_world", inWorld);
+        if (hasPos) {
+            o.addProperty("x", Math.round(x * 10) / 10.0);
+            o.addProperty("y", Math.round(y * 10) / 10.0);
+            o.addProperty("z", Math.round(z * 10) / 10.0);
+        }
+        if (dimension != null) o.addProperty("dimension", dimension);
+        if (health >= 0) o.addProperty("health", health);
+        if (planId != null) {
+            o.addProperty("plan_id", planId);
+            o.addProperty("plan_status", planStatus);
+            o.addProperty("plan_index", planIndex);
+            o.addProperty("plan_size", planSize);
+        }
+        o.addProperty("nearby", nearby.size());
+        o.addProperty("danger", dangerCount());
+        return o;
+    }
+
+    private static String str(JsonObject j, String key) {
+        JsonElement e = j.get(key);
+        return e == null || e.isJsonNull() || !e.isJsonPrimitive() ? null : e.getAsString();
+    }
+}
@@ -0,0 +1,290 @@
+package com.kilab.auton8.aggregator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.metrics.PrometheusEndpoint;
+import org.eclipse.paho.client.mqttv3.*;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Standalone service that keeps the live state of every bot, so n8n workflows read one
+ * fleet view instead of each subscribing to and re-parsing every bot's event stream.
+ *
+ * <pre>
+ *   --broker=tcp://127.0.0.1:1883 --username=.. --password=..
+ *   --topic=mc/+/events            the '+' level is the bot's client id
+ *   --shards=N                     worker threads, bots are hashed across them (default: cores)
+ *   --queue=65536                  per-shard inbox; a full inbox drops and counts
+ *   --summary-topic=mc/fleet/summary --summary-ms=1000 --summary-bots=true
+ *   --stale-ms=15000               an online bot this quiet is reported as "stale"
+ *   --evict-ms=3600000             bots silent this long are forgotten
+ *   --http-port=8787               query endpoint on loopback (0 = off), see {@link QueryEndpoint}
+ *   --metrics-port=0               Prometheus endpoint on loopback (0 = off)
+ * </pre>
+ *
+ * Payloads are single events or JSON arrays of events (batched publishers); each shard folds
+ * them into {@link BotState}s. Every summary interval one retained fleet_summary goes out:
+ * counts per link state and dimension, who is low on health or has a player in danger range,
+ * running plans, and (unless disabled) one compact line per bot.
+ */
+public final class FleetAggregator {
+    private static final Counter RECEIVED   = Metrics.get().counter("aggregator_received_total");
+    private static final Counter SUMMARIES  = Metrics.get().counter("aggregator_summaries_total");
+    private static final Counter EVICTED    = Metrics.get().counter("aggregator_evicted_total");
+
+    private static final float LOW_HEALTH = 6f;
+
+    final long staleMs, evictMs;
+    private final Shard[] shards;
+    private final int idLevel;
+    private volatile JsonObject lastSummary = new JsonObject();
+
+    FleetAggregator(int shardCount, int queueSize, String topic, long staleMs, long evictMs) {
+        this.shards = new Shard[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) shards[i] = new Shard(i, queueSize);
+        this.idLevel = List.of(topic.split("/")).indexOf("+");
+        if (idLevel < 0) throw new IllegalArgumentException("topic needs a '+' level for the client id: " + topic);
+        this.staleMs = staleMs;
+        this.evictMs = evictMs;
+        Metrics.get().gauge("aggregator_shards", () -> shards.length);
+    }
+
+    void start() { for (Shard s : shards) s.start(); }
+
+    void stop() { for (Shard s : shards) s.stop(); }
+
+    /** MQTT callback side: pick the shard by client id and hand the raw payload over. */
+    void onMessage(String topic, byte[] payload) {
+        RECEIVED.inc();
+        String id = level(topic, idLevel);
+        if (id == null || id.isEmpty()) return;
+        shards[Math.floorMod(id.hashCode(), shards.length)].offer(id, payload);
+    }
+
+    JsonObject lastSummary() { return lastSummary; }
+
+    /** Full state of one bot, or null if it isn't known. */
+    JsonObject bot(String clientId) throws Exception {
+        long now = Clock.wallMs();
+        Shard s = shards[Math.floorMod(clientId.hashCode(), shards.length)];
+        return s.ask(bots -> {
+            BotState b = bots.get(clientId);
+            return b == null ? null : b.toJson(now, staleMs);
+        }).get(2, TimeUnit.SECONDS);
+    }
+
+    /** Full state of every bot, sorted by client id. */
+    JsonArray bots() throws Exception {
+        long now = Clock.wallMs();
+        TreeMap<String, JsonObject> all = new TreeMap<>();
+        for (List<JsonObject> part : askAll(bots -> {
+            List<JsonObject> out = new ArrayList<>(bots.size());
+            for (BotState b : bots.values()) out.add(b.toJson(now, staleMs));
+            return out;
+        })) {
+            for (JsonObject o : part) all.put(o.get("client_id").getAsString(), o);
+        }
+        JsonArray arr = new JsonArray();
+        all.values().forEach(arr::add);
+        return arr;
+    }
+
+    /** Tally every shard (evicting long-gone bots on the way) and keep the result as the latest summary. */
+    JsonObject summarize(boolean withBots) throws Exception {
+        long now = Clock.wallMs();
+        Tally total = new Tally();
+        for (Tally t : askAll(bots -> {
+            EVICTED.add(Shard.evict(bots, now, evictMs));
+            Tally tally = new Tally();
+            for (BotState b : bots.values()) tally.add(b, now, staleMs, withBots);
+            return tally;
+        })) total.merge(t);
+        JsonObject o = total.toJson();
+        o.addProperty("ts_ms", now);
+        lastSummary = o;
+        SUMMARIES.inc();
+        return o;
+    }
+
+    private <T> List<T> askAll(Function<Map<String, BotState>, T> fn) throws Exception {
+        List<CompletableFuture<T>> fs = new ArrayList<>(shards.length);
+        for (Shard s : shards) fs.add(s.ask(fn));
+        List<T> out = new ArrayList<>(shards.length);
+        for (CompletableFuture<T> f : fs) out.add(f.get(2, TimeUnit.SECONDS));
+        return out;
+    }
+
+    private static String level(String topic, int level) {
+        int start = 0;
+        for (int i = 0; i < level; i++) {
+            start = topic.indexOf('/', start) + 1;
+            if (start == 0) return null;
+        }
+        int end = topic.indexOf('/', start);
+        return end < 0 ? topic.substring(start) : topic.substring(start, end);
+    }
+
+    /** Fleet-wide counts, built per shard and merged. */
+    static final class Tally {
+        int bots, inWorld, plansRunning;
+        double healthSum;
+        int healthN;
+        final Map<String, Integer> links = new TreeMap<>();
+        final Map<String, Integer> dimensions = new TreeMap<>();
+        final List<String> lowHealth = new ArrayList<>();
+        final List<String> danger = new ArrayList<>();
+        final List<JsonObject> compact = new ArrayList<>();
+
+        void add(BotState b, long now, long staleMs, boolean withBots) {
+            bots++;
+            String link = b.linkName(now, staleMs);
+            links.merge(link, 1, Integer::sum);
+            if (b.inWorld && "online".equals(link)) {
+                inWorld++;
+                if (b.dimension != null) dimensions.merge(b.dimension, 1, Integer::sum);
+                if (b.health >= 0) {
+                    healthSum += b.health;
+                    healthN++;
+                    if (b.health <= LOW_HEALTH) lowHealth.add(b.clientId);
+                }
+                if (b.dangerCount() > 0) danger.add(b.clientId);
+            }
+            if ("running".equals(b.planStatus)) plansRunning++;
+            if (withBots) compact.add(b.compact(now, staleMs));
+        }
+
+        void merge(Tally t) {
+            bots += t.bots;
+            inWorld += t.inWorld;
+            plansRunning += t.plansRunning;
+            healthSum += t.healthSum;
+            healthN += t.healthN;
+            t.links.forEach((k, v) -> links.merge(k, v, Integer::sum));
+            t.dimensions.forEach((k, v) -> dimensions.merge(k, v, Integer::sum));
+            lowHealth.addAll(t.lowHealth);
+            danger.addAll(t.danger);
+            compact.addAll(t.compact);
+        }
+
+        JsonObject toJson() {
+            JsonObject o = new JsonObject();
+            o.addProperty("event", "fleet_summary");
+            o.addProperty("bots", bots);
+            o.addProperty("in_world", inWorld);
+            o.add("links", counts(links));
+            o.add("dimensions", counts(dimensions));
+            if (healthN > 0) o.addProperty("health_avg", Math.round(healthSum / healthN * 10) / 10.0);
+            o.add("low_health", ids(lowHealth));
+            o.add("danger", ids(danger));
+            o.addProperty("plans_running", plansRunning);
+            if (!compact.isEmpty()) {
+                compact.sort((a, b) -> a.get("client_id").getAsString().compareTo(b.get("client_id").getAsString()));
+                JsonArray arr = new JsonArray();
+                compact.forEach(arr::add);
+                o.add("fleet", arr);
+            }
+            return o;
+        }
+
+        private static JsonObject counts(Map<String, Integer> m) {
+            JsonObject o = new JsonObject();
+            m.forEach(o::addProperty);
+            return o;
+        }
+
+        private static JsonArray ids(List<String> l) {
+            JsonArray a = new JsonArray();
+            l.stream().sorted().forEach(a::add);
+            return a;
+        }
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Map<String, String> a = args(argv);
+        String uri = a.getOrDefault("broker", "tcp://127.0.0.1:1883");
+        String topic = a.getOrDefault("topic", "mc/+/events");
+        String summaryTopic = a.getOrDefault("summary-topic", "mc/fleet/summary");
+        long summaryMs = Math.max(100, num(a, "summary-ms", 1_000));
+        boolean summaryBots = Boolean.parseBoolean(a.getOrDefault("summary-bots", "true"));
+        int httpPort = (int) num(a, "http-port", 8787);
+        int metricsPort = (int) num(a, "metrics-port", 0);
+
+        Metrics.setEnabled(true);
+        FleetAggregator agg = new FleetAggregator(
+            (int) num(a, "shards", Runtime.getRuntime().availableProcessors()),
+            (int) num(a, "queue", 65_536), topic,
+            num(a, "stale-ms", 15_000), num(a, "evict-ms", 3_600_000));
+        agg.start();
+
+        MqttAsyncClient client = new MqttAsyncClient(uri, a.getOrDefault("client-id", "auton8-aggregator"), new MemoryPersistence());
+        MqttConnectOptions opts = new MqttConnectOptions();
+        opts.setAutomaticReconnect(true);
+        opts.setCleanSession(true);
+        opts.setKeepAliveInterval(30);
+        opts.setMaxInflight(1_000);
+        if (a.containsKey("username")) opts.setUserName(a.get("username"));
+        if (a.containsKey("password")) opts.setPassword(a.get("password").toCharArray());
+        client.setCallback(new MqttCallbackExtended() {
+            @Override public void connectComplete(boolean reconnect, String serverURI) {
+                try { client.subscribe(topic, 1); } catch (MqttException ignored) {}
+                System.out.println((reconnect ? "reconnected to " : "connected to ") + serverURI + ", subscribed " + topic);
+            }
+            @Override public void connectionLost(Throwable cause) { System.out.println("connection lost: " + cause); }
+            @Override public void messageArrived(String t, MqttMessage m) { agg.onMessage(t, m.getPayload()); }
+            @Override public void deliveryComplete(IMqttDeliveryToken token) { }
+        });
+        client.connect(opts).waitForCompletion(10_000);
+
+        QueryEndpoint http = httpPort > 0 ? new QueryEndpoint(agg, httpPort) : null;
+        if (http != null) http.start();
+        PrometheusEndpoint prom = metricsPort > 0 ? new PrometheusEndpoint(Metrics.get(), metricsPort) : null;
+        if (prom != null) prom.start();
+        System.out.println("aggregating " + topic + " on " + agg.shards.length + " shards, summary every " + summaryMs + " ms on " + summaryTopic
+            + (http != null ? ", query http://127.0.0.1:" + httpPort + "/" : ""));
+
+        CountDownLatch stop = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(stop::countDown));
+        while (!stop.await(summaryMs, TimeUnit.MILLISECONDS)) {
+            try {
+                byte[] body = agg.summarize(summaryBots).toString().getBytes(StandardCharsets.UTF_8);
+                if (client.isConnected()) client.publish(summaryTopic, body, 0, true);
+            } catch (Exception e) {
+                System.out.println("summary failed: " + e);
+            }
+        }
+        if (http != null) http.stop();
+        if (prom != null) prom.stop();
+        try { client.disconnect().waitForCompletion(2_000); } catch (MqttException ignored) {}
+        agg.stop();
+    }
+
+    private static Map<String, String> args(String[] argv) {
+        Map<String, String> m = new HashMap<>();
+        for (String s : argv) {
+            if (!s.startsWith("--")) continue;
+            int eq = s.indexOf('=');
+            if (eq < 0) m.put(s.substring(2), "true");
+            else m.put(s.substring(2, eq), s.substring(eq + 1));
+        }
+        return m;
+    }
+
+    private static long num(Map<String, String> a, String key, long def) {
+        String v = a.get(key);
+        return v == null ? def : Long.parseLong(v.replace("_", ""));
+    }
+}
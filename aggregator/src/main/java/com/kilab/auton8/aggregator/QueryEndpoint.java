@@ -0,0 +1,113 @@
+package com.kilab.auton8.aggregator;
+
+import com.google.gson.JsonObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only JSON queries over the fleet state, bound to the loopback interface only.
+ *
+ * <pre>
+ *   GET /summary      the latest fleet_summary (as published)
+ *   GET /bots         full state of every bot
+ *   GET /bots/{id}    full state of one bot (404 if unknown)
+ * </pre>
+ *
+ * Same shape as the Prometheus endpoint: one daemon thread, one request at a time. Each
+ * query is answered by the shards themselves, so it never races their updates.
+ */
+final class QueryEndpoint {
+    private final FleetAggregator agg;
+    private final int port;
+    private volatile ServerSocket server;
+
+    QueryEndpoint(FleetAggregator agg, int port) {
+        this.agg = agg;
+        this.port = port;
+    }
+
+    synchronized void start() throws IOException {
+        if (server != null) return;
+        ServerSocket s = new ServerSocket();
+        s.setReuseAddress(true);
+        s.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server = s;
+        Thread t = new Thread(() -> serve(s), "auton8-agg-http");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    synchronized void stop() {
+        ServerSocket s = server;
+        server = null;
+        if (s != null) try { s.close(); } catch (IOException ignored) {}
+    }
+
+    private void serve(ServerSocket s) {
+        while (!s.isClosed()) {
+            try (Socket c = s.accept()) {
+                c.setSoTimeout(2000);
+                String path = requestPath(c.getInputStream());
+                int status = 200;
+                String body;
+                try {
+                    body = route(path);
+                    if (body == null) { status = 404; body = "{\"error\":\"not_found\"}"; }
+                } catch (Exception e) {
+                    status = 503;
+                    body = "{\"error\":\"" + e.getClass().getSimpleName() + "\"}";
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                OutputStream out = c.getOutputStream();
+                out.write(("HTTP/1.1 " + status + (status == 200 ? " OK" : status == 404 ? " Not Found" : " Service Unavailable") + "\r\n"
+                    + "Content-Type: application/json; charset=utf-8\r\n"
+                    + "Content-Length: " + bytes.length + "\r\n"
+                    + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(bytes);
+                out.flush();
+            } catch (IOException ignored) {
+                // closed by stop(), or a client that went away mid-request
+            }
+        }
+    }
+
+    private String route(String path) throws Exception {
+        if (path == null) return null;
+        int q = path.indexOf('?');
+        if (q >= 0) path = path.substring(0, q);
+        if (path.equals("/summary")) return agg.lastSummary().toString();
+        if (path.equals("/bots")) return agg.bots().toString();
+        if (path.startsWith("/bots/") && path.length() > 6) {
+            JsonObject bot = agg.bot(URLDecoder.decode(path.substring(6), StandardCharsets.UTF_8));
+            return bot == null ? null : bot.toString();
+        }
+        return null;
+    }
+
+    /** Path of "GET /path HTTP/1.1", reading on to the blank line ending the request head. */
+    private static String requestPath(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int state = 0, b, n = 0;
+        boolean first = true;
+        while (state < 4 && n++ < 8192 && (b = in.read()) != -1) {
+            if (first) {
+                if (b == '\r' || b == '\n') first = false;
+                else line.write(b);
+            }
+            state = (b == '\r' && (state == 0 || state == 2)) ? state + 1
+                  : (b == '\n' && (state == 1 || state == 3)) ? state + 1
+                  : 0;
+        }
+        String[] parts = line.toString(StandardCharsets.US_ASCII).split(" ");
+        return parts.length >= 2 && parts[0].equals("GET") ? parts[1] : null;
+    }
+}
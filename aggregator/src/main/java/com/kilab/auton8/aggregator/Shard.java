@@ -0,0 +1,129 @@
+package com.kilab.auton8.aggregator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * One worker thread owning the state of every bot hashed to it. Raw payloads are handed over
+ * by the MQTT callback and parsed here, so JSON work spreads over the shards; queries run as
+ * work items on the same thread, so they always see a consistent state without locking.
+ */
+final class Shard {
+    private static final Counter EVENTS      = Metrics.get().counter("aggregator_events_total");
+    private static final Counter STALE       = Metrics.get().counter("aggregator_stale_dropped_total");
+    private static final Counter BAD_JSON    = Metrics.get().counter("aggregator_parse_errors_total");
+    private static final Counter QUEUE_FULL  = Metrics.get().counter("aggregator_queue_full_total");
+    private static final Histogram APPLY_NS  = Metrics.get().histogram("aggregator_apply_ns");
+
+    private final int index;
+    private final BlockingQueue<Runnable> inbox;
+    private final Map<String, BotState> bots = new HashMap<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    Shard(int index, int queueSize) {
+        this.index = index;
+        this.inbox = new ArrayBlockingQueue<>(queueSize);
+        this.thread = new Thread(this::loop, "auton8-agg-shard-" + index);
+        this.thread.setDaemon(true);
+        Metrics.get().gauge("aggregator_queue_depth{shard=\"" + index + "\"}", inbox::size);
+    }
+
+    void start() { thread.start(); }
+
+    void stop() {
+        running = false;
+        thread.interrupt();
+        try { thread.join(2_000); } catch (InterruptedException ignored) { Thread.currentThread().interrupt(); }
+    }
+
+    /**
+     * Queue one payload (a single event, or a JSON array of them) for {@code clientId}.
+     * Never blocks the MQTT callback: a shard that can't keep up drops and counts instead.
+     */
+    void offer(String clientId, byte[] payload) {
+        if (!inbox.offer(() -> apply(clientId, payload))) QUEUE_FULL.inc();
+    }
+
+    /** Run {@code fn} over this shard's bots on its own thread. */
+    <T> CompletableFuture<T> ask(Function<Map<String, BotState>, T> fn) {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        Runnable r = () -> {
+            try { f.complete(fn.apply(bots)); } catch (Throwable t) { f.completeExceptionally(t); }
+        };
+        try {
+            if (!inbox.offer(r, 1, TimeUnit.SECONDS)) f.completeExceptionally(new IllegalStateException("shard " + index + " busy"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            f.completeExceptionally(e);
+        }
+        return f;
+    }
+
+    /** Drop bots that ended (or went silent) more than {@code evictMs} ago; returns how many. */
+    static int evict(Map<String, BotState> bots, long nowMs, long evictMs) {
+        int n = 0;
+        for (Iterator<BotState> it = bots.values().iterator(); it.hasNext(); ) {
+            if (nowMs - it.next().lastSeenMs > evictMs) { it.remove(); n++; }
+        }
+        return n;
+    }
+
+    private void loop() {
+        while (running) {
+            Runnable r;
+            try {
+                r = inbox.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            try { r.run(); } catch (Throwable ignored) { /* one bad payload must not stop the shard */ }
+        }
+    }
+
+    private void apply(String clientId, byte[] payload) {
+        long t0 = Metrics.startTimer();
+        JsonElement el;
+        try {
+            el = JsonParser.parseString(new String(payload, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            BAD_JSON.inc();
+            return;
+        }
+        long now = Clock.wallMs();
+        BotState bot = bots.computeIfAbsent(clientId, id -> new BotState(id, now));
+        if (el.isJsonArray()) {
+            for (JsonElement e : el.getAsJsonArray()) {
+                if (e.isJsonObject()) one(bot, e, now);
+            }
+        } else if (el.isJsonObject()) {
+            one(bot, el, now);
+        } else {
+            BAD_JSON.inc();
+        }
+        APPLY_NS.recordSince(t0);
+    }
+
+    private static void one(BotState bot, JsonElement e, long now) {
+        EVENTS.inc();
+        try {
+            if (!bot.apply(e.getAsJsonObject(), now)) STALE.inc();
+        } catch (RuntimeException ex) {
+            BAD_JSON.inc();   // right shape, wrong field types
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.kilab.auton8.bench;
+
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.spi.GameActions;
+import com.kilab.auton8.spi.GameState;
+
+import java.util.UUID;
+
+/**
+ * Shared setup for the benchmarks: a config with every scope on, a game that swallows
+ * actions, and a never-connected MqttBus (publishes take the drop path, so a benchmark
+ * measures the bridge, not the network).
+ */
+public final class Fixtures {
+    private Fixtures() {}
+
+    public static Config config() {
+        Config c = new Config();
+        c.brokerUri = "tcp://127.0.0.1:1";
+        c.clientId = "bench";
+        c.cmdTopic = "mc/bench/cmd";
+        c.evtTopic = "mc/bench/events";
+        c.sessionId = UUID.randomUUID().toString();
+        c.live.set(c.live.get().withScopes(true, true, true, true));
+        return c;
+    }
+
+    /** Accepts everything and does nothing; {@code execute} drops the task. */
+    public static final GameActions NOOP_GAME = new GameActions() {
+        @Override public void execute(Runnable task) {}
+        @Override public boolean canSend() { return true; }
+        @Override public void sendChat(String message) {}
+        @Override public void sendCommand(String command) {}
+    };
+
+    /** Local player at the origin in the overworld, no other players. */
+    public static GameState standingStill() {
+        return snap -> {
+            snap.inWorld = true;
+            snap.dimension = "overworld";
+            snap.serverTag = "bench.example:25565";
+            snap.localName = "bench";
+            snap.x = snap.y = snap.z = 0.0;
+            snap.alive = true;
+            snap.health = 20f;
+            snap.clearOthers();
+        };
+    }
+
+    /** Fill {@code snap} as if the local player stood at (x, 64, z). */
+    public static void localAt(TickSnapshot snap, double x, double z) {
+        snap.inWorld = true;
+        snap.dimension = "overworld";
+        snap.serverTag = "bench.example:25565";
+        snap.localName = "bench";
+        snap.x = x; snap.y = 64.0; snap.z = z;
+        snap.alive = true;
+        snap.health = 20f;
+    }
+}
@@ -0,0 +1,54 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonObject;
+import com.kilab.auton8.bench.Fixtures;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the baritone_state snapshot (JsonObject, ~30 fields) and serialising it, as the
+ * Baritone task does every baritone_publish_interval_ms, mid-#goto with a full position ring.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BaritoneSnapshotBench {
+    private BaritoneBridge bridge;
+    private long tick = 0L;
+
+    @Setup
+    public void setup() {
+        Config cfg = Fixtures.config();
+        bridge = new BaritoneBridge(cfg, new MqttBus(cfg), Fixtures.NOOP_GAME);
+        bridge.onLocalBaritoneCommand("#goto 500 64 -300");
+        GameState walking = snap -> {
+            Fixtures.localAt(snap, tick * 0.2, -tick * 0.1);
+            snap.baritonePathing = true;
+        };
+        bridge.enable();
+        for (int i = 0; i < 40; i++) { tick++; TickScheduler.get().tick(walking); }
+    }
+
+    @TearDown
+    public void tearDown() {
+        bridge.disable();
+        TickScheduler.get().tick(Fixtures.standingStill());
+    }
+
+    @Benchmark
+    public JsonObject build() {
+        return bridge.snapshot(Clock.monoMs());
+    }
+
+    @Benchmark
+    public String buildAndSerialize() {
+        return JsonUtils.wrap("baritone_state", bridge.snapshot(Clock.monoMs()));
+    }
+}
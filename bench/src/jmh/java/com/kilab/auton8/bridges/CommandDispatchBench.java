@@ -0,0 +1,60 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.bench.Fixtures;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.mqtt.MqttBus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One /cmd payload fanned out to the four command-handling bridges (chat, Baritone, telemetry,
+ * server chat), each re-parsing the envelope, against a single parse. The game swallows the
+ * client-thread hop, so this is the MQTT-thread share of a command.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CommandDispatchBench {
+    @Param({"say", "baritone_cmd", "get_status", "server_chat", "unknown"})
+    public String type;
+
+    private ChatBridge chat;
+    private BaritoneBridge baritone;
+    private TelemetryBridge telemetry;
+    private ServerChatBridge serverChat;
+    private String payload;
+
+    @Setup
+    public void setup() {
+        Config cfg = Fixtures.config();
+        MqttBus bus = new MqttBus(cfg);
+        baritone = new BaritoneBridge(cfg, bus, Fixtures.NOOP_GAME);
+        chat = new ChatBridge(cfg, bus, Fixtures.NOOP_GAME, baritone);
+        telemetry = new TelemetryBridge(cfg, bus, Fixtures.NOOP_GAME);
+        serverChat = new ServerChatBridge(cfg, bus, Fixtures.NOOP_GAME);
+        payload = switch (type) {
+            case "say"          -> "{\"type\":\"say\",\"msg\":\"hello from n8n\",\"session_id\":\"" + cfg.sessionId + "\"}";
+            case "baritone_cmd" -> "{\"type\":\"baritone_cmd\",\"cmd\":\"#goto 100 64 -200\",\"session_id\":\"" + cfg.sessionId + "\"}";
+            case "get_status"   -> "{\"type\":\"get_status\",\"session_id\":\"" + cfg.sessionId + "\"}";
+            case "server_chat"  -> "{\"type\":\"server_chat\",\"to\":\"Alex\",\"message\":\"meet at spawn\",\"session_id\":\"" + cfg.sessionId + "\"}";
+            default             -> "{\"type\":\"noop\",\"payload\":{\"a\":1,\"b\":[1,2,3]},\"session_id\":\"" + cfg.sessionId + "\"}";
+        };
+    }
+
+    @Benchmark
+    public void fanOut() {
+        chat.onCommand(payload);
+        baritone.onCommand(payload);
+        telemetry.onCommand(payload);
+        serverChat.onCommand(payload);
+    }
+
+    @Benchmark
+    public String parseOnce() {
+        JsonObject j = JsonParser.parseString(payload).getAsJsonObject();
+        return j.has("type") ? j.get("type").getAsString() : "";
+    }
+}
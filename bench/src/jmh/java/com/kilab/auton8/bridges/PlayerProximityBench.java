@@ -0,0 +1,93 @@
+package com.kilab.auton8.bridges;
+
+import com.kilab.auton8.bench.Fixtures;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One client tick of PlayerBridge's proximity diffing with N other players. "static": nobody
+ * moves, so no tick has a transition; "crossing": every player drifts radially through the
+ * danger and outer radii, so a steady share of them enters/leaves each tick; "churn": nobody
+ * moves, but each tick a different 1% of the players is out of view (vanish + reappear).
+ *
+ * Doubles as the allocation benchmark: the gc profiler's gc.alloc.rate.norm is bytes per tick,
+ * which must stay at ~0 B/op for "static" (a tick with no transition allocates nothing) and
+ * only grow with the events actually built for "crossing" and "churn".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PlayerProximityBench {
+    @Param({"10", "100", "1000"})
+    public int players;
+
+    @Param({"static", "crossing", "churn"})
+    public String motion;
+
+    private PlayerBridge bridge;
+    private GameState state;
+    private UUID[] ids;
+    private String[] names;
+    private double[] angle, phase;
+    private long tick = 0L;
+
+    @Setup
+    public void setup() {
+        Config cfg = Fixtures.config();
+        bridge = new PlayerBridge(cfg, new MqttBus(cfg));
+        ids = new UUID[players];
+        names = new String[players];
+        angle = new double[players];
+        phase = new double[players];
+        for (int i = 0; i < players; i++) {
+            ids[i] = new UUID(0x5EEDL, i);
+            names[i] = "Player" + i;
+            angle[i] = (2 * Math.PI * i) / players;
+            phase[i] = (double) i / players;
+        }
+        boolean moving = motion.equals("crossing");
+        boolean churn = motion.equals("churn");
+        int away = Math.max(1, players / 100);
+        state = snap -> {
+            Fixtures.localAt(snap, 0.0, 0.0);
+            snap.clearOthers();
+            int gap = (int) (tick % players);
+            for (int i = 0; i < players; i++) {
+                if (churn && ((i - gap + players) % players) < away) continue;
+                // radius sweeps 5..200 blocks over 400 ticks (crosses 15 and 128 twice per sweep)
+                double t = moving ? ((tick / 400.0) + phase[i]) % 1.0 : phase[i];
+                double r = 5.0 + 195.0 * (t < 0.5 ? 2 * t : 2 - 2 * t);
+                TickSnapshot.PlayerSample p = snap.addOther();
+                p.entityId = 1000 + i;
+                p.uuid = ids[i];
+                p.name = names[i];
+                p.x = r * Math.cos(angle[i]);
+                p.y = 64.0;
+                p.z = r * Math.sin(angle[i]);
+            }
+        };
+        bridge.enable();
+        for (int i = 0; i < 10; i++) step();   // pick up the task, settle initial entries
+    }
+
+    @TearDown
+    public void tearDown() {
+        bridge.disable();
+        TickScheduler.get().tick(state);       // sweep the cancelled task
+    }
+
+    @Benchmark
+    public void tick() { step(); }
+
+    private void step() {
+        tick++;
+        TickScheduler.get().tick(state);
+    }
+}
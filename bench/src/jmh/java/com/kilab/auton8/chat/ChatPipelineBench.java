@@ -0,0 +1,67 @@
+package com.kilab.auton8.chat;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message chat work: format parsing (three regexes in the worst case), normalisation and
+ * the dedupe LRU, for lines that are all new vs. all repeats.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChatPipelineBench {
+    @Param({"vanilla", "ranked", "arrow", "system"})
+    public String format;
+
+    private static final int DISTINCT = 1024;
+
+    private String[] lines;
+    private ChatDeduper dedupe;
+    private int i = 0;
+    private long now = 0L;
+
+    @Setup
+    public void setup() {
+        lines = new String[DISTINCT];
+        for (int k = 0; k < DISTINCT; k++) {
+            String msg = "§aanyone   selling §ldiamonds§r? price " + k;
+            lines[k] = switch (format) {
+                case "vanilla" -> "<Steve> " + msg;
+                case "ranked"  -> "[VIP] Steve: " + msg;
+                case "arrow"   -> "[Member] Steve » " + msg;
+                default        -> "Server restarting in " + k + " minutes";
+            };
+        }
+        dedupe = new ChatDeduper(256);
+    }
+
+    @Benchmark public ChatParser.ChatLine parse() {
+        return ChatParser.parse(next());
+    }
+
+    @Benchmark public String normalize() {
+        return ChatParser.normalize(next());
+    }
+
+    /** parse + key + LRU, every line new (LRU keeps evicting). */
+    @Benchmark public boolean pipelineUnique() {
+        ChatParser.ChatLine line = ChatParser.parse(next());
+        String key = ChatParser.dedupeKey(line.from() != null ? line.from() : "unknown", line.msg());
+        return dedupe.seenRecently(key, now++, 1_500, 256);
+    }
+
+    /** parse + key + LRU, the same line over and over (the multi-hook duplicate case). */
+    @Benchmark public boolean pipelineRepeat() {
+        ChatParser.ChatLine line = ChatParser.parse(lines[0]);
+        String key = ChatParser.dedupeKey(line.from() != null ? line.from() : "unknown", line.msg());
+        return dedupe.seenRecently(key, now, 1_500, 256);
+    }
+
+    private String next() {
+        String s = lines[i];
+        i = (i + 1) & (DISTINCT - 1);
+        return s;
+    }
+}
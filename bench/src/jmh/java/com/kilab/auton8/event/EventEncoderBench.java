@@ -0,0 +1,63 @@
+package com.kilab.auton8.event;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.kilab.auton8.core.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event builders: the generated streaming encoders (what MqttBus.publish(topic, Event) does)
+ * against a JsonObject + JsonUtils.wrap build (what the untyped events still do) and plain
+ * reflective Gson.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EventEncoderBench {
+    private static final Gson GSON = new Gson();
+
+    private final String session = "5d0c6a8e-3f7b-4b8e-9a55-0d5b7e2f4c11";
+    private final JsonSink sink = new JsonSink(512);
+    private final ChatEvent chat = new ChatEvent("Steve", "anyone selling \"diamonds\"? dm me", "server_chat");
+    private final PlayerProximityEvent spotted = new PlayerProximityEvent(PlayerProximityEvent.SPOTTED,
+        "Alex", "0f3c4b2e-8d6a-4c1f-b7e9-2a5d8c3f1e07", 104.5, 64.0, -220.25, 87.1234);
+    private final TelemetryEvent telemetry = new TelemetryEvent(104.5, 64.0, -220.25, 18.5f, 17, 3.2f, "overworld");
+
+    @Benchmark public String chatGsonObject() {
+        JsonObject o = new JsonObject();
+        o.addProperty("event", "chat");
+        o.addProperty("player", chat.player());
+        o.addProperty("msg", chat.msg());
+        o.addProperty("source", chat.source());
+        o.addProperty("session_id", session);
+        return JsonUtils.wrap(o);
+    }
+
+    @Benchmark public String chatGsonReflective() {
+        return GSON.toJson(chat);
+    }
+
+    @Benchmark public int chatEncoder() {
+        ChatEvent e = new ChatEvent(chat.player(), chat.msg(), chat.source());
+        e.encode(sink.reset().sessionId(session).seq(42));
+        return sink.length();
+    }
+
+    @Benchmark public byte[] chatEncoderBytes() {
+        ChatEvent e = new ChatEvent(chat.player(), chat.msg(), chat.source());
+        e.encode(sink.reset().sessionId(session).seq(42));
+        return sink.toByteArray();
+    }
+
+    @Benchmark public int playerEncoder() {
+        spotted.encode(sink.reset().sessionId(session).seq(42));
+        return sink.length();
+    }
+
+    @Benchmark public int telemetryEncoder() {
+        telemetry.encode(sink.reset().sessionId(session).seq(42));
+        return sink.length();
+    }
+}
@@ -0,0 +1,50 @@
+package com.kilab.auton8.mqtt;
+
+import com.google.gson.JsonObject;
+import com.kilab.auton8.bench.Fixtures;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.event.JsonSink;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.trace.Span;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of publishing a pre-built String event: MqttBus.ensureSession re-parses it to add
+ * session_id/seq/ts_ms/mono_ns (and trace ids). Compared with encoding the same content as a
+ * typed event, which writes the envelope in one pass.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EnsureSessionBench {
+    private MqttBus bus;
+    private String small, large;
+    private Span span;
+    private final JsonSink sink = new JsonSink(512);
+
+    @Setup
+    public void setup() {
+        bus = new MqttBus(Fixtures.config());
+        span = Span.root("bench");
+        small = JsonUtils.wrap(JsonUtils.baseEventObj("accepted", "#goto 100 64 -200"));
+
+        // baritone_state-sized payload (~30 fields)
+        JsonObject data = new JsonObject();
+        for (int i = 0; i < 20; i++) data.addProperty("num_" + i, i * 1.5);
+        for (int i = 0; i < 10; i++) data.addProperty("str_" + i, "value-" + i);
+        large = JsonUtils.wrap("baritone_state", data);
+    }
+
+    @Benchmark public String small() { return bus.ensureSession(small, null); }
+
+    @Benchmark public String smallTraced() { return bus.ensureSession(small, span); }
+
+    @Benchmark public String large() { return bus.ensureSession(large, null); }
+
+    @Benchmark public byte[] smallTyped() {
+        new StatusEvent("accepted", "#goto 100 64 -200").encode(sink.reset().sessionId("s").seq(1));
+        return sink.toByteArray();
+    }
+}
@@ -0,0 +1,702 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.event.PlanEvent;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.fault.ErrorReporter;
+import com.kilab.auton8.jfr.PlanStepEvent;
+import com.kilab.auton8.jfr.PlanTransitionEvent;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameActions;
+import com.kilab.auton8.trace.Span;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+
+public final class BaritoneBridge implements Bridge {
+    private final Config cfg;
+    private final MqttBus bus;
+    private final GameActions game;
+
+    private String state = "IDLE";
+    private String lastCmd = null;
+    private long lastCmdStartMs = NEVER;
+    private String lastCmdOutcome = "pending";
+    private String lastReason = "none";
+
+    private int retries = 0;
+    private int cooldownTicks = 0;
+
+    /** Block target of the current #goto (Baritone aims at the block centre). */
+    private static final class Target {
+        final int x, y, z;
+        Target(int x, int y, int z) { this.x = x; this.y = y; this.z = z; }
+        String toShortString() { return x + ", " + y + ", " + z; }
+    }
+
+    private Target target = null;
+    private String targetKey = null;
+    private double distanceRemaining = -1.0;
+
+    // Horizontal position history (x,z) as a primitive ring; the live length is
+    // RuntimeConfig.baritoneRingMax, capped by the array capacity.
+    private static final int RING_CAPACITY = 400;
+    private final double[] ringX = new double[RING_CAPACITY];
+    private final double[] ringZ = new double[RING_CAPACITY];
+    private int ringHead = 0;
+    private int ringSize = 0;
+    private long lastPublishMs = 0L;
+    private long lastProcessSeenMs = 0L;
+
+    private boolean awaitingAccept = false;
+    private long acceptDeadlineMs = 0L;
+    private boolean acceptedEmitted = false;
+    private long movingSinceMs = NEVER;
+
+    private boolean goalEmittedForThisTarget = false;
+    private boolean withinGoalNow = false;
+    private long withinGoalSinceMs = 0L;
+    private long lastGoalEmitMs = NEVER;
+
+    private long lastHorizontalMoveMs;
+
+    private static final int COOLDOWN_TICKS = 20 * 8;
+    private static final int MAX_RETRIES = 3;
+
+    private static final double GOAL_EPS_XZ = 3.0;
+    private static final long GOAL_STAY_MS = 1_200;
+    private static final long GOAL_REEMIT_DEBOUNCE = 10_000;
+
+    private static final double MOVING_SPEED_MPS = 0.4;
+    private static final double HORIZ_MOVE_EPS_SPEED = 0.05;
+
+    private static final long ACCEPT_WINDOW_MS = 15_000;
+    private static final long ACCEPT_SUSTAIN_MS = 1_500;
+
+    private static final long STUCK_IDLE_MS = 20_000;
+
+    private static final long NONGOTO_QUIET_MS = 600;
+
+    /** Unset monotonic timestamp; 0 is a real time (the clock starts at 0 with the process). */
+    private static final long NEVER = Long.MIN_VALUE;
+    private static final long PROCESS_SETTLE_MS = 1500;
+
+    private enum StepType { GOTO, PATH, WAIT, BUILD, SEL, CMD, MACRO }
+
+    private static final class Step {
+        final StepType type;
+        final String cmd;
+        final long timeoutMs;
+        final int maxRetries;
+        int retriesTried = 0;
+        Step(StepType type, String cmd, long timeoutMs, int maxRetries) {
+            this.type = type; this.cmd = cmd; this.timeoutMs = timeoutMs; this.maxRetries = Math.max(0, maxRetries);
+        }
+    }
+
+    private final Deque<Step> planQueue = new ArrayDeque<>();
+    private String currentPlanId = null;
+    private int currentIndex = -1;
+    private boolean planPaused = false;
+    private long stepDeadlineMs = NEVER;
+    private String planOnFail = "continue";
+    private int planMaxRetriesPerStep = 0;
+
+    // Baritone state as of the latest tick (pathing / builder / any process)
+    private boolean apiPathing = false;
+    private boolean apiBuilderActive = false;
+
+    private TickScheduler.Task task = null;
+
+    // Metrics
+    private static final Counter CMDS          = Metrics.get().counter("baritone_cmds_total");
+    private static final Counter CMD_REJECTED  = Metrics.get().counter("baritone_cmd_rejected_total");
+    private static final Histogram ACCEPT_MS   = Metrics.get().histogram("baritone_accept_ms");
+    private static final Counter GOALS         = Metrics.get().counter("baritone_goal_reached_total");
+    private static final Counter STUCK         = Metrics.get().counter("baritone_stuck_total");
+    private static final Counter PLANS         = Metrics.get().counter("plan_started_total");
+    private static final Counter STEP_TIMEOUTS = Metrics.get().counter("plan_step_timeouts_total");
+    private static final Histogram STEP_MS     = Metrics.get().histogram("plan_step_ms");
+    private long stepStartedMs = 0L;
+    private PlanStepEvent stepJfr = null;   // open JFR span for the running step
+
+    // Tracing. Events derived from the current Baritone command carry cmdSpan's ids. A standalone
+    // baritone_cmd / local "#..." line owns its span (cmdOwned) and it ends here on goal/reject;
+    // plan steps run under stepSpan, which the plan code ends. accept = sent -> cmd_accepted,
+    // completion = cmd_accepted -> goal_reached / give-up.
+    private Span cmdSpan = null;
+    private boolean cmdOwned = false;
+    private Span acceptSpan = null;
+    private Span completionSpan = null;
+    private Span planSpan = null;
+    private Span stepSpan = null;
+
+    public BaritoneBridge(Config cfg, MqttBus bus, GameActions game) {
+        this.cfg = cfg;
+        this.bus = bus;
+        this.game = game;
+        this.lastHorizontalMoveMs = Clock.monoMs();
+    }
+
+    public void resetPlanOnSessionStart() { resetPlan(); }
+
+    @Override
+    public void enable() {
+        if (task != null) return;
+        // Failures are reported (deduplicated) and circuit-broken by the scheduler
+        task = TickScheduler.get().schedule("baritone", TickScheduler.Period.everyTick(), snap -> {
+            RuntimeConfig rc = cfg.live.get();
+            if (cooldownTicks > 0) cooldownTicks--;
+            samplePos(snap, rc.baritoneRingMax());
+            sampleBaritone(snap);
+            updateHeuristicState(snap);
+            maybeDetectGoalOrStuck();
+            planTick();
+            maybePublishSnapshot(rc.baritonePublishIntervalMs());
+        });
+    }
+
+    @Override public void disable() {
+        if (task != null) { task.cancel(); task = null; }
+    }
+
+    public void onLocalBaritoneCommand(String raw) {
+        if (!cfg.live.get().allowBaritone() || raw == null || !raw.startsWith("#")) return;
+        String low = raw.toLowerCase().trim();
+        Target newTarget = parseGoto(low);
+        StepType t = inferType(low);
+        armNewCommand(raw, newTarget, expectsMovement(t), Span.root("baritone_local"), true);
+        if (!expectsMovement(t)) endCmdSpans("ok");
+        if (low.equals("#cancel") || low.equals("#stop")) {
+            clearCurrentGoalContext();
+            state = "IDLE";
+        }
+    }
+
+    @Override
+    public void onCommand(String json) {
+        if (!cfg.live.get().allowBaritone()) return;
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            String type = j.has("type") ? j.get("type").getAsString() : "";
+            // Plan state is owned by the game thread (planTick), so plan commands hop over too.
+            if ("baritone_cmd".equals(type)) { handleSingleCmd(j); return; }
+            if ("baritone_plan".equals(type)) {
+                Span span = Span.activeOrRoot(type);
+                Span wait = span.child("client_wait");
+                game.execute(() -> { endSpan(wait, "ok"); handlePlan(j, span); });
+                return;
+            }
+            if ("baritone_ctrl".equals(type)) { game.execute(() -> handlePlanCtrl(j)); return; }
+        } catch (Exception e) {
+            ErrorReporter.get().report("baritone_cmd", e);
+        }
+    }
+
+
+
+    private void handleSingleCmd(JsonObject j) {
+        final Span span = Span.activeOrRoot("baritone_cmd");
+        String cmd = j.has("cmd") ? j.get("cmd").getAsString() : null;
+        if (cmd == null || !cmd.startsWith("#") || cmd.length() > 120) {
+            CMD_REJECTED.inc();
+            bus.publish(cfg.evtTopic, new StatusEvent("cmd_reject","bad_cmd"), span);
+            endSpan(span, "rejected");
+            return;
+        }
+        final String low = cmd.toLowerCase().trim();
+        final Target newTarget = parseGoto(low);
+        final StepType t = inferType(low);
+        final String send = cmd;
+        final Span wait = span.child("client_wait");
+
+        game.execute(() -> {
+            endSpan(wait, "ok");
+            if (!game.canSend()) {
+                CMD_REJECTED.inc();
+                bus.publish(cfg.evtTopic, new StatusEvent("cmd_reject","no_player"), span);
+                endSpan(span, "rejected");
+                return;
+            }
+            game.sendChat(send);
+            CMDS.inc();
+            armNewCommand(send, newTarget, expectsMovement(t), span, true);
+            bus.publish(cfg.evtTopic, new StatusEvent("accepted", send), span);
+            if (!expectsMovement(t)) endCmdSpans("ok");
+            if (send.equalsIgnoreCase("#path")) retries++;
+            if (send.equalsIgnoreCase("#cancel") || send.equalsIgnoreCase("#stop")) { clearCurrentGoalContext(); state = "IDLE"; }
+        });
+    }
+
+    private void handlePlan(JsonObject j, Span span) {
+        resetPlan();
+        planSpan = span;
+        currentPlanId = j.has("plan_id") ? j.get("plan_id").getAsString() : UUID.randomUUID().toString();
+        planOnFail = j.has("policy") && j.getAsJsonObject("policy").has("onFail") ? j.getAsJsonObject("policy").get("onFail").getAsString() : "continue";
+        planMaxRetriesPerStep = j.has("policy") && j.getAsJsonObject("policy").has("maxRetriesPerStep") ? j.getAsJsonObject("policy").get("maxRetriesPerStep").getAsInt() : 0;
+
+        long defaultTimeout = 180_000;
+        if (j.has("steps")) {
+            for (JsonElement el : j.getAsJsonArray("steps")) {
+                JsonObject s = el.getAsJsonObject();
+                String c = s.get("cmd").getAsString();
+                long t = s.has("timeoutMs") ? s.get("timeoutMs").getAsLong() : defaultTimeout;
+                int r = s.has("maxRetries") ? Math.max(0, s.get("maxRetries").getAsInt()) : -1;
+                StepType st = s.has("type") ? parseType(s.get("type").getAsString()) : inferType(c.toLowerCase().trim());
+                planQueue.addLast(new Step(st, c, t, r));
+            }
+        }
+        PLANS.inc();
+        emitPlanEvent("plan_started", planMeta(null), planSpan);
+        tryStartNextStep();
+    }
+
+    private void handlePlanCtrl(JsonObject j) {
+        String action = j.has("action") ? j.get("action").getAsString() : "";
+        switch (action) {
+            case "pause"  -> planPaused = true;
+            case "resume" -> { planPaused = false; tryStartNextStep(); }
+            case "skip"   -> { cancelCurrentBaritoneIfAny(); advanceAfter("skipped"); }
+            case "cancel" -> { cancelCurrentBaritoneIfAny(); finishPlan("aborted"); }
+            case "clear"  -> { cancelCurrentBaritoneIfAny(); resetPlan(); }
+            default -> { }
+        }
+    }
+
+    private void armNewCommand(String send, Target newTarget, boolean expectMovement, Span span, boolean owned) {
+        if (span != cmdSpan) {
+            endCmdSpans("superseded");
+            cmdSpan = span;
+            cmdOwned = owned && span != null;
+        } else {
+            // re-send under the same span (plan step / stuck retry)
+            acceptSpan = endSpan(acceptSpan, "retry");
+            completionSpan = endSpan(completionSpan, "retry");
+        }
+        acceptSpan = expectMovement && span != null ? span.child("baritone_accept") : null;
+        lastCmd = send;
+        lastCmdStartMs = Clock.monoMs();
+        lastCmdOutcome = "pending";
+        lastReason = "none";
+        distanceRemaining = -1.0;
+        if (newTarget != null) { target = newTarget; targetKey = target.x + ":" + target.y + ":" + target.z; }
+        else { target = null; targetKey = null; }
+        awaitingAccept = expectMovement;
+        acceptedEmitted = false;
+        acceptDeadlineMs = expectMovement ? (lastCmdStartMs + ACCEPT_WINDOW_MS) : 0L;
+        movingSinceMs = NEVER;
+        goalEmittedForThisTarget = false;
+        withinGoalNow = false;
+        withinGoalSinceMs = 0L;
+    }
+
+    private static Target parseGoto(String low) {
+        if (!low.startsWith("#goto")) return null;
+        String[] parts = low.split("\\s+");
+        if (parts.length < 4) return null;
+        try {
+            int x = (int)Math.round(Double.parseDouble(parts[1]));
+            int y = (int)Math.round(Double.parseDouble(parts[2]));
+            int z = (int)Math.round(Double.parseDouble(parts[3]));
+            return new Target(x, y, z);
+        } catch (NumberFormatException ignored) { return null; }
+    }
+
+    private static StepType parseType(String s) {
+        return switch (s.toLowerCase()) {
+            case "goto" -> StepType.GOTO;
+            case "wait" -> StepType.WAIT;
+            case "build"-> StepType.BUILD;
+            case "sel"  -> StepType.SEL;
+            case "path" -> StepType.PATH;
+            case "cmd"  -> StepType.CMD;
+            case "macro"-> StepType.MACRO;
+            default     -> StepType.CMD;
+        };
+    }
+
+    private static StepType inferType(String lowCmd) {
+        if (lowCmd.startsWith("#goto"))  return StepType.GOTO;
+        if (lowCmd.startsWith("#wait"))  return StepType.WAIT;
+        if (lowCmd.startsWith("#build")) return StepType.BUILD;
+        if (lowCmd.startsWith("#sel"))   return StepType.SEL;
+        if (lowCmd.equals("#path"))      return StepType.PATH;
+        return StepType.CMD;
+    }
+
+    private static boolean expectsMovement(StepType t) {
+        return t == StepType.GOTO || t == StepType.PATH;
+    }
+
+    private void samplePos(TickSnapshot snap, int ringMax) {
+        if (!snap.inWorld) return;
+        ringX[ringHead] = snap.x;
+        ringZ[ringHead] = snap.z;
+        ringHead = (ringHead + 1) % RING_CAPACITY;
+        ringSize = Math.min(ringSize + 1, Math.min(ringMax, RING_CAPACITY));
+    }
+
+    private double avgHorizontalSpeedMps() {
+        if (ringSize < 2) return 0.0;
+        int first = Math.floorMod(ringHead - ringSize, RING_CAPACITY);
+        int last  = Math.floorMod(ringHead - 1, RING_CAPACITY);
+        double dx = ringX[last] - ringX[first];
+        double dz = ringZ[last] - ringZ[first];
+        double distXZ = Math.hypot(dx, dz);
+        double secs = Math.max(1.0, (ringSize - 1) / 20.0);
+        return distXZ / secs;
+    }
+
+    private void sampleBaritone(TickSnapshot snap) {
+        apiPathing = snap.baritonePathing;
+        apiBuilderActive = snap.baritoneBuilderActive;
+        if (snap.baritoneProcessActive) lastProcessSeenMs = snap.monoMs;
+    }
+
+    private void updateHeuristicState(TickSnapshot snap) {
+        if (target != null && snap.inWorld) {
+            double dx = (target.x + 0.5) - snap.x;
+            double dz = (target.z + 0.5) - snap.z;
+            distanceRemaining = Math.hypot(dx, dz);
+        } else {
+            distanceRemaining = -1.0;
+        }
+        boolean baritonePathing = apiPathing;
+        double speed = avgHorizontalSpeedMps();
+        long now = snap.monoMs;
+        if (speed >= HORIZ_MOVE_EPS_SPEED) lastHorizontalMoveMs = now;
+        boolean movingFastEnough = baritonePathing || speed >= MOVING_SPEED_MPS;
+
+        if (awaitingAccept && movingFastEnough) {
+            if (movingSinceMs == NEVER) movingSinceMs = now;
+            if (!acceptedEmitted && (baritonePathing || now - movingSinceMs >= ACCEPT_SUSTAIN_MS)) {
+                ACCEPT_MS.record(now - lastCmdStartMs);
+                bus.publish(cfg.evtTopic, new StatusEvent("cmd_accepted", lastCmd == null ? "" : lastCmd), cmdSpan);
+                acceptSpan = endSpan(acceptSpan, "ok");
+                if (cmdSpan != null) completionSpan = cmdSpan.child("completion");
+                awaitingAccept = false;
+                acceptedEmitted = true;
+                state = "PATHING";
+            }
+        } else {
+            movingSinceMs = NEVER;
+        }
+
+        if (awaitingAccept && now > acceptDeadlineMs && !acceptedEmitted) {
+            CMD_REJECTED.inc();
+            bus.publish(cfg.evtTopic, new StatusEvent("cmd_reject", "timeout_no_pathing"), cmdSpan);
+            endCmdSpans("timeout");
+            awaitingAccept = false;
+        }
+
+        if (baritonePathing || speed >= MOVING_SPEED_MPS) state = "PATHING";
+        else if ("STUCK".equals(state)) { }
+        else state = "IDLE";
+    }
+
+    private void maybeDetectGoalOrStuck() {
+        long now = Clock.monoMs();
+        if (target != null && distanceRemaining >= 0) {
+            boolean within = distanceRemaining <= GOAL_EPS_XZ;
+            if (within && !withinGoalNow) { withinGoalNow = true; withinGoalSinceMs = now; }
+            else if (!within) { withinGoalNow = false; withinGoalSinceMs = 0L; }
+            if (withinGoalNow && !goalEmittedForThisTarget && (now - withinGoalSinceMs) >= GOAL_STAY_MS && (lastGoalEmitMs == NEVER || now - lastGoalEmitMs >= GOAL_REEMIT_DEBOUNCE)) {
+                lastCmdOutcome = "success";
+                lastReason = "goal_reached";
+                GOALS.inc();
+                bus.publish(cfg.evtTopic, new StatusEvent("goal_reached", target.toShortString()), cmdSpan);
+                endCmdSpans("ok");
+                goalEmittedForThisTarget = true;
+                lastGoalEmitMs = now;
+                clearCurrentGoalContext();
+                retries = 0;
+                state = "IDLE";
+                return;
+            }
+        }
+
+        long sinceHorizMove = now - lastHorizontalMoveMs;
+        if (sinceHorizMove >= STUCK_IDLE_MS) {
+            state = "STUCK";
+            lastReason = "stuck";
+            STUCK.inc();
+            bus.publish(cfg.evtTopic, new StatusEvent("stuck_detected", String.valueOf((int)Math.round(distanceRemaining))), cmdSpan);
+            if (cooldownTicks == 0 && lastCmd != null && (lastCmd.toLowerCase().startsWith("#goto") || lastCmd.equalsIgnoreCase("#path")) && retries < MAX_RETRIES) {
+                sendClientChatTyped(inferType(lastCmd.toLowerCase()), "#path", cmdSpan);
+                retries++;
+                cooldownTicks = COOLDOWN_TICKS;
+                awaitingAccept = true;
+                acceptedEmitted = false;
+                acceptDeadlineMs = Clock.monoMs() + ACCEPT_WINDOW_MS;
+                movingSinceMs = NEVER;
+            } else if (retries >= MAX_RETRIES) {
+                lastCmdOutcome = "fail";
+                endCmdSpans("stuck");
+            }
+            lastHorizontalMoveMs = now;
+        }
+    }
+
+    private void clearCurrentGoalContext() {
+        endCmdSpans("cancelled");
+        cmdSpan = null;
+        target = null;
+        targetKey = null;
+        distanceRemaining = -1.0;
+        awaitingAccept = false;
+        acceptedEmitted = false;
+        acceptDeadlineMs = 0L;
+        movingSinceMs = NEVER;
+        lastCmd = null;
+        lastCmdStartMs = NEVER;
+        withinGoalNow = false;
+        withinGoalSinceMs = 0L;
+        goalEmittedForThisTarget = false;
+    }
+
+    private void planTick() {
+        if (currentPlanId == null) return;
+        Step cur = planQueue.peekFirst();
+        if (cur == null) { finishPlan("success"); return; }
+        long now = Clock.monoMs();
+
+        if (cur.type == StepType.WAIT) {
+            if (stepDeadlineMs == NEVER) stepDeadlineMs = now + Math.max(0, parseWaitMs(cur.cmd));
+            if (now >= stepDeadlineMs) advanceAfter("wait_done");
+            return;
+        }
+
+        if (cur.timeoutMs > 0 && stepDeadlineMs != NEVER && now > stepDeadlineMs) {
+            int cap = (cur.maxRetries >= 0 ? cur.maxRetries : planMaxRetriesPerStep);
+            if (cur.retriesTried < cap) {
+                cur.retriesTried++;
+                sendClientChatTyped(cur.type, cur.cmd, stepSpan);
+                stepDeadlineMs = (cur.timeoutMs > 0) ? now + cur.timeoutMs : NEVER;
+                return;
+            }
+            STEP_TIMEOUTS.inc();
+            endStepSpan(cur, "timeout");
+            emitPlanEvent("plan_step_finished", stepMeta("timeout"), stepSpan);
+            stepSpan = endSpan(stepSpan, "timeout");
+            if ("abort".equalsIgnoreCase(planOnFail)) { STEP_MS.record(now - stepStartedMs); finishPlan("partial"); }
+            else { cancelCurrentBaritoneIfAny(); advanceAfter("timeout"); }
+            return;
+        }
+
+        boolean isMovement = (cur.type == StepType.GOTO || cur.type == StepType.PATH);
+        boolean gotoDone = isMovement && !awaitingAccept && "IDLE".equals(state) && "goal_reached".equals(lastReason);
+
+        boolean nonGotoDone;
+        if (cur.type == StepType.BUILD || (cur.type == StepType.SEL && cur.cmd.toLowerCase().contains("cleararea"))) {
+            boolean builderActive = apiBuilderActive;
+            long sinceAnyProcess = Clock.monoMs() - lastProcessSeenMs;
+            nonGotoDone = !builderActive && sinceAnyProcess >= PROCESS_SETTLE_MS && !awaitingAccept && !"PATHING".equals(state);
+        } else {
+            nonGotoDone = !isMovement && (lastCmdStartMs == NEVER || Clock.monoMs() - lastCmdStartMs >= NONGOTO_QUIET_MS) && !"PATHING".equals(state) && !awaitingAccept;
+        }
+
+        if (gotoDone || nonGotoDone) {
+            advanceAfter(gotoDone ? "goal_reached" : "done");
+            return;
+        }
+
+        if (!planPaused && stepDeadlineMs == NEVER && "IDLE".equals(state) && lastCmd == null) {
+            tryStartNextStep();
+        }
+    }
+
+    private long parseWaitMs(String cmd) {
+        String[] p = cmd.split("\\s+");
+        if (p.length >= 2) try { return Long.parseLong(p[1]); } catch (Exception ignored) {}
+        return 0L;
+    }
+
+    private void tryStartNextStep() {
+        if (planPaused || planQueue.isEmpty()) return;
+        if (!"IDLE".equals(state) || awaitingAccept) return;
+
+        Step step = planQueue.peekFirst();
+        currentIndex++;
+        stepStartedMs = Clock.monoMs();
+        stepJfr = new PlanStepEvent();
+        stepJfr.begin();
+        stepSpan = planSpan != null ? planSpan.child("plan_step") : null;
+        emitPlanEvent("plan_step_started", stepMeta("start"), stepSpan);
+
+        if (step.type == StepType.WAIT) {
+            stepDeadlineMs = NEVER;
+            return;
+        }
+
+        sendClientChatTyped(step.type, step.cmd, stepSpan);
+        stepDeadlineMs = (step.timeoutMs > 0) ? Clock.monoMs() + step.timeoutMs : NEVER;
+    }
+
+    private void advanceAfter(String reason) {
+        Step done = planQueue.pollFirst();
+        if (done != null) {
+            STEP_MS.record(Clock.monoMs() - stepStartedMs);
+            endStepSpan(done, reason);
+            emitPlanEvent("plan_step_finished", stepMeta(reason), stepSpan);
+            stepSpan = endSpan(stepSpan, reason);
+        }
+        stepDeadlineMs = NEVER;
+        if (planQueue.isEmpty()) finishPlan("success");
+        else tryStartNextStep();
+    }
+
+    private void finishPlan(String status) {
+        Metrics.get().counter("plan_finished_total", "status", status).inc();
+        if (stepJfr != null) endStepSpan(planQueue.peekFirst(), status);
+        stepSpan = endSpan(stepSpan, status);
+        emitPlanEvent("plan_finished", planMeta(status), planSpan);
+        planSpan = endSpan(planSpan, status);
+        resetPlan();
+    }
+
+    private void cancelCurrentBaritoneIfAny() {
+        if (!"IDLE".equals(state)) sendClientChatTyped(StepType.CMD, "#cancel", cmdSpan);
+    }
+
+    private void resetPlan() {
+        stepSpan = endSpan(stepSpan, "reset");
+        planSpan = endSpan(planSpan, "reset");
+        planQueue.clear();
+        currentPlanId = null;
+        currentIndex = -1;
+        planPaused = false;
+        stepDeadlineMs = NEVER;
+        planOnFail = "continue";
+        planMaxRetriesPerStep = 0;
+    }
+
+    private PlanEvent.Data stepMeta(String reason) {
+        Step cur = planQueue.peekFirst();
+        return new PlanEvent.Data(currentPlanId, null, currentIndex, cur != null ? cur.cmd : "", reason, null);
+    }
+
+    private PlanEvent.Data planMeta(String status) {
+        return new PlanEvent.Data(currentPlanId, planQueue.size(), currentIndex, null, null, status);
+    }
+
+    private void emitPlanEvent(String name, PlanEvent.Data payload, Span span) {
+        PlanTransitionEvent jfr = new PlanTransitionEvent();
+        if (jfr.shouldCommit()) {
+            jfr.transition = name;
+            jfr.planId = payload.planId();
+            jfr.index = payload.index() == null ? -1 : payload.index();
+            jfr.commit();
+        }
+        bus.publish(cfg.evtTopic, new PlanEvent(name, payload), span);
+    }
+
+    private void endCmdSpans(String status) {
+        acceptSpan = endSpan(acceptSpan, status);
+        completionSpan = endSpan(completionSpan, status);
+        if (cmdOwned) endSpan(cmdSpan, status);
+        cmdOwned = false;
+    }
+
+    /** Publish the span's end (if span events are on); always returns null so callers can clear their field. */
+    private Span endSpan(Span span, String status) {
+        if (span != null && cfg.live.get().traceSpans()) bus.publish(cfg.evtTopic, span.end(status), span);
+        return null;
+    }
+
+    private void endStepSpan(Step step, String outcome) {
+        PlanStepEvent jfr = stepJfr;
+        stepJfr = null;
+        if (jfr == null) return;
+        jfr.end();
+        if (!jfr.shouldCommit()) return;
+        jfr.planId = currentPlanId;
+        jfr.index = currentIndex;
+        jfr.cmd = step != null ? step.cmd : null;
+        jfr.outcome = outcome;
+        jfr.commit();
+    }
+
+    private void maybePublishSnapshot(int publishIntervalMs) {
+        long now = Clock.monoMs();
+        if (now - lastPublishMs < publishIntervalMs) return;
+        lastPublishMs = now;
+        bus.publish(cfg.baritoneStateTopicOrDefault(), JsonUtils.wrap("baritone_state", snapshot(now)));
+    }
+
+    /** The baritone_state payload as of {@code now} (monotonic ms). */
+    JsonObject snapshot(long now) {
+        double speed = avgHorizontalSpeedMps();
+        long elapsedSec = lastCmdStartMs == NEVER ? 0 : Math.max(0, (now - lastCmdStartMs) / 1000);
+
+        JsonObject snap = new JsonObject();
+        snap.addProperty("ts", Clock.wallMs() / 1000);
+        snap.addProperty("state", state);
+        if (lastCmd != null) snap.addProperty("lastCmd", lastCmd);
+        snap.addProperty("lastCmdOutcome", lastCmdOutcome);
+        snap.addProperty("reason", lastReason);
+        snap.addProperty("elapsedSec", elapsedSec);
+        snap.addProperty("retries", retries);
+        snap.addProperty("cooldownSec", cooldownTicks / 20);
+        snap.addProperty("speedAvg", Math.round(speed * 100.0) / 100.0);
+        snap.addProperty("distanceRemaining", distanceRemaining);
+        snap.addProperty("awaitingAccept", awaitingAccept);
+        snap.addProperty("acceptedEmitted", acceptedEmitted);
+        snap.addProperty("movingSinceMs", toWall(movingSinceMs, now));
+        snap.addProperty("withinGoalNow", withinGoalNow);
+        snap.addProperty("withinGoalForMs", withinGoalNow ? (now - withinGoalSinceMs) : 0);
+        snap.addProperty("lastGoalEmitMsAgo", lastGoalEmitMs == NEVER ? -1 : (now - lastGoalEmitMs));
+
+        if (target != null) {
+            JsonObject t = new JsonObject();
+            t.addProperty("x", target.x);
+            t.addProperty("y", target.y);
+            t.addProperty("z", target.z);
+            t.addProperty("key", targetKey);
+            snap.add("target", t);
+        }
+
+        snap.addProperty("planId", currentPlanId == null ? "" : currentPlanId);
+        snap.addProperty("planPaused", planPaused);
+        snap.addProperty("planIndex", currentIndex);
+        snap.addProperty("planRemaining", Math.max(0, planQueue.size()));
+        snap.addProperty("planOnFail", planOnFail);
+        snap.addProperty("planMaxRetriesPerStep", planMaxRetriesPerStep);
+        snap.addProperty("stepDeadlineMs", toWall(stepDeadlineMs, now));
+
+        snap.addProperty("api_pathing", apiPathing);
+        snap.addProperty("api_builderActive", apiBuilderActive);
+        snap.addProperty("api_lastProcessSeenMsAgo", lastProcessSeenMs == 0L ? -1 : (now - lastProcessSeenMs));
+        return snap;
+    }
+
+    /** Monotonic {@code mono} as epoch ms, the way baritone_state has always published it; NEVER (unset) is 0. */
+    private static long toWall(long mono, long now) { return mono == NEVER ? 0L : mono - now + Clock.wallMs(); }
+
+    private void sendClientChatTyped(StepType type, String msg, Span span) {
+        Target tgt = (type == StepType.GOTO) ? parseGoto(msg.toLowerCase()) : null;
+        boolean expectMove = expectsMovement(type);
+        sendClientChat(msg, tgt, expectMove, span);
+    }
+
+    private void sendClientChat(String msg, Target newTarget, boolean expectMovement, Span span) {
+        game.execute(() -> {
+            if (game.canSend()) {
+                game.sendChat(msg);
+                bus.publish(cfg.evtTopic, new StatusEvent("accepted", msg), span);
+                armNewCommand(msg, newTarget, expectMovement, span, false);
+            }
+        });
+    }
+}
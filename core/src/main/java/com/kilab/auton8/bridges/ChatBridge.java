@@ -0,0 +1,131 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.chat.ChatDeduper;
+import com.kilab.auton8.chat.ChatParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.event.ChatEvent;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.fault.ErrorReporter;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameActions;
+import com.kilab.auton8.spi.GameEvents;
+import com.kilab.auton8.trace.Span;
+
+public final class ChatBridge implements Bridge, GameEvents.Listener {
+    private final Config cfg;
+    private final MqttBus bus;
+    private final GameActions game;
+    private final BaritoneBridge baritone;
+
+    private static final Counter PUBLISHED = Metrics.get().counter("chat_published_total");
+    private static final Counter DEDUPED   = Metrics.get().counter("chat_deduped_total");
+
+    private final ChatDeduper dedupe = new ChatDeduper(RuntimeConfig.DEFAULTS.chatDedupeMaxEntries());
+
+    public ChatBridge(Config cfg, MqttBus bus, GameActions game, BaritoneBridge baritone) {
+        this.cfg = cfg;
+        this.bus = bus;
+        this.game = game;
+        this.baritone = baritone;
+    }
+
+    private static TickSnapshot snap() { return TickScheduler.get().snapshot(); }
+
+    private void publishChat(String from, String msg, String source) {
+        String f = (from == null ? "unknown" : from);
+        String key = ChatParser.dedupeKey(f, msg);
+        RuntimeConfig rc = cfg.live.get();
+        if (dedupe.seenRecently(key, Clock.monoMs(), rc.chatDedupeWindowMs(), rc.chatDedupeMaxEntries())) {
+            DEDUPED.inc();
+            return;
+        }
+        PUBLISHED.inc();
+        bus.publish(cfg.evtTopic, new ChatEvent(f, msg, source));
+    }
+
+    @Override
+    public void enable() {
+        // registers chat hooks (needed to catch local "#...")
+        GameEvents.get().add(this);
+    }
+
+    @Override public void disable() {
+        GameEvents.get().remove(this);
+    }
+
+    // ===== Game hooks (client thread) =====
+
+    @Override
+    public void onChatSent(String content, boolean programmatic) {
+        if (content == null || content.isBlank()) return;
+
+        // If it's a Baritone line ("#..."), notify BaritoneBridge — unless we're in a programmatic send.
+        if (content.startsWith("#")) {
+            if (!programmatic && baritone != null) {
+                try { baritone.onLocalBaritoneCommand(content); } catch (Throwable t) { ErrorReporter.get().report("baritone_local", t); }
+            }
+            // No extra logs here; avoid spam.
+            return; // never mirror "#..." as plain chat
+        }
+
+        // Mirror plain chat only in SP (MP receive hooks cover it)
+        TickSnapshot snap = snap();
+        if (cfg.live.get().allowChatTx() && snap.singleplayer) {
+            publishChat(snap.localName, content, "client");
+        }
+    }
+
+    @Override
+    public void onChatReceived(String text, String sender) {
+        if (!cfg.live.get().allowChatRx()) return;
+        if (snap().singleplayer) return;
+        if (text == null || text.isBlank()) return;
+        publishChat(sender != null ? sender : "unknown", text, "server_chat");
+    }
+
+    @Override
+    public void onGameMessage(String raw, boolean overlay) {
+        if (!cfg.live.get().allowChatRx()) return;
+        if (snap().singleplayer) return;
+        if (overlay) return;
+        if (raw == null || raw.isBlank()) return;
+
+        ChatParser.ChatLine line = ChatParser.parse(raw);
+        if (line.from() != null) publishChat(line.from(), line.msg(), "server_sys");
+        else publishChat("unknown", raw, "server_sys_raw");
+    }
+
+    @Override
+    public void onCommand(String json) {
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            String type = j.has("type") ? j.get("type").getAsString() : "";
+            if ("say".equals(type) && cfg.live.get().allowChatTx()) {
+                String msgOut = j.has("msg") ? j.get("msg").getAsString() : null;
+                if (msgOut == null || msgOut.isBlank()) return;
+                Span span = Span.activeOrRoot(type);
+                Span wait = span.child("client_wait");
+                game.execute(() -> {
+                    endSpan(wait, "ok");
+                    if (!game.canSend()) { endSpan(span, "no_player"); return; }
+                    // Programmatic send: our own hook ignores it.
+                    game.sendChat(msgOut);
+                    bus.publish(cfg.evtTopic, new StatusEvent("said", msgOut), span);
+                    endSpan(span, "ok");
+                });
+            }
+        } catch (Exception ignored) {}
+    }
+
+    private void endSpan(Span span, String status) {
+        if (cfg.live.get().traceSpans()) bus.publish(cfg.evtTopic, span.end(status), span);
+    }
+}
@@ -0,0 +1,155 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.event.ClockPingEvent;
+import com.kilab.auton8.event.ClockSyncEvent;
+import com.kilab.auton8.event.PongEvent;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock offset / RTT estimation against the n8n side, NTP-style, over the normal topics.
+ *
+ * Two directions:
+ *   n8n -> mod: {type:"ping", id, t0}            -> event pong {id, t0, t1, t2}
+ *   mod -> n8n: event clock_ping {id, t0}        -> n8n answers {type:"pong", id, t0, t1, t2}
+ *               (t1 = n8n receive time, t2 = n8n send time, epoch ms)
+ *                                                -> event clock_sync {offset_ms, rtt_ms, best_*}
+ *
+ * Our own round trip is timed on the monotonic clock, so a wall-clock step between ping and
+ * pong can't produce a bogus RTT. {type:"clock_sync"} forces a probe now; otherwise one goes
+ * out every clock_sync_interval_ms (0 = only on demand).
+ */
+public final class ClockBridge implements Bridge {
+    private static final int WINDOW = 8;                 // samples kept for the min-RTT estimate
+    private static final long PENDING_TTL_NS = 30_000_000_000L;
+    private static final long MIN_INTERVAL_MS = 1_000L;
+
+    private final Config cfg;
+    private final MqttBus bus;
+
+    private final AtomicLong nextId = new AtomicLong(1);
+    // probe id -> {t0 wall ms, t0 mono ns}
+    private final ConcurrentHashMap<Long, long[]> pending = new ConcurrentHashMap<>();
+
+    // ring of recent samples (guarded by this)
+    private final long[] sampleOffset = new long[WINDOW];
+    private final long[] sampleRtt = new long[WINDOW];
+    private int sampleHead = 0, sampleCount = 0;
+
+    private volatile long offsetMs = 0L;
+    private volatile long rttMs = -1L;
+
+    private TickScheduler.Task task = null;
+    private long lastProbeMs = 0L;
+
+    public ClockBridge(Config cfg, MqttBus bus) {
+        this.cfg = cfg;
+        this.bus = bus;
+    }
+
+    /** Best current estimate of (n8n clock - our clock) in ms; 0 until the first pong. */
+    public long offsetMs() { return offsetMs; }
+
+    /** Round trip of the best recent sample in ms; -1 until the first pong. */
+    public long rttMs() { return rttMs; }
+
+    @Override
+    public void enable() {
+        if (task != null) return;
+        Metrics.get().gauge("clock_offset_ms", this::offsetMs);
+        Metrics.get().gauge("clock_rtt_ms", this::rttMs);
+        lastProbeMs = Clock.monoMs();
+        task = TickScheduler.get().schedule("clock", TickScheduler.Period.everyMillis(MIN_INTERVAL_MS), snap -> {
+            long interval = cfg.live.get().clockSyncIntervalMs();
+            if (interval <= 0) return;
+            if (snap.monoMs - lastProbeMs < Math.max(MIN_INTERVAL_MS, interval)) return;
+            lastProbeMs = snap.monoMs;
+            probe();
+        });
+    }
+
+    @Override
+    public void disable() {
+        if (task != null) { task.cancel(); task = null; }
+        Metrics.get().removeGauge("clock_offset_ms");
+        Metrics.get().removeGauge("clock_rtt_ms");
+        pending.clear();
+    }
+
+    @Override
+    public void onCommand(String json) {
+        try {
+            long t1 = Clock.wallMs(); // stamp receive time before parsing
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            String type = j.has("type") ? j.get("type").getAsString() : "";
+            switch (type) {
+                case "ping" -> {
+                    String id = j.has("id") ? j.get("id").getAsString() : null;
+                    Long t0 = j.has("t0") ? j.get("t0").getAsLong() : null;
+                    // Answer straight from the MQTT thread: no tick hop, so t2 - t1 stays tiny.
+                    bus.publish(cfg.evtTopic, new PongEvent(id, t0, t1, Clock.wallMs()));
+                }
+                case "pong" -> onPong(j, Clock.monoNs());
+                case "clock_sync" -> probe();
+                default -> { }
+            }
+        } catch (Exception ignored) {}
+    }
+
+    // ===== Internals =====
+
+    private void probe() {
+        long now = Clock.monoNs();
+        for (Iterator<Map.Entry<Long, long[]>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            if (now - it.next().getValue()[1] > PENDING_TTL_NS) it.remove(); // lost pongs
+        }
+        long id = nextId.getAndIncrement();
+        long t0 = Clock.wallMs();
+        pending.put(id, new long[] { t0, Clock.monoNs() });
+        bus.publish(cfg.evtTopic, new ClockPingEvent(id, t0));
+    }
+
+    private void onPong(JsonObject j, long t3Mono) {
+        if (!j.has("id") || !j.has("t1") || !j.has("t2")) return;
+        long[] sent = pending.remove(j.get("id").getAsLong());
+        if (sent == null) return; // unknown, duplicate or expired
+
+        long t0 = sent[0];
+        long t1 = j.get("t1").getAsLong();
+        long t2 = j.get("t2").getAsLong();
+        long elapsedMs = (t3Mono - sent[1]) / 1_000_000L;
+        long t3 = t0 + elapsedMs; // receive time on our clock, derived monotonically
+
+        long rtt = Math.max(0L, elapsedMs - Math.max(0L, t2 - t1));
+        long offset = ((t1 - t0) + (t2 - t3)) / 2;
+
+        long bestOffset, bestRtt;
+        int n;
+        synchronized (this) {
+            sampleOffset[sampleHead] = offset;
+            sampleRtt[sampleHead] = rtt;
+            sampleHead = (sampleHead + 1) % WINDOW;
+            if (sampleCount < WINDOW) sampleCount++;
+
+            // lowest RTT = least queuing delay = most trustworthy offset
+            int best = 0;
+            for (int i = 1; i < sampleCount; i++) if (sampleRtt[i] < sampleRtt[best]) best = i;
+            bestOffset = sampleOffset[best];
+            bestRtt = sampleRtt[best];
+            n = sampleCount;
+        }
+        offsetMs = bestOffset;
+        rttMs = bestRtt;
+        bus.publish(cfg.evtTopic, new ClockSyncEvent(offset, rtt, bestOffset, bestRtt, n));
+    }
+}
@@ -0,0 +1,277 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.event.EntityCountsEvent;
+import com.kilab.auton8.event.EntityEvent;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.geo.EntityIndex;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.EntityView;
+import com.kilab.auton8.spi.GameEvents;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Mobs, dropped items and vehicles around the local player (other players are PlayerBridge's).
+ *
+ *   {type:"entity_watch", types:["minecraft:creeper", "item", ...]}   -> entity_watch_applied {types}
+ *       entity type ids (bare names get "minecraft:") or kinds: hostile | passive | item | vehicle | other
+ *   {type:"entity_counts_get"}        -> entity_counts {radius, hostile, passive, item, vehicle, other, tracked}
+ *   bad input                         -> entity_reject {detail:"types" | "type:x" | "too_many_types"}
+ *   watched entity within entity_radius / leaving it (+10%) -> entity_enter / entity_leave
+ *
+ * Entities are tracked in an {@link EntityIndex} fed by the game's load/unload events, not by
+ * walking the world's entity list. Positions, which change without an event, are pulled for at
+ * most entity_scan_budget entities per tick: first those in the chunks around the radius, then
+ * the rest round-robin, so a crowded world costs the same per tick as an empty one and only
+ * far entities are seen late. entity_counts goes out when the counts change, at most every
+ * entity_counts_interval_ms. The watch list lives as long as the core (not persisted): n8n
+ * pushes it again on session_start.
+ */
+public final class EntityBridge implements Bridge, GameEvents.Listener {
+    private static final double EXIT_FACTOR = 1.10;
+    private static final int MAX_WATCH = 64;
+
+    private static final Counter ENTERED = Metrics.get().counter("entity_events_total", "kind", "enter");
+    private static final Counter LEFT    = Metrics.get().counter("entity_events_total", "kind", "leave");
+
+    private final Config cfg;
+    private final MqttBus bus;
+
+    private volatile Set<String> watch = Set.of();
+    private volatile boolean countsRequested = false;
+    private volatile int trackedCount = 0;
+
+    // game thread only
+    private final EntityIndex index = new EntityIndex();
+    private final EntityView.Sink sink = (id, kind, type, x, y, z) -> index.put(id, kind, type, x, y, z);
+    private final double[] pos = new double[3];
+    private EntityIndex.Entry[] inside = new EntityIndex.Entry[32], insideNext = new EntityIndex.Entry[32];
+    private int nInside = 0;
+    private final int[] counts = new int[EntityIndex.KINDS.length], published = new int[EntityIndex.KINDS.length];
+    private long lastCountsMs = Long.MIN_VALUE / 2;
+    private long stamp = 0L;
+    private int cursor = 0;
+    private String dim = null;
+    private boolean resync = true;
+    private double px, py, pz;
+
+    private TickScheduler.Task task = null;   // guarded by this
+
+    public EntityBridge(Config cfg, MqttBus bus) {
+        this.cfg = cfg;
+        this.bus = bus;
+    }
+
+    @Override
+    public synchronized void enable() {
+        if (task != null) return;
+        GameEvents.get().add(this);
+        resync = true;
+        Metrics.get().gauge("entities_tracked", () -> trackedCount);
+        task = TickScheduler.get().schedule("entities", TickScheduler.Period.everyTick(), this::tick);
+    }
+
+    @Override
+    public synchronized void disable() {
+        GameEvents.get().remove(this);
+        if (task != null) { task.cancel(); task = null; }
+        Metrics.get().removeGauge("entities_tracked");
+        reset();
+    }
+
+    @Override public void onJoin()       { reset(); }
+    @Override public void onDisconnect() { reset(); }
+
+    @Override
+    public void onEntityAdded(int id, String kind, String type, double x, double y, double z) {
+        index.put(id, kind, type, x, y, z);
+    }
+
+    @Override
+    public void onEntityRemoved(int id) {
+        EntityIndex.Entry e = index.remove(id);
+        if (e != null && e.announced) leave(e, true);
+    }
+
+    @Override
+    public void onCommand(String json) {
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            String type = j.has("type") ? j.get("type").getAsString() : "";
+            switch (type) {
+                case "entity_watch" -> {
+                    Set<String> next;
+                    try {
+                        next = parseWatch(j.get("types"));
+                    } catch (IllegalArgumentException e) {
+                        bus.publish(cfg.evtTopic, new StatusEvent("entity_reject", e.getMessage()));
+                        return;
+                    }
+                    watch = next;
+                    JsonObject o = new JsonObject();
+                    o.addProperty("event", "entity_watch_applied");
+                    JsonArray a = new JsonArray();
+                    for (String t : next) a.add(t);
+                    o.add("types", a);
+                    bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+                }
+                case "entity_counts_get" -> countsRequested = true;
+                default -> { }
+            }
+        } catch (Exception ignored) { /* not an entity command */ }
+    }
+
+    /**
+     * The entity_reject checks, for batches to run up front.
+     *
+     * @throws IllegalArgumentException with the entity_reject detail
+     */
+    public static void validate(JsonObject j) {
+        if ("entity_watch".equals(j.has("type") ? j.get("type").getAsString() : "")) parseWatch(j.get("types"));
+    }
+
+    // ===== Internals =====
+
+    private static Set<String> parseWatch(JsonElement v) {
+        if (v == null || !v.isJsonArray()) throw new IllegalArgumentException("types");
+        if (v.getAsJsonArray().size() > MAX_WATCH) throw new IllegalArgumentException("too_many_types");
+        Set<String> out = new LinkedHashSet<>();
+        for (JsonElement e : v.getAsJsonArray()) {
+            String t = e.isJsonPrimitive() ? e.getAsString().trim().toLowerCase(Locale.ROOT) : "";
+            if (t.isEmpty() || t.length() > 64) throw new IllegalArgumentException("type:" + t);
+            if (t.indexOf(':') < 0 && EntityIndex.kindOf(t) == EntityIndex.OTHER && !t.equals("other")) t = "minecraft:" + t;
+            out.add(t);
+        }
+        return Collections.unmodifiableSet(out);
+    }
+
+    private void tick(TickSnapshot snap) {
+        if (!snap.inWorld) return;
+        if (!snap.dimension.equals(dim)) {   // new world: nothing from the old one carries over
+            if (dim != null) reset();
+            dim = snap.dimension;
+        }
+        EntityView view = TickScheduler.get().state().entities();
+        if (resync) {
+            resync = false;
+            view.forEach(sink);
+        }
+
+        RuntimeConfig rc = cfg.live.get();
+        final double r = rc.entityRadius(), rExit = r * EXIT_FACTOR;
+        final double r2 = r * r, r2Exit = rExit * rExit;
+        int budget = rc.entityScanBudget();
+        final Set<String> w = watch;
+        px = snap.x; py = snap.y; pz = snap.z;
+        stamp++;
+        Arrays.fill(counts, 0);
+        int nNext = 0;
+
+        // 1) the chunks around the radius: refresh first, then decide who is inside
+        for (int i = 0, n = index.near(px, pz, rExit); i < n; i++) {
+            EntityIndex.Entry e = index.found(i);
+            if (budget > 0) {
+                budget--;
+                if (!refresh(view, e)) continue;
+            }
+            double dx = e.x - px, dy = e.y - py, dz = e.z - pz;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            e.inside = d2 <= r2 || (e.inside && d2 <= r2Exit);
+            e.stamp = stamp;
+            if (!e.inside) {
+                if (e.announced) leave(e, false);
+                continue;
+            }
+            counts[e.kind]++;
+            if (insideNext.length == nNext) insideNext = Arrays.copyOf(insideNext, nNext * 2);
+            insideNext[nNext++] = e;
+            boolean watched = w.contains(e.type) || w.contains(EntityIndex.KINDS[e.kind]);
+            if (watched && !e.announced) {
+                e.announced = true;
+                ENTERED.inc();
+                publish(EntityEvent.ENTER, e, null);
+            } else if (!watched) {
+                e.announced = false;   // unwatched since: drop it quietly
+            }
+        }
+
+        // 2) inside last tick but no longer near (they moved, or we did)
+        for (int i = 0; i < nInside; i++) {
+            EntityIndex.Entry e = inside[i];
+            if (e.removed || e.stamp == stamp) continue;
+            e.inside = false;
+            if (e.announced) leave(e, false);
+        }
+        EntityIndex.Entry[] t = inside; inside = insideNext; insideNext = t;
+        Arrays.fill(insideNext, 0, nInside, null);
+        nInside = nNext;
+
+        // 3) what's left of the budget goes round-robin over everything tracked
+        for (int k = Math.min(budget, index.size()); k > 0 && index.size() > 0; k--) {
+            if (cursor >= index.size()) cursor = 0;
+            EntityIndex.Entry e = index.at(cursor);
+            if (e.stamp != stamp && !refresh(view, e)) continue;   // removed: the last entry took its place
+            cursor++;
+        }
+        trackedCount = index.size();
+
+        long now = snap.monoMs;
+        long every = rc.entityCountsIntervalMs();
+        boolean changed = !Arrays.equals(counts, published);
+        if (countsRequested || (changed && every > 0 && now - lastCountsMs >= every)) {
+            countsRequested = false;
+            lastCountsMs = now;
+            System.arraycopy(counts, 0, published, 0, counts.length);
+            bus.publish(cfg.evtTopic, new EntityCountsEvent(r, counts[0], counts[1], counts[2], counts[3], counts[4], index.size()));
+        }
+    }
+
+    /** Pull the entity's position and re-file it; false (and untracked) when the game no longer has it. */
+    private boolean refresh(EntityView view, EntityIndex.Entry e) {
+        if (!view.position(e.id, pos)) {
+            index.remove(e.id);
+            if (e.announced) leave(e, true);
+            return false;
+        }
+        index.move(e, pos[0], pos[1], pos[2]);
+        return true;
+    }
+
+    private void leave(EntityIndex.Entry e, boolean gone) {
+        e.announced = false;
+        LEFT.inc();
+        publish(EntityEvent.LEAVE, e, gone ? Boolean.TRUE : null);
+    }
+
+    private void publish(String kind, EntityIndex.Entry e, Boolean gone) {
+        double dx = e.x - px, dy = e.y - py, dz = e.z - pz;
+        bus.publish(cfg.evtTopic, new EntityEvent(kind, e.id, EntityIndex.KINDS[e.kind], e.type,
+            e.x, e.y, e.z, Math.sqrt(dx * dx + dy * dy + dz * dz), gone));
+    }
+
+    private void reset() {
+        index.clear();
+        Arrays.fill(inside, 0, nInside, null);
+        nInside = 0;
+        Arrays.fill(published, 0);
+        cursor = 0;
+        dim = null;
+        resync = true;
+        trackedCount = 0;
+    }
+}
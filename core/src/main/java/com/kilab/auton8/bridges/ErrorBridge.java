@@ -0,0 +1,77 @@
+package com.kilab.auton8.bridges;
+
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.event.BreakerEvent;
+import com.kilab.auton8.event.ErrorEvent;
+import com.kilab.auton8.fault.CircuitBreaker;
+import com.kilab.auton8.fault.ErrorReporter;
+import com.kilab.auton8.mqtt.MqttBus;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Publishes ErrorReporter's deduplicated failure reports and the tick tasks' circuit breaker
+ * changes, and applies their config.
+ *
+ *   error             {source, detail, message, stack_hash, at, count, repeats}
+ *   breaker_open      {task, failures, backoff_ms}   task paused
+ *   breaker_half_open {task, failures, backoff_ms}   trial run after the backoff
+ *   breaker_closed    {task, failures:0, backoff_ms:0}
+ *
+ * Repeats held back by error_report_interval_ms are flushed once a second.
+ */
+public final class ErrorBridge implements Bridge {
+    private final Config cfg;
+    private final MqttBus bus;
+
+    private TickScheduler.Task task = null;
+    private final BiConsumer<RuntimeConfig, RuntimeConfig> configListener = (prev, next) -> apply(next);
+
+    public ErrorBridge(Config cfg, MqttBus bus) {
+        this.cfg = cfg;
+        this.bus = bus;
+    }
+
+    @Override
+    public synchronized void enable() {
+        if (task != null) return;
+        apply(cfg.live.get());
+        cfg.live.addListener(configListener);
+        ErrorReporter.get().setListener(this::onReport);
+        TickScheduler.get().setBreakerListener(this::onBreakerChanged);
+        task = TickScheduler.get().schedule("errors", TickScheduler.Period.everyMillis(1_000L),
+            snap -> ErrorReporter.get().flush());
+    }
+
+    @Override
+    public synchronized void disable() {
+        cfg.live.removeListener(configListener);
+        if (task != null) { task.cancel(); task = null; }
+        ErrorReporter.get().setListener(null);
+        ErrorReporter.get().clear();
+        TickScheduler.get().setBreakerListener(null);
+    }
+
+    // ===== Internals =====
+
+    private void apply(RuntimeConfig rc) {
+        ErrorReporter.get().setIntervalMs(rc.errorReportIntervalMs());
+        TickScheduler.get().setBreakerPolicy(rc.breakerThreshold(), rc.breakerBackoffMs(), rc.breakerMaxBackoffMs());
+    }
+
+    private void onReport(ErrorReporter.Report r) {
+        bus.publish(cfg.evtTopic, new ErrorEvent(r.source(), r.error(), r.message(), r.stackHash(), r.at(),
+            r.count(), r.repeats()));
+    }
+
+    private void onBreakerChanged(TickScheduler.Task t, CircuitBreaker.State from, CircuitBreaker.State to) {
+        String ev = switch (to) {
+            case OPEN -> BreakerEvent.OPEN;
+            case HALF_OPEN -> BreakerEvent.HALF_OPEN;
+            case CLOSED -> BreakerEvent.CLOSED;
+        };
+        bus.publish(cfg.evtTopic, new BreakerEvent(ev, t.name(), t.breaker().failures(), t.breaker().backoffMs()));
+    }
+}
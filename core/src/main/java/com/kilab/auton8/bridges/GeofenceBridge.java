@@ -0,0 +1,373 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.event.ZoneEvent;
+import com.kilab.auton8.fault.ErrorReporter;
+import com.kilab.auton8.geo.Zone;
+import com.kilab.auton8.geo.ZoneIndex;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameActions;
+import com.kilab.auton8.spi.GameEvents;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Geofences: n8n-defined {@link Zone}s (boxes, spheres, x/z polygons, per dimension), with
+ * enter/exit/dwell events for the local player and for other players in view.
+ *
+ *   {type:"zone_set", zones:[...]}    replace all, validated as a whole -> zone_applied {count}
+ *   {type:"zone_add", zone:{...}}     add / replace by id              -> zone_applied {count}
+ *   {type:"zone_remove", id}          ("*" = all)                      -> zone_applied {count}
+ *   {type:"zone_get"}                 -> zone_current {zones:[...]}
+ *   bad input                         -> zone_reject {detail:"id" | "shape:x" | "points:x" | "duplicate:x" | ...}
+ *   crossings                         -> zone_enter / zone_exit / zone_dwell {zone, dim, who, name, uuid, x, y, z, inside_ms}
+ *
+ * Every other tick each subject is tested against the zones of its {@link ZoneIndex} grid cell
+ * only, so hundreds of zones cost about as much as a handful. Exits use the zone's margin
+ * (default 2 blocks), entries don't, so standing on an edge doesn't flap. Replacing a zone
+ * keeps whoever is inside it inside; removing it (or a dimension change, or a player leaving
+ * view) is an exit.
+ *
+ * Zones are saved to <data dir>/zones-<client id>.json on every change and loaded on enable,
+ * so they survive restarts without n8n pushing them again.
+ */
+public final class GeofenceBridge implements Bridge, GameEvents.Listener {
+    private static final int MAX_ZONES = 1024;
+
+    private static final Counter ENTER = Metrics.get().counter("zone_events_total", "kind", "enter");
+    private static final Counter EXIT  = Metrics.get().counter("zone_events_total", "kind", "exit");
+    private static final Counter DWELL = Metrics.get().counter("zone_events_total", "kind", "dwell");
+
+    /** A subject inside one zone. */
+    private static final class Presence {
+        Zone zone;
+        final long sinceMs;
+        boolean dwellSent;
+
+        Presence(Zone zone, long sinceMs) { this.zone = zone; this.sinceMs = sinceMs; }
+    }
+
+    /** The local player or one other player, with the zones it is in. */
+    private static final class Subject {
+        final String who;
+        UUID uuid;        // null for the local player
+        String name;
+        long gen;
+        double x, y, z;   // last seen
+        final List<Presence> in = new ArrayList<>(2);
+
+        Subject(String who) { this.who = who; }
+    }
+
+    /** A zone set to write to disk; versions are increasing, so an older one never overwrites a newer. */
+    private record Pending(long version, ZoneIndex index) {}
+
+    private final Config cfg;
+    private final MqttBus bus;
+    private final GameActions game;
+
+    private volatile ZoneIndex index = ZoneIndex.EMPTY;   // swapped whole under this
+    private TickScheduler.Task task = null;                // guarded by this
+    private long version = 0L;                             // guarded by this
+
+    private final Object saveLock = new Object();
+    private long savedVersion = 0L;                        // guarded by saveLock
+
+    // tick thread only
+    private final Subject self = new Subject("self");
+    private final HashMap<UUID, Subject> others = new HashMap<>();   // players inside at least one zone
+    private Subject probe = new Subject("player");                  // any other player, until it enters one
+    private long gen = 0L;
+
+    public GeofenceBridge(Config cfg, MqttBus bus, GameActions game) {
+        this.cfg = cfg;
+        this.bus = bus;
+        this.game = game;
+    }
+
+    @Override
+    public synchronized void enable() {
+        if (task != null) return;
+        index = new ZoneIndex(load());
+        GameEvents.get().add(this);
+        Metrics.get().gauge("zones", () -> index.size());
+        task = TickScheduler.get().schedule("geofence", TickScheduler.Period.everyTicks(2), this::tick);
+    }
+
+    @Override
+    public synchronized void disable() {
+        GameEvents.get().remove(this);
+        if (task != null) { task.cancel(); task = null; }
+        Metrics.get().removeGauge("zones");
+        index = ZoneIndex.EMPTY;
+        reset();
+    }
+
+    @Override public void onJoin()       { reset(); }
+    @Override public void onDisconnect() { reset(); }
+
+    @Override
+    public void onCommand(String json) {
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            String type = j.has("type") ? j.get("type").getAsString() : "";
+            if (!type.startsWith("zone_")) return;
+            int count;
+            Pending pending;
+            try {
+                synchronized (this) {
+                    switch (type) {
+                        case "zone_set" -> pending = install(zones(j));
+                        case "zone_add" -> {
+                            Zone z = compile(j.get("zone"));
+                            LinkedHashMap<String, Zone> next = current();
+                            next.put(z.id, z);
+                            if (next.size() > MAX_ZONES) throw new IllegalArgumentException("too_many_zones");
+                            pending = install(next);
+                        }
+                        case "zone_remove" -> {
+                            String id = j.has("id") ? j.get("id").getAsString() : "";
+                            LinkedHashMap<String, Zone> next = current();
+                            if (id.equals("*")) next.clear();
+                            else if (next.remove(id) == null) throw new IllegalArgumentException("unknown_zone:" + id);
+                            pending = install(next);
+                        }
+                        case "zone_get" -> {
+                            JsonObject o = new JsonObject();
+                            o.addProperty("event", "zone_current");
+                            o.add("zones", zonesJson(index));
+                            bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+                            return;
+                        }
+                        default -> { return; }
+                    }
+                    count = index.size();
+                }
+            } catch (IllegalArgumentException e) {
+                bus.publish(cfg.evtTopic, new StatusEvent("zone_reject", e.getMessage()));
+                return;
+            }
+            save(pending);
+            JsonObject o = new JsonObject();
+            o.addProperty("event", "zone_applied");
+            o.addProperty("count", count);
+            bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+        } catch (Exception ignored) { /* not a zone command */ }
+    }
+
+    /**
+     * The zone_reject checks that don't depend on the installed zones, for batches to run up
+     * front; an unknown id or a full set only shows when the command runs.
+     *
+     * @throws IllegalArgumentException with the zone_reject detail
+     */
+    public static void validate(JsonObject j) {
+        switch (j.has("type") ? j.get("type").getAsString() : "") {
+            case "zone_set" -> zones(j);
+            case "zone_add" -> compile(j.get("zone"));
+            default -> { }
+        }
+    }
+
+    // ===== Internals =====
+
+    private static LinkedHashMap<String, Zone> zones(JsonObject j) {
+        if (!j.has("zones") || !j.get("zones").isJsonArray()) throw new IllegalArgumentException("no_zones");
+        LinkedHashMap<String, Zone> next = new LinkedHashMap<>();
+        for (JsonElement e : j.getAsJsonArray("zones")) {
+            Zone z = compile(e);
+            if (next.put(z.id, z) != null) throw new IllegalArgumentException("duplicate:" + z.id);
+            if (next.size() > MAX_ZONES) throw new IllegalArgumentException("too_many_zones");
+        }
+        return next;
+    }
+
+    private static Zone compile(JsonElement e) {
+        if (e == null || !e.isJsonObject()) throw new IllegalArgumentException("zone");
+        try {
+            return Zone.compile(e.getAsJsonObject());
+        } catch (IllegalArgumentException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {   // a field of the wrong JSON type
+            JsonElement id = e.getAsJsonObject().get("id");
+            throw new IllegalArgumentException("type:" + (id != null && id.isJsonPrimitive() ? id.getAsString() : "zone"));
+        }
+    }
+
+    private LinkedHashMap<String, Zone> current() {
+        LinkedHashMap<String, Zone> m = new LinkedHashMap<>();
+        for (Zone z : index.zones()) m.put(z.id, z);
+        return m;
+    }
+
+    /** Swap in the new set, called with the lock held; the caller saves the result after releasing it. */
+    private Pending install(LinkedHashMap<String, Zone> zones) {
+        index = new ZoneIndex(zones.values());
+        return new Pending(++version, index);
+    }
+
+    private void tick(TickSnapshot snap) {
+        if (!snap.inWorld) return;
+        ZoneIndex idx = index;
+        if (idx.size() == 0 && self.in.isEmpty() && others.isEmpty()) return;
+        gen++;
+        long now = snap.monoMs;
+
+        self.name = snap.localName;
+        update(idx, self, Zone.TRACK_SELF, snap.dimension, snap.x, snap.y, snap.z, now);
+
+        for (int i = 0, n = snap.otherCount(); i < n; i++) {
+            TickSnapshot.PlayerSample p = snap.other(i);
+            if (p.uuid == null) continue;
+            Subject s = others.get(p.uuid);
+            if (s == null) {
+                if (idx.size() == 0) continue;
+                s = probe;
+                s.uuid = p.uuid;
+            } else if (s.gen == gen) {
+                continue;   // listed twice
+            }
+            s.name = p.name;
+            update(idx, s, Zone.TRACK_PLAYERS, snap.dimension, p.x, p.y, p.z, now);
+            if (s == probe && !s.in.isEmpty()) {   // first entry: keep it
+                others.put(p.uuid, s);
+                probe = new Subject("player");
+            }
+        }
+
+        // players out of view leave whatever they were in, where they were last seen
+        for (Iterator<Subject> it = others.values().iterator(); it.hasNext(); ) {
+            Subject s = it.next();
+            if (s.gen != gen) {
+                for (Presence pr : s.in) emit(ZoneEvent.EXIT, pr.zone, s, now - pr.sinceMs);
+                it.remove();
+            } else if (s.in.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void update(ZoneIndex idx, Subject s, int who, String dim, double x, double y, double z, long now) {
+        s.gen = gen;
+        s.x = x; s.y = y; s.z = z;
+        // exits (with the margin) and dwell for the zones it is already in
+        for (Iterator<Presence> it = s.in.iterator(); it.hasNext(); ) {
+            Presence pr = it.next();
+            Zone cur = idx.get(pr.zone.id);
+            if (cur == null || !cur.dim.equals(dim) || !cur.tracks(who) || !cur.contains(x, y, z, cur.margin)) {
+                it.remove();
+                emit(ZoneEvent.EXIT, cur == null ? pr.zone : cur, s, now - pr.sinceMs);
+                continue;
+            }
+            if (cur != pr.zone) { pr.zone = cur; pr.dwellSent = false; }
+            if (!pr.dwellSent && cur.dwellMs > 0 && now - pr.sinceMs >= cur.dwellMs) {
+                pr.dwellSent = true;
+                emit(ZoneEvent.DWELL, cur, s, now - pr.sinceMs);
+            }
+        }
+        // entries, from this cell's zones and the oversize ones
+        enter(idx.cell(dim, x, z), s, who, now);
+        enter(idx.big(dim), s, who, now);
+    }
+
+    private void enter(Zone[] candidates, Subject s, int who, long now) {
+        outer:
+        for (Zone zone : candidates) {
+            if (!zone.tracks(who) || !zone.contains(s.x, s.y, s.z, 0)) continue;
+            for (Presence pr : s.in) if (pr.zone.id.equals(zone.id)) continue outer;
+            s.in.add(new Presence(zone, now));
+            emit(ZoneEvent.ENTER, zone, s, null);
+        }
+    }
+
+    /** At the subject's last seen position (for a vanished player, where it was last in view). */
+    private void emit(String kind, Zone zone, Subject s, Long insideMs) {
+        switch (kind) {
+            case ZoneEvent.ENTER -> ENTER.inc();
+            case ZoneEvent.EXIT -> EXIT.inc();
+            default -> DWELL.inc();
+        }
+        bus.publish(cfg.evtTopic, new ZoneEvent(kind, zone.id, zone.dim, s.who, s.name,
+            s.uuid == null ? null : s.uuid.toString(), s.x, s.y, s.z, insideMs));
+    }
+
+    private void reset() {
+        self.in.clear();
+        others.clear();
+    }
+
+    private static JsonArray zonesJson(ZoneIndex idx) {
+        JsonArray a = new JsonArray();
+        for (Zone z : idx.zones()) a.add(z.toJson());
+        return a;
+    }
+
+    // ===== Persistence =====
+
+    private Path file() {
+        return game.dataDir().resolve("zones-" + (cfg.clientId == null ? "default" : cfg.clientId) + ".json");
+    }
+
+    /** Off the bridge lock, so the game thread never waits on disk; a set older than the last one written is dropped. */
+    private void save(Pending p) {
+        Path f = file();
+        synchronized (saveLock) {
+            if (p.version() <= savedVersion) return;
+            savedVersion = p.version();
+            try {
+                if (p.index().size() == 0) {
+                    Files.deleteIfExists(f);
+                    return;
+                }
+                JsonObject o = new JsonObject();
+                o.add("zones", zonesJson(p.index()));
+                Files.createDirectories(f.toAbsolutePath().getParent());
+                Path tmp = f.resolveSibling(f.getFileName() + ".tmp");
+                Files.writeString(tmp, o.toString(), StandardCharsets.UTF_8);
+                Files.move(tmp, f, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (Exception e) {
+                ErrorReporter.get().report("zone_save", e);
+            }
+        }
+    }
+
+    /** Zones saved by the last change; one that no longer compiles is skipped, not fatal. */
+    private List<Zone> load() {
+        Path f = file();
+        List<Zone> out = new ArrayList<>();
+        if (!Files.exists(f)) return out;
+        try {
+            JsonObject o = JsonParser.parseString(Files.readString(f, StandardCharsets.UTF_8)).getAsJsonObject();
+            for (JsonElement e : o.getAsJsonArray("zones")) {
+                if (out.size() >= MAX_ZONES) break;
+                try {
+                    out.add(compile(e));
+                } catch (IllegalArgumentException ex) {
+                    ErrorReporter.get().report("zone_load", ex);
+                }
+            }
+        } catch (Exception e) {
+            ErrorReporter.get().report("zone_load", e);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,65 @@
+package com.kilab.auton8.bridges;
+
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.http.HttpTransport;
+import com.kilab.auton8.mqtt.MqttBus;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Runs the loopback {@link HttpTransport} on 127.0.0.1:http_port (0 = off) next to, or with no
+ * broker URI instead of, MQTT. Enabled before the bus connects so the session's first events
+ * are already in the SSE ring; a failure to bind is reported as error {detail:"http_..."}.
+ */
+public final class HttpBridge implements Bridge {
+    private static final int RING_SIZE = 4_096;
+
+    private final Config cfg;
+    private final MqttBus bus;
+
+    private HttpTransport http = null;
+    private boolean enabled = false;
+    private final BiConsumer<RuntimeConfig, RuntimeConfig> configListener = (prev, next) -> apply(next);
+
+    public HttpBridge(Config cfg, MqttBus bus) {
+        this.cfg = cfg;
+        this.bus = bus;
+    }
+
+    @Override
+    public synchronized void enable() {
+        if (enabled) return;
+        enabled = true;
+        apply(cfg.live.get());
+        cfg.live.addListener(configListener);
+    }
+
+    @Override
+    public synchronized void disable() {
+        enabled = false;
+        cfg.live.removeListener(configListener);
+        stopHttp();
+    }
+
+    // ===== Internals =====
+
+    private synchronized void apply(RuntimeConfig rc) {
+        int port = rc.httpPort();
+        if (http != null && http.port() == port) return;
+        stopHttp();
+        if (!enabled || port <= 0) return;
+        try {
+            HttpTransport t = new HttpTransport(bus, cfg, port, RING_SIZE);
+            t.start();
+            http = t;
+        } catch (Exception e) {
+            bus.publish(cfg.evtTopic, new StatusEvent("error", "http_" + e.getClass().getSimpleName()));
+        }
+    }
+
+    private void stopHttp() {
+        if (http != null) { http.stop(); http = null; }
+    }
+}
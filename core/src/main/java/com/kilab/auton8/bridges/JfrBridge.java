@@ -0,0 +1,130 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.event.JfrFileEvent;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameActions;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Remote control of a bounded JDK Flight Recorder recording (includes the com.kilab.auton8.*
+ * events from the jfr package).
+ *
+ *   {type:"jfr_start", settings:"default"|"profile", max_size_mb:64, max_age_s:600}
+ *       -> jfr_started {detail: settings}
+ *   {type:"jfr_dump"}  -> jfr_dumped  {path, size_bytes}  (keeps recording)
+ *   {type:"jfr_stop"}  -> jfr_stopped {path, size_bytes}
+ *   failures          -> jfr_error {detail}
+ *
+ * Files go to <data dir>/jfr. File work runs on a short-lived thread, never the MQTT or client thread.
+ */
+public final class JfrBridge implements Bridge {
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Config cfg;
+    private final MqttBus bus;
+    private final GameActions game;
+
+    private Recording recording = null;   // guarded by this
+
+    public JfrBridge(Config cfg, MqttBus bus, GameActions game) {
+        this.cfg = cfg;
+        this.bus = bus;
+        this.game = game;
+    }
+
+    @Override public void enable() { }
+
+    @Override
+    public synchronized void disable() {
+        if (recording != null) {
+            try { recording.close(); } catch (Throwable ignored) {}
+            recording = null;
+        }
+    }
+
+    @Override
+    public void onCommand(String json) {
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            String type = j.has("type") ? j.get("type").getAsString() : "";
+            switch (type) {
+                case "jfr_start" -> async(() -> start(j));
+                case "jfr_dump"  -> async(() -> dump(false));
+                case "jfr_stop"  -> async(() -> dump(true));
+                default -> { }
+            }
+        } catch (Exception ignored) {}
+    }
+
+    // ===== Internals =====
+
+    private interface Job { void run() throws Exception; }
+
+    private void async(Job r) {
+        Thread t = new Thread(() -> {
+            try { r.run(); }
+            catch (Throwable e) { bus.publish(cfg.evtTopic, new StatusEvent("jfr_error", e.getClass().getSimpleName())); }
+        }, "auton8-jfr");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private synchronized void start(JsonObject j) throws Exception {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            bus.publish(cfg.evtTopic, new StatusEvent("jfr_error", "already_running"));
+            return;
+        }
+        String settings = j.has("settings") ? j.get("settings").getAsString() : "default";
+        if (!settings.equals("default") && !settings.equals("profile")) {
+            bus.publish(cfg.evtTopic, new StatusEvent("jfr_error", "bad_settings"));
+            return;
+        }
+        long maxMb  = clamp(j.has("max_size_mb") ? j.get("max_size_mb").getAsLong() : 64, 1, 1024);
+        long maxAge = clamp(j.has("max_age_s") ? j.get("max_age_s").getAsLong() : 600, 10, 86_400);
+
+        Recording r = new Recording(Configuration.getConfiguration(settings));
+        r.setName("auton8");
+        r.setToDisk(true);
+        r.setMaxSize(maxMb * 1024 * 1024);
+        r.setMaxAge(Duration.ofSeconds(maxAge));
+        r.start();
+        recording = r;
+        bus.publish(cfg.evtTopic, new StatusEvent("jfr_started", settings));
+    }
+
+    private synchronized void dump(boolean stop) throws Exception {
+        Recording r = recording;
+        if (r == null) {
+            bus.publish(cfg.evtTopic, new StatusEvent("jfr_error", "not_running"));
+            return;
+        }
+        Path dir = game.dataDir().resolve("jfr");
+        Files.createDirectories(dir);
+        Path file = dir.resolve("auton8-" + cfg.clientId + "-" + LocalDateTime.now().format(STAMP) + ".jfr");
+        if (stop) {
+            r.stop();
+            recording = null;
+        }
+        try {
+            r.dump(file);
+        } finally {
+            if (stop) r.close();
+        }
+        bus.publish(cfg.evtTopic, new JfrFileEvent(stop ? "jfr_stopped" : "jfr_dumped",
+            file.toAbsolutePath().toString(), Files.size(file)));
+    }
+
+    private static long clamp(long v, long min, long max) { return Math.max(min, Math.min(max, v)); }
+}
@@ -0,0 +1,61 @@
+package com.kilab.auton8.bridges;
+
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.event.LifeEvent;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+
+public final class LifeBridge implements Bridge {
+    private final Config cfg; private final MqttBus bus;
+
+    private static final Counter EVENTS = Metrics.get().counter("life_events_total");
+
+    private TickScheduler.Task task = null;
+    private Boolean wasAlive = null;        // null until first sample
+    private long lastEventMs = 0L;          // debounce (gap from RuntimeConfig.lifeMinEventGapMs)
+
+    public LifeBridge(Config cfg, MqttBus bus) { this.cfg = cfg; this.bus = bus; }
+
+    @Override public void enable() {
+        if (task != null) return;
+
+        task = TickScheduler.get().schedule("life", TickScheduler.Period.everyTick(), snap -> {
+            if (!snap.inWorld) return;
+
+            final boolean alive = snap.alive;
+            if (wasAlive == null) {
+                wasAlive = alive;                 // initialize silently
+                return;
+            }
+            if (alive == wasAlive) return;        // no transition
+
+            final long now = snap.monoMs;
+            if (now - lastEventMs < cfg.live.get().lifeMinEventGapMs()) return;  // debounce
+
+            lastEventMs = now;
+            wasAlive = alive;
+            EVENTS.inc();
+
+            final double x = snap.x, y = snap.y, z = snap.z;
+            final String world = snap.integratedServer ? "singleplayer" : "server";
+
+            if (!alive) {
+                // DEAD -> publish death
+                bus.publish(cfg.evtTopic, new LifeEvent("dead", world, new LifeEvent.Coords(x, y, z), /*cause*/ null));
+            } else {
+                // RESPAWNED -> publish respawn
+                bus.publish(cfg.evtTopic, new LifeEvent("respawned", world, new LifeEvent.Coords(x, y, z), null));
+            }
+        });
+    }
+
+    @Override public void disable() {
+        if (task != null) { task.cancel(); task = null; }
+    }
+
+    @Override public void onCommand(String json) {
+        // no commands needed for life sensor
+    }
+}
@@ -0,0 +1,110 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonObject;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.metrics.PrometheusEndpoint;
+import com.kilab.auton8.mqtt.MqttBus;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Exports the {@link Metrics} registry: a compact JSON summary on the metrics topic every
+ * metrics_interval_ms, and optionally Prometheus text on 127.0.0.1:metrics_prometheus_port.
+ * With both set to 0 the registry is switched off and every update is a no-op.
+ */
+public final class MetricsBridge implements Bridge {
+    private static final long MIN_INTERVAL_MS = 1_000L;
+
+    private final Config cfg;
+    private final MqttBus bus;
+    private final String topic;
+
+    private TickScheduler.Task task = null;
+    private PrometheusEndpoint http = null;
+    private long lastPublishMs = 0L;
+    private final BiConsumer<RuntimeConfig, RuntimeConfig> configListener = (prev, next) -> apply(next);
+
+    public MetricsBridge(Config cfg, MqttBus bus) {
+        this.cfg = cfg;
+        this.bus = bus;
+        this.topic = cfg.metricsTopicOrDefault();
+    }
+
+    @Override
+    public synchronized void enable() {
+        if (task != null) return;
+        apply(cfg.live.get());
+        cfg.live.addListener(configListener);
+        task = TickScheduler.get().schedule("metrics", TickScheduler.Period.everyMillis(MIN_INTERVAL_MS), snap -> {
+            long interval = cfg.live.get().metricsIntervalMs();
+            if (interval <= 0) return;
+            if (snap.monoMs - lastPublishMs < Math.max(MIN_INTERVAL_MS, interval)) return;
+            lastPublishMs = snap.monoMs;
+            bus.publish(topic, JsonUtils.wrap(summary()));
+        });
+    }
+
+    @Override
+    public synchronized void disable() {
+        cfg.live.removeListener(configListener);
+        if (task != null) { task.cancel(); task = null; }
+        stopHttp();
+        Metrics.setEnabled(false);
+    }
+
+    // ===== Internals =====
+
+    private synchronized void apply(RuntimeConfig rc) {
+        Metrics.setEnabled(rc.metricsIntervalMs() > 0 || rc.metricsPrometheusPort() > 0);
+
+        int port = rc.metricsPrometheusPort();
+        if (http != null && http.port() == port) return;
+        stopHttp();
+        if (port <= 0) return;
+        try {
+            PrometheusEndpoint ep = new PrometheusEndpoint(Metrics.get(), port);
+            ep.start();
+            http = ep;
+        } catch (Exception e) {
+            bus.publish(cfg.evtTopic, new StatusEvent("error", "metrics_http_" + e.getClass().getSimpleName()));
+        }
+    }
+
+    private void stopHttp() {
+        if (http != null) { http.stop(); http = null; }
+    }
+
+    /** {event:"metrics", counters:{k:v}, gauges:{k:v}, histograms:{k:{n,p50,p90,p99,max}}} */
+    private static JsonObject summary() {
+        Metrics m = Metrics.get();
+        JsonObject counters = new JsonObject();
+        for (Map.Entry<String, Long> e : m.counterValues().entrySet()) counters.addProperty(e.getKey(), e.getValue());
+        JsonObject gauges = new JsonObject();
+        for (Map.Entry<String, Long> e : m.gaugeValues().entrySet()) gauges.addProperty(e.getKey(), e.getValue());
+        JsonObject hists = new JsonObject();
+        for (Map.Entry<String, Histogram.Snapshot> e : m.histogramSnapshots().entrySet()) {
+            Histogram.Snapshot s = e.getValue();
+            if (s.count == 0) continue;
+            JsonObject h = new JsonObject();
+            h.addProperty("n", s.count);
+            h.addProperty("p50", s.quantile(0.5));
+            h.addProperty("p90", s.quantile(0.9));
+            h.addProperty("p99", s.quantile(0.99));
+            h.addProperty("max", s.max);
+            hists.add(e.getKey(), h);
+        }
+        JsonObject o = new JsonObject();
+        o.addProperty("event", "metrics");
+        o.add("counters", counters);
+        o.add("gauges", gauges);
+        o.add("histograms", hists);
+        return o;
+    }
+}
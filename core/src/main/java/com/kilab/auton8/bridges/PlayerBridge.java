@@ -0,0 +1,277 @@
+package com.kilab.auton8.bridges;
+
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.event.PlayerProximityEvent;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameEvents;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Proximity/danger radius crossings of other players, with hysteresis on both radii.
+ *
+ * Runs every tick with up to hundreds of players in view, so the tracking state is primitive
+ * and reused: an open-addressed table keyed by entity id holds each player's last position and
+ * membership, membership is double-buffered (two bits per radius, the halves swap every tick
+ * instead of clearing and refilling sets) and a generation stamp marks who was seen this tick.
+ * A tick on which nobody crosses a radius or vanishes allocates nothing; the event (and the
+ * UUID string, cached per player) is only built for an actual transition.
+ */
+public final class PlayerBridge implements Bridge, GameEvents.Listener {
+    private final Config cfg;
+    private final MqttBus bus;
+
+    // ---- per-player state: open addressing, linear probing, backward-shift deletion
+    private static final int INITIAL_CAPACITY = 64;   // power of two
+    private static final byte INSIDE = 1, DANGER = 2; // membership bits, shifted by 2 * buffer
+
+    private int[] keys = new int[INITIAL_CAPACITY];           // entity id
+    private long[] seen = new long[INITIAL_CAPACITY];         // generation last seen; 0 = free slot
+    private byte[] member = new byte[INITIAL_CAPACITY];       // both membership buffers
+    private UUID[] uuids = new UUID[INITIAL_CAPACITY];
+    private String[] uuidText = new String[INITIAL_CAPACITY]; // lazily, on the first transition
+    private String[] names = new String[INITIAL_CAPACITY];
+    private double[] px = new double[INITIAL_CAPACITY], py = new double[INITIAL_CAPACITY],
+                     pz = new double[INITIAL_CAPACITY], pdist = new double[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private long gen = 0L;   // current tick's stamp (starts at 1)
+    private int cur = 0;     // membership buffer written this tick; the other one is last tick's
+
+    // transitions found this tick, as slot indices (reused; emitted after the scan)
+    private int[] spotted = new int[16], left = new int[16], dangerIn = new int[16], dangerOut = new int[16];
+    private int nSpotted, nLeft, nDangerIn, nDangerOut;
+    private int[] gone = new int[16];   // entity ids that vanished this tick
+    private int nGone;
+
+    private TickScheduler.Task task = null;
+
+    private static final Counter SPOTTED      = Metrics.get().counter("player_events_total", "kind", "spotted");
+    private static final Counter LEFT_RADIUS  = Metrics.get().counter("player_events_total", "kind", "left_radius");
+    private static final Counter DANGER_ENTER = Metrics.get().counter("player_events_total", "kind", "danger_enter");
+    private static final Counter DANGER_LEFT  = Metrics.get().counter("player_events_total", "kind", "danger_left");
+    private volatile int insideCount = 0;
+
+    // Radii come from RuntimeConfig: outer render radius (default 128, exit +12% to avoid
+    // edge flicker) and inner “danger” radius (default 15, exit +15% ≈ 17.25).
+
+    public PlayerBridge(Config cfg, MqttBus bus) {
+        this.cfg = cfg;
+        this.bus = bus;
+    }
+
+    @Override public void enable() {
+        if (task != null) return;
+
+        // reset state on world (re)connect/disconnect
+        GameEvents.get().add(this);
+        Metrics.get().gauge("players_in_radius", () -> insideCount);
+
+        task = TickScheduler.get().schedule("players", TickScheduler.Period.everyTick(), this::tick);
+    }
+
+    @Override public void onJoin()       { reset(); }
+    @Override public void onDisconnect() { reset(); }
+
+    @Override public void disable() {
+        GameEvents.get().remove(this);
+        if (task != null) { task.cancel(); task = null; }
+        Metrics.get().removeGauge("players_in_radius");
+        reset();
+    }
+
+    // ===== Internals =====
+
+    private void tick(TickSnapshot snap) {
+        if (!snap.inWorld) return;
+
+        final double mx = snap.x, my = snap.y, mz = snap.z;
+
+        RuntimeConfig rc = cfg.live.get();
+        final double rEnter = rc.playerRadiusEnter(), rExit = rEnter * rc.playerExitFactor();
+        final double dEnter = rc.dangerRadiusEnter(), dExit = dEnter * rc.dangerExitFactor();
+        final double r2Enter = rEnter * rEnter, r2Exit = rExit * rExit;
+        final double d2DangerEnter = dEnter * dEnter, d2DangerExit = dExit * dExit;
+
+        gen++;
+        final int prevShift = 2 * cur;
+        cur ^= 1;
+        final int curShift = 2 * cur;
+        nSpotted = nLeft = nDangerIn = nDangerOut = nGone = 0;
+        int insideNow = 0, seenNow = 0;
+        // grow up front: slot indices recorded below must stay valid until the events are out
+        reserve(size + snap.otherCount());
+
+        // Next membership for everyone in view, straight into this tick's buffer
+        for (int i = 0, n = snap.otherCount(); i < n; i++) {
+            TickSnapshot.PlayerSample p = snap.other(i);
+            int slot = slotFor(p.entityId);
+            if (seen[slot] == gen) continue;   // listed twice
+            seenNow++;
+            if (uuids[slot] != p.uuid && (uuids[slot] == null || !uuids[slot].equals(p.uuid))) uuidText[slot] = null;
+            seen[slot] = gen;
+            uuids[slot] = p.uuid;
+            names[slot] = p.name;
+
+            double dx = p.x - mx;
+            double dy = p.y - my;
+            double dz = p.z - mz;
+            double d2 = dx*dx + dy*dy + dz*dz;
+            px[slot] = p.x; py[slot] = p.y; pz[slot] = p.z;
+            pdist[slot] = Math.sqrt(d2);
+
+            int was = (member[slot] >> prevShift) & 3;
+            int now = 0;
+            // OUTER radius with hysteresis
+            if (d2 <= r2Enter || ((was & INSIDE) != 0 && d2 <= r2Exit)) now |= INSIDE;
+            // INNER danger radius with hysteresis
+            if (d2 <= d2DangerEnter || ((was & DANGER) != 0 && d2 <= d2DangerExit)) now |= DANGER;
+            member[slot] = (byte) ((member[slot] & ~(3 << curShift)) | (now << curShift));
+
+            if ((now & INSIDE) != 0) insideNow++;
+            transitions(slot, was, now);
+        }
+
+        // Whoever wasn't in view this tick (unload/vanish) leaves both radii
+        if (seenNow < size) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (seen[slot] == 0 || seen[slot] == gen) continue;
+                transitions(slot, (member[slot] >> prevShift) & 3, 0);
+                gone = push(gone, nGone++, keys[slot]);
+            }
+        }
+
+        // ---- Emit diffs AFTER membership is final: spotted, left, danger enter, danger left
+        for (int k = 0; k < nSpotted; k++)   { SPOTTED.inc();      publish(PlayerProximityEvent.SPOTTED, spotted[k]); }
+        for (int k = 0; k < nLeft; k++)      { LEFT_RADIUS.inc();  publish(PlayerProximityEvent.LEFT_RADIUS, left[k]); }
+        for (int k = 0; k < nDangerIn; k++)  { DANGER_ENTER.inc(); publish(PlayerProximityEvent.DANGER_ENTER, dangerIn[k]); }
+        for (int k = 0; k < nDangerOut; k++) { DANGER_LEFT.inc();  publish(PlayerProximityEvent.DANGER_LEFT, dangerOut[k]); }
+
+        // keep state only for players still in view
+        for (int k = 0; k < nGone; k++) remove(gone[k]);
+        insideCount = insideNow;
+    }
+
+    private void transitions(int slot, int was, int now) {
+        int changed = was ^ now;
+        if (changed == 0) return;
+        if ((changed & INSIDE) != 0) {
+            if ((now & INSIDE) != 0) spotted = push(spotted, nSpotted++, slot);
+            else left = push(left, nLeft++, slot);
+        }
+        if ((changed & DANGER) != 0) {
+            if ((now & DANGER) != 0) dangerIn = push(dangerIn, nDangerIn++, slot);
+            else dangerOut = push(dangerOut, nDangerOut++, slot);
+        }
+    }
+
+    private void publish(String kind, int slot) {
+        String id = uuidText[slot];
+        if (id == null) id = uuidText[slot] = uuids[slot] == null ? "" : uuids[slot].toString();
+        bus.publish(cfg.evtTopic, new PlayerProximityEvent(kind, names[slot], id, px[slot], py[slot], pz[slot], pdist[slot]));
+    }
+
+    private static int[] push(int[] a, int i, int v) {
+        if (i == a.length) a = Arrays.copyOf(a, a.length * 2);
+        a[i] = v;
+        return a;
+    }
+
+    private void reset() {
+        Arrays.fill(seen, 0L);
+        Arrays.fill(member, (byte) 0);
+        Arrays.fill(uuids, null);
+        Arrays.fill(uuidText, null);
+        Arrays.fill(names, null);
+        size = 0;
+        insideCount = 0;
+    }
+
+    // ---- table
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** The slot of {@code key}, inserting an empty entry (no membership) if it isn't there. */
+    private int slotFor(int key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (seen[i] != 0) {
+            if (keys[i] == key) return i;
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        seen[i] = -1;   // occupied, not seen yet
+        member[i] = 0;
+        uuids[i] = null;
+        uuidText[i] = null;
+        size++;
+        return i;
+    }
+
+    private void remove(int key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (seen[i] != 0 && keys[i] != key) i = (i + 1) & mask;
+        if (seen[i] == 0) return;
+        // backward-shift: pull later entries of the same probe run into the hole
+        int hole = i;
+        for (int j = (hole + 1) & mask; seen[j] != 0; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                move(j, hole);
+                hole = j;
+            }
+        }
+        seen[hole] = 0;
+        member[hole] = 0;
+        uuids[hole] = null;
+        uuidText[hole] = null;
+        names[hole] = null;
+        size--;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        seen[to] = seen[from];
+        member[to] = member[from];
+        uuids[to] = uuids[from];
+        uuidText[to] = uuidText[from];
+        names[to] = names[from];
+        px[to] = px[from]; py[to] = py[from]; pz[to] = pz[from]; pdist[to] = pdist[from];
+    }
+
+    /** Keep the load factor at or under 1/2 for {@code n} entries. */
+    private void reserve(int n) {
+        if (n * 2 <= keys.length) return;
+        int cap = keys.length;
+        while (n * 2 > cap) cap *= 2;
+        grow(cap);
+    }
+
+    private void grow(int cap) {
+        int[] oKeys = keys; long[] oSeen = seen; byte[] oMember = member;
+        UUID[] oUuids = uuids; String[] oText = uuidText, oNames = names;
+        double[] ox = px, oy = py, oz = pz, od = pdist;
+        keys = new int[cap]; seen = new long[cap]; member = new byte[cap];
+        uuids = new UUID[cap]; uuidText = new String[cap]; names = new String[cap];
+        px = new double[cap]; py = new double[cap]; pz = new double[cap]; pdist = new double[cap];
+        int mask = cap - 1;
+        for (int s = 0; s < oKeys.length; s++) {
+            if (oSeen[s] == 0) continue;
+            int i = hash(oKeys[s]) & mask;
+            while (seen[i] != 0) i = (i + 1) & mask;
+            keys[i] = oKeys[s]; seen[i] = oSeen[s]; member[i] = oMember[s];
+            uuids[i] = oUuids[s]; uuidText[i] = oText[s]; names[i] = oNames[s];
+            px[i] = ox[s]; py[i] = oy[s]; pz[i] = oz[s]; pdist[i] = od[s];
+        }
+    }
+}
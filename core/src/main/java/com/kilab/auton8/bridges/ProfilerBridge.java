@@ -0,0 +1,98 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonObject;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.event.BudgetEvent;
+import com.kilab.auton8.mqtt.MqttBus;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Publishes the scheduler's per-task tick timings and applies the per-tick CPU budget.
+ *
+ * tick_profile every tick_profile_interval_ms:
+ *   {event:"tick_profile", budget_us, capture:{...}, tasks:{players:{p50_us,p90_us,p99_us,max_us,last_us,stride,runs}}}
+ * budget_exceeded / budget_recovered whenever TickScheduler changes a task's stride.
+ */
+public final class ProfilerBridge implements Bridge {
+    private static final long MIN_INTERVAL_MS = 1_000L;
+
+    private final Config cfg;
+    private final MqttBus bus;
+
+    private TickScheduler.Task task = null;
+    private long lastPublishMs = 0L;
+    private final BiConsumer<RuntimeConfig, RuntimeConfig> configListener = (prev, next) -> applyBudget(next);
+
+    public ProfilerBridge(Config cfg, MqttBus bus) {
+        this.cfg = cfg;
+        this.bus = bus;
+    }
+
+    @Override
+    public synchronized void enable() {
+        if (task != null) return;
+        TickScheduler sched = TickScheduler.get();
+        applyBudget(cfg.live.get());
+        cfg.live.addListener(configListener);
+        sched.setBudgetListener(this::onStrideChanged);
+        task = sched.schedule("profiler", TickScheduler.Period.everyMillis(MIN_INTERVAL_MS), snap -> {
+            long interval = cfg.live.get().tickProfileIntervalMs();
+            if (interval <= 0) return;
+            if (snap.monoMs - lastPublishMs < Math.max(MIN_INTERVAL_MS, interval)) return;
+            lastPublishMs = snap.monoMs;
+            bus.publish(cfg.evtTopic, JsonUtils.wrap(profile(sched)));
+        });
+    }
+
+    @Override
+    public synchronized void disable() {
+        cfg.live.removeListener(configListener);
+        if (task != null) { task.cancel(); task = null; }
+        TickScheduler sched = TickScheduler.get();
+        sched.setBudgetListener(null);
+        sched.setBudgetNs(0); // restores full rate for everything still scheduled
+    }
+
+    // ===== Internals =====
+
+    private void applyBudget(RuntimeConfig rc) {
+        TickScheduler.get().setBudgetNs(rc.tickBudgetUs() * 1_000L);
+    }
+
+    private void onStrideChanged(TickScheduler.Task t, long tookNs, int oldStride, int newStride) {
+        String ev = newStride > oldStride ? BudgetEvent.EXCEEDED : BudgetEvent.RECOVERED;
+        bus.publish(cfg.evtTopic, new BudgetEvent(ev, t.name(), tookNs / 1_000L,
+            TickScheduler.get().budgetNs() / 1_000L, newStride, oldStride));
+    }
+
+    private static JsonObject profile(TickScheduler sched) {
+        JsonObject tasks = new JsonObject();
+        for (TickScheduler.Task t : sched.tasks()) {
+            JsonObject o = timings(t.profile());
+            o.addProperty("stride", t.stride());
+            o.addProperty("runs", t.runCount());
+            tasks.add(t.name(), o);
+        }
+        JsonObject out = new JsonObject();
+        out.addProperty("event", "tick_profile");
+        out.addProperty("budget_us", sched.budgetNs() / 1_000L);
+        out.add("capture", timings(sched.captureProfile()));
+        out.add("tasks", tasks);
+        return out;
+    }
+
+    private static JsonObject timings(TickScheduler.Profile p) {
+        long[] q = p.quantiles(0.5, 0.9, 0.99);
+        JsonObject o = new JsonObject();
+        o.addProperty("p50_us", q[0] / 1_000L);
+        o.addProperty("p90_us", q[1] / 1_000L);
+        o.addProperty("p99_us", q[2] / 1_000L);
+        o.addProperty("max_us", p.maxNs() / 1_000L);
+        o.addProperty("last_us", p.lastNs() / 1_000L);
+        return o;
+    }
+}
@@ -0,0 +1,121 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.event.RecorderDumpEvent;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.fault.ErrorReporter;
+import com.kilab.auton8.mqtt.FlightRecorder;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameActions;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.BiConsumer;
+
+/**
+ * Owns the bus {@link FlightRecorder} (segments in <data dir>/recorder, sized by
+ * recorder_total_mb, 0 = off) and answers:
+ *
+ *   {type:"recorder_dump"} -> recorder_dumped {path, size_bytes, records, segments}
+ *   failures               -> recorder_error {detail}
+ *
+ * Dumps go to <data dir>/recorder/dumps; read them (or the live segments) offline with
+ * FlightRecorderReader. Opening, resizing and dumping run on a short-lived thread.
+ */
+public final class RecorderBridge implements Bridge {
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int SEGMENTS = 8;
+
+    private final Config cfg;
+    private final MqttBus bus;
+    private final GameActions game;
+
+    private FlightRecorder recorder = null;   // guarded by this
+    private int openMb = 0;                   // guarded by this
+    private boolean enabled = false;          // guarded by this
+    private final BiConsumer<RuntimeConfig, RuntimeConfig> configListener = (prev, next) -> {
+        if (prev.recorderTotalMb() != next.recorderTotalMb()) async(() -> apply(next.recorderTotalMb()));
+    };
+
+    public RecorderBridge(Config cfg, MqttBus bus, GameActions game) {
+        this.cfg = cfg;
+        this.bus = bus;
+        this.game = game;
+    }
+
+    /** Opens synchronously so the session's first messages are already recorded. */
+    @Override
+    public synchronized void enable() {
+        if (enabled) return;
+        enabled = true;
+        cfg.live.addListener(configListener);
+        try {
+            apply(cfg.live.get().recorderTotalMb());
+        } catch (Exception e) {
+            ErrorReporter.get().report("recorder", e);
+        }
+    }
+
+    @Override
+    public synchronized void disable() {
+        enabled = false;
+        cfg.live.removeListener(configListener);
+        closeRecorder();
+    }
+
+    @Override
+    public void onCommand(String json) {
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            if ("recorder_dump".equals(j.has("type") ? j.get("type").getAsString() : "")) async(this::dump);
+        } catch (Exception ignored) {}
+    }
+
+    // ===== Internals =====
+
+    private interface Job { void run() throws Exception; }
+
+    private void async(Job r) {
+        Thread t = new Thread(() -> {
+            try { r.run(); }
+            catch (Throwable e) {
+                ErrorReporter.get().report("recorder", e);
+                bus.publish(cfg.evtTopic, new StatusEvent("recorder_error", e.getClass().getSimpleName()));
+            }
+        }, "auton8-recorder");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private Path dir() { return game.dataDir().resolve("recorder"); }
+
+    private synchronized void apply(int totalMb) throws Exception {
+        if (!enabled || totalMb == openMb) return;
+        closeRecorder();
+        if (totalMb <= 0) return;
+        recorder = FlightRecorder.open(dir(), totalMb * 1024L * 1024L, SEGMENTS);
+        openMb = totalMb;
+        bus.setRecorder(recorder);
+    }
+
+    private void closeRecorder() {
+        bus.setRecorder(null);
+        if (recorder != null) recorder.close();
+        recorder = null;
+        openMb = 0;
+    }
+
+    private synchronized void dump() throws Exception {
+        if (recorder == null) {
+            bus.publish(cfg.evtTopic, new StatusEvent("recorder_error", "not_running"));
+            return;
+        }
+        Path file = dir().resolve("dumps").resolve("recorder-" + cfg.clientId + "-" + LocalDateTime.now().format(STAMP) + ".a8r");
+        FlightRecorder.Dump d = recorder.dump(file);
+        bus.publish(cfg.evtTopic, new RecorderDumpEvent(d.path().toAbsolutePath().toString(), d.sizeBytes(), d.records(), d.segments()));
+    }
+}
@@ -0,0 +1,202 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.fault.ErrorReporter;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.mqtt.MqttMessageHandler;
+import com.kilab.auton8.rules.Rule;
+import com.kilab.auton8.rules.RuleEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local reactions without the n8n round trip: n8n pushes declarative {@link Rule}s, which are
+ * matched in-process against every event the bridges publish (player proximity, life,
+ * telemetry, Baritone/plan events, baritone_state).
+ *
+ *   {type:"rules_set", rules:[...]}   replace all, validated as a whole -> rules_applied {count}
+ *   {type:"rules_add", rule:{...}}    add / replace by id              -> rules_applied {count}
+ *   {type:"rules_remove", id}         -> rules_applied {count}
+ *   {type:"rules_get"}                -> rules_current {rules:[... hits, suppressed, last_hit_ms]}
+ *   bad input                         -> rules_reject {detail:"id" | "on:x" | "op:x:y" | "action:x:y" | ...}
+ *
+ * Actions go through the normal command path (so the chat/Baritone scopes still apply) on a
+ * single rules thread, which like the MQTT callback thread never runs inside a bridge's tick;
+ * each firing is announced as rule_fired {rule, trigger, hits}. Rules live as long as the core
+ * (not persisted): n8n pushes them again on session_start.
+ */
+public final class RulesBridge implements Bridge {
+    private final Config cfg;
+    private final MqttBus bus;
+    private final RuleEngine engine = new RuleEngine();
+    private final MqttMessageHandler sink = this::onPublished;
+    private final String stateTopic;
+
+    private ExecutorService actions = null;   // guarded by this
+
+    public RulesBridge(Config cfg, MqttBus bus) {
+        this.cfg = cfg;
+        this.bus = bus;
+        this.stateTopic = cfg.baritoneStateTopicOrDefault();
+    }
+
+    @Override
+    public synchronized void enable() {
+        if (actions != null) return;
+        actions = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "auton8-rules");
+            t.setDaemon(true);
+            return t;
+        });
+        attach();
+    }
+
+    @Override
+    public synchronized void disable() {
+        bus.removeSink(sink);
+        if (actions != null) { actions.shutdownNow(); actions = null; }
+    }
+
+    @Override
+    public void onCommand(String json) {
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            String type = j.has("type") ? j.get("type").getAsString() : "";
+            if (!type.startsWith("rules_")) return;
+            try {
+                switch (type) {
+                    case "rules_set" -> engine.replace(rules(j));
+                    case "rules_add" -> engine.put(compile(j.get("rule")));
+                    case "rules_remove" -> {
+                        String id = j.has("id") ? j.get("id").getAsString() : "";
+                        if (!engine.remove(id)) throw new IllegalArgumentException("unknown_rule:" + id);
+                    }
+                    case "rules_get" -> {
+                        JsonObject o = new JsonObject();
+                        o.addProperty("event", "rules_current");
+                        o.add("rules", engine.toJson());
+                        bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+                        return;
+                    }
+                    default -> { return; }
+                }
+            } catch (IllegalArgumentException e) {
+                bus.publish(cfg.evtTopic, new StatusEvent("rules_reject", e.getMessage()));
+                return;
+            }
+            attach();
+            JsonObject o = new JsonObject();
+            o.addProperty("event", "rules_applied");
+            o.addProperty("count", engine.size());
+            bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+        } catch (Exception ignored) { /* not a rules command */ }
+    }
+
+    /**
+     * The rules_reject checks that don't depend on the installed rules, for batches to run up
+     * front; an unknown id or a full table only shows when the command runs.
+     *
+     * @throws IllegalArgumentException with the rules_reject detail
+     */
+    public static void validate(JsonObject j) {
+        switch (j.has("type") ? j.get("type").getAsString() : "") {
+            case "rules_set" -> rules(j);
+            case "rules_add" -> compile(j.get("rule"));
+            default -> { }
+        }
+    }
+
+    // ===== Internals =====
+
+    /**
+     * Listen on the bus only while enabled with at least one rule: any sink makes the bus
+     * encode every event even with no broker connected.
+     */
+    private synchronized void attach() {
+        if (actions != null && engine.size() > 0) bus.addSink(sink);
+        else bus.removeSink(sink);
+    }
+
+    private static List<Rule> rules(JsonObject j) {
+        if (!j.has("rules") || !j.get("rules").isJsonArray()) throw new IllegalArgumentException("no_rules");
+        List<Rule> next = new ArrayList<>();
+        for (JsonElement e : j.getAsJsonArray("rules")) next.add(compile(e));
+        if (next.size() > RuleEngine.MAX_RULES) throw new IllegalArgumentException("too_many_rules");
+        return next;
+    }
+
+    private static Rule compile(JsonElement e) {
+        if (e == null || !e.isJsonObject()) throw new IllegalArgumentException("rule");
+        try {
+            return Rule.compile(e.getAsJsonObject());
+        } catch (IllegalArgumentException ex) {
+            if (!(ex instanceof NumberFormatException)) throw ex;
+            throw new IllegalArgumentException(typeReason(e));   // "cooldown_ms":"soon"
+        } catch (RuntimeException ex) {   // a field of the wrong JSON type
+            throw new IllegalArgumentException(typeReason(e));
+        }
+    }
+
+    private static String typeReason(JsonElement e) {
+        JsonElement id = e.getAsJsonObject().get("id");
+        return "type:" + (id != null && id.isJsonPrimitive() ? id.getAsString() : "rule");
+    }
+
+    /** Bus sink: runs on the publishing thread, so matching must stay cheap; actions hop to the rules thread. */
+    private void onPublished(String topic, String json) {
+        if (!topic.equals(cfg.evtTopic) && !topic.equals(stateTopic)) return;
+        List<RuleEngine.Fired> fired = engine.evaluate(json);
+        if (fired.isEmpty()) return;
+        ExecutorService ex;
+        synchronized (this) { ex = actions; }
+        if (ex == null) return;
+        for (RuleEngine.Fired f : fired) {
+            try {
+                ex.execute(() -> run(f));
+            } catch (Exception ignored) { /* shutting down */ }
+        }
+    }
+
+    private void run(RuleEngine.Fired f) {
+        String id = f.rule().id;
+        for (JsonObject a : f.rule().actions(f.event())) {
+            try {
+                String kind = a.keySet().iterator().next();
+                JsonElement v = a.get(kind);
+                JsonObject cmd = new JsonObject();
+                switch (kind) {
+                    case "baritone" -> { cmd.addProperty("type", "baritone_cmd"); cmd.addProperty("cmd", v.getAsString()); }
+                    case "say"      -> { cmd.addProperty("type", "say"); cmd.addProperty("msg", v.getAsString()); }
+                    case "plan"     -> { cmd.addProperty("type", "baritone_ctrl"); cmd.addProperty("action", v.getAsString()); }
+                    case "cmd"      -> cmd = v.getAsJsonObject();
+                    case "publish"  -> {
+                        JsonObject o = v.getAsJsonObject();
+                        if (!o.has("event")) o.addProperty("event", "rule_event");
+                        o.addProperty("rule", id);
+                        bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+                        continue;
+                    }
+                    default -> { continue; }
+                }
+                cmd.addProperty("rule", id);
+                bus.inject(cfg.cmdTopic, cmd.toString());
+            } catch (Throwable t) {
+                ErrorReporter.get().report("rule:" + id, t);
+            }
+        }
+        JsonObject o = new JsonObject();
+        o.addProperty("event", "rule_fired");
+        o.addProperty("rule", id);
+        o.addProperty("trigger", f.type());
+        o.addProperty("hits", f.hits());
+        bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+    }
+}
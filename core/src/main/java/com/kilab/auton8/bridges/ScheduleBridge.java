@@ -0,0 +1,401 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.core.TimerWheel;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.fault.ErrorReporter;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameActions;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Locally scheduled commands, so n8n doesn't have to keep an execution alive to "wait, then send".
+ *
+ *   {type:"schedule", id?, cmd:{type:..}, at:<epoch ms> | delay_ms:n, every_ms:n?, count:n?}
+ *       -> schedule_applied {id, due_ms, pending}; an existing id is replaced
+ *   {type:"cancel_schedule", id}     ("*" = all) -> schedule_cancelled {id, count}
+ *   {type:"schedule_get"}            -> schedule_current {timers:[{id, due_ms, every_ms, left, runs, cmd}]}
+ *   bad input                        -> schedule_reject {detail:"cmd" | "when" | "every_ms" | ...}
+ *   last run of a timer              -> schedule_done {id, runs}
+ *
+ * Timers live in a {@link TimerWheel} (one bucket per client tick) advanced by the tick, so the
+ * firing resolution is a tick and thousands of timers cost nothing until they are due. A due
+ * command gets "schedule":id and goes through the normal command path on a single schedule
+ * thread, in due order, never inside the tick itself. A repeating timer that fell behind skips
+ * the runs it missed rather than bursting. schedule_drift_ms records how late each run was.
+ *
+ * Pending timers are saved to <data dir>/schedules-<client id>.json on disable and restored on
+ * enable; one-shots that came due more than {@value #MISSED_GRACE_MS} ms before that are
+ * dropped (schedule_missed {id, late_ms}) instead of firing long after the fact.
+ */
+public final class ScheduleBridge implements Bridge {
+    private static final int SLOTS = 512;                      // ~25 s per revolution at 50 ms
+    private static final long RESOLUTION_MS = 50L;
+    private static final int MAX_TIMERS = 10_000;
+    private static final long MIN_EVERY_MS = 50L;
+    private static final long MAX_HORIZON_MS = 7L * 24 * 3_600_000L;
+    private static final long MISSED_GRACE_MS = 60_000L;
+    private static final int MAX_CMD_CHARS = 8_192;
+
+    private static final Counter FIRED   = Metrics.get().counter("schedule_fired_total");
+    private static final Counter SKIPPED = Metrics.get().counter("schedule_skipped_total");
+    private static final Counter MISSED  = Metrics.get().counter("schedule_missed_total");
+    private static final Histogram DRIFT = Metrics.get().histogram("schedule_drift_ms");
+
+    /** One scheduled command; its fields are guarded by the bridge. */
+    private static final class Entry {
+        final String id;
+        final String cmd;          // with "schedule":id already added
+        final long everyMs;        // 0 = one-shot
+        long left;                 // runs left, -1 = unlimited
+        long runs = 0L;
+        final long seq;            // install order, breaks ties between equal deadlines
+        TimerWheel.Timer<Entry> timer;
+
+        Entry(String id, String cmd, long everyMs, long left, long seq) {
+            this.id = id;
+            this.cmd = cmd;
+            this.everyMs = everyMs;
+            this.left = left;
+            this.seq = seq;
+        }
+    }
+
+    private final Config cfg;
+    private final MqttBus bus;
+    private final GameActions game;
+
+    // guarded by this
+    private TimerWheel<Entry> wheel = new TimerWheel<>(SLOTS, RESOLUTION_MS, Clock.monoMs());
+    private final LinkedHashMap<String, Entry> byId = new LinkedHashMap<>();
+    private long seq = 0L;
+    private ExecutorService dispatch = null;
+    private TickScheduler.Task task = null;
+
+    // tick thread only
+    private final List<TimerWheel.Timer<Entry>> expired = new ArrayList<>();
+
+    public ScheduleBridge(Config cfg, MqttBus bus, GameActions game) {
+        this.cfg = cfg;
+        this.bus = bus;
+        this.game = game;
+    }
+
+    @Override
+    public synchronized void enable() {
+        if (task != null) return;
+        dispatch = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "auton8-schedule");
+            t.setDaemon(true);
+            return t;
+        });
+        wheel = new TimerWheel<>(SLOTS, RESOLUTION_MS, Clock.monoMs());
+        byId.clear();
+        restore();
+        Metrics.get().gauge("schedule_pending", this::pending);
+        task = TickScheduler.get().schedule("schedule", TickScheduler.Period.everyTick(), snap -> advance(snap.monoMs));
+    }
+
+    @Override
+    public synchronized void disable() {
+        if (task == null) return;
+        task.cancel();
+        task = null;
+        dispatch.shutdown();
+        dispatch = null;
+        save();
+        byId.clear();
+        wheel = new TimerWheel<>(SLOTS, RESOLUTION_MS, Clock.monoMs());
+        Metrics.get().removeGauge("schedule_pending");
+    }
+
+    @Override
+    public void onCommand(String json) {
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            String type = j.has("type") ? j.get("type").getAsString() : "";
+            switch (type) {
+                case "schedule" -> schedule(j);
+                case "cancel_schedule" -> cancel(j.has("id") ? j.get("id").getAsString() : "");
+                case "schedule_get" -> {
+                    JsonObject o = new JsonObject();
+                    o.addProperty("event", "schedule_current");
+                    o.add("timers", timersJson());
+                    bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+                }
+                default -> { }
+            }
+        } catch (Exception ignored) { /* not a schedule command */ }
+    }
+
+    /**
+     * The schedule_reject checks that don't depend on the installed timers, for batches to run
+     * up front; a full table or an unknown id to cancel only shows when the command runs.
+     *
+     * @throws IllegalArgumentException with the schedule_reject detail
+     */
+    public static void validate(JsonObject j) {
+        if ("schedule".equals(j.has("type") ? j.get("type").getAsString() : "")) spec(j, Clock.monoMs());
+    }
+
+    // ===== Internals =====
+
+    private synchronized long pending() { return byId.size(); }
+
+    /** A schedule command that passed {@link #spec}. */
+    private record Spec(String id, String body, long everyMs, long count, long dueMono) {}
+
+    /** Parse and check a schedule command against the clocks only; no bridge state. */
+    private static Spec spec(JsonObject j, long nowMono) {
+        try {
+            String id = j.has("id") ? j.get("id").getAsString() : UUID.randomUUID().toString().substring(0, 8);
+            if (id.isBlank() || id.length() > 64 || id.equals("*")) throw new IllegalArgumentException("id");
+            if (!j.has("cmd") || !j.get("cmd").isJsonObject()) throw new IllegalArgumentException("cmd");
+            JsonObject cmd = j.getAsJsonObject("cmd").deepCopy();
+            String ct = cmd.has("type") && cmd.get("type").isJsonPrimitive() ? cmd.get("type").getAsString() : "";
+            if (ct.isEmpty() || ct.equals("schedule")) throw new IllegalArgumentException("cmd");
+            cmd.addProperty("schedule", id);
+            String body = cmd.toString();
+            if (body.length() > MAX_CMD_CHARS) throw new IllegalArgumentException("cmd_size");
+
+            long every = num(j, "every_ms", 0L);
+            if (every != 0 && (every < MIN_EVERY_MS || every > MAX_HORIZON_MS)) throw new IllegalArgumentException("every_ms");
+            long count = num(j, "count", -1L);
+            if (j.has("count") && (every == 0 || count < 1)) throw new IllegalArgumentException("count");
+
+            long dueMono;
+            if (j.has("at") && j.has("delay_ms")) throw new IllegalArgumentException("when");
+            if (j.has("at")) {
+                long delay = num(j, "at", 0L) - Clock.wallMs();
+                if (delay > MAX_HORIZON_MS) throw new IllegalArgumentException("at");
+                dueMono = nowMono + Math.max(0L, delay);
+            } else if (j.has("delay_ms")) {
+                long delay = num(j, "delay_ms", 0L);
+                if (delay < 0 || delay > MAX_HORIZON_MS) throw new IllegalArgumentException("delay_ms");
+                dueMono = nowMono + delay;
+            } else if (every > 0) {
+                dueMono = nowMono + every;
+            } else {
+                throw new IllegalArgumentException("when");
+            }
+            return new Spec(id, body, every, count, dueMono);
+        } catch (IllegalArgumentException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {   // a field of the wrong JSON type
+            throw new IllegalArgumentException("type");
+        }
+    }
+
+    private void schedule(JsonObject j) {
+        Spec sp;
+        try {
+            sp = spec(j, Clock.monoMs());
+            synchronized (this) {
+                if (task == null) throw new IllegalArgumentException("disabled");
+                if (!byId.containsKey(sp.id) && byId.size() >= MAX_TIMERS) throw new IllegalArgumentException("too_many_timers");
+                Entry e = new Entry(sp.id, sp.body, sp.everyMs, sp.everyMs > 0 ? sp.count : 1L, seq++);
+                Entry old = byId.put(sp.id, e);
+                if (old != null) wheel.cancel(old.timer);
+                e.timer = wheel.add(sp.dueMono, e);
+            }
+        } catch (IllegalArgumentException ex) {
+            bus.publish(cfg.evtTopic, new StatusEvent("schedule_reject", ex.getMessage()));
+            return;
+        }
+        JsonObject o = new JsonObject();
+        o.addProperty("event", "schedule_applied");
+        o.addProperty("id", sp.id);
+        o.addProperty("due_ms", toWall(sp.dueMono));
+        o.addProperty("pending", pending());
+        bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+    }
+
+    private void cancel(String id) {
+        int n = 0;
+        synchronized (this) {
+            if (id.equals("*")) {
+                for (Entry e : byId.values()) if (wheel.cancel(e.timer)) n++;
+                byId.clear();
+            } else {
+                Entry e = byId.remove(id);
+                if (e != null && wheel.cancel(e.timer)) n++;
+            }
+        }
+        if (n == 0 && !id.equals("*")) {
+            bus.publish(cfg.evtTopic, new StatusEvent("schedule_reject", "unknown_schedule:" + id));
+            return;
+        }
+        JsonObject o = new JsonObject();
+        o.addProperty("event", "schedule_cancelled");
+        o.addProperty("id", id);
+        o.addProperty("count", n);
+        bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+    }
+
+    /** Tick task: expire due timers, hand their commands to the schedule thread, re-arm repeats. */
+    private void advance(long now) {
+        List<String> send = null;
+        List<Entry> done = null;
+        ExecutorService ex;
+        synchronized (this) {
+            ex = dispatch;
+            if (wheel.advance(now, expired) == 0) return;
+            expired.sort(Comparator.comparingLong((TimerWheel.Timer<Entry> t) -> t.deadlineMs()).thenComparingLong(t -> t.payload().seq));
+            send = new ArrayList<>(expired.size());
+            for (TimerWheel.Timer<Entry> t : expired) {
+                Entry e = t.payload();
+                DRIFT.record(now - t.deadlineMs());
+                FIRED.inc();
+                e.runs++;
+                send.add(e.cmd);
+                if (e.left > 0) e.left--;
+                if (e.everyMs > 0 && e.left != 0) {
+                    long next = t.deadlineMs() + e.everyMs;
+                    if (next <= now) {
+                        long behind = (now - next) / e.everyMs + 1;
+                        SKIPPED.add(behind);
+                        next += behind * e.everyMs;
+                    }
+                    e.timer = wheel.add(next, e);
+                } else {
+                    byId.remove(e.id);
+                    if (done == null) done = new ArrayList<>(2);
+                    done.add(e);
+                }
+            }
+            expired.clear();
+        }
+        if (ex != null) {
+            for (String cmd : send) {
+                try {
+                    ex.execute(() -> bus.inject(cfg.cmdTopic, cmd));
+                } catch (Exception ignored) { /* shutting down */ }
+            }
+        }
+        if (done != null) {
+            for (Entry e : done) {
+                JsonObject o = new JsonObject();
+                o.addProperty("event", "schedule_done");
+                o.addProperty("id", e.id);
+                o.addProperty("runs", e.runs);
+                bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+            }
+        }
+    }
+
+    private synchronized JsonArray timersJson() {
+        JsonArray a = new JsonArray();
+        for (Entry e : byId.values()) {
+            JsonObject t = new JsonObject();
+            t.addProperty("id", e.id);
+            t.addProperty("due_ms", toWall(e.timer.deadlineMs()));
+            t.addProperty("every_ms", e.everyMs);
+            t.addProperty("left", e.left);
+            t.addProperty("runs", e.runs);
+            JsonObject cmd = JsonParser.parseString(e.cmd).getAsJsonObject();
+            cmd.remove("schedule");
+            t.add("cmd", cmd);
+            a.add(t);
+        }
+        return a;
+    }
+
+    private static long toWall(long mono) { return mono - Clock.monoMs() + Clock.wallMs(); }
+
+    private static long num(JsonObject j, String key, long def) {
+        if (!j.has(key)) return def;
+        JsonElement v = j.get(key);
+        if (!v.isJsonPrimitive() || !v.getAsJsonPrimitive().isNumber()) throw new IllegalArgumentException(key);
+        return v.getAsLong();
+    }
+
+    // ===== Persistence =====
+
+    private Path file() {
+        return game.dataDir().resolve("schedules-" + (cfg.clientId == null ? "default" : cfg.clientId) + ".json");
+    }
+
+    /** Write pending timers (wall-clock deadlines) to the data dir; called with the lock held. */
+    private void save() {
+        Path f = file();
+        try {
+            if (byId.isEmpty()) {
+                Files.deleteIfExists(f);
+                return;
+            }
+            JsonObject o = new JsonObject();
+            o.addProperty("saved_ms", Clock.wallMs());
+            o.add("timers", timersJson());
+            Files.createDirectories(f.toAbsolutePath().getParent());
+            Path tmp = f.resolveSibling(f.getFileName() + ".tmp");
+            Files.writeString(tmp, o.toString(), StandardCharsets.UTF_8);
+            Files.move(tmp, f, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            ErrorReporter.get().report("schedule_save", e);
+        }
+    }
+
+    /** Re-arm what {@link #save} left behind; called with the lock held, before the tick task exists. */
+    private void restore() {
+        Path f = file();
+        if (!Files.exists(f)) return;
+        List<String> missed = new ArrayList<>();
+        List<Long> lateMs = new ArrayList<>();
+        try {
+            JsonObject o = JsonParser.parseString(Files.readString(f, StandardCharsets.UTF_8)).getAsJsonObject();
+            long wall = Clock.wallMs(), mono = Clock.monoMs();
+            for (JsonElement el : o.getAsJsonArray("timers")) {
+                JsonObject t = el.getAsJsonObject();
+                String id = t.get("id").getAsString();
+                long every = t.get("every_ms").getAsLong();
+                long late = wall - t.get("due_ms").getAsLong();
+                long due = mono - late;
+                if (every == 0 && late > MISSED_GRACE_MS) {
+                    MISSED.inc();
+                    missed.add(id);
+                    lateMs.add(late);
+                    continue;
+                }
+                if (every > 0 && late > 0) due += ((late + every - 1) / every) * every;   // realign, skip what was missed
+                JsonObject cmd = t.getAsJsonObject("cmd");
+                cmd.addProperty("schedule", id);
+                Entry e = new Entry(id, cmd.toString(), every, t.get("left").getAsLong(), seq++);
+                e.runs = t.get("runs").getAsLong();
+                e.timer = wheel.add(due, e);
+                byId.put(id, e);
+                if (byId.size() >= MAX_TIMERS) break;
+            }
+            Files.deleteIfExists(f);
+        } catch (Exception e) {
+            ErrorReporter.get().report("schedule_restore", e);
+        }
+        for (int i = 0; i < missed.size(); i++) {
+            JsonObject o = new JsonObject();
+            o.addProperty("event", "schedule_missed");
+            o.addProperty("id", missed.get(i));
+            o.addProperty("late_ms", lateMs.get(i));
+            bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+        }
+    }
+}
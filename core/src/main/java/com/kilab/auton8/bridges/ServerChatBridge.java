@@ -0,0 +1,177 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.CommandBatch;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.fault.ErrorReporter;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameActions;
+import com.kilab.auton8.trace.Span;
+
+public final class ServerChatBridge implements Bridge {
+    private final Config cfg;
+    private final MqttBus bus;
+    private final GameActions game;
+
+    // simple anti-spam (client-side), gap from RuntimeConfig.serverChatMinIntervalMs; guarded by this
+    private long lastSendMs = Long.MIN_VALUE;   // never; 0 is a real monotonic time
+    private boolean reserved = false;   // a validated batch holds the current window
+
+    public static final int MAX_TEXT = 256;
+
+    private static final Counter SENT     = Metrics.get().counter("server_chat_sent_total");
+    private static final Counter REJECTED = Metrics.get().counter("server_chat_rejected_total");
+
+    public ServerChatBridge(Config cfg, MqttBus bus, GameActions game) {
+        this.cfg = cfg;
+        this.bus = bus;
+        this.game = game;
+    }
+
+    @Override
+    public void enable() {
+        // no periodic work needed; commands arrive via onCommand()
+    }
+
+    @Override
+    public void disable() { }
+
+    /**
+     * Accepted payloads on cfg.cmdTopic:
+     *   { "type":"server_chat", "text":"hello there" }
+     *   { "type":"server_chat", "text":"/kill" }
+     *   { "type":"server_chat", "to":"User", "message":"hi" }   // -> /msg User hi
+     * Legacy (also accepted):
+     *   { "type":"server_chat", "server_chat":"..." }
+     */
+    @Override
+    public void onCommand(String json) {
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            if (!j.has("type") || !"server_chat".equals(j.get("type").getAsString())) return;
+            final Span span = Span.activeOrRoot("server_chat");
+
+            String text = textOf(j);
+            if (text == null) {
+                REJECTED.inc();
+                bus.publish(cfg.evtTopic, new StatusEvent("reject", "no_text"), span);
+                endSpan(span, "rejected");
+                return;
+            }
+            if (!validText(text)) {
+                REJECTED.inc();
+                bus.publish(cfg.evtTopic, new StatusEvent("reject", "bad_text"), span);
+                endSpan(span, "rejected");
+                return;
+            }
+
+            // tiny client-side rate-limit so flows don't spam unintentionally
+            long now = Clock.monoMs();
+            if (!acquire(now, cfg.live.get().serverChatMinIntervalMs())) {
+                REJECTED.inc();
+                bus.publish(cfg.evtTopic, new StatusEvent("reject", "rate_limited"), span);
+                endSpan(span, "rejected");
+                return;
+            }
+
+            final String send = text;
+            final Span wait = span.child("client_wait");
+            game.execute(() -> {
+                endSpan(wait, "ok");
+                if (!game.canSend()) {
+                    REJECTED.inc();
+                    bus.publish(cfg.evtTopic, new StatusEvent("reject", "no_player"), span);
+                    endSpan(span, "rejected");
+                    return;
+                }
+
+                String s = send.trim();
+                boolean isCommand = s.startsWith("/");
+
+                try {
+                    if (isCommand) {
+                        // commands are sent WITHOUT the leading slash
+                        game.sendCommand(s.substring(1));
+                    } else {
+                        game.sendChat(s);
+                    }
+                } catch (Throwable t) {
+                    // Fallback: at worst, send as plain chat (will show but might not execute)
+                    game.sendChat(s);
+                }
+
+                // echo back what we sent (useful for n8n logs)
+                JsonObject ack = new JsonObject();
+                ack.addProperty("mode", isCommand ? "command" : "chat");
+                ack.addProperty("echo", s);
+                SENT.inc();
+                bus.publish(cfg.evtTopic, JsonUtils.wrap("accepted", ack), span);
+                endSpan(span, "ok");
+            });
+
+        } catch (Exception e) {
+            ErrorReporter.get().report("server_chat", e);
+        }
+    }
+
+    /**
+     * The text a server_chat command would send ({@code text}, legacy {@code server_chat}, or
+     * {@code to}+{@code message} as /msg), newlines stripped and trimmed; null when it has none.
+     */
+    public static String textOf(JsonObject j) {
+        String text = null;
+        if (j.has("text")) {
+            text = j.get("text").getAsString();
+        } else if (j.has("server_chat")) { // legacy key
+            text = j.get("server_chat").getAsString();
+        } else if (j.has("to") && j.has("message")) { // helper -> whisper
+            text = "/msg " + j.get("to").getAsString() + " " + j.get("message").getAsString();
+        }
+        // light validation: strip newlines; keep size sane
+        return text == null ? null : text.replace("\n", " ").replace("\r", " ").trim();
+    }
+
+    public static boolean validText(String text) {
+        return !text.isEmpty() && text.length() <= MAX_TEXT;
+    }
+
+    /** Whether a send at {@code nowMs} (monotonic) would be refused by the client-side rate limit. */
+    public synchronized boolean rateLimited(long nowMs, long minIntervalMs) {
+        return lastSendMs != Long.MIN_VALUE && nowMs - lastSendMs < minIntervalMs;
+    }
+
+    /**
+     * Take the window at {@code nowMs} for the server_chat of a batch that passed validation, so
+     * nothing handled before the batch runs can use it; that server_chat then skips the check.
+     */
+    public synchronized boolean reserve(long nowMs, long minIntervalMs) {
+        if (rateLimited(nowMs, minIntervalMs)) return false;
+        lastSendMs = nowMs;
+        reserved = true;
+        return true;
+    }
+
+    /** Drop a reservation the batch didn't use (no player, or it had ended). */
+    public synchronized void release() { reserved = false; }
+
+    /** Take the window for a send now: the running batch's reservation, or a fresh one. */
+    private synchronized boolean acquire(long nowMs, long minIntervalMs) {
+        if (reserved && CommandBatch.Inline.running()) {
+            reserved = false;
+            return true;
+        }
+        if (rateLimited(nowMs, minIntervalMs)) return false;
+        lastSendMs = nowMs;
+        return true;
+    }
+
+    private void endSpan(Span span, String status) {
+        if (cfg.live.get().traceSpans()) bus.publish(cfg.evtTopic, span.end(status), span);
+    }
+}
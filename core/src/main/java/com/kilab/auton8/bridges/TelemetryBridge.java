@@ -0,0 +1,117 @@
+package com.kilab.auton8.bridges;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.event.CoordsEvent;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.event.TelemetryEvent;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameActions;
+
+import java.util.function.BiConsumer;
+
+public final class TelemetryBridge implements Bridge {
+    private final Config cfg;
+    private final MqttBus bus;
+    private final GameActions game;
+
+    private static final Counter PUBLISHED = Metrics.get().counter("telemetry_published_total");
+
+    private volatile TickScheduler.Task task = null;
+    private final BiConsumer<RuntimeConfig, RuntimeConfig> configListener = this::onConfigChanged;
+
+    // remember last dimension → so we can emit dimension_changed events
+    private String lastDimension = null;
+
+    public TelemetryBridge(Config cfg, MqttBus bus, GameActions game) {
+        this.cfg = cfg;
+        this.bus = bus;
+        this.game = game;
+    }
+
+    @Override
+    public synchronized void enable() {
+        if (task != null) return;
+
+        // Send one immediately so we have state right away, next one a full interval later
+        publishTelemetryIfAvailable();
+        schedule(cfg.live.get().telemetryIntervalMs());
+        cfg.live.addListener(configListener);
+    }
+
+    @Override
+    public synchronized void disable() {
+        cfg.live.removeListener(configListener);
+        if (task != null) { task.cancel(); task = null; }
+    }
+
+    @Override
+    public void onCommand(String json) {
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            String type = j.has("type") ? j.get("type").getAsString() : "";
+            // Commands arrive on the MQTT thread; the snapshot is only coherent on the client thread.
+            switch (type) {
+                case "get_status" -> game.execute(this::publishTelemetryIfAvailable);
+                case "get_coords" -> game.execute(this::publishCoordsOnly);
+                default -> {}
+            }
+        } catch (Exception ignored) {}
+    }
+
+    // ===== Live update hook (LiveConfig listener, runs on the writer's thread) =====
+
+    private void onConfigChanged(RuntimeConfig prev, RuntimeConfig next) {
+        boolean reEnabled = next.allowTelemetry() && !prev.allowTelemetry();
+        boolean newPeriod = next.telemetryIntervalMs() != prev.telemetryIntervalMs();
+        // Re-submit with the new period; delay 0 makes it fire on the next tick.
+        if (reEnabled || newPeriod) reschedule(0);
+    }
+
+    // ===== Internals =====
+
+    private synchronized void reschedule(long firstDelayMs) {
+        if (task == null) return;
+        task.cancel();
+        schedule(firstDelayMs);
+    }
+
+    private void schedule(long firstDelayMs) {
+        task = TickScheduler.get().schedule("telemetry",
+            TickScheduler.Period.everyMillis(cfg.live.get().telemetryIntervalMs()), firstDelayMs,
+            snap -> { if (cfg.live.get().allowTelemetry()) publishTelemetry(snap); });
+    }
+
+    private void publishTelemetryIfAvailable() {
+        publishTelemetry(TickScheduler.get().snapshot());
+    }
+
+    private void publishTelemetry(TickSnapshot snap) {
+        if (!snap.inWorld) return;
+
+        // dimension change detection
+        String dimension = snap.dimension;
+        if (lastDimension == null || !lastDimension.equals(dimension)) {
+            lastDimension = dimension;
+            bus.publish(cfg.evtTopic, new StatusEvent("dimension_changed", dimension));
+        }
+
+        // telemetry snapshot
+        PUBLISHED.inc();
+        bus.publish(cfg.evtTopic, new TelemetryEvent(snap.x, snap.y, snap.z,
+            snap.health, snap.hunger, snap.saturation, dimension.isBlank() ? null : dimension));
+    }
+
+    private void publishCoordsOnly() {
+        TickSnapshot snap = TickScheduler.get().snapshot();
+        if (!snap.inWorld) return;
+        bus.publish(cfg.evtTopic, new CoordsEvent(snap.x, snap.y, snap.z,
+            snap.dimension.isBlank() ? null : snap.dimension));
+    }
+}
@@ -0,0 +1,28 @@
+package com.kilab.auton8.chat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Bounded LRU of recently published chat keys. */
+public final class ChatDeduper {
+    private final Map<String, Long> seen;
+    private int max;
+
+    public ChatDeduper(int maxEntries) {
+        this.max = maxEntries;
+        this.seen = new LinkedHashMap<>(maxEntries, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<String, Long> e) {
+                return size() > max;
+            }
+        };
+    }
+
+    /** True if {@code key} was seen within {@code windowMs}; otherwise records it and returns false. */
+    public synchronized boolean seenRecently(String key, long nowMs, long windowMs, int maxEntries) {
+        max = maxEntries; // live-tunable; shrinking trims on subsequent puts
+        Long t = seen.get(key);
+        if (t != null && (nowMs - t) <= windowMs) return true;
+        seen.put(key, nowMs);
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package com.kilab.auton8.chat;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** Splits raw server/system chat lines into (sender, message) and builds dedupe keys. */
+public final class ChatParser {
+    private ChatParser() {}
+
+    /** A parsed line; {@code from} is null when no known chat format matched. */
+    public record ChatLine(String from, String msg) {}
+
+    private static final Pattern VANILLA = Pattern.compile("^<(.{1,32}?)>\\s(.*)$");
+    private static final Pattern COLON   = Pattern.compile("^(?:\\[[^\\]]+\\]\\s*)?([A-Za-z0-9_]{2,16})[:>]\\s(.*)$");
+    private static final Pattern ARROW   = Pattern.compile("^(?:\\[[^\\]]+\\]\\s*)?([A-Za-z0-9_]{2,16})\\s»\\s(.*)$");
+
+    private static final Pattern FORMAT_CODES = Pattern.compile("\\u00A7[0-9A-FK-ORa-fk-or]");
+    private static final Pattern WHITESPACE   = Pattern.compile("\\s+");
+
+    /** Try vanilla {@code <name> msg}, then {@code [rank] name: msg}, then {@code [rank] name » msg}. */
+    public static ChatLine parse(String raw) {
+        Matcher m = VANILLA.matcher(raw);
+        if (m.matches()) return new ChatLine(m.group(1), m.group(2));
+        m = COLON.matcher(raw);
+        if (m.matches()) return new ChatLine(m.group(1), m.group(2));
+        m = ARROW.matcher(raw);
+        if (m.matches()) return new ChatLine(m.group(1), m.group(2));
+        return new ChatLine(null, raw);
+    }
+
+    /** Strip § formatting, collapse whitespace, lowercase. */
+    public static String normalize(String s) {
+        if (s == null) return "";
+        String noFmt = FORMAT_CODES.matcher(s).replaceAll("");
+        return WHITESPACE.matcher(noFmt).replaceAll(" ").trim().toLowerCase();
+    }
+
+    /** Key used to drop the same line arriving through several hooks. */
+    public static String dedupeKey(String from, String msg) {
+        return from.toLowerCase() + "|" + normalize(msg);
+    }
+}
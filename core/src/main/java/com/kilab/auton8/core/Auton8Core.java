@@ -0,0 +1,440 @@
+package com.kilab.auton8.core;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.bridges.*;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.jfr.CommandDispatchEvent;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.spi.GameActions;
+import com.kilab.auton8.trace.Span;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Auton8Core {
+    private final Config cfg;
+    private final MqttBus bus;
+    private final CommandBatch.Inline game;
+
+    private final ChatBridge chatBridge;
+    private final BaritoneBridge baritoneBridge;
+    private final PlayerBridge playerBridge;
+    private final TelemetryBridge telemetryBridge;
+    private final ConnectionBridge connectionBridge;
+    private final ServerChatBridge serverChatBridge;
+    private final HudBridge hudBridge;
+    private final LifeBridge lifeBridge;
+    private final ClockBridge clockBridge;
+    private final MetricsBridge metricsBridge;
+    private final ProfilerBridge profilerBridge;
+    private final JfrBridge jfrBridge;
+    private final ErrorBridge errorBridge;
+    private final RecorderBridge recorderBridge;
+    private final HttpBridge httpBridge;
+    private final RulesBridge rulesBridge;
+    private final ScheduleBridge scheduleBridge;
+    private final GeofenceBridge geofenceBridge;
+    private final EntityBridge entityBridge;
+
+    private static final Counter CMDS_RECEIVED = Metrics.get().counter("cmd_received_total");
+    private static final Histogram CMD_DISPATCH_NS = Metrics.get().histogram("cmd_dispatch_ns");
+
+    /**
+     * @param game write side of the game (the Fabric adapter in the mod, a stub when headless);
+     *             the read side is supplied per tick to {@link TickScheduler#tick}.
+     */
+    public Auton8Core(Config cfg, GameActions game) {
+        // Keep a copy so runtime edits are local to this core instance
+        this.cfg = cfg.copy();
+        this.bus = new MqttBus(this.cfg);
+        // Bridges hop to the game thread through this, so a batch can run their work inline
+        this.game = new CommandBatch.Inline(game);
+
+        // Create Baritone first so ChatBridge can forward local "#..." lines to it
+        this.baritoneBridge   = new BaritoneBridge(this.cfg, bus, this.game);
+
+        // ChatBridge now receives the baritone reference (new ctor)
+        this.chatBridge       = new ChatBridge(this.cfg, bus, this.game, baritoneBridge);
+
+        this.playerBridge     = new PlayerBridge(this.cfg, bus);
+        this.telemetryBridge  = new TelemetryBridge(this.cfg, bus, this.game);
+        this.connectionBridge = new ConnectionBridge(this.cfg, bus);
+        this.serverChatBridge = new ServerChatBridge(this.cfg, bus, this.game);
+        this.hudBridge        = new HudBridge(bus, this.cfg);
+        this.lifeBridge       = new LifeBridge(this.cfg, bus);
+        this.clockBridge      = new ClockBridge(this.cfg, bus);
+        this.metricsBridge    = new MetricsBridge(this.cfg, bus);
+        this.profilerBridge   = new ProfilerBridge(this.cfg, bus);
+        this.jfrBridge        = new JfrBridge(this.cfg, bus, this.game);
+        this.errorBridge      = new ErrorBridge(this.cfg, bus);
+        this.recorderBridge   = new RecorderBridge(this.cfg, bus, this.game);
+        this.httpBridge       = new HttpBridge(this.cfg, bus);
+        this.rulesBridge      = new RulesBridge(this.cfg, bus);
+        this.scheduleBridge   = new ScheduleBridge(this.cfg, bus, this.game);
+        this.geofenceBridge   = new GeofenceBridge(this.cfg, bus, this.game);
+        this.entityBridge     = new EntityBridge(this.cfg, bus);
+
+        // Fan out commands arriving on /cmd to relevant bridges.
+        bus.onMessage(this.cfg.cmdTopic, (topic, json) -> {
+            CMDS_RECEIVED.inc();
+            CommandDispatchEvent jfr = new CommandDispatchEvent();
+            jfr.begin();
+            long t0 = Metrics.startTimer();
+            clockBridge.onCommand(json);   // first, so ping receive stamps aren't delayed by the others
+            // Root span of this command: replies published below carry its ids, bridges that
+            // finish later capture it (Span.activeOrRoot) and end it when the work is done.
+            Span span = Span.inbound(json, clockBridge.offsetMs());
+            Span.enter(span);
+            try {
+                Span queue = span.queueSpan();
+                if (queue != null && this.cfg.live.get().traceSpans()) bus.publish(this.cfg.evtTopic, queue.endAt("ok", span.startNs), queue);
+                dispatch(json);
+                onBatchCommand(json);
+            } finally {
+                Span.exit();
+            }
+            CMD_DISPATCH_NS.recordSince(t0);
+            jfr.end();
+            if (jfr.shouldCommit()) {
+                jfr.bytes = json.length();
+                jfr.commit();
+            }
+        });
+
+        // Listen for connection/session events so we can reset Baritone's plan queue
+        bus.onMessage(this.cfg.evtTopic, (topic, json) -> {
+            try {
+                JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+
+                // Two shapes are emitted by ConnectionBridge:
+                // 1) {type:"session_start", ...}
+                // 2) {type:"status", value:"connected", reset:true, ...}
+                String type  = j.has("type")  ? j.get("type").getAsString() : "";
+                String value = j.has("value") ? j.get("value").getAsString() : "";
+                boolean reset = j.has("reset") && j.get("reset").getAsBoolean();
+
+                if ("session_start".equals(type) || ("status".equals(type) && "connected".equals(value) && reset)) {
+                    baritoneBridge.resetPlanOnSessionStart();
+                }
+            } catch (Throwable ignored) { /* never break on event parsing */ }
+        });
+    }
+
+    /** Hand one command to every bridge (each ignores the types that aren't its own). */
+    private void dispatch(String json) {
+        onConfigCommand(json);
+        chatBridge.onCommand(json);
+        baritoneBridge.onCommand(json);
+        telemetryBridge.onCommand(json);
+        serverChatBridge.onCommand(json);
+        jfrBridge.onCommand(json);
+        recorderBridge.onCommand(json);
+        rulesBridge.onCommand(json);
+        scheduleBridge.onCommand(json);
+        geofenceBridge.onCommand(json);
+        entityBridge.onCommand(json);
+    }
+
+    /** The bus this core publishes on (headless runs attach a local sink or inject commands). */
+    public MqttBus bus() { return bus; }
+
+    public void enable() {
+        recorderBridge.enable();      // before connecting, so the whole session is recorded
+        httpBridge.enable();          // likewise streamed; with no broker URI it is the only transport
+        bus.connect();
+
+        // Fresh plan/queue for this runtime stretch
+        baritoneBridge.resetPlanOnSessionStart();
+
+        // --- Announce a brand-new session so n8n can hard-reset state ---
+        emitSessionStart();
+        // Optional: push one snapshot so n8n immediately sees the new session_id on data
+        try { requestOneShotTelemetry(); } catch (Throwable ignored) {}
+
+        // --- Hard stop any stale Baritone path (route via cmd topic) ---
+        String cancel = "{\"type\":\"baritone_cmd\",\"cmd\":\"#cancel\",\"session_id\":\""
+            + (cfg.sessionId == null ? "" : cfg.sessionId)
+            + "\",\"ts\":" + Clock.wallMs() + "}";
+        bus.publish(cfg.cmdTopic, cancel);
+
+        // Bring up bridges
+        connectionBridge.enable();
+        chatBridge.enable();          // registers chat hooks (needed to catch local "#...")
+        baritoneBridge.enable();      // registers tick loop
+        playerBridge.enable();
+        telemetryBridge.enable();
+        serverChatBridge.enable();
+        hudBridge.start();
+        lifeBridge.enable();
+        clockBridge.enable();
+        metricsBridge.enable();
+        profilerBridge.enable();
+        jfrBridge.enable();
+        errorBridge.enable();
+        rulesBridge.enable();
+        geofenceBridge.enable();      // loads saved zones
+        entityBridge.enable();
+        scheduleBridge.enable();      // restores timers saved by the last disable
+    }
+
+    public void disable() {
+        // Stop bridges first
+        connectionBridge.disable();
+        chatBridge.disable();
+        baritoneBridge.disable();
+        playerBridge.disable();
+        telemetryBridge.disable();
+        serverChatBridge.disable();
+        hudBridge.stop();
+        lifeBridge.disable();
+        clockBridge.disable();
+        metricsBridge.disable();
+        profilerBridge.disable();
+        jfrBridge.disable();
+        errorBridge.disable();
+        rulesBridge.disable();
+        scheduleBridge.disable();     // saves pending timers
+        geofenceBridge.disable();
+        entityBridge.disable();
+
+        // Tell n8n the session is ending (sync so it lands before disconnect)
+        try { emitSessionEnd(); } catch (Throwable ignored) {}
+
+        bus.close();
+        httpBridge.disable();
+        recorderBridge.disable();
+    }
+
+    /* =========================
+       Session announcement API
+       ========================= */
+
+    /** Publish {event:"session_start", session_id, client_id, ts}. */
+    public void emitSessionStart() {
+        JsonObject o = new JsonObject();
+        o.addProperty("event", "session_start");
+        if (cfg.clientId != null)  o.addProperty("client_id", cfg.clientId);
+        if (cfg.sessionId != null) o.addProperty("session_id", cfg.sessionId);
+        o.addProperty("ts", Clock.wallMs());
+        bus.publish(cfg.evtTopic, o.toString());
+    }
+
+    /** Publish {event:"session_end", session_id, client_id, ts} (QoS1 blocking). */
+    public void emitSessionEnd() {
+        JsonObject o = new JsonObject();
+        o.addProperty("event", "session_end");
+        if (cfg.clientId != null)  o.addProperty("client_id", cfg.clientId);
+        if (cfg.sessionId != null) o.addProperty("session_id", cfg.sessionId);
+        o.addProperty("ts", Clock.wallMs());
+        bus.publishSync(cfg.evtTopic, o.toString(), 750);
+    }
+
+    /** Send one minimal telemetry sample so the new session_id shows up in data immediately. */
+    public void requestOneShotTelemetry() {
+        JsonObject out = new JsonObject();
+        out.addProperty("event", "telemetry");
+        if (cfg.clientId != null)  out.addProperty("client_id", cfg.clientId);
+        if (cfg.sessionId != null) out.addProperty("session_id", cfg.sessionId);
+        out.addProperty("ts", Clock.wallMs());
+
+        JsonObject obs = new JsonObject();
+        TickSnapshot snap = TickScheduler.get().snapshot();
+        if (snap.inWorld) {
+            obs.addProperty("dimension", snap.dimensionId); // e.g., "minecraft:overworld"
+            JsonObject coords = new JsonObject();
+            coords.addProperty("x", snap.x);
+            coords.addProperty("y", snap.y);
+            coords.addProperty("z", snap.z);
+            obs.add("coords", coords);
+            obs.addProperty("health", (double) snap.health);
+            obs.addProperty("hunger", snap.hunger);
+            obs.addProperty("saturation", snap.saturation);
+        }
+
+        out.add("obs", obs);
+        bus.publish(cfg.evtTopic, out.toString());
+    }
+
+    /* =========================
+       Live-setting update API
+       ========================= */
+
+    /** Enable / disable publishing received chat to MQTT */
+    public void setAllowChatRx(boolean v) {
+        cfg.live.update(c -> c.with("allow_chat_rx", v));
+    }
+
+    /** Enable / disable sending chat from MQTT to the server */
+    public void setAllowChatTx(boolean v) {
+        cfg.live.update(c -> c.with("allow_chat_tx", v));
+    }
+
+    /** Enable / disable telemetry publishing (TelemetryBridge re-arms itself via its config listener) */
+    public void setAllowTelemetry(boolean v) {
+        cfg.live.update(c -> c.with("allow_telemetry", v));
+    }
+
+    /** Enable / disable acceptance of Baritone commands from MQTT */
+    public void setAllowBaritone(boolean v) {
+        cfg.live.update(c -> c.with("allow_baritone", v));
+    }
+
+    /** Update telemetry cadence in milliseconds. */
+    public void setTelemetryIntervalMs(int ms) {
+        final int clamped = Math.max(50, ms); // basic safety
+        cfg.live.update(c -> c.with("telemetry_interval_ms", clamped));
+    }
+
+    /* =========================
+       Runtime config commands
+       ========================= */
+
+    /**
+     * {type:"config_set", values:{telemetry_interval_ms:1000, player_radius_enter:96, ...}}
+     *   -> validated as a whole and swapped atomically, answered with config_applied (full config)
+     *      or config_reject {detail:"unknown_key:x" | "range:x" | "type:x"} leaving the old config live.
+     * {type:"config_get"} -> config_current (full config)
+     */
+    private void onConfigCommand(String json) {
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            String type = j.has("type") ? j.get("type").getAsString() : "";
+            switch (type) {
+                case "config_get" -> publishConfig("config_current", cfg.live.get());
+                case "config_set" -> {
+                    if (!j.has("values") || !j.get("values").isJsonObject()) {
+                        bus.publish(cfg.evtTopic, new StatusEvent("config_reject", "no_values"));
+                        return;
+                    }
+                    JsonObject patch = j.getAsJsonObject("values");
+                    RuntimeConfig applied;
+                    try {
+                        applied = cfg.live.update(c -> c.withPatch(patch));
+                    } catch (IllegalArgumentException e) {
+                        bus.publish(cfg.evtTopic, new StatusEvent("config_reject", e.getMessage()));
+                        return;
+                    }
+                    publishConfig("config_applied", applied);
+                }
+                default -> { }
+            }
+        } catch (Exception ignored) { /* not a config command */ }
+    }
+
+    /* =========================
+       Command batches
+       ========================= */
+
+    /**
+     * {type:"batch", id?, cmds:[...]} -> validated as a whole ({@link CommandBatch}), then run in
+     * order inside one game-thread task and answered with one combined
+     * batch_done {id, count, took_us, results:[{i, type, ok, event?, detail?}]}, where each result
+     * is what that command replied (its first event, or its reject detail); batch_reject
+     * {id, detail} if it was refused up front or there is no player to send through. The commands'
+     * own replies are still published as usual.
+     *
+     * Validation runs here, on the inbound thread and under the bus's inbound lock like any other
+     * command (a server_chat in the batch takes the rate window now, so nothing handled before
+     * the batch runs can use it up). The game thread then runs a plain task and never waits on
+     * that lock, which handlers may hold across file I/O; the bridges' command paths are
+     * thread-safe on their own (state behind their own locks, game work hopping to the game
+     * thread).
+     */
+    private void onBatchCommand(String json) {
+        JsonObject j;
+        try {
+            j = JsonParser.parseString(json).getAsJsonObject();
+            if (!"batch".equals(j.has("type") ? j.get("type").getAsString() : "")) return;
+        } catch (Exception ignored) {
+            return;   // not a batch
+        }
+        String id = j.has("id") && j.get("id").isJsonPrimitive() ? j.get("id").getAsString() : "";
+        Span span = Span.activeOrRoot("batch");
+        CommandBatch batch;
+        try {
+            batch = CommandBatch.parse(j, cfg.live.get(), serverChatBridge);
+        } catch (IllegalArgumentException e) {
+            publishBatch("batch_reject", id, e.getMessage(), null, -1L, span);
+            return;
+        }
+        game.execute(() -> runBatch(batch, span));
+    }
+
+    private void runBatch(CommandBatch batch, Span span) {
+        try {
+            if (batch.needsPlayer && !game.canSend()) {
+                publishBatch("batch_reject", batch.id, "no_player", null, -1L, span);
+                return;
+            }
+            long t0 = System.nanoTime();
+            JsonArray results = new JsonArray();
+            Span.enter(span);   // the commands' own replies and spans hang off the batch
+            try {
+                game.runInline(() -> {
+                    for (int i = 0; i < batch.cmds.size(); i++) {
+                        String cmd = batch.cmds.get(i);
+                        List<String> replies = new ArrayList<>(2);
+                        bus.capture((topic, ev) -> { if (topic.equals(cfg.evtTopic)) replies.add(ev); }, () -> dispatch(cmd));
+                        results.add(outcome(i, JsonParser.parseString(cmd).getAsJsonObject().get("type").getAsString(), replies));
+                    }
+                });
+            } finally {
+                Span.exit();
+            }
+            publishBatch("batch_done", batch.id, null, results, (System.nanoTime() - t0) / 1_000L, span);
+        } finally {
+            if (batch.holdsServerChat) serverChatBridge.release();
+        }
+    }
+
+    /** {i, type, ok, event?, detail?} from the events one command published (spans aside). */
+    private static JsonObject outcome(int i, String type, List<String> replies) {
+        JsonObject r = new JsonObject();
+        r.addProperty("i", i);
+        r.addProperty("type", type);
+        String first = null, detail = null;
+        boolean ok = true;
+        for (String ev : replies) {
+            JsonObject o;
+            try { o = JsonParser.parseString(ev).getAsJsonObject(); } catch (Exception e) { continue; }
+            String name = o.has("event") ? o.get("event").getAsString() : o.has("type") ? o.get("type").getAsString() : "";
+            if (name.isEmpty() || name.equals("span")) continue;
+            if (first == null) first = name;
+            if (name.equals("reject") || name.endsWith("_reject")) {
+                ok = false;
+                first = name;
+                detail = o.has("detail") && o.get("detail").isJsonPrimitive() ? o.get("detail").getAsString() : name;
+                break;
+            }
+        }
+        r.addProperty("ok", ok);
+        if (first != null) r.addProperty("event", first);
+        if (detail != null) r.addProperty("detail", detail);
+        return r;
+    }
+
+    private void publishBatch(String event, String id, String detail, JsonArray results, long tookUs, Span span) {
+        JsonObject o = new JsonObject();
+        o.addProperty("event", event);
+        o.addProperty("id", id);
+        if (detail != null) o.addProperty("detail", detail);
+        if (results != null) {
+            o.addProperty("count", results.size());
+            o.add("results", results);
+        }
+        if (tookUs >= 0) o.addProperty("took_us", tookUs);
+        bus.publish(cfg.evtTopic, JsonUtils.wrap(o), span);
+    }
+
+    private void publishConfig(String event, RuntimeConfig rc) {
+        JsonObject o = new JsonObject();
+        o.addProperty("event", event);
+        o.add("config", rc.toJson());
+        bus.publish(cfg.evtTopic, JsonUtils.wrap(o));
+    }
+}
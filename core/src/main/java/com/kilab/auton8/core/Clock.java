@@ -0,0 +1,45 @@
+package com.kilab.auton8.core;
+
+/**
+ * The two clocks used by Auton8.
+ *
+ * Wall time ({@link #wallMs()}) is only for stamping events so n8n can line them up with
+ * its own clock. Every interval, timeout and debounce uses the monotonic clock
+ * ({@link #monoMs()}/{@link #monoNs()}), which never jumps when NTP or the user adjusts
+ * the system time — a backwards wall-clock step used to fire spurious stuck_detected.
+ *
+ * Simulators replace both with a virtual clock via {@link #use(Source)}; CPU cost (profiles,
+ * histograms) is always measured with System.nanoTime directly.
+ */
+public final class Clock {
+    // Monotonic values are relative to class load, so they start near 0 and stay positive.
+    private static final long ORIGIN_NS = System.nanoTime();
+
+    /** Replacement time source (both clocks). */
+    public interface Source {
+        long wallMs();
+        long monoNs();
+    }
+
+    private static volatile Source source = null;   // null = system clocks
+
+    private Clock() {}
+
+    /** Route both clocks through {@code s} (null restores the system clocks). */
+    public static void use(Source s) { source = s; }
+
+    /** Epoch milliseconds (may jump). */
+    public static long wallMs() {
+        Source s = source;
+        return s == null ? System.currentTimeMillis() : s.wallMs();
+    }
+
+    /** Nanoseconds since process start (never goes backwards). */
+    public static long monoNs() {
+        Source s = source;
+        return s == null ? System.nanoTime() - ORIGIN_NS : s.monoNs();
+    }
+
+    /** Milliseconds since process start (never goes backwards). */
+    public static long monoMs() { return monoNs() / 1_000_000L; }
+}
@@ -0,0 +1,193 @@
+package com.kilab.auton8.core;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.kilab.auton8.bridges.EntityBridge;
+import com.kilab.auton8.bridges.GeofenceBridge;
+import com.kilab.auton8.bridges.RulesBridge;
+import com.kilab.auton8.bridges.ScheduleBridge;
+import com.kilab.auton8.bridges.ServerChatBridge;
+import com.kilab.auton8.spi.GameActions;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A parsed and validated {type:"batch"} envelope:
+ *
+ *   {type:"batch", id?, cmds:[{type:"say",..}, {type:"baritone_cmd",..}, ...]}
+ *
+ * Everything that can be checked up front is checked for the whole batch before anything runs:
+ * shape and size, known command types (no nested batches, no clock probes), the chat/Baritone
+ * scopes, Baritone/chat text, config_set patches (applied cumulatively, so a batch may enable a
+ * scope and then use it), server_chat, whose text and rate limit are checked the way
+ * {@link ServerChatBridge} checks them (so at most one per batch, and none inside the window
+ * of a previous send), and the rules/schedule/zone/entity commands through their bridge's
+ * static validate(), i.e. every input check behind their *_reject. What depends on bridge
+ * state (an unknown id to remove, a full table) can still be refused when the command runs,
+ * and then shows in its result.
+ *
+ * Commands that answer from another thread or a later tick (JFR, recorder dumps, entity
+ * counts) would have no result to report, so they are refused here rather than batched.
+ *
+ * A failure is a single reason "cmds" | "size" | "type:i" | "unknown:i:x" | "async:i:x" |
+ * "scope:i:x" | "bad:i:x" | "bad:i:x:detail" | "config:i:detail" | "rate:i:server_chat", with
+ * i the index into cmds and detail what the command's own *_reject would have said.
+ */
+public final class CommandBatch {
+    public static final int MAX_CMDS = 64;
+
+    private static final Set<String> KNOWN = Set.of(
+        "say", "server_chat",
+        "baritone_cmd", "baritone_plan", "baritone_ctrl",
+        "get_status", "get_coords",
+        "config_set", "config_get",
+        "rules_set", "rules_add", "rules_remove", "rules_get",
+        "schedule", "cancel_schedule", "schedule_get",
+        "zone_set", "zone_add", "zone_remove", "zone_get",
+        "entity_watch");
+
+    /** Commands whose reply comes from their own thread or a later tick. */
+    private static final Set<String> ASYNC = Set.of(
+        "jfr_start", "jfr_dump", "jfr_stop", "recorder_dump", "entity_counts_get");
+
+    /** Commands that do nothing without a player; the batch is refused as a whole instead. */
+    private static final Set<String> NEEDS_PLAYER = Set.of("say", "server_chat", "baritone_cmd");
+
+    public final String id;
+    /** The commands as JSON, in order. */
+    public final List<String> cmds;
+    public final boolean needsPlayer;
+    /** Holds a server_chat window reservation, to release once the batch has run. */
+    public final boolean holdsServerChat;
+
+    private CommandBatch(String id, List<String> cmds, boolean needsPlayer, boolean holdsServerChat) {
+        this.id = id;
+        this.cmds = cmds;
+        this.needsPlayer = needsPlayer;
+        this.holdsServerChat = holdsServerChat;
+    }
+
+    /**
+     * Runs on the inbound thread; a batch that passes holds the server_chat window from here
+     * until it runs ({@link ServerChatBridge#reserve}).
+     *
+     * @param serverChat whose last send a server_chat in the batch is rate limited against
+     * @throws IllegalArgumentException with the reason the whole batch is refused
+     */
+    public static CommandBatch parse(JsonObject j, RuntimeConfig rc, ServerChatBridge serverChat) {
+        String id = j.has("id") && j.get("id").isJsonPrimitive() ? j.get("id").getAsString() : "";
+        if (!j.has("cmds") || !j.get("cmds").isJsonArray()) throw new IllegalArgumentException("cmds");
+        int n = j.getAsJsonArray("cmds").size();
+        if (n == 0 || n > MAX_CMDS) throw new IllegalArgumentException("size");
+
+        List<String> cmds = new ArrayList<>(n);
+        boolean needsPlayer = false;
+        int serverChatAt = -1;
+        int i = 0;
+        for (JsonElement e : j.getAsJsonArray("cmds")) {
+            JsonObject c = e.isJsonObject() ? e.getAsJsonObject() : null;
+            JsonElement t = c == null ? null : c.get("type");
+            if (t == null || !t.isJsonPrimitive()) throw new IllegalArgumentException("type:" + i);
+            String type = t.getAsString();
+            if (ASYNC.contains(type)) throw new IllegalArgumentException("async:" + i + ":" + type);
+            if (!KNOWN.contains(type)) throw new IllegalArgumentException("unknown:" + i + ":" + type);
+            switch (type) {
+                case "say" -> {
+                    if (!rc.allowChatTx()) throw new IllegalArgumentException("scope:" + i + ":" + type);
+                    if (text(c, "msg").isBlank()) throw new IllegalArgumentException("bad:" + i + ":" + type);
+                }
+                case "baritone_cmd", "baritone_plan", "baritone_ctrl" -> {
+                    if (!rc.allowBaritone()) throw new IllegalArgumentException("scope:" + i + ":" + type);
+                    String cmd = text(c, "cmd");
+                    if (type.equals("baritone_cmd") && (!cmd.startsWith("#") || cmd.length() > 120)) throw new IllegalArgumentException("bad:" + i + ":" + type);
+                }
+                case "server_chat" -> {
+                    if (serverChatAt >= 0) throw new IllegalArgumentException("rate:" + i + ":" + type);
+                    serverChatAt = i;
+                    String text;
+                    try {
+                        text = ServerChatBridge.textOf(c);
+                    } catch (RuntimeException ex) {   // a field of the wrong JSON type
+                        text = null;
+                    }
+                    if (text == null || !ServerChatBridge.validText(text)) throw new IllegalArgumentException("bad:" + i + ":" + type);
+                    if (serverChat.rateLimited(Clock.monoMs(), rc.serverChatMinIntervalMs())) throw new IllegalArgumentException("rate:" + i + ":" + type);
+                }
+                case "config_set" -> {
+                    if (!c.has("values") || !c.get("values").isJsonObject()) throw new IllegalArgumentException("config:" + i + ":no_values");
+                    try {
+                        rc = rc.withPatch(c.getAsJsonObject("values"));
+                    } catch (IllegalArgumentException ex) {
+                        throw new IllegalArgumentException("config:" + i + ":" + ex.getMessage());
+                    }
+                }
+                case "rules_set", "rules_add" -> validate(i, type, c, RulesBridge::validate);
+                case "schedule" -> validate(i, type, c, ScheduleBridge::validate);
+                case "zone_set", "zone_add" -> validate(i, type, c, GeofenceBridge::validate);
+                case "entity_watch" -> validate(i, type, c, EntityBridge::validate);
+                default -> { }
+            }
+            needsPlayer |= NEEDS_PLAYER.contains(type);
+            cmds.add(c.toString());
+            i++;
+        }
+        if (serverChatAt >= 0 && !serverChat.reserve(Clock.monoMs(), rc.serverChatMinIntervalMs())) {
+            throw new IllegalArgumentException("rate:" + serverChatAt + ":server_chat");
+        }
+        return new CommandBatch(id, List.copyOf(cmds), needsPlayer, serverChatAt >= 0);
+    }
+
+    /** Run a bridge's validate(), turning its *_reject detail into "bad:i:type:detail". */
+    private static void validate(int i, String type, JsonObject c, Consumer<JsonObject> validator) {
+        try {
+            validator.accept(c);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("bad:" + i + ":" + type + ":" + ex.getMessage());
+        } catch (RuntimeException ex) {   // a field of the wrong JSON type
+            throw new IllegalArgumentException("bad:" + i + ":" + type + ":type");
+        }
+    }
+
+    private static String text(JsonObject c, String key) {
+        JsonElement v = c.get(key);
+        return v != null && v.isJsonPrimitive() ? v.getAsString() : "";
+    }
+
+    /**
+     * {@link GameActions} handed to the bridges: while a batch runs (on the game thread) their
+     * {@code execute} hops run inline, so the batch's commands take effect in order within the
+     * one tick instead of each being queued behind the others.
+     */
+    public static final class Inline implements GameActions {
+        private static final ThreadLocal<Boolean> RUNNING = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+        private final GameActions game;
+
+        public Inline(GameActions game) { this.game = game; }
+
+        /** Whether the current thread is running a batch. */
+        public static boolean running() { return RUNNING.get(); }
+
+        /** Run {@code body} on the current (game) thread with execute() inlined. */
+        public void runInline(Runnable body) {
+            RUNNING.set(Boolean.TRUE);
+            try { body.run(); }
+            finally { RUNNING.set(Boolean.FALSE); }
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (RUNNING.get()) task.run();
+            else game.execute(task);
+        }
+
+        @Override public boolean canSend()               { return game.canSend(); }
+        @Override public void sendChat(String message)   { game.sendChat(message); }
+        @Override public void sendCommand(String command){ game.sendCommand(command); }
+        @Override public Path dataDir()                  { return game.dataDir(); }
+    }
+}
@@ -18,14 +18,12 @@ public class Config {
     // Where BaritoneBridge publishes snapshots
     public String stateTopicBaritone;
 
-    // Scopes
-    public boolean allowChatRx;
-    public boolean allowChatTx;
-    public boolean allowTelemetry;
-    public boolean allowBaritone;
+    // Where MetricsBridge publishes (optional override)
+    public String metricsTopic;
 
-    // Telemetry
-    public int telemetryIntervalMs = 5000;
+    // Scopes, intervals, radii, queue sizes — anything that may change at runtime.
+    // Immutable snapshots swapped atomically; see RuntimeConfig and the config_set command.
+    public final LiveConfig live = new LiveConfig(RuntimeConfig.DEFAULTS);
 
     public Config copy() {
         Config c = new Config();
@@ -40,13 +38,9 @@ public class Config {
 
         c.hudTopic = hudTopic;
         c.stateTopicBaritone = stateTopicBaritone;
+        c.metricsTopic = metricsTopic;
 
-        c.allowChatRx = allowChatRx;
-        c.allowChatTx = allowChatTx;
-        c.allowTelemetry = allowTelemetry;
-        c.allowBaritone = allowBaritone;
-
-        c.telemetryIntervalMs = telemetryIntervalMs;
+        c.live.set(live.get());
         return c;
     }
 
@@ -57,6 +51,12 @@ public class Config {
             : "mc/" + clientId + "/hud";
     }
 
+    public String metricsTopicOrDefault() {
+        return (metricsTopic != null && !metricsTopic.isBlank())
+            ? metricsTopic
+            : "mc/" + clientId + "/metrics";
+    }
+
     public String baritoneStateTopicOrDefault() {
         return (stateTopicBaritone != null && !stateTopicBaritone.isBlank())
             ? stateTopicBaritone
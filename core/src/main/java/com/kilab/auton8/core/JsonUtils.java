@@ -0,0 +1,68 @@
+package com.kilab.auton8.core;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+public final class JsonUtils {
+    private static final Gson GSON = new Gson();
+
+    private JsonUtils() {}
+
+    public static long nowSec() { return Clock.wallMs() / 1000; }
+
+    // Refreshed from the TickSnapshot every tick; readable from any thread.
+    private static volatile String cachedServerTag = "singleplayer";
+
+    static void cacheServerTag(String tag) { if (tag != null) cachedServerTag = tag; }
+
+    /** "server" tag is either server address or "singleplayer" */
+    public static String serverTag() { return cachedServerTag; }
+
+    /** Server tag for a current-server address; {@code present} is false with no server entry. */
+    public static String serverTagOf(boolean present, String address) {
+        if (!present) return "singleplayer";
+        return (address == null || address.isBlank()) ? "unknown" : address;
+    }
+
+    /* ----------------------------
+     * Wrapper helpers
+     * ---------------------------- */
+
+    /** Wrap a payload with { type, data, server, ts } — legacy envelope. */
+    public static String wrap(String type, JsonObject data) {
+        JsonObject obj = new JsonObject();
+        obj.addProperty("type", type);
+        obj.add("data", data);
+        obj.addProperty("server", serverTag());
+        obj.addProperty("ts", nowSec());
+        return obj.toString();
+    }
+
+    /** Directly serialize an already-built event object; injects server/ts if absent. */
+    public static String wrap(JsonObject o) {
+        if (!o.has("server")) o.addProperty("server", serverTag());
+        if (!o.has("ts"))     o.addProperty("ts", nowSec());
+        return GSON.toJson(o);
+    }
+
+    /* ----------------------------
+     * Base / status events
+     * ---------------------------- */
+
+    /** NEW: JsonObject base event. */
+    public static JsonObject baseEventObj(String event, String detail) {
+        JsonObject o = new JsonObject();
+        o.addProperty("event", event);
+        o.addProperty("detail", detail);
+        o.addProperty("server", serverTag());
+        o.addProperty("ts", nowSec());
+        return o;
+    }
+
+    /** NEW: JsonObject base event with session id. */
+    public static JsonObject baseEventObj(String event, String detail, String sessionId) {
+        JsonObject o = baseEventObj(event, detail);
+        o.addProperty("session_id", sessionId);
+        return o;
+    }
+}
@@ -0,0 +1,52 @@
+package com.kilab.auton8.core;
+
+import com.kilab.auton8.fault.ErrorReporter;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * The single publication point for {@link RuntimeConfig}. Written by the MQTT thread
+ * (config_set) or the module tick (settings UI), read by the tick, render and MQTT threads.
+ */
+public final class LiveConfig {
+    private final AtomicReference<RuntimeConfig> ref;
+    // (old, new) — invoked on the writer's thread after a successful swap
+    private final CopyOnWriteArrayList<BiConsumer<RuntimeConfig, RuntimeConfig>> listeners = new CopyOnWriteArrayList<>();
+
+    public LiveConfig(RuntimeConfig initial) {
+        this.ref = new AtomicReference<>(initial);
+    }
+
+    public RuntimeConfig get() { return ref.get(); }
+
+    public void set(RuntimeConfig next) {
+        RuntimeConfig prev = ref.getAndSet(next);
+        notify(prev, next);
+    }
+
+    /** Atomically derive a new snapshot from the current one. The function may throw to reject. */
+    public RuntimeConfig update(UnaryOperator<RuntimeConfig> fn) {
+        while (true) {
+            RuntimeConfig prev = ref.get();
+            RuntimeConfig next = fn.apply(prev);
+            if (ref.compareAndSet(prev, next)) {
+                notify(prev, next);
+                return next;
+            }
+        }
+    }
+
+    public void addListener(BiConsumer<RuntimeConfig, RuntimeConfig> l) { listeners.add(l); }
+
+    public void removeListener(BiConsumer<RuntimeConfig, RuntimeConfig> l) { listeners.remove(l); }
+
+    private void notify(RuntimeConfig prev, RuntimeConfig next) {
+        if (prev.equals(next)) return;
+        for (var l : listeners) {
+            try { l.accept(prev, next); } catch (Throwable t) { ErrorReporter.get().report("config_listener", t); }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.kilab.auton8.core;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Map;
+
+/**
+ * Immutable snapshot of every setting that may change while the bot is running:
+ * scopes, publish intervals, proximity radii, debounce windows and queue sizes.
+ *
+ * Readers grab one instance per tick/handler from {@link LiveConfig#get()} and use it
+ * throughout, so a concurrent {@code config_set} can never be observed half-applied.
+ * JSON keys (for config_set / config_get) are the snake_case names in {@link #toJson()}.
+ */
+public record RuntimeConfig(
+    // Scopes
+    boolean allowChatRx,
+    boolean allowChatTx,
+    boolean allowTelemetry,
+    boolean allowBaritone,
+
+    // TelemetryBridge
+    int telemetryIntervalMs,
+
+    // BaritoneBridge
+    int baritonePublishIntervalMs,
+    int baritoneRingMax,
+
+    // PlayerBridge (outer render radius + inner danger radius, each with exit hysteresis)
+    double playerRadiusEnter,
+    double playerExitFactor,
+    double dangerRadiusEnter,
+    double dangerExitFactor,
+
+    // ChatBridge
+    long chatDedupeWindowMs,
+    int chatDedupeMaxEntries,
+
+    // ServerChatBridge
+    long serverChatMinIntervalMs,
+
+    // LifeBridge
+    long lifeMinEventGapMs,
+
+    // ClockBridge (0 = only on {type:"clock_sync"})
+    long clockSyncIntervalMs,
+
+    // MetricsBridge (both 0 = registry off)
+    long metricsIntervalMs,
+    int metricsPrometheusPort,
+
+    // TickScheduler budget (0 = no downshifting) + ProfilerBridge publish cadence (0 = off)
+    int tickBudgetUs,
+    long tickProfileIntervalMs,
+
+    // Span events for traced commands (trace ids on derived events are always written)
+    boolean traceSpans,
+
+    // ErrorBridge: tick task circuit breakers + min gap between reports of one error
+    int breakerThreshold,
+    long breakerBackoffMs,
+    long breakerMaxBackoffMs,
+    long errorReportIntervalMs,
+
+    // FlightRecorder: total size of the rotating segment files (0 = off)
+    int recorderTotalMb,
+
+    // HttpBridge: loopback HTTP/SSE transport port (0 = off)
+    int httpPort,
+
+    // EntityBridge: count/watch radius, entity positions refreshed per tick, entity_counts min gap (0 = on request only)
+    double entityRadius,
+    int entityScanBudget,
+    long entityCountsIntervalMs
+) {
+    public static final RuntimeConfig DEFAULTS = new RuntimeConfig(
+        false, false, false, false,
+        5000,
+        950, 20,
+        128.0, 1.12, 15.0, 1.15,
+        1500, 256,
+        300,
+        750,
+        60_000,
+        15_000, 0,
+        2_000, 60_000,
+        true,
+        5, 1_000, 60_000, 30_000,
+        64,
+        0,
+        48.0, 256, 2_000
+    );
+
+    public RuntimeConfig withScopes(boolean chatRx, boolean chatTx, boolean telemetry, boolean baritone) {
+        return new Builder(this).set("allow_chat_rx", chatRx).set("allow_chat_tx", chatTx)
+            .set("allow_telemetry", telemetry).set("allow_baritone", baritone).build();
+    }
+
+    public RuntimeConfig with(String key, Object value) {
+        return new Builder(this).set(key, value).build();
+    }
+
+    /**
+     * Apply a flat {key: value} patch on top of this snapshot. Every key is validated before
+     * anything is returned, so a bad patch leaves the current config untouched.
+     *
+     * @throws IllegalArgumentException with a short reason ("unknown_key:x", "range:x") on bad input
+     */
+    public RuntimeConfig withPatch(JsonObject patch) {
+        Builder b = new Builder(this);
+        for (Map.Entry<String, JsonElement> e : patch.entrySet()) {
+            JsonElement v = e.getValue();
+            if (v == null || !v.isJsonPrimitive()) throw new IllegalArgumentException("type:" + e.getKey());
+            Object value = v.getAsJsonPrimitive().isBoolean() ? (Object) v.getAsBoolean() : v.getAsNumber();
+            b.set(e.getKey(), value);
+        }
+        return b.build();
+    }
+
+    public JsonObject toJson() {
+        JsonObject o = new JsonObject();
+        o.addProperty("allow_chat_rx", allowChatRx);
+        o.addProperty("allow_chat_tx", allowChatTx);
+        o.addProperty("allow_telemetry", allowTelemetry);
+        o.addProperty("allow_baritone", allowBaritone);
+        o.addProperty("telemetry_interval_ms", telemetryIntervalMs);
+        o.addProperty("baritone_publish_interval_ms", baritonePublishIntervalMs);
+        o.addProperty("baritone_ring_max", baritoneRingMax);
+        o.addProperty("player_radius_enter", playerRadiusEnter);
+        o.addProperty("player_exit_factor", playerExitFactor);
+        o.addProperty("danger_radius_enter", dangerRadiusEnter);
+        o.addProperty("danger_exit_factor", dangerExitFactor);
+        o.addProperty("chat_dedupe_window_ms", chatDedupeWindowMs);
+        o.addProperty("chat_dedupe_max_entries", chatDedupeMaxEntries);
+        o.addProperty("server_chat_min_interval_ms", serverChatMinIntervalMs);
+        o.addProperty("life_min_event_gap_ms", lifeMinEventGapMs);
+        o.addProperty("clock_sync_interval_ms", clockSyncIntervalMs);
+        o.addProperty("metrics_interval_ms", metricsIntervalMs);
+        o.addProperty("metrics_prometheus_port", metricsPrometheusPort);
+        o.addProperty("tick_budget_us", tickBudgetUs);
+        o.addProperty("tick_profile_interval_ms", tickProfileIntervalMs);
+        o.addProperty("trace_spans", traceSpans);
+        o.addProperty("breaker_threshold", breakerThreshold);
+        o.addProperty("breaker_backoff_ms", breakerBackoffMs);
+        o.addProperty("breaker_max_backoff_ms", breakerMaxBackoffMs);
+        o.addProperty("error_report_interval_ms", errorReportIntervalMs);
+        o.addProperty("recorder_total_mb", recorderTotalMb);
+        o.addProperty("http_port", httpPort);
+        o.addProperty("entity_radius", entityRadius);
+        o.addProperty("entity_scan_budget", entityScanBudget);
+        o.addProperty("entity_counts_interval_ms", entityCountsIntervalMs);
+        return o;
+    }
+
+    /** Mutable scratch copy used only while validating a change. */
+    private static final class Builder {
+        boolean allowChatRx, allowChatTx, allowTelemetry, allowBaritone, traceSpans;
+        int telemetryIntervalMs, baritonePublishIntervalMs, baritoneRingMax, chatDedupeMaxEntries, metricsPrometheusPort, tickBudgetUs,
+            breakerThreshold, recorderTotalMb, httpPort, entityScanBudget;
+        double playerRadiusEnter, playerExitFactor, dangerRadiusEnter, dangerExitFactor, entityRadius;
+        long chatDedupeWindowMs, serverChatMinIntervalMs, lifeMinEventGapMs, clockSyncIntervalMs, metricsIntervalMs, tickProfileIntervalMs,
+            breakerBackoffMs, breakerMaxBackoffMs, errorReportIntervalMs, entityCountsIntervalMs;
+
+        Builder(RuntimeConfig c) {
+            allowChatRx = c.allowChatRx; allowChatTx = c.allowChatTx;
+            allowTelemetry = c.allowTelemetry; allowBaritone = c.allowBaritone;
+            telemetryIntervalMs = c.telemetryIntervalMs;
+            baritonePublishIntervalMs = c.baritonePublishIntervalMs;
+            baritoneRingMax = c.baritoneRingMax;
+            playerRadiusEnter = c.playerRadiusEnter; playerExitFactor = c.playerExitFactor;
+            dangerRadiusEnter = c.dangerRadiusEnter; dangerExitFactor = c.dangerExitFactor;
+            chatDedupeWindowMs = c.chatDedupeWindowMs; chatDedupeMaxEntries = c.chatDedupeMaxEntries;
+            serverChatMinIntervalMs = c.serverChatMinIntervalMs;
+            lifeMinEventGapMs = c.lifeMinEventGapMs;
+            clockSyncIntervalMs = c.clockSyncIntervalMs;
+            metricsIntervalMs = c.metricsIntervalMs; metricsPrometheusPort = c.metricsPrometheusPort;
+            tickBudgetUs = c.tickBudgetUs; tickProfileIntervalMs = c.tickProfileIntervalMs;
+            traceSpans = c.traceSpans;
+            breakerThreshold = c.breakerThreshold;
+            breakerBackoffMs = c.breakerBackoffMs; breakerMaxBackoffMs = c.breakerMaxBackoffMs;
+            errorReportIntervalMs = c.errorReportIntervalMs;
+            recorderTotalMb = c.recorderTotalMb;
+            httpPort = c.httpPort;
+            entityRadius = c.entityRadius; entityScanBudget = c.entityScanBudget;
+            entityCountsIntervalMs = c.entityCountsIntervalMs;
+        }
+
+        Builder set(String key, Object v) {
+            switch (key) {
+                case "allow_chat_rx"                -> allowChatRx = bool(key, v);
+                case "allow_chat_tx"                -> allowChatTx = bool(key, v);
+                case "allow_telemetry"              -> allowTelemetry = bool(key, v);
+                case "allow_baritone"               -> allowBaritone = bool(key, v);
+                case "telemetry_interval_ms"        -> telemetryIntervalMs = (int) range(key, v, 50, 600_000);
+                case "baritone_publish_interval_ms" -> baritonePublishIntervalMs = (int) range(key, v, 50, 60_000);
+                case "baritone_ring_max"            -> baritoneRingMax = (int) range(key, v, 2, 400);
+                case "player_radius_enter"          -> playerRadiusEnter = range(key, v, 1.0, 1024.0);
+                case "player_exit_factor"           -> playerExitFactor = range(key, v, 1.0, 2.0);
+                case "danger_radius_enter"          -> dangerRadiusEnter = range(key, v, 0.5, 256.0);
+                case "danger_exit_factor"           -> dangerExitFactor = range(key, v, 1.0, 2.0);
+                case "chat_dedupe_window_ms"        -> chatDedupeWindowMs = (long) range(key, v, 0, 60_000);
+                case "chat_dedupe_max_entries"      -> chatDedupeMaxEntries = (int) range(key, v, 16, 65_536);
+                case "server_chat_min_interval_ms"  -> serverChatMinIntervalMs = (long) range(key, v, 0, 60_000);
+                case "life_min_event_gap_ms"        -> lifeMinEventGapMs = (long) range(key, v, 0, 60_000);
+                case "clock_sync_interval_ms"       -> clockSyncIntervalMs = (long) range(key, v, 0, 3_600_000);
+                case "metrics_interval_ms"          -> metricsIntervalMs = (long) range(key, v, 0, 3_600_000);
+                case "metrics_prometheus_port"      -> metricsPrometheusPort = (int) range(key, v, 0, 65_535);
+                case "tick_budget_us"               -> tickBudgetUs = (int) range(key, v, 0, 50_000);
+                case "tick_profile_interval_ms"     -> tickProfileIntervalMs = (long) range(key, v, 0, 3_600_000);
+                case "trace_spans"                  -> traceSpans = bool(key, v);
+                case "breaker_threshold"            -> breakerThreshold = (int) range(key, v, 1, 1_000);
+                case "breaker_backoff_ms"           -> breakerBackoffMs = (long) range(key, v, 100, 600_000);
+                case "breaker_max_backoff_ms"       -> breakerMaxBackoffMs = (long) range(key, v, 100, 3_600_000);
+                case "error_report_interval_ms"     -> errorReportIntervalMs = (long) range(key, v, 0, 3_600_000);
+                case "recorder_total_mb"            -> recorderTotalMb = (int) range(key, v, 0, 4_096);
+                case "http_port"                    -> httpPort = (int) range(key, v, 0, 65_535);
+                case "entity_radius"                -> entityRadius = range(key, v, 4.0, 256.0);
+                case "entity_scan_budget"           -> entityScanBudget = (int) range(key, v, 16, 65_536);
+                case "entity_counts_interval_ms"    -> entityCountsIntervalMs = (long) range(key, v, 0, 3_600_000);
+                default -> throw new IllegalArgumentException("unknown_key:" + key);
+            }
+            return this;
+        }
+
+        RuntimeConfig build() {
+            if (dangerRadiusEnter > playerRadiusEnter) throw new IllegalArgumentException("range:danger_radius_enter");
+            if (breakerBackoffMs > breakerMaxBackoffMs) throw new IllegalArgumentException("range:breaker_backoff_ms");
+            return new RuntimeConfig(
+                allowChatRx, allowChatTx, allowTelemetry, allowBaritone,
+                telemetryIntervalMs,
+                baritonePublishIntervalMs, baritoneRingMax,
+                playerRadiusEnter, playerExitFactor, dangerRadiusEnter, dangerExitFactor,
+                chatDedupeWindowMs, chatDedupeMaxEntries,
+                serverChatMinIntervalMs,
+                lifeMinEventGapMs,
+                clockSyncIntervalMs,
+                metricsIntervalMs, metricsPrometheusPort,
+                tickBudgetUs, tickProfileIntervalMs,
+                traceSpans,
+                breakerThreshold, breakerBackoffMs, breakerMaxBackoffMs, errorReportIntervalMs,
+                recorderTotalMb,
+                httpPort,
+                entityRadius, entityScanBudget, entityCountsIntervalMs
+            );
+        }
+
+        private static boolean bool(String key, Object v) {
+            if (v instanceof Boolean b) return b;
+            throw new IllegalArgumentException("type:" + key);
+        }
+
+        private static double range(String key, Object v, double min, double max) {
+            if (!(v instanceof Number n)) throw new IllegalArgumentException("type:" + key);
+            double d = n.doubleValue();
+            if (Double.isNaN(d) || d < min || d > max) throw new IllegalArgumentException("range:" + key);
+            return d;
+        }
+    }
+}
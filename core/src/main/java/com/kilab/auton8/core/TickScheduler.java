@@ -0,0 +1,328 @@
+package com.kilab.auton8.core;
+
+import com.kilab.auton8.fault.CircuitBreaker;
+import com.kilab.auton8.fault.ErrorReporter;
+import com.kilab.auton8.jfr.BridgeTickEvent;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.spi.GameState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Single END_CLIENT_TICK dispatcher shared by every bridge.
+ *
+ * Fabric has no way to unregister a tick callback, so bridges must never register one
+ * themselves. Instead the game adapter calls {@link #tick(GameState)} exactly once per
+ * client tick and bridges submit tasks here, cancelling them again in disable().
+ *
+ * Every run is timed with System.nanoTime into a per-task {@link Profile}. With a tick budget
+ * set, a task that overruns it {@value #OVER_BUDGET_RUNS} runs in a row is downshifted (its
+ * stride doubles: it runs on every 2nd, 4th, ... due tick) and shifted back up once it has
+ * stayed well under budget for a while; the {@link BudgetListener} is told either way.
+ *
+ * A task that throws is reported to {@link ErrorReporter} and counted by its own
+ * {@link CircuitBreaker}: enough failures in a row pause the task, which then gets a single
+ * trial run after each (doubling) backoff until one succeeds; the {@link BreakerListener} is
+ * told about every state change.
+ */
+public final class TickScheduler {
+    private static final TickScheduler INSTANCE = new TickScheduler();
+
+    public static TickScheduler get() { return INSTANCE; }
+
+    @FunctionalInterface
+    public interface TickTask {
+        void run(TickSnapshot snap);
+    }
+
+    /** Notified on the client thread when a task's stride changes because of the budget. */
+    @FunctionalInterface
+    public interface BudgetListener {
+        void onStrideChanged(Task task, long tookNs, int oldStride, int newStride);
+    }
+
+    /** Notified on the client thread when a task's circuit breaker changes state. */
+    @FunctionalInterface
+    public interface BreakerListener {
+        void onBreakerChanged(Task task, CircuitBreaker.State from, CircuitBreaker.State to);
+    }
+
+    static final int OVER_BUDGET_RUNS = 5;     // consecutive overruns before downshifting
+    static final int RECOVER_RUNS = 200;       // consecutive runs under budget/2 before upshifting
+    static final int MAX_STRIDE = 16;
+
+    /** Recent run times of one task (ring of the last {@value #WINDOW} runs); client thread only. */
+    public static final class Profile {
+        static final int WINDOW = 256;
+        private final long[] ring = new long[WINDOW];
+        private int head = 0, size = 0;
+        private long lastNs = 0L, maxNs = 0L;
+        private final Histogram hist;
+
+        Profile(String name) {
+            this.hist = Metrics.get().histogram("tick_task_ns", "task", name);
+        }
+
+        void record(long ns) {
+            ring[head] = ns;
+            head = (head + 1) % WINDOW;
+            if (size < WINDOW) size++;
+            lastNs = ns;
+            if (ns > maxNs) maxNs = ns;
+            hist.record(ns);
+        }
+
+        public long lastNs() { return lastNs; }
+        public long maxNs()  { return maxNs; }
+        public int samples() { return size; }
+
+        /** Quantiles (each in [0,1]) over the window, in ns; zeros when nothing ran yet. */
+        public long[] quantiles(double... qs) {
+            long[] sorted = Arrays.copyOf(ring, size);
+            Arrays.sort(sorted);
+            long[] out = new long[qs.length];
+            if (size == 0) return out;
+            for (int i = 0; i < qs.length; i++) {
+                int idx = (int) Math.min(size - 1, Math.max(0, Math.ceil(qs[i] * size) - 1));
+                out[i] = sorted[idx];
+            }
+            return out;
+        }
+    }
+
+    /** How often a task runs: every N client ticks or every N (monotonic) milliseconds. */
+    public static final class Period {
+        final boolean millis;
+        final long amount;
+
+        private Period(boolean millis, long amount) {
+            this.millis = millis;
+            this.amount = Math.max(1, amount);
+        }
+
+        public static Period everyTick()             { return new Period(false, 1); }
+        public static Period everyTicks(int ticks)   { return new Period(false, ticks); }
+        public static Period everyMillis(long ms)    { return new Period(true, ms); }
+
+        @Override public String toString() { return millis ? amount + "ms" : amount + "t"; }
+    }
+
+    /** Handle returned by {@link #schedule}; the owner keeps it to cancel on disable(). */
+    public static final class Task {
+        private final String name;
+        private final Period period;
+        private final long phase;
+        private final TickTask body;
+
+        private volatile boolean cancelled = false;
+        private volatile long runs = 0L;
+        private long nextDueMs = -1L;   // millis periods only, armed on first tick
+
+        // budget / downshift state (client thread)
+        private final Profile profile;
+        private volatile int stride = 1;
+        private long dueCount = 0L;
+        private int overRuns = 0, calmRuns = 0;
+
+        private final CircuitBreaker breaker;
+
+        private Task(String name, Period period, long phase, TickTask body, CircuitBreaker breaker) {
+            this.name = name;
+            this.period = period;
+            this.phase = Math.max(0, phase);
+            this.body = body;
+            this.profile = new Profile(name);
+            this.breaker = breaker;
+        }
+
+        public String name()        { return name; }
+        public Period period()      { return period; }
+        public long runCount()      { return runs; }
+        public boolean isCancelled(){ return cancelled; }
+        public Profile profile()    { return profile; }
+        /** 1 = runs whenever due; N = downshifted to every Nth due tick by the budget. */
+        public int stride()         { return stride; }
+        /** This task's breaker; client thread only. */
+        public CircuitBreaker breaker() { return breaker; }
+
+        /** Stop running this task; it is dropped from the list on the next tick. */
+        public void cancel()        { cancelled = true; }
+
+        private boolean due(long tick, long nowMs) {
+            if (!period.millis) return (tick + phase) % period.amount == 0;
+            if (nextDueMs < 0) nextDueMs = nowMs + phase;
+            if (nowMs < nextDueMs) return false;
+            nextDueMs += period.amount;
+            if (nextDueMs <= nowMs) nextDueMs = nowMs + period.amount; // fell behind: don't burst
+            return true;
+        }
+    }
+
+    // Submissions may come from the MQTT thread, so they are handed over through a queue.
+    private final ConcurrentLinkedQueue<Task> pending = new ConcurrentLinkedQueue<>();
+    // Only touched on the client thread.
+    private final ArrayList<Task> tasks = new ArrayList<>();
+    // Immutable copy of tasks for other threads, replaced whenever the client thread changes it.
+    private volatile List<Task> published = List.of();
+    private long tickCount = 0L;
+    private final TickSnapshot snapshot = new TickSnapshot();
+    private GameState state = s -> { };
+    private final Profile captureProfile = new Profile("capture");
+
+    private volatile long budgetNs = 0L;     // 0 = no budget
+    private volatile BudgetListener budgetListener = null;
+    private volatile BreakerListener breakerListener = null;
+    private volatile int breakerThreshold = 5;
+    private volatile long breakerBackoffMs = 1_000L, breakerMaxBackoffMs = 60_000L;
+
+    private TickScheduler() {}
+
+    public Task schedule(String name, Period period, TickTask body) {
+        return schedule(name, period, 0, body);
+    }
+
+    /**
+     * Submit a task. {@code phase} shifts it within its period (in ticks for tick periods,
+     * in milliseconds for millis periods) so bridges with the same period don't all land
+     * on the same tick.
+     */
+    public Task schedule(String name, Period period, long phase, TickTask body) {
+        Task t = new Task(name, period, phase, body,
+            new CircuitBreaker(breakerThreshold, breakerBackoffMs, breakerMaxBackoffMs));
+        pending.add(t);
+        return t;
+    }
+
+    public long tickCount() { return tickCount; }
+
+    /** The state captured at the start of the current/last tick (client thread only). */
+    public TickSnapshot snapshot() { return snapshot; }
+
+    /** The read side passed to the current/last tick, for tasks that pull more than the snapshot (client thread only). */
+    public GameState state() { return state; }
+
+    /** Snapshot of the live tasks as of the last tick (for status/diagnostics; any thread). */
+    public List<Task> tasks() { return published; }
+
+    /** Time spent in GameState.capture per tick. */
+    public Profile captureProfile() { return captureProfile; }
+
+    /** Per-task, per-run budget in ns (0 disables downshifting and restores every stride to 1). */
+    public void setBudgetNs(long ns) { budgetNs = Math.max(0L, ns); }
+
+    public long budgetNs() { return budgetNs; }
+
+    public void setBudgetListener(BudgetListener l) { budgetListener = l; }
+
+    public void setBreakerListener(BreakerListener l) { breakerListener = l; }
+
+    /** Breaker thresholds for every task (existing ones pick it up on their next run). */
+    public void setBreakerPolicy(int threshold, long backoffMs, long maxBackoffMs) {
+        breakerThreshold = threshold;
+        breakerBackoffMs = backoffMs;
+        breakerMaxBackoffMs = maxBackoffMs;
+    }
+
+    /** Called once per client tick by the game adapter (END_CLIENT_TICK in the mod). */
+    public void tick(GameState state) {
+        tickCount++;
+        snapshot.tick = tickCount;
+        snapshot.wallMs = Clock.wallMs();
+        snapshot.monoNs = Clock.monoNs();
+        snapshot.monoMs = snapshot.monoNs / 1_000_000L;
+        this.state = state;
+        long c0 = System.nanoTime();
+        state.capture(snapshot);
+        captureProfile.record(System.nanoTime() - c0);
+        JsonUtils.cacheServerTag(snapshot.serverTag);
+        boolean added = false;
+        for (Task t; (t = pending.poll()) != null; ) { tasks.add(t); added = true; }
+        if (added) published = List.copyOf(tasks);
+        if (tasks.isEmpty()) return;
+
+        long now = snapshot.monoMs;
+        boolean sweep = false;
+        for (int i = 0, n = tasks.size(); i < n; i++) {
+            Task t = tasks.get(i);
+            if (t.cancelled) { sweep = true; continue; }
+            if (!t.due(tickCount, now)) continue;
+            if (t.stride > 1 && (t.dueCount++ % t.stride) != 0) continue;
+            CircuitBreaker.State before = t.breaker.state();
+            if (!t.breaker.allow(now)) continue;
+            if (t.breaker.state() != before) {   // backoff over: this run is the trial
+                notifyBreaker(t, before, t.breaker.state());
+                before = t.breaker.state();
+            }
+            BridgeTickEvent jfr = new BridgeTickEvent();
+            jfr.begin();
+            long t0 = System.nanoTime();
+            try {
+                t.body.run(snapshot);
+                t.breaker.onSuccess();
+            } catch (Throwable e) {
+                // one misbehaving bridge must not starve the others
+                t.breaker.policy(breakerThreshold, breakerBackoffMs, breakerMaxBackoffMs);
+                t.breaker.onFailure(now);
+                ErrorReporter.get().report(t.name, e);
+            }
+            long took = System.nanoTime() - t0;
+            if (t.breaker.state() != before) notifyBreaker(t, before, t.breaker.state());
+            jfr.end();
+            if (jfr.shouldCommit()) {
+                jfr.task = t.name;
+                jfr.stride = t.stride;
+                jfr.commit();
+            }
+            t.profile.record(took);
+            t.runs++;
+            checkBudget(t, took);
+        }
+        if (sweep) {
+            tasks.removeIf(Task::isCancelled);
+            published = List.copyOf(tasks);
+        }
+    }
+
+    private void checkBudget(Task t, long took) {
+        long budget = budgetNs;
+        int old = t.stride;
+        if (budget <= 0) {
+            if (old != 1) { t.stride = 1; t.dueCount = 0; notifyStride(t, took, old, 1); }
+            t.overRuns = t.calmRuns = 0;
+            return;
+        }
+        if (took > budget) {
+            t.calmRuns = 0;
+            if (++t.overRuns >= OVER_BUDGET_RUNS && old < MAX_STRIDE) {
+                t.overRuns = 0;
+                t.stride = old * 2;
+                t.dueCount = 0;
+                notifyStride(t, took, old, t.stride);
+            }
+        } else {
+            t.overRuns = 0;
+            if (old > 1 && took <= budget / 2 && ++t.calmRuns >= RECOVER_RUNS) {
+                t.calmRuns = 0;
+                t.stride = old / 2;
+                t.dueCount = 0;
+                notifyStride(t, took, old, t.stride);
+            }
+        }
+    }
+
+    private void notifyBreaker(Task t, CircuitBreaker.State from, CircuitBreaker.State to) {
+        BreakerListener l = breakerListener;
+        if (l == null) return;
+        try { l.onBreakerChanged(t, from, to); } catch (Throwable ignored) {}
+    }
+
+    private void notifyStride(Task t, long took, int oldStride, int newStride) {
+        BudgetListener l = budgetListener;
+        if (l == null) return;
+        try { l.onStrideChanged(t, took, oldStride, newStride); } catch (Throwable ignored) {}
+    }
+}
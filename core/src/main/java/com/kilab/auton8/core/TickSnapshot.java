@@ -0,0 +1,84 @@
+package com.kilab.auton8.core;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Game state read once at the start of every Auton8 tick and handed to all scheduled tasks,
+ * so bridges see the same values and don't each re-query the game.
+ *
+ * One instance is owned by {@link TickScheduler} and refilled in place every tick by the
+ * {@link com.kilab.auton8.spi.GameState} implementation; nothing here allocates after warm-up.
+ * Game thread only — other threads must hop via GameActions.execute before reading it.
+ */
+public final class TickSnapshot {
+    // ---- timing (set by the scheduler)
+    public long tick;
+    public long wallMs;   // epoch ms, for stamping only
+    public long monoNs;   // Clock.monoNs(): use for intervals
+    public long monoMs;
+
+    // ---- world / server
+    public boolean inWorld;            // player and world both present
+    public String dimensionId = "";    // e.g. "minecraft:the_nether"
+    public String dimension = "unknown"; // overworld | nether | end | <modded path>
+    public String serverTag = "singleplayer";
+    public boolean integratedServer;
+    public boolean singleplayer;       // integrated server or no server entry
+    public String localName = "unknown";
+
+    // ---- local player
+    public double x, y, z;
+    public float yaw, pitch;
+    public double vx, vy, vz;
+    public boolean onGround;
+    public boolean alive;
+    public float health;
+    public int hunger;
+    public float saturation;
+
+    // ---- Baritone (false when Baritone isn't installed)
+    public boolean baritonePathing;
+    public boolean baritoneBuilderActive;
+    public boolean baritoneProcessActive;  // builder or mine
+
+    /** One other player seen this tick. Pooled: values are overwritten every tick. */
+    public static final class PlayerSample {
+        public int entityId;
+        public UUID uuid;
+        public String name;
+        public double x, y, z;
+    }
+
+    private PlayerSample[] others = new PlayerSample[16];
+    private int otherCount = 0;
+
+    public TickSnapshot() {}
+
+    /** Other players in the world this tick (excludes the local player). */
+    public int otherCount() { return otherCount; }
+
+    public PlayerSample other(int i) { return others[i]; }
+
+    /** Called by GameState implementations before refilling the player list. */
+    public void clearOthers() { otherCount = 0; }
+
+    /** Next pooled sample to fill; grows the pool only when a tick sees more players than ever before. */
+    public PlayerSample addOther() {
+        if (otherCount == others.length) others = Arrays.copyOf(others, otherCount * 2);
+        PlayerSample s = others[otherCount];
+        if (s == null) s = others[otherCount] = new PlayerSample();
+        otherCount++;
+        return s;
+    }
+
+    /** Map a dimension id path to the short names used in events. */
+    public static String normalizeDimension(String path) {
+        return switch (path) {
+            case "overworld"   -> "overworld";
+            case "the_nether"  -> "nether";
+            case "the_end"     -> "end";
+            default            -> path; // support modded dimensions
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.kilab.auton8.core;
+
+import java.util.List;
+
+/**
+ * Hashed timer wheel: {@code slots} buckets of {@code resolutionMs} each, every bucket a
+ * doubly-linked list of the timers whose deadline hashes to it. Adding and cancelling are O(1);
+ * {@link #advance} only visits the buckets the clock passed since the last call, and a timer
+ * further out than one revolution just stays in its bucket until the cursor comes round to
+ * its own deadline.
+ *
+ * Deadlines are in whatever millisecond clock the owner advances it with (the schedule bridge
+ * uses {@link Clock#monoMs}). Not thread-safe: the owner serializes add/cancel/advance.
+ */
+public final class TimerWheel<T> {
+
+    /** Handle to one pending timer. */
+    public static final class Timer<T> {
+        private final T payload;
+        private final long deadlineMs;
+        private final long deadlineTick;
+        private Timer<T> prev, next;
+        private int slot = -1;   // -1 = not in the wheel (expired or cancelled)
+
+        private Timer(T payload, long deadlineMs, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineMs = deadlineMs;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T payload()        { return payload; }
+        public long deadlineMs()  { return deadlineMs; }
+        public boolean pending()  { return slot >= 0; }
+    }
+
+    private final Timer<T>[] heads;
+    private final int mask;
+    private final long resolutionMs;
+    private long cursor;   // last wheel tick processed
+    private int size = 0;
+
+    /** {@code slots} is rounded up to a power of two; the wheel starts at {@code startMs}. */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(int slots, long resolutionMs, long startMs) {
+        int n = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+        this.heads = (Timer<T>[]) new Timer<?>[n];
+        this.mask = n - 1;
+        this.resolutionMs = Math.max(1, resolutionMs);
+        this.cursor = Math.floorDiv(startMs, this.resolutionMs);
+    }
+
+    public int size() { return size; }
+
+    /** Schedule {@code payload} for {@code deadlineMs}; one already due fires on the next advance. */
+    public Timer<T> add(long deadlineMs, T payload) {
+        long tick = Math.max(cursor + 1, Math.floorDiv(deadlineMs + resolutionMs - 1, resolutionMs));
+        Timer<T> t = new Timer<>(payload, deadlineMs, tick);
+        link(t, (int) (tick & mask));
+        size++;
+        return t;
+    }
+
+    /** Remove a pending timer; false if it already expired or was cancelled. */
+    public boolean cancel(Timer<T> t) {
+        if (t == null || t.slot < 0) return false;
+        unlink(t);
+        size--;
+        return true;
+    }
+
+    /**
+     * Move the wheel to {@code nowMs} and append every timer that is now due to {@code expired}
+     * (earliest bucket first). A gap longer than one revolution is a single full sweep.
+     */
+    public int advance(long nowMs, List<Timer<T>> expired) {
+        long target = Math.floorDiv(nowMs, resolutionMs);
+        if (target <= cursor) return 0;
+        long end = Math.min(target, cursor + heads.length);
+        int n = 0;
+        for (long tick = cursor + 1; tick <= end; tick++) {
+            Timer<T> t = heads[(int) (tick & mask)];
+            while (t != null) {
+                Timer<T> next = t.next;
+                if (t.deadlineTick <= target) {
+                    unlink(t);
+                    size--;
+                    expired.add(t);
+                    n++;
+                }
+                t = next;
+            }
+        }
+        cursor = target;
+        return n;
+    }
+
+    // ===== Internals =====
+
+    private void link(Timer<T> t, int slot) {
+        Timer<T> head = heads[slot];
+        t.slot = slot;
+        t.prev = null;
+        t.next = head;
+        if (head != null) head.prev = t;
+        heads[slot] = t;
+    }
+
+    private void unlink(Timer<T> t) {
+        if (t.prev != null) t.prev.next = t.next;
+        else heads[t.slot] = t.next;
+        if (t.next != null) t.next.prev = t.prev;
+        t.prev = t.next = null;
+        t.slot = -1;
+    }
+}
@@ -0,0 +1,11 @@
+package com.kilab.auton8.event;
+
+/** A tick task's circuit breaker changed state; {@code backoffMs} is the current open period. */
+@JsonEvent
+public record BreakerEvent(@EventType String event, String task, long failures, long backoffMs) implements Event {
+    public static final String OPEN = "breaker_open";
+    public static final String HALF_OPEN = "breaker_half_open";
+    public static final String CLOSED = "breaker_closed";
+
+    @Override public void encode(JsonSink out) { BreakerEventEncoder.encode(this, out); }
+}
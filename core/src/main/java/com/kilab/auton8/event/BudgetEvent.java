@@ -0,0 +1,11 @@
+package com.kilab.auton8.event;
+
+/** A tick task was downshifted (budget_exceeded) or shifted back up (budget_recovered). */
+@JsonEvent
+public record BudgetEvent(@EventType String event, String task, long tookUs, long budgetUs,
+                          int stride, int prevStride) implements Event {
+    public static final String EXCEEDED = "budget_exceeded";
+    public static final String RECOVERED = "budget_recovered";
+
+    @Override public void encode(JsonSink out) { BudgetEventEncoder.encode(this, out); }
+}
@@ -0,0 +1,7 @@
+package com.kilab.auton8.event;
+
+/** A chat line; {@code source} is client | server_chat | server_sys | server_sys_raw. */
+@JsonEvent("chat")
+public record ChatEvent(String player, String msg, String source) implements Event {
+    @Override public void encode(JsonSink out) { ChatEventEncoder.encode(this, out); }
+}
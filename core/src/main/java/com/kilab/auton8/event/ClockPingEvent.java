@@ -0,0 +1,7 @@
+package com.kilab.auton8.event;
+
+/** Mod-initiated clock probe; n8n answers on /cmd with {type:"pong", id, t0, t1, t2}. */
+@JsonEvent("clock_ping")
+public record ClockPingEvent(long id, long t0) implements Event {
+    @Override public void encode(JsonSink out) { ClockPingEventEncoder.encode(this, out); }
+}
@@ -0,0 +1,10 @@
+package com.kilab.auton8.event;
+
+/**
+ * Result of one ping/pong round. {@code offsetMs} is n8n clock minus ours (add it to our
+ * ts_ms to get n8n time); the best_* fields come from the lowest-RTT sample of the recent window.
+ */
+@JsonEvent("clock_sync")
+public record ClockSyncEvent(long offsetMs, long rttMs, long bestOffsetMs, long bestRttMs, int samples) implements Event {
+    @Override public void encode(JsonSink out) { ClockSyncEventEncoder.encode(this, out); }
+}
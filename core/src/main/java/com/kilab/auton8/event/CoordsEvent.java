@@ -0,0 +1,7 @@
+package com.kilab.auton8.event;
+
+/** Reply to get_coords. {@code dimension} is omitted when null. */
+@JsonEvent("coords")
+public record CoordsEvent(double x, double y, double z, String dimension) implements Event {
+    @Override public void encode(JsonSink out) { CoordsEventEncoder.encode(this, out); }
+}
@@ -0,0 +1,8 @@
+package com.kilab.auton8.event;
+
+/** Non-player entities within {@code radius} of the local player, per kind, and how many are tracked in total. */
+@JsonEvent("entity_counts")
+public record EntityCountsEvent(double radius, int hostile, int passive, int item, int vehicle, int other,
+                                int tracked) implements Event {
+    @Override public void encode(JsonSink out) { EntityCountsEventEncoder.encode(this, out); }
+}
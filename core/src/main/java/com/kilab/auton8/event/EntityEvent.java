@@ -0,0 +1,14 @@
+package com.kilab.auton8.event;
+
+/**
+ * A watched entity coming within entity_radius or leaving it; {@code gone} is set when it left
+ * by being unloaded (despawned, killed, picked up) rather than by moving away.
+ */
+@JsonEvent
+public record EntityEvent(@EventType String event, int entityId, String kind, String type,
+                          double x, double y, double z, double dist, Boolean gone) implements Event {
+    public static final String ENTER = "entity_enter";
+    public static final String LEAVE = "entity_leave";
+
+    @Override public void encode(JsonSink out) { EntityEventEncoder.encode(this, out); }
+}
@@ -0,0 +1,12 @@
+package com.kilab.auton8.event;
+
+/**
+ * A deduplicated failure report from ErrorReporter. {@code detail} is the exception's simple
+ * class name (as in the older {event:"error", detail} shape), {@code repeats} the occurrences
+ * since the last report of the same {@code stack_hash}, {@code count} the total.
+ */
+@JsonEvent("error")
+public record ErrorEvent(String source, String detail, String message, String stackHash, String at,
+                         long count, long repeats) implements Event {
+    @Override public void encode(JsonSink out) { ErrorEventEncoder.encode(this, out); }
+}
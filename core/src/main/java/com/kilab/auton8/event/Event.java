@@ -0,0 +1,7 @@
+package com.kilab.auton8.event;
+
+/** A typed outbound event; implementations delegate to their generated encoder. */
+public interface Event {
+    /** Append this event as one complete JSON object (envelope included) to {@code out}. */
+    void encode(JsonSink out);
+}
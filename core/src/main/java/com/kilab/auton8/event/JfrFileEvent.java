@@ -0,0 +1,7 @@
+package com.kilab.auton8.event;
+
+/** A JFR recording written to disk (jfr_dumped / jfr_stopped). */
+@JsonEvent
+public record JfrFileEvent(@EventType String event, String path, long sizeBytes) implements Event {
+    @Override public void encode(JsonSink out) { JfrFileEventEncoder.encode(this, out); }
+}
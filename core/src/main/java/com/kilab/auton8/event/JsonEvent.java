@@ -0,0 +1,25 @@
+package com.kilab.auton8.event;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record as a published event. The annotation processor in :processor generates
+ * {@code <Record>Encoder} with a streaming {@code encode(record, JsonSink)} — no reflection,
+ * no JsonObject tree, no intermediate String.
+ *
+ * The object starts with {@code "<key>":"<value>"}; when the value depends on the instance,
+ * leave {@link #value()} empty and mark a String component with {@link EventType}.
+ * Envelope fields (server, session_id, ts) are appended by {@link JsonSink#envelope()}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface JsonEvent {
+    /** Fixed event name, e.g. "telemetry". */
+    String value() default "";
+
+    /** Name of the discriminator key ("event" for most events, "type" for legacy wrapped ones). */
+    String key() default "event";
+}
@@ -0,0 +1,12 @@
+package com.kilab.auton8.event;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Marks a record that is written as a nested JSON object inside an event (e.g. "coords"). */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface JsonPart {
+}
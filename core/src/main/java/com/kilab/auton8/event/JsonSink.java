@@ -0,0 +1,243 @@
+package com.kilab.auton8.event;
+
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.JsonUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable, growable UTF-8 byte buffer that generated encoders write JSON into.
+ * Not thread-safe: MqttBus keeps one per publishing thread and {@link #reset()}s it per event.
+ */
+public final class JsonSink {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] K_SERVER = ascii("\"server\":");
+    private static final byte[] K_SESSION = ascii("\"session_id\":");
+    private static final byte[] K_TS = ascii("\"ts\":");
+    private static final byte[] K_TS_MS = ascii("\"ts_ms\":");
+    private static final byte[] K_MONO_NS = ascii("\"mono_ns\":");
+    private static final byte[] K_SEQ = ascii("\"seq\":");
+    private static final byte[] K_TRACE = ascii("\"trace_id\":");
+    private static final byte[] K_SPAN = ascii("\"span_id\":");
+    private static final byte[] K_RULE = ascii("\"rule\":");
+
+    private byte[] buf;
+    private int len;
+    private String sessionId;
+    private long seq = -1L;
+    private String traceId, spanId;
+    private String rule;
+
+    public JsonSink(int initialCapacity) {
+        this.buf = new byte[Math.max(64, initialCapacity)];
+    }
+
+    /** ASCII bytes of a constant (keys, headers); used by generated encoders at class init. */
+    public static byte[] ascii(String s) { return s.getBytes(StandardCharsets.US_ASCII); }
+
+    public JsonSink reset() { len = 0; sessionId = null; seq = -1L; traceId = null; spanId = null; rule = null; return this; }
+
+    /** Session written by {@link #envelope()}; null/blank omits the field. */
+    public JsonSink sessionId(String id) { this.sessionId = id; return this; }
+
+    /** Per-session sequence number written by {@link #envelope()}; negative omits the field. */
+    public JsonSink seq(long seq) { this.seq = seq; return this; }
+
+    /** Trace ids written by {@link #envelope()}; null omits them. */
+    public JsonSink trace(String traceId, String spanId) { this.traceId = traceId; this.spanId = spanId; return this; }
+
+    /** Id of the local rule whose command this event answers, written by {@link #envelope()}; null omits it. */
+    public JsonSink rule(String rule) { this.rule = rule; return this; }
+
+    public int length() { return len; }
+
+    /** Backing array; valid bytes are [0, length()). */
+    public byte[] buffer() { return buf; }
+
+    /** Exact-size copy (MQTT clients keep the payload array until delivery). */
+    public byte[] toByteArray() { return Arrays.copyOf(buf, len); }
+
+    @Override public String toString() { return new String(buf, 0, len, StandardCharsets.UTF_8); }
+
+    // ---- structure
+
+    public void beginObject() { put((byte) '{'); }
+
+    public void endObject() { put((byte) '}'); }
+
+    /** Write a pre-encoded {@code "name":}, preceded by a comma unless it opens the object. */
+    public void key(byte[] quotedKeyColon) {
+        if (len > 0 && buf[len - 1] != '{') put((byte) ',');
+        raw(quotedKeyColon);
+    }
+
+    public void raw(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, len, bytes.length);
+        len += bytes.length;
+    }
+
+    /**
+     * Common trailer: "server", "session_id", "seq", "trace_id"/"span_id" and "rule" (if set), "ts" (epoch seconds, legacy),
+     * "ts_ms" (epoch ms) and "mono_ns" (monotonic ns since process start, for ordering/latency).
+     */
+    public void envelope() {
+        long wallMs = Clock.wallMs();
+        key(K_SERVER);
+        value(JsonUtils.serverTag());
+        if (sessionId != null && !sessionId.isBlank()) {
+            key(K_SESSION);
+            value(sessionId);
+        }
+        if (seq >= 0) {
+            key(K_SEQ);
+            value(seq);
+        }
+        if (traceId != null) {
+            key(K_TRACE);
+            value(traceId);
+            key(K_SPAN);
+            value(spanId);
+        }
+        if (rule != null) {
+            key(K_RULE);
+            value(rule);
+        }
+        key(K_TS);
+        value(wallMs / 1000);
+        key(K_TS_MS);
+        value(wallMs);
+        key(K_MONO_NS);
+        value(Clock.monoNs());
+    }
+
+    // ---- values
+
+    public void nullValue() { raw(NULL); }
+
+    public void value(boolean b) { raw(b ? TRUE : FALSE); }
+
+    public void value(int v) { value((long) v); }
+
+    public void value(long v) {
+        if (v == Long.MIN_VALUE) { asciiString(Long.toString(v)); return; }
+        ensure(20);
+        if (v < 0) { buf[len++] = '-'; v = -v; }
+        int start = len;
+        do {
+            buf[len++] = (byte) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        // digits were written least-significant first
+        for (int i = start, j = len - 1; i < j; i++, j--) {
+            byte t = buf[i]; buf[i] = buf[j]; buf[j] = t;
+        }
+    }
+
+    /** Same text as Double.toString for finite values (so n8n sees the same numbers as before); NaN/Inf become null. */
+    public void value(double v) {
+        if (Double.isNaN(v) || Double.isInfinite(v)) { nullValue(); return; }
+        // Integral values in the plain-notation range are by far the most common (health, block coords)
+        if (v == Math.rint(v) && Math.abs(v) < 1e7) {
+            if (v == 0 && 1 / v < 0) put((byte) '-');
+            value((long) v);
+            put((byte) '.');
+            put((byte) '0');
+            return;
+        }
+        asciiString(Double.toString(v));
+    }
+
+    public void value(float v) {
+        if (Float.isNaN(v) || Float.isInfinite(v)) { nullValue(); return; }
+        if (v == Math.rint(v) && Math.abs(v) < 1e7f) {
+            if (v == 0 && 1 / v < 0) put((byte) '-');
+            value((long) v);
+            put((byte) '.');
+            put((byte) '0');
+            return;
+        }
+        asciiString(Float.toString(v));
+    }
+
+    /** JSON string with full escaping (quotes, backslashes, control characters), UTF-8 encoded in place. */
+    public void value(String s) {
+        if (s == null) { nullValue(); return; }
+        int n = s.length();
+        ensure(n + 2);
+        buf[len++] = '"';
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                if (len == buf.length) ensure(1);
+                buf[len++] = (byte) c;
+            } else if (c < 0x80) {
+                escapeAscii(c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buf[len++] = (byte) (0xC0 | (c >> 6));
+                buf[len++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                ensure(4);
+                buf[len++] = (byte) (0xF0 | (cp >> 18));
+                buf[len++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[len++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[len++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                unicodeEscape(c); // lone surrogate: keep the JSON valid
+            } else {
+                ensure(3);
+                buf[len++] = (byte) (0xE0 | (c >> 12));
+                buf[len++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[len++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        put((byte) '"');
+    }
+
+    // ---- internals
+
+    private void escapeAscii(char c) {
+        switch (c) {
+            case '"'  -> { put((byte) '\\'); put((byte) '"'); }
+            case '\\' -> { put((byte) '\\'); put((byte) '\\'); }
+            case '\n' -> { put((byte) '\\'); put((byte) 'n'); }
+            case '\r' -> { put((byte) '\\'); put((byte) 'r'); }
+            case '\t' -> { put((byte) '\\'); put((byte) 't'); }
+            case '\b' -> { put((byte) '\\'); put((byte) 'b'); }
+            case '\f' -> { put((byte) '\\'); put((byte) 'f'); }
+            default   -> unicodeEscape(c);
+        }
+    }
+
+    private void unicodeEscape(char c) {
+        ensure(6);
+        buf[len++] = '\\';
+        buf[len++] = 'u';
+        buf[len++] = HEX[(c >> 12) & 0xF];
+        buf[len++] = HEX[(c >> 8) & 0xF];
+        buf[len++] = HEX[(c >> 4) & 0xF];
+        buf[len++] = HEX[c & 0xF];
+    }
+
+    private void asciiString(String s) {
+        int n = s.length();
+        ensure(n);
+        for (int i = 0; i < n; i++) buf[len++] = (byte) s.charAt(i);
+    }
+
+    private void put(byte b) {
+        if (len == buf.length) ensure(1);
+        buf[len++] = b;
+    }
+
+    private void ensure(int extra) {
+        if (len + extra <= buf.length) return;
+        buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+    }
+}
@@ -0,0 +1,11 @@
+package com.kilab.auton8.event;
+
+/** Death/respawn of the local player; {@code world} and {@code cause} are omitted when null. */
+@JsonEvent("life")
+public record LifeEvent(String status, String world, Coords coords, String cause) implements Event {
+
+    @JsonPart
+    public record Coords(double x, double y, double z) {}
+
+    @Override public void encode(JsonSink out) { LifeEventEncoder.encode(this, out); }
+}
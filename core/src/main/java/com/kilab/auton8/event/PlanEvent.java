@@ -0,0 +1,12 @@
+package com.kilab.auton8.event;
+
+/** Plan lifecycle event in the legacy {type, data} envelope (plan_started, plan_step_*, plan_finished). */
+@JsonEvent(key = "type")
+public record PlanEvent(@EventType String type, Data data) implements Event {
+
+    /** Null components are left out, so start/step/finish events each carry only their own fields. */
+    @JsonPart
+    public record Data(String planId, Integer size, Integer index, String cmd, String reason, String status) {}
+
+    @Override public void encode(JsonSink out) { PlanEventEncoder.encode(this, out); }
+}
@@ -0,0 +1,13 @@
+package com.kilab.auton8.event;
+
+/** Another player crossing the proximity or danger radius. */
+@JsonEvent
+public record PlayerProximityEvent(@EventType String event, String name, String uuid,
+                                   double x, double y, double z, double dist) implements Event {
+    public static final String SPOTTED = "player_spotted";
+    public static final String LEFT_RADIUS = "player_left_radius";
+    public static final String DANGER_ENTER = "player_danger_enter";
+    public static final String DANGER_LEFT = "player_danger_left";
+
+    @Override public void encode(JsonSink out) { PlayerProximityEventEncoder.encode(this, out); }
+}
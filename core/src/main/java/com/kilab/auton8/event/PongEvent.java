@@ -0,0 +1,10 @@
+package com.kilab.auton8.event;
+
+/**
+ * Reply to an n8n {type:"ping"}: echoes {@code id}/{@code t0} and adds our receive ({@code t1})
+ * and send ({@code t2}) wall times, so the sender can compute offset and RTT itself.
+ */
+@JsonEvent("pong")
+public record PongEvent(String id, Long t0, long t1, long t2) implements Event {
+    @Override public void encode(JsonSink out) { PongEventEncoder.encode(this, out); }
+}
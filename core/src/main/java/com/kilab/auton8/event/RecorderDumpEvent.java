@@ -0,0 +1,7 @@
+package com.kilab.auton8.event;
+
+/** Answer to {type:"recorder_dump"}: where the flight recorder's records were copied to. */
+@JsonEvent("recorder_dumped")
+public record RecorderDumpEvent(String path, long sizeBytes, long records, int segments) implements Event {
+    @Override public void encode(JsonSink out) { RecorderDumpEventEncoder.encode(this, out); }
+}
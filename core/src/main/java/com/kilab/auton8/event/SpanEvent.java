@@ -0,0 +1,10 @@
+package com.kilab.auton8.event;
+
+/**
+ * A finished trace span. Its trace_id/span_id come from the envelope (publish it with the span);
+ * {@code startMs} is epoch ms, {@code durationUs} is measured on the monotonic clock.
+ */
+@JsonEvent("span")
+public record SpanEvent(String name, String parentSpanId, long startMs, long durationUs, String status) implements Event {
+    @Override public void encode(JsonSink out) { SpanEventEncoder.encode(this, out); }
+}
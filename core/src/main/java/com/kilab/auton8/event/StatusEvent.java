@@ -0,0 +1,7 @@
+package com.kilab.auton8.event;
+
+/** The generic {"event":..., "detail":...} shape (status, accepted, cmd_reject, error, ...). */
+@JsonEvent
+public record StatusEvent(@EventType String event, String detail) implements Event {
+    @Override public void encode(JsonSink out) { StatusEventEncoder.encode(this, out); }
+}
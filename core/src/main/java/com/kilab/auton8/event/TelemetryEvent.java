@@ -0,0 +1,9 @@
+package com.kilab.auton8.event;
+
+/** Periodic position/vitals sample. {@code dimension} is omitted when null. */
+@JsonEvent("telemetry")
+public record TelemetryEvent(double x, double y, double z,
+                             float health, int hunger, float saturation,
+                             String dimension) implements Event {
+    @Override public void encode(JsonSink out) { TelemetryEventEncoder.encode(this, out); }
+}
@@ -0,0 +1,16 @@
+package com.kilab.auton8.event;
+
+/**
+ * The local player ({@code who:"self"}) or another player ({@code who:"player"}) entering,
+ * leaving or having stayed dwell_ms inside a geofence zone. {@code insideMs} is set on exit and
+ * dwell.
+ */
+@JsonEvent
+public record ZoneEvent(@EventType String event, String zone, String dim, String who, String name, String uuid,
+                        double x, double y, double z, Long insideMs) implements Event {
+    public static final String ENTER = "zone_enter";
+    public static final String EXIT = "zone_exit";
+    public static final String DWELL = "zone_dwell";
+
+    @Override public void encode(JsonSink out) { ZoneEventEncoder.encode(this, out); }
+}
@@ -0,0 +1,82 @@
+package com.kilab.auton8.fault;
+
+/**
+ * Failure counter with the usual three states.
+ *
+ *   CLOSED    - work runs; {@code threshold} consecutive failures open the breaker
+ *   OPEN      - work is skipped until the backoff has elapsed
+ *   HALF_OPEN - one trial run: success closes it, failure reopens with the backoff doubled
+ *               (capped at maxBackoffMs)
+ *
+ * Time is passed in (monotonic ms) so the owner decides the clock. Not thread-safe: each
+ * breaker is driven from one thread (TickScheduler keeps one per task on the client thread).
+ */
+public final class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private State state = State.CLOSED;
+    private int consecutive = 0;
+    private long failures = 0L;
+    private long backoffMs = 0L;      // current open period; 0 until the first trip
+    private long retryAtMs = 0L;
+
+    private int threshold;
+    private long baseBackoffMs, maxBackoffMs;
+
+    public CircuitBreaker(int threshold, long baseBackoffMs, long maxBackoffMs) {
+        policy(threshold, baseBackoffMs, maxBackoffMs);
+    }
+
+    /** Change thresholds; takes effect from the next failure. */
+    public void policy(int threshold, long baseBackoffMs, long maxBackoffMs) {
+        this.threshold = Math.max(1, threshold);
+        this.baseBackoffMs = Math.max(1L, baseBackoffMs);
+        this.maxBackoffMs = Math.max(this.baseBackoffMs, maxBackoffMs);
+    }
+
+    public State state()        { return state; }
+    /** Failures since the breaker last closed (or was created). */
+    public long failures()      { return failures; }
+    public long backoffMs()     { return backoffMs; }
+
+    /** Whether to run now; an OPEN breaker whose backoff is over moves to HALF_OPEN and allows a trial. */
+    public boolean allow(long nowMs) {
+        if (state != State.OPEN) return true;
+        if (nowMs < retryAtMs) return false;
+        state = State.HALF_OPEN;
+        return true;
+    }
+
+    public void onSuccess() {
+        consecutive = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            failures = 0L;
+            backoffMs = 0L;
+        }
+    }
+
+    public void onFailure(long nowMs) {
+        failures++;
+        consecutive++;
+        if (state == State.HALF_OPEN) {
+            trip(nowMs, Math.min(maxBackoffMs, backoffMs * 2));
+        } else if (state == State.CLOSED && consecutive >= threshold) {
+            trip(nowMs, baseBackoffMs);
+        }
+    }
+
+    /** Back to CLOSED with counters cleared. */
+    public void reset() {
+        state = State.CLOSED;
+        consecutive = 0;
+        failures = 0L;
+        backoffMs = 0L;
+    }
+
+    private void trip(long nowMs, long backoff) {
+        state = State.OPEN;
+        backoffMs = Math.max(baseBackoffMs, backoff);
+        retryAtMs = nowMs + backoffMs;
+    }
+}
@@ -0,0 +1,132 @@
+package com.kilab.auton8.fault;
+
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide sink for exceptions that would otherwise be swallowed or published once per
+ * occurrence.
+ *
+ * Occurrences are grouped by (source, stack hash), where the hash covers the exception class
+ * and its top {@value #HASH_FRAMES} frames. The first occurrence of a group is reported at once
+ * with one sampled frame; repeats are only counted and go out as one report per group per
+ * interval (on the next occurrence or {@link #flush}). Reports are handed to the {@link Listener}
+ * on the reporting thread (ErrorBridge publishes them).
+ */
+public final class ErrorReporter {
+    private static final ErrorReporter INSTANCE = new ErrorReporter();
+
+    public static ErrorReporter get() { return INSTANCE; }
+
+    static final int HASH_FRAMES = 8;
+    static final int MAX_GROUPS = 256;
+    private static final int MAX_MESSAGE = 200;
+
+    /** One report: {@code repeats} occurrences since the previous report of the group, {@code count} in total. */
+    public record Report(String source, String error, String message, String stackHash, String at,
+                         long count, long repeats) {}
+
+    @FunctionalInterface
+    public interface Listener {
+        void onReport(Report r);
+    }
+
+    private static final class Group {
+        final String source, error, message, hash, at;
+        long count = 0L, pending = 0L, lastReportMs = Long.MIN_VALUE;
+        Group(String source, String error, String message, String hash, String at) {
+            this.source = source; this.error = error; this.message = message; this.hash = hash; this.at = at;
+        }
+        Report drain(long nowMs) {
+            Report r = new Report(source, error, message, hash, at, count, pending);
+            pending = 0L;
+            lastReportMs = nowMs;
+            return r;
+        }
+    }
+
+    // access-ordered, so the least recently failing group is dropped first (guarded by this)
+    private final LinkedHashMap<String, Group> groups = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<String, Group> e) { return size() > MAX_GROUPS; }
+    };
+
+    private volatile Listener listener = null;
+    private volatile long intervalMs = 30_000L;
+
+    private ErrorReporter() {}
+
+    public void setListener(Listener l) { listener = l; }
+
+    /** Minimum gap between two reports of the same group (0 = report every occurrence). */
+    public void setIntervalMs(long ms) { intervalMs = Math.max(0L, ms); }
+
+    /** Record one failure of {@code source} (bridge / task name). */
+    public void report(String source, Throwable t) {
+        Metrics.get().counter("errors_total", "source", source).inc();
+        String hash = stackHash(t);
+        long now = Clock.monoMs();
+        Report out = null;
+        synchronized (this) {
+            Group g = groups.get(source + '|' + hash);
+            if (g == null) {
+                g = new Group(source, t.getClass().getSimpleName(), message(t), hash, topFrame(t));
+                groups.put(source + '|' + hash, g);
+            }
+            g.count++;
+            g.pending++;
+            if (g.lastReportMs == Long.MIN_VALUE || now - g.lastReportMs >= intervalMs) out = g.drain(now);
+        }
+        if (out != null) deliver(out);
+    }
+
+    /** Report every group with occurrences still pending whose interval has elapsed. */
+    public void flush() {
+        long now = Clock.monoMs();
+        List<Report> out = new ArrayList<>();
+        synchronized (this) {
+            for (Group g : groups.values()) {
+                if (g.pending > 0 && now - g.lastReportMs >= intervalMs) out.add(g.drain(now));
+            }
+        }
+        for (Report r : out) deliver(r);
+    }
+
+    public synchronized void clear() { groups.clear(); }
+
+    private void deliver(Report r) {
+        Listener l = listener;
+        if (l == null) return;
+        try { l.onReport(r); } catch (Throwable ignored) {}
+    }
+
+    /** 8 hex digits over the exception class and its top frames (line numbers included). */
+    static String stackHash(Throwable t) {
+        int h = t.getClass().getName().hashCode();
+        StackTraceElement[] st = t.getStackTrace();
+        for (int i = 0, n = Math.min(HASH_FRAMES, st.length); i < n; i++) {
+            h = 31 * h + st[i].getClassName().hashCode();
+            h = 31 * h + st[i].getMethodName().hashCode();
+            h = 31 * h + st[i].getLineNumber();
+        }
+        String hex = Integer.toHexString(h);
+        return "00000000".substring(hex.length()) + hex;
+    }
+
+    private static String topFrame(Throwable t) {
+        StackTraceElement[] st = t.getStackTrace();
+        if (st.length == 0) return null;
+        String cls = st[0].getClassName();
+        return cls.substring(cls.lastIndexOf('.') + 1) + "." + st[0].getMethodName() + ":" + st[0].getLineNumber();
+    }
+
+    private static String message(Throwable t) {
+        String m = t.getMessage();
+        if (m == null) return null;
+        return m.length() <= MAX_MESSAGE ? m : m.substring(0, MAX_MESSAGE);
+    }
+}
@@ -0,0 +1,215 @@
+package com.kilab.auton8.geo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Tracked entities bucketed by chunk (16x16 x/z columns), kept up to date incrementally: an
+ * entity is filed on add, moved between buckets only when a position update crosses a chunk
+ * border, and unfiled on remove. A radius query then touches the buckets overlapping the
+ * radius instead of every loaded entity.
+ *
+ * Entries also sit in a dense array so callers can walk all of them round-robin, a slice per
+ * tick. Chunk keys live in an open-addressed table of primitive longs (no boxing on the
+ * per-tick query), buckets are swap-remove arrays, and empty buckets are dropped so the table
+ * follows the loaded area rather than everywhere the player has been. Single-threaded.
+ */
+public final class EntityIndex {
+    public static final String[] KINDS = { "hostile", "passive", "item", "vehicle", "other" };
+    public static final int OTHER = KINDS.length - 1;
+
+    /** One tracked entity. Position fields are written through {@link #move} only. */
+    public static final class Entry {
+        public final int id;
+        public final int kind;
+        public final String type;
+        public double x, y, z;
+        public boolean removed;
+
+        // caller state
+        public boolean inside, announced;
+        public long stamp;
+
+        long chunk;
+        int bucketPos, densePos;
+
+        Entry(int id, int kind, String type) { this.id = id; this.kind = kind; this.type = type; }
+    }
+
+    private static final class Bucket {
+        Entry[] items = new Entry[4];
+        int n;
+    }
+
+    private final HashMap<Integer, Entry> byId = new HashMap<>();
+    private Entry[] dense = new Entry[64];
+    private int size = 0;
+
+    // chunk key -> bucket; open addressing, linear probing, backward-shift deletion
+    private long[] keys = new long[64];
+    private Bucket[] buckets = new Bucket[64];
+    private int bucketCount = 0;
+
+    private Entry[] found = new Entry[64];   // query result, reused
+
+    public static int kindOf(String kind) {
+        for (int i = 0; i < KINDS.length; i++) if (KINDS[i].equals(kind)) return i;
+        return OTHER;
+    }
+
+    public int size() { return size; }
+
+    /** i-th entry in no particular order, 0 <= i < size(); the order changes on remove. */
+    public Entry at(int i) { return dense[i]; }
+
+    public Entry get(int id) { return byId.get(id); }
+
+    /** Add an entity, or move it if it is already tracked (a load seen twice). */
+    public Entry put(int id, String kind, String type, double x, double y, double z) {
+        Entry e = byId.get(id);
+        if (e != null) { move(e, x, y, z); return e; }
+        e = new Entry(id, kindOf(kind), type);
+        e.x = x; e.y = y; e.z = z;
+        e.chunk = chunkKey(x, z);
+        byId.put(id, e);
+        if (size == dense.length) dense = Arrays.copyOf(dense, size * 2);
+        e.densePos = size;
+        dense[size++] = e;
+        file(e);
+        return e;
+    }
+
+    public Entry remove(int id) {
+        Entry e = byId.remove(id);
+        if (e == null) return null;
+        unfile(e);
+        Entry last = dense[--size];
+        dense[e.densePos] = last;
+        last.densePos = e.densePos;
+        dense[size] = null;
+        e.removed = true;
+        return e;
+    }
+
+    public void move(Entry e, double x, double y, double z) {
+        e.x = x; e.y = y; e.z = z;
+        long k = chunkKey(x, z);
+        if (k == e.chunk) return;
+        unfile(e);
+        e.chunk = k;
+        file(e);
+    }
+
+    public void clear() {
+        byId.clear();
+        Arrays.fill(dense, 0, size, null);
+        size = 0;
+        Arrays.fill(buckets, null);
+        bucketCount = 0;
+    }
+
+    /**
+     * Entries in the chunks overlapping the x/z square of half-width {@code r} around (x, z); the
+     * caller does the exact distance test. Results are in {@link #found(int)}, valid until the
+     * next call, and stay valid while entries are moved or removed.
+     */
+    public int near(double x, double z, double r) {
+        int cx0 = chunk(x - r), cx1 = chunk(x + r), cz0 = chunk(z - r), cz1 = chunk(z + r);
+        int n = 0;
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cz = cz0; cz <= cz1; cz++) {
+                Bucket b = bucket(key(cx, cz));
+                if (b == null) continue;
+                if (n + b.n > found.length) found = Arrays.copyOf(found, Math.max(found.length * 2, n + b.n));
+                System.arraycopy(b.items, 0, found, n, b.n);
+                n += b.n;
+            }
+        }
+        return n;
+    }
+
+    public Entry found(int i) { return found[i]; }
+
+    // ---- buckets
+
+    private void file(Entry e) {
+        Bucket b = bucket(e.chunk);
+        if (b == null) b = addBucket(e.chunk);
+        if (b.n == b.items.length) b.items = Arrays.copyOf(b.items, b.n * 2);
+        e.bucketPos = b.n;
+        b.items[b.n++] = e;
+    }
+
+    private void unfile(Entry e) {
+        Bucket b = bucket(e.chunk);
+        if (b == null) return;
+        Entry last = b.items[--b.n];
+        b.items[e.bucketPos] = last;
+        last.bucketPos = e.bucketPos;
+        b.items[b.n] = null;
+        if (b.n == 0) removeBucket(e.chunk);
+    }
+
+    private static int chunk(double v) { return (int) Math.floor(v) >> 4; }
+
+    private static long chunkKey(double x, double z) { return key(chunk(x), chunk(z)); }
+
+    private static long key(int cx, int cz) { return ((long) cx << 32) ^ (cz & 0xffffffffL); }
+
+    private static int hash(long k) {
+        long h = k * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private Bucket bucket(long k) {
+        int mask = keys.length - 1;
+        for (int i = hash(k) & mask; buckets[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == k) return buckets[i];
+        }
+        return null;
+    }
+
+    private Bucket addBucket(long k) {
+        if ((bucketCount + 1) * 2 > keys.length) rehash(keys.length * 2);
+        int mask = keys.length - 1;
+        int i = hash(k) & mask;
+        while (buckets[i] != null) i = (i + 1) & mask;
+        keys[i] = k;
+        Bucket b = buckets[i] = new Bucket();
+        bucketCount++;
+        return b;
+    }
+
+    private void removeBucket(long k) {
+        int mask = keys.length - 1;
+        int i = hash(k) & mask;
+        while (buckets[i] != null && keys[i] != k) i = (i + 1) & mask;
+        if (buckets[i] == null) return;
+        int hole = i;
+        for (int j = (hole + 1) & mask; buckets[j] != null; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                buckets[hole] = buckets[j];
+                hole = j;
+            }
+        }
+        buckets[hole] = null;
+        bucketCount--;
+    }
+
+    private void rehash(int cap) {
+        long[] oKeys = keys;
+        Bucket[] oBuckets = buckets;
+        keys = new long[cap];
+        buckets = new Bucket[cap];
+        int mask = cap - 1;
+        for (int s = 0; s < oKeys.length; s++) {
+            if (oBuckets[s] == null) continue;
+            int i = hash(oKeys[s]) & mask;
+            while (buckets[i] != null) i = (i + 1) & mask;
+            keys[i] = oKeys[s];
+            buckets[i] = oBuckets[s];
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.kilab.auton8.geo;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * One named zone, compiled from its JSON definition:
+ *
+ * <pre>
+ * {id:"base", dim:"overworld", shape:"box",     min:[x,y,z], max:[x,y,z]}
+ * {id:"farm", dim:"overworld", shape:"sphere",  center:[x,y,z], r:24}
+ * {id:"nogo", dim:"nether",    shape:"polygon", points:[[x,z],[x,z],...], y_min:0, y_max:128}
+ *   + margin:2 (hysteresis, blocks), dwell_ms:0 (0 = no dwell event), track:"all" | "self" | "players"
+ * </pre>
+ *
+ * A subject enters when it is inside the shape and exits only once it is more than
+ * {@code margin} blocks outside it, so walking along an edge doesn't flap. Polygons are in the
+ * x/z plane with an optional y range. dim uses the short names from telemetry (overworld,
+ * nether, end, or a modded path).
+ */
+public final class Zone {
+    public static final int MAX_POINTS = 64;
+    static final double MAX_MARGIN = 64.0;
+    static final double MAX_EXTENT = 30_000_000.0;
+
+    public static final int TRACK_SELF = 1, TRACK_PLAYERS = 2;
+
+    private enum Shape { BOX, SPHERE, POLYGON }
+
+    public final String id;
+    public final String dim;
+    public final double margin;
+    public final long dwellMs;
+    final int track;
+    private final Shape shape;
+    private final JsonObject source;
+
+    // box: the box itself; sphere/polygon: their bounds. All without the margin.
+    final double minX, minY, minZ, maxX, maxY, maxZ;
+    private final double cx, cy, cz, r;     // sphere
+    private final double[] px, pz;          // polygon
+
+    private Zone(String id, String dim, Shape shape, double margin, long dwellMs, int track, JsonObject source,
+                 double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                 double cx, double cy, double cz, double r, double[] px, double[] pz) {
+        this.id = id; this.dim = dim; this.shape = shape; this.margin = margin; this.dwellMs = dwellMs;
+        this.track = track; this.source = source;
+        this.minX = minX; this.minY = minY; this.minZ = minZ; this.maxX = maxX; this.maxY = maxY; this.maxZ = maxZ;
+        this.cx = cx; this.cy = cy; this.cz = cz; this.r = r; this.px = px; this.pz = pz;
+    }
+
+    public boolean tracks(int who) { return (track & who) != 0; }
+
+    /** Inside the shape grown by {@code pad} blocks (0 = the shape itself). */
+    public boolean contains(double x, double y, double z, double pad) {
+        if (x < minX - pad || x > maxX + pad || y < minY - pad || y > maxY + pad || z < minZ - pad || z > maxZ + pad) return false;
+        return switch (shape) {
+            case BOX -> true;
+            case SPHERE -> {
+                double dx = x - cx, dy = y - cy, dz = z - cz, rr = r + pad;
+                yield dx * dx + dy * dy + dz * dz <= rr * rr;
+            }
+            case POLYGON -> inPolygon(x, z) || (pad > 0 && edgeDistance2(x, z) <= pad * pad);
+        };
+    }
+
+    /** The definition as pushed. */
+    public JsonObject toJson() { return source.deepCopy(); }
+
+    private boolean inPolygon(double x, double z) {
+        boolean in = false;
+        for (int i = 0, j = px.length - 1; i < px.length; j = i++) {
+            if ((pz[i] > z) != (pz[j] > z) && x < (px[j] - px[i]) * (z - pz[i]) / (pz[j] - pz[i]) + px[i]) in = !in;
+        }
+        return in;
+    }
+
+    private double edgeDistance2(double x, double z) {
+        double best = Double.MAX_VALUE;
+        for (int i = 0, j = px.length - 1; i < px.length; j = i++) {
+            double ex = px[i] - px[j], ez = pz[i] - pz[j];
+            double len2 = ex * ex + ez * ez;
+            double t = len2 == 0 ? 0 : Math.max(0, Math.min(1, ((x - px[j]) * ex + (z - pz[j]) * ez) / len2));
+            double dx = px[j] + t * ex - x, dz = pz[j] + t * ez - z;
+            best = Math.min(best, dx * dx + dz * dz);
+        }
+        return best;
+    }
+
+    /** @throws IllegalArgumentException with a short reason ("id", "dim:x", "shape:x", "points:x", ...) */
+    public static Zone compile(JsonObject j) {
+        String id = str(j, "id");
+        if (id.isBlank() || id.length() > 64) throw new IllegalArgumentException("id");
+        String dim = str(j, "dim");
+        if (dim.isBlank()) throw new IllegalArgumentException("dim:" + id);
+
+        double margin = j.has("margin") ? num(j.get("margin"), "margin:" + id) : 2.0;
+        if (margin < 0 || margin > MAX_MARGIN) throw new IllegalArgumentException("margin:" + id);
+        long dwell = j.has("dwell_ms") ? (long) num(j.get("dwell_ms"), "dwell_ms:" + id) : 0L;
+        if (dwell < 0 || dwell > 86_400_000L) throw new IllegalArgumentException("dwell_ms:" + id);
+        int track = switch (j.has("track") ? str(j, "track") : "all") {
+            case "self" -> TRACK_SELF;
+            case "players" -> TRACK_PLAYERS;
+            case "all" -> TRACK_SELF | TRACK_PLAYERS;
+            default -> throw new IllegalArgumentException("track:" + id);
+        };
+
+        JsonObject src = j.deepCopy();
+        switch (str(j, "shape")) {
+            case "box" -> {
+                double[] a = vec(j.get("min"), 3, "min:" + id), b = vec(j.get("max"), 3, "max:" + id);
+                return new Zone(id, dim, Shape.BOX, margin, dwell, track, src,
+                    Math.min(a[0], b[0]), Math.min(a[1], b[1]), Math.min(a[2], b[2]),
+                    Math.max(a[0], b[0]), Math.max(a[1], b[1]), Math.max(a[2], b[2]),
+                    0, 0, 0, 0, null, null);
+            }
+            case "sphere" -> {
+                double[] c = vec(j.get("center"), 3, "center:" + id);
+                double r = j.has("r") ? num(j.get("r"), "r:" + id) : -1;
+                if (r <= 0 || r > 100_000) throw new IllegalArgumentException("r:" + id);
+                return new Zone(id, dim, Shape.SPHERE, margin, dwell, track, src,
+                    c[0] - r, c[1] - r, c[2] - r, c[0] + r, c[1] + r, c[2] + r,
+                    c[0], c[1], c[2], r, null, null);
+            }
+            case "polygon" -> {
+                if (!j.has("points") || !j.get("points").isJsonArray()) throw new IllegalArgumentException("points:" + id);
+                JsonArray pts = j.getAsJsonArray("points");
+                if (pts.size() < 3 || pts.size() > MAX_POINTS) throw new IllegalArgumentException("points:" + id);
+                double[] xs = new double[pts.size()], zs = new double[pts.size()];
+                double x0 = Double.MAX_VALUE, z0 = Double.MAX_VALUE, x1 = -Double.MAX_VALUE, z1 = -Double.MAX_VALUE;
+                for (int i = 0; i < xs.length; i++) {
+                    double[] p = vec(pts.get(i), 2, "points:" + id);
+                    xs[i] = p[0]; zs[i] = p[1];
+                    x0 = Math.min(x0, p[0]); x1 = Math.max(x1, p[0]);
+                    z0 = Math.min(z0, p[1]); z1 = Math.max(z1, p[1]);
+                }
+                double y0 = j.has("y_min") ? num(j.get("y_min"), "y_min:" + id) : -MAX_EXTENT;
+                double y1 = j.has("y_max") ? num(j.get("y_max"), "y_max:" + id) : MAX_EXTENT;
+                if (y1 < y0) throw new IllegalArgumentException("y_max:" + id);
+                return new Zone(id, dim, Shape.POLYGON, margin, dwell, track, src,
+                    x0, y0, z0, x1, y1, z1, 0, 0, 0, 0, xs, zs);
+            }
+            default -> throw new IllegalArgumentException("shape:" + id);
+        }
+    }
+
+    private static String str(JsonObject j, String key) {
+        JsonElement v = j.get(key);
+        return v != null && v.isJsonPrimitive() ? v.getAsString() : "";
+    }
+
+    private static double num(JsonElement v, String reason) {
+        if (v == null || !v.isJsonPrimitive() || !v.getAsJsonPrimitive().isNumber()) throw new IllegalArgumentException(reason);
+        double d = v.getAsDouble();
+        if (!Double.isFinite(d) || Math.abs(d) > MAX_EXTENT) throw new IllegalArgumentException(reason);
+        return d;
+    }
+
+    private static double[] vec(JsonElement v, int n, String reason) {
+        if (v == null || !v.isJsonArray() || v.getAsJsonArray().size() != n) throw new IllegalArgumentException(reason);
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++) out[i] = num(v.getAsJsonArray().get(i), reason);
+        return out;
+    }
+}
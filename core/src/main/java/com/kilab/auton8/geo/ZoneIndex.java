@@ -0,0 +1,84 @@
+package com.kilab.auton8.geo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable spatial index over a set of zones: per dimension, a uniform grid of
+ * {@value #CELL}-block x/z cells, each listing the zones whose bounds (grown by their margin)
+ * overlap it. A lookup is one hash probe plus a containment test per zone in the cell, so the
+ * cost follows how many zones overlap the player's cell, not how many exist. Zones wider than
+ * {@value #MAX_CELLS} cells are kept in a small per-dimension list checked on every lookup
+ * rather than smeared over thousands of cells.
+ *
+ * Built once per change and swapped whole, so readers never lock.
+ */
+public final class ZoneIndex {
+    public static final int CELL = 32;
+    private static final int SHIFT = 5;   // log2(CELL)
+    static final int MAX_CELLS = 1024;
+
+    public static final ZoneIndex EMPTY = new ZoneIndex(List.of());
+
+    private static final Zone[] NONE = new Zone[0];
+
+    private static final class Dim {
+        final HashMap<Long, Zone[]> cells = new HashMap<>();
+        Zone[] big = NONE;
+    }
+
+    private final LinkedHashMap<String, Zone> byId = new LinkedHashMap<>();
+    private final HashMap<String, Dim> dims = new HashMap<>();
+
+    public ZoneIndex(Collection<Zone> zones) {
+        HashMap<String, HashMap<Long, List<Zone>>> cells = new HashMap<>();
+        HashMap<String, List<Zone>> big = new HashMap<>();
+        for (Zone z : zones) {
+            byId.put(z.id, z);
+            int x0 = cell(z.minX - z.margin), x1 = cell(z.maxX + z.margin);
+            int z0 = cell(z.minZ - z.margin), z1 = cell(z.maxZ + z.margin);
+            if ((long) (x1 - x0 + 1) * (z1 - z0 + 1) > MAX_CELLS) {
+                big.computeIfAbsent(z.dim, k -> new ArrayList<>()).add(z);
+                continue;
+            }
+            HashMap<Long, List<Zone>> grid = cells.computeIfAbsent(z.dim, k -> new HashMap<>());
+            for (int cx = x0; cx <= x1; cx++)
+                for (int cz = z0; cz <= z1; cz++)
+                    grid.computeIfAbsent(key(cx, cz), k -> new ArrayList<>(2)).add(z);
+        }
+        for (Map.Entry<String, HashMap<Long, List<Zone>>> e : cells.entrySet()) {
+            Dim d = dims.computeIfAbsent(e.getKey(), k -> new Dim());
+            for (Map.Entry<Long, List<Zone>> c : e.getValue().entrySet()) d.cells.put(c.getKey(), c.getValue().toArray(NONE));
+        }
+        for (Map.Entry<String, List<Zone>> e : big.entrySet()) dims.computeIfAbsent(e.getKey(), k -> new Dim()).big = e.getValue().toArray(NONE);
+    }
+
+    public int size() { return byId.size(); }
+
+    public Zone get(String id) { return byId.get(id); }
+
+    /** All zones, in the order they were given. */
+    public Collection<Zone> zones() { return byId.values(); }
+
+    /** Zones in {@code dim} whose padded bounds may contain (x, z): the caller still tests each. */
+    public Zone[] cell(String dim, double x, double z) {
+        Dim d = dims.get(dim);
+        if (d == null) return NONE;
+        Zone[] c = d.cells.get(key(cell(x), cell(z)));
+        return c == null ? NONE : c;
+    }
+
+    /** The oversize zones in {@code dim}, to be tested on every lookup. */
+    public Zone[] big(String dim) {
+        Dim d = dims.get(dim);
+        return d == null ? NONE : d.big;
+    }
+
+    private static int cell(double v) { return (int) Math.floor(v) >> SHIFT; }
+
+    private static long key(int cx, int cz) { return ((long) cx << 32) ^ (cz & 0xffffffffL); }
+}
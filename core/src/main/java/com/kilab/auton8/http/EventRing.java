@@ -0,0 +1,81 @@
+package com.kilab.auton8.http;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The last N published messages with consecutive ids (the SSE event ids), so a client that
+ * reconnects with Last-Event-ID picks up exactly where it left off as long as it wasn't gone
+ * for more than N messages. Appending never waits for readers; readers that fall behind simply
+ * find their next id overwritten and are told about the gap.
+ *
+ * A ReentrantLock rather than synchronized: readers park on it from virtual threads.
+ */
+final class EventRing {
+    record Entry(long id, String topic, String json) {}
+
+    private final int capacity;
+    private final Entry[] ring;
+    private long lastId = 0L;   // id of the newest entry, 0 = empty
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition added = lock.newCondition();
+
+    EventRing(int capacity) {
+        this.capacity = Math.max(16, capacity);
+        this.ring = new Entry[this.capacity];
+    }
+
+    long append(String topic, String json) {
+        lock.lock();
+        try {
+            long id = ++lastId;
+            ring[(int) (id % capacity)] = new Entry(id, topic, json);
+            added.signalAll();
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long lastId() {
+        lock.lock();
+        try { return lastId; } finally { lock.unlock(); }
+    }
+
+    /** Oldest id still held (lastId + 1 when empty). */
+    long oldestId() {
+        lock.lock();
+        try { return Math.max(1, lastId - capacity + 1); } finally { lock.unlock(); }
+    }
+
+    /**
+     * Copy up to {@code max} entries newer than {@code after} into {@code out}, oldest first,
+     * starting at the oldest one still held.
+     */
+    void read(long after, int max, List<Entry> out) {
+        lock.lock();
+        try {
+            long from = Math.max(after + 1, Math.max(1, lastId - capacity + 1));
+            for (long id = from; id <= lastId && out.size() < max; id++) out.add(ring[(int) (id % capacity)]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Wait until something newer than {@code after} is appended; false on timeout. */
+    boolean await(long after, long timeoutMs) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (lastId <= after) {
+                if (nanos <= 0) return false;
+                nanos = added.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.kilab.auton8.http;
+
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.mqtt.MqttMessageHandler;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loopback-only HTTP transport for single-machine setups: n8n talks to the bot directly
+ * instead of through the broker. Attached to the {@link MqttBus} as a sink, so bridges keep
+ * publishing to their topics exactly as before (and still reach MQTT too if a broker is set).
+ *
+ * <pre>
+ *   GET  /events?topic=mc/+/events   Server-Sent Events; topic is an MQTT filter, default the events topic.
+ *                                    Each frame is "id: n" + "data: {payload}"; reconnects with
+ *                                    Last-Event-ID (or ?last_event_id=) resume from the ring, and a
+ *                                    resume older than the ring first gets {event:"sse_gap", missed:n}.
+ *   POST /cmd                        body = one command, dispatched like a message on the cmd topic -> 202
+ *   GET  /health                     {ok, clients, last_id}
+ * </pre>
+ *
+ * With a password in the config every request needs "Authorization: Bearer <password>" or
+ * ?access_token=<password>. Requests carrying an Origin header are refused, so a web page
+ * open in a local browser cannot post commands.
+ *
+ * One virtual thread per connection; SSE clients read from the shared {@link EventRing}, so a
+ * publish costs one ring append however many clients are attached, and never waits on them.
+ */
+public final class HttpTransport implements MqttMessageHandler {
+    private static final int MAX_HEAD = 8192;
+    private static final int MAX_BODY = 64 * 1024;
+    private static final int BATCH = 256;
+    private static final long KEEPALIVE_MS = 15_000L;
+
+    private static final Counter CMDS   = Metrics.get().counter("http_cmd_total");
+    private static final Counter FRAMES = Metrics.get().counter("http_sse_frames_total");
+    private static final Counter GAPS   = Metrics.get().counter("http_sse_gaps_total");
+
+    private final MqttBus bus;
+    private final Config cfg;
+    private final int port;
+    private final EventRing ring;
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private volatile ServerSocket server;
+    private final AtomicInteger sseClients = new AtomicInteger();
+
+    public HttpTransport(MqttBus bus, Config cfg, int port, int ringSize) {
+        this.bus = bus;
+        this.cfg = cfg;
+        this.port = port;
+        this.ring = new EventRing(ringSize);
+    }
+
+    public int port() { return port; }
+
+    public int clients() { return sseClients.get(); }
+
+    public synchronized void start() throws IOException {
+        if (server != null) return;
+        ServerSocket s = new ServerSocket();
+        try {
+            s.setReuseAddress(true);
+            s.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            try { s.close(); } catch (IOException ignored) {}
+            throw e;
+        }
+        server = s;
+        Metrics.get().gauge("http_sse_clients", sseClients::get);
+        Thread t = new Thread(() -> accept(s), "auton8-http");
+        t.setDaemon(true);
+        t.start();
+        bus.addSink(this);
+    }
+
+    public synchronized void stop() {
+        bus.removeSink(this);
+        Metrics.get().removeGauge("http_sse_clients");
+        ServerSocket s = server;
+        server = null;
+        if (s != null) try { s.close(); } catch (IOException ignored) {}
+        for (Socket c : open) try { c.close(); } catch (IOException ignored) {}
+        open.clear();
+    }
+
+    /** Bus sink: called on the publishing thread for every message. */
+    @Override
+    public void handle(String topic, String json) {
+        ring.append(topic, json);
+    }
+
+    // ===== Internals =====
+
+    private void accept(ServerSocket s) {
+        while (!s.isClosed()) {
+            try {
+                Socket c = s.accept();
+                open.add(c);
+                Thread.ofVirtual().name("auton8-http-conn").start(() -> {
+                    try (c) { serve(c); } catch (IOException ignored) {
+                        // client went away, or stop() closed it
+                    } finally {
+                        open.remove(c);
+                    }
+                });
+            } catch (IOException ignored) {
+                // closed by stop()
+            }
+        }
+    }
+
+    private record Request(String method, String path, Map<String, String> query, Map<String, String> headers) {}
+
+    private void serve(Socket c) throws IOException {
+        c.setSoTimeout(5_000);
+        InputStream in = c.getInputStream();
+        OutputStream out = new BufferedOutputStream(c.getOutputStream(), 8192);
+        Request r = readHead(in);
+        if (r == null) { respond(out, 400, "{\"error\":\"bad_request\"}"); return; }
+        if (r.headers.containsKey("origin")) { respond(out, 403, "{\"error\":\"origin\"}"); return; }
+        if (!authorized(r)) { respond(out, 401, "{\"error\":\"unauthorized\"}"); return; }
+
+        switch (r.method + " " + r.path) {
+            case "GET /events" -> {
+                c.setSoTimeout(0);
+                stream(r, out);
+            }
+            case "POST /cmd" -> command(r, in, out);
+            case "GET /health" -> respond(out, 200, "{\"ok\":true,\"clients\":" + sseClients.get() + ",\"last_id\":" + ring.lastId() + "}");
+            default -> respond(out, 404, "{\"error\":\"not_found\"}");
+        }
+    }
+
+    private boolean authorized(Request r) {
+        String pw = cfg.password;
+        if (pw == null || pw.isEmpty()) return true;
+        String auth = r.headers.getOrDefault("authorization", "");
+        return auth.equals("Bearer " + pw) || pw.equals(r.query.get("access_token"));
+    }
+
+    private void command(Request r, InputStream in, OutputStream out) throws IOException {
+        int len;
+        try {
+            len = Integer.parseInt(r.headers.getOrDefault("content-length", "-1").trim());
+        } catch (NumberFormatException e) {
+            len = -1;
+        }
+        if (len < 0) { respond(out, 411, "{\"error\":\"length_required\"}"); return; }
+        if (len > MAX_BODY) { respond(out, 413, "{\"error\":\"too_large\"}"); return; }
+        String body = new String(in.readNBytes(len), StandardCharsets.UTF_8);
+        try {
+            if (!JsonParser.parseString(body).isJsonObject()) throw new IllegalArgumentException();
+        } catch (Exception e) {
+            respond(out, 400, "{\"error\":\"not_a_json_object\"}");
+            return;
+        }
+        bus.inject(cfg.cmdTopic, body);   // serialized with MQTT deliveries by the bus
+        CMDS.inc();
+        respond(out, 202, "{\"accepted\":true}");
+    }
+
+    private void stream(Request r, OutputStream out) throws IOException {
+        String filter = r.query.getOrDefault("topic", cfg.evtTopic);
+        String resume = r.headers.getOrDefault("last-event-id", r.query.get("last_event_id"));
+        long cursor;
+        try {
+            cursor = resume == null ? ring.lastId() : Long.parseLong(resume.trim());
+        } catch (NumberFormatException e) {
+            cursor = ring.lastId();
+        }
+        out.write(("HTTP/1.1 200 OK\r\n"
+            + "Content-Type: text/event-stream; charset=utf-8\r\n"
+            + "Cache-Control: no-cache\r\n"
+            + "Connection: keep-alive\r\n\r\n"
+            + "retry: 2000\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+
+        sseClients.incrementAndGet();
+        try {
+            List<EventRing.Entry> batch = new ArrayList<>(BATCH);
+            while (server != null) {
+                // a cursor past the end means the ring was recreated (transport restarted)
+                if (cursor > ring.lastId()) cursor = 0;
+                long oldest = ring.oldestId();
+                if (cursor + 1 < oldest) {
+                    long missed = oldest - cursor - 1;
+                    GAPS.inc();
+                    out.write(("data: {\"event\":\"sse_gap\",\"missed\":" + missed + "}\n\n").getBytes(StandardCharsets.UTF_8));
+                    cursor = oldest - 1;
+                }
+                batch.clear();
+                ring.read(cursor, BATCH, batch);
+                for (EventRing.Entry e : batch) {
+                    cursor = e.id();
+                    if (!matches(filter, e.topic())) continue;
+                    frame(out, e);
+                    FRAMES.inc();
+                }
+                out.flush();
+                if (batch.size() == BATCH) continue;
+                if (!ring.await(cursor, KEEPALIVE_MS)) {
+                    out.write(": ping\n\n".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sseClients.decrementAndGet();
+        }
+    }
+
+    private static void frame(OutputStream out, EventRing.Entry e) throws IOException {
+        StringBuilder sb = new StringBuilder(e.json().length() + 32);
+        sb.append("id: ").append(e.id()).append('\n');
+        // payloads are single-line JSON; split defensively, SSE ends a field at a newline
+        for (String line : e.json().split("\n", -1)) sb.append("data: ").append(line).append('\n');
+        sb.append('\n');
+        out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(OutputStream out, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        out.write(("HTTP/1.1 " + status + " " + reason(status) + "\r\n"
+            + "Content-Type: application/json; charset=utf-8\r\n"
+            + "Content-Length: " + bytes.length + "\r\n"
+            + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(bytes);
+        out.flush();
+    }
+
+    private static String reason(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 202 -> "Accepted";
+            case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 403 -> "Forbidden";
+            case 404 -> "Not Found";
+            case 411 -> "Length Required";
+            case 413 -> "Payload Too Large";
+            default -> "Error";
+        };
+    }
+
+    /** Request line and headers (names lower-cased), up to the blank line; null if malformed. */
+    private static Request readHead(InputStream in) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(512);
+        int state = 0, b, n = 0;
+        while (state < 4 && n++ < MAX_HEAD && (b = in.read()) != -1) {
+            buf.write(b);
+            state = (b == '\r' && (state == 0 || state == 2)) ? state + 1
+                  : (b == '\n' && (state == 1 || state == 3)) ? state + 1
+                  : 0;
+        }
+        if (state < 4) return null;
+        String[] lines = buf.toString(StandardCharsets.ISO_8859_1).split("\r\n");
+        String[] first = lines[0].split(" ");
+        if (first.length < 3) return null;
+        String target = first[1];
+        int q = target.indexOf('?');
+        String path = q < 0 ? target : target.substring(0, q);
+        Map<String, String> query = new HashMap<>();
+        if (q >= 0) {
+            for (String kv : target.substring(q + 1).split("&")) {
+                int eq = kv.indexOf('=');
+                if (eq > 0) query.put(decode(kv.substring(0, eq)), decode(kv.substring(eq + 1)));
+            }
+        }
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) headers.put(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT), lines[i].substring(colon + 1).trim());
+        }
+        return new Request(first[0], path, query, headers);
+    }
+
+    private static String decode(String s) {
+        return URLDecoder.decode(s, StandardCharsets.UTF_8);
+    }
+
+    /** MQTT topic filter match ('+' one level, trailing '#' any rest). */
+    static boolean matches(String filter, String topic) {
+        if (filter.equals(topic) || filter.equals("#")) return true;
+        String[] f = filter.split("/", -1), t = topic.split("/", -1);
+        for (int i = 0; i < f.length; i++) {
+            if (f[i].equals("#")) return true;
+            if (i >= t.length) return false;
+            if (!f[i].equals("+") && !f[i].equals(t[i])) return false;
+        }
+        return f.length == t.length;
+    }
+}
@@ -0,0 +1,17 @@
+package com.kilab.auton8.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.kilab.auton8.BridgeTick")
+@Label("Bridge Tick")
+@Description("One run of a TickScheduler task on the client thread")
+@Category({"Auton8", "Tick"})
+@StackTrace(false)
+public final class BridgeTickEvent extends jdk.jfr.Event {
+    @Label("Task") public String task;
+    @Label("Stride") public int stride;
+}
@@ -0,0 +1,17 @@
+package com.kilab.auton8.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.kilab.auton8.CommandDispatch")
+@Label("Command Dispatch")
+@Description("Fan-out of one /cmd message to the bridges (MQTT thread part only)")
+@Category({"Auton8", "Commands"})
+@StackTrace(false)
+public final class CommandDispatchEvent extends jdk.jfr.Event {
+    @Label("Size") @DataAmount public int bytes;
+}
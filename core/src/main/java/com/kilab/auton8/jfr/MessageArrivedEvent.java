@@ -0,0 +1,18 @@
+package com.kilab.auton8.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.kilab.auton8.MessageArrived")
+@Label("MQTT Message Arrived")
+@Description("Handling of one inbound message on the MQTT callback thread")
+@Category({"Auton8", "MQTT"})
+@StackTrace(false)
+public final class MessageArrivedEvent extends jdk.jfr.Event {
+    @Label("Topic") public String topic;
+    @Label("Size") @DataAmount public int bytes;
+}
@@ -0,0 +1,19 @@
+package com.kilab.auton8.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.kilab.auton8.PlanStep")
+@Label("Plan Step")
+@Description("One Baritone plan step, from plan_step_started to plan_step_finished")
+@Category({"Auton8", "Plan"})
+@StackTrace(false)
+public final class PlanStepEvent extends jdk.jfr.Event {
+    @Label("Plan Id") public String planId;
+    @Label("Index") public int index;
+    @Label("Command") public String cmd;
+    @Label("Outcome") public String outcome;
+}
@@ -0,0 +1,18 @@
+package com.kilab.auton8.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.kilab.auton8.PlanTransition")
+@Label("Plan Transition")
+@Description("A plan lifecycle event as published (plan_started, plan_step_*, plan_finished)")
+@Category({"Auton8", "Plan"})
+@StackTrace(false)
+public final class PlanTransitionEvent extends jdk.jfr.Event {
+    @Label("Transition") public String transition;
+    @Label("Plan Id") public String planId;
+    @Label("Index") public int index;
+}
@@ -0,0 +1,19 @@
+package com.kilab.auton8.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.kilab.auton8.Publish")
+@Label("MQTT Publish")
+@Description("Encode + hand-off of one outbound message in MqttBus.publish")
+@Category({"Auton8", "MQTT"})
+@StackTrace(false)
+public final class PublishEvent extends jdk.jfr.Event {
+    @Label("Topic") public String topic;
+    @Label("Size") @DataAmount public int bytes;
+    @Label("Dropped") public boolean dropped;
+}
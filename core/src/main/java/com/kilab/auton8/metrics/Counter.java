@@ -0,0 +1,20 @@
+package com.kilab.auton8.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Monotonic count. {@link #inc()} is a single volatile read when metrics are off. */
+public final class Counter {
+    private final LongAdder adder = new LongAdder();
+
+    Counter() {}
+
+    public void inc() {
+        if (Metrics.on) adder.increment();
+    }
+
+    public void add(long n) {
+        if (Metrics.on) adder.add(n);
+    }
+
+    public long value() { return adder.sum(); }
+}
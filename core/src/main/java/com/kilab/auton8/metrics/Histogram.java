@@ -0,0 +1,89 @@
+package com.kilab.auton8.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram (HDR-style): 16 linear sub-buckets per power of two, so any
+ * recorded value is reported within ~6% over the whole non-negative long range in a fixed 960 slots.
+ * Recording is one array increment plus a max CAS — no locks, no allocation.
+ *
+ * Units are whatever the caller records; names carry them (_ns, _ms).
+ */
+public final class Histogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;       // 16
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB; // 960: exponents SUB_BITS..62 plus the linear block
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram() {}
+
+    public void record(long v) {
+        if (!Metrics.on) return;
+        if (v < 0) v = 0;
+        counts.incrementAndGet(index(v));
+        count.increment();
+        sum.add(v);
+        long m;
+        while (v > (m = max.get()) && !max.compareAndSet(m, v)) { }
+    }
+
+    /** Record {@code System.nanoTime() - startNs}; no-op for a start taken while disabled. */
+    public void recordSince(long startNs) {
+        if (startNs == 0L || !Metrics.on) return;
+        record(System.nanoTime() - startNs);
+    }
+
+    static int index(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);   // >= SUB_BITS
+        int sub = (int) (v >>> (exp - SUB_BITS));      // in [SUB, 2*SUB)
+        return (exp - SUB_BITS + 1) * SUB + (sub - SUB);
+    }
+
+    /** Highest value that lands in bucket {@code i} (reported value for percentiles). */
+    static long upperBound(int i) {
+        if (i < SUB) return i;
+        int exp = i / SUB + SUB_BITS - 1;
+        long sub = (i % SUB) + SUB;
+        return ((sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+
+    /** Point-in-time view; counts recorded concurrently may or may not be included. */
+    public Snapshot snapshot() {
+        long[] c = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) { c[i] = counts.get(i); total += c[i]; }
+        return new Snapshot(c, total, sum.sum(), max.get());
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        public final long count;
+        public final long sum;
+        public final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts; this.count = count; this.sum = sum; this.max = max;
+        }
+
+        /** Value at quantile {@code q} in [0,1]; 0 when empty. */
+        public long quantile(double q) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBound(i), max);
+            }
+            return max;
+        }
+
+        public double mean() { return count == 0 ? 0.0 : (double) sum / count; }
+    }
+}
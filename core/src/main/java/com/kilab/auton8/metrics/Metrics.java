@@ -0,0 +1,106 @@
+package com.kilab.auton8.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide metrics registry: counters, gauges and latency histograms.
+ *
+ * Components look their metrics up once (constructor/field init) and keep the handle;
+ * updates are lock-free and reduce to a single volatile read while metrics are disabled.
+ * Names are Prometheus-style snake_case with a unit suffix; an optional single label is
+ * folded into the key as {@code name{label="value"}}.
+ *
+ * Exported by MetricsBridge (MQTT .../metrics topic) and PrometheusEndpoint (loopback HTTP).
+ */
+public final class Metrics {
+    private static final Metrics INSTANCE = new Metrics();
+
+    public static Metrics get() { return INSTANCE; }
+
+    // Read on every update; written by MetricsBridge when the config changes.
+    static volatile boolean on = false;
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private Metrics() {}
+
+    public static boolean enabled() { return on; }
+
+    public static void setEnabled(boolean enabled) { on = enabled; }
+
+    /** Start a timing for {@link Histogram#recordSince}; 0 (and no clock read) when disabled. */
+    public static long startTimer() { return on ? System.nanoTime() : 0L; }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    public Counter counter(String name, String label, String value) {
+        return counter(key(name, label, value));
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    public Histogram histogram(String name, String label, String value) {
+        return histogram(key(name, label, value));
+    }
+
+    /** Register (or replace) a gauge sampled at export time. */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public void removeGauge(String name) {
+        gauges.remove(name);
+    }
+
+    /** Remove {@code name} only if it is still {@code value}, not a later owner's replacement. */
+    public void removeGauge(String name, LongSupplier value) {
+        gauges.remove(name, value);
+    }
+
+    // ---- export views (sorted for stable output)
+
+    public Map<String, Long> counterValues() {
+        TreeMap<String, Long> out = new TreeMap<>();
+        counters.forEach((k, c) -> out.put(k, c.value()));
+        return out;
+    }
+
+    public Map<String, Long> gaugeValues() {
+        TreeMap<String, Long> out = new TreeMap<>();
+        gauges.forEach((k, g) -> {
+            try { out.put(k, g.getAsLong()); } catch (Throwable ignored) {}
+        });
+        return out;
+    }
+
+    public Map<String, Histogram.Snapshot> histogramSnapshots() {
+        TreeMap<String, Histogram.Snapshot> out = new TreeMap<>();
+        histograms.forEach((k, h) -> out.put(k, h.snapshot()));
+        return out;
+    }
+
+    /** The value is escaped as the Prometheus text format wants (backslash, quote, newline). */
+    static String key(String name, String label, String value) {
+        StringBuilder b = new StringBuilder(name.length() + label.length() + value.length() + 5);
+        b.append(name).append('{').append(label).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> b.append("\\\\");
+                case '"'  -> b.append("\\\"");
+                case '\n' -> b.append("\\n");
+                default   -> b.append(c);
+            }
+        }
+        return b.append("\"}").toString();
+    }
+}
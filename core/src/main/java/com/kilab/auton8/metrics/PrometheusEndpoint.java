@@ -0,0 +1,124 @@
+package com.kilab.auton8.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Minimal Prometheus text-format (0.0.4) endpoint, bound to the loopback interface only.
+ * Any GET path returns the full registry. One daemon thread, one request at a time —
+ * a scrape every few seconds doesn't need more, and it keeps com.sun.net.httpserver out.
+ */
+public final class PrometheusEndpoint {
+    private static final String PREFIX = "auton8_";
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final Metrics metrics;
+    private final int port;
+    private volatile ServerSocket server;
+
+    public PrometheusEndpoint(Metrics metrics, int port) {
+        this.metrics = metrics;
+        this.port = port;
+    }
+
+    public int port() { return port; }
+
+    public synchronized void start() throws IOException {
+        if (server != null) return;
+        ServerSocket s = new ServerSocket();
+        s.setReuseAddress(true);
+        s.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server = s;
+        Thread t = new Thread(() -> serve(s), "auton8-metrics-http");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public synchronized void stop() {
+        ServerSocket s = server;
+        server = null;
+        if (s != null) try { s.close(); } catch (IOException ignored) {}
+    }
+
+    private void serve(ServerSocket s) {
+        while (!s.isClosed()) {
+            try (Socket c = s.accept()) {
+                c.setSoTimeout(2000);
+                drainRequestHead(c.getInputStream());
+                byte[] body = render(metrics).getBytes(StandardCharsets.UTF_8);
+                OutputStream out = c.getOutputStream();
+                out.write(("HTTP/1.1 200 OK\r\n"
+                    + "Content-Type: text/plain; version=0.0.4; charset=utf-8\r\n"
+                    + "Content-Length: " + body.length + "\r\n"
+                    + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(body);
+                out.flush();
+            } catch (IOException ignored) {
+                // closed by stop(), or a client that went away mid-request
+            }
+        }
+    }
+
+    /** Read up to the blank line ending the request head; the request itself is ignored. */
+    private static void drainRequestHead(InputStream in) throws IOException {
+        int state = 0, b, n = 0;
+        while (state < 4 && n++ < 8192 && (b = in.read()) != -1) {
+            state = (b == '\r' && (state == 0 || state == 2)) ? state + 1
+                  : (b == '\n' && (state == 1 || state == 3)) ? state + 1
+                  : 0;
+        }
+    }
+
+    /** Whole registry in Prometheus text format; histograms are exported as summaries. */
+    public static String render(Metrics m) {
+        StringBuilder sb = new StringBuilder(4096);
+        String lastType = null;
+        for (Map.Entry<String, Long> e : m.counterValues().entrySet()) {
+            lastType = typeLine(sb, lastType, e.getKey(), "counter");
+            sb.append(PREFIX).append(e.getKey()).append(' ').append(e.getValue()).append('\n');
+        }
+        for (Map.Entry<String, Long> e : m.gaugeValues().entrySet()) {
+            lastType = typeLine(sb, lastType, e.getKey(), "gauge");
+            sb.append(PREFIX).append(e.getKey()).append(' ').append(e.getValue()).append('\n');
+        }
+        for (Map.Entry<String, Histogram.Snapshot> e : m.histogramSnapshots().entrySet()) {
+            lastType = typeLine(sb, lastType, e.getKey(), "summary");
+            String base = baseName(e.getKey());
+            String labels = labels(e.getKey());
+            Histogram.Snapshot s = e.getValue();
+            for (double q : QUANTILES) {
+                sb.append(PREFIX).append(base).append('{');
+                if (!labels.isEmpty()) sb.append(labels).append(',');
+                sb.append("quantile=\"").append(q).append("\"} ").append(s.quantile(q)).append('\n');
+            }
+            String suffixLabels = labels.isEmpty() ? "" : "{" + labels + "}";
+            sb.append(PREFIX).append(base).append("_sum").append(suffixLabels).append(' ').append(s.sum).append('\n');
+            sb.append(PREFIX).append(base).append("_count").append(suffixLabels).append(' ').append(s.count).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Keys are sorted, so all series of one metric are adjacent: emit # TYPE once per base name.
+    private static String typeLine(StringBuilder sb, String lastBase, String key, String type) {
+        String base = baseName(key);
+        if (!base.equals(lastBase)) sb.append("# TYPE ").append(PREFIX).append(base).append(' ').append(type).append('\n');
+        return base;
+    }
+
+    private static String baseName(String key) {
+        int i = key.indexOf('{');
+        return i < 0 ? key : key.substring(0, i);
+    }
+
+    private static String labels(String key) {
+        int i = key.indexOf('{');
+        return i < 0 ? "" : key.substring(i + 1, key.length() - 1);
+    }
+}
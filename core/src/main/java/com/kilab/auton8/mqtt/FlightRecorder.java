@@ -0,0 +1,233 @@
+package com.kilab.auton8.mqtt;
+
+import com.kilab.auton8.core.Clock;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flight recorder of all bus traffic: every inbound command and outbound event is appended to
+ * a ring of fixed-size memory-mapped segment files, so the last N MB survive a crash or an
+ * overnight run without anyone having to persist them.
+ *
+ * Appending never blocks and never does I/O on the caller's thread: a writer reserves its slot
+ * with one atomic add, copies into the mapping and publishes the record by writing its length
+ * and generation last, in one CAS; the OS writes the pages back. When a segment is full the oldest one is
+ * reused under a new generation, so stale records in it are ignored by readers. A writer stalled
+ * across a whole ring wrap finds its segment's generation moved on (or its slot rewritten) and
+ * drops its record rather than committing an old generation over a newer record.
+ *
+ * <pre>
+ * segment  [magic 8][version 4][gen 4][created_ms 8][used 8 (dumps only)][pad to 64] records...
+ * record   [len 4][gen 4][wall_ms 8][mono_ns 8][seq 8][dir 1][0 1][topic_len 2][payload_len 4]
+ *          topic payload, padded to 8 bytes; len is the padded size. A segment's records end at
+ *          the first len that is 0 or whose gen isn't the segment's.
+ * </pre>
+ * Files are {@code seg-NN.a8r}; {@link #dump} writes the committed records of every segment,
+ * oldest first, into one file of the same format. {@link FlightRecorderReader} reads both.
+ */
+public final class FlightRecorder implements AutoCloseable {
+    public static final byte IN = 'I', OUT = 'O';
+
+    static final long MAGIC = 0x3130434552463841L;   // "A8FREC01", little endian
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER = 64;
+    static final int RECORD_HEADER = 40;
+
+    // [len 4][gen 4] of a record as one little-endian long, so both become visible together
+    private static final VarHandle LEN_GEN = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final class Segment {
+        final Path file;
+        final FileChannel channel;
+        final MappedByteBuffer buf;
+        final AtomicInteger pos = new AtomicInteger();
+        volatile int gen;
+
+        Segment(Path file, FileChannel channel, MappedByteBuffer buf) {
+            this.file = file;
+            this.channel = channel;
+            this.buf = buf;
+        }
+    }
+
+    /** Result of {@link #dump}. */
+    public record Dump(Path path, long sizeBytes, long records, int segments) {}
+
+    private final Segment[] segments;
+    private final int segmentSize;
+    private volatile int current;
+    private final AtomicLong seq = new AtomicLong();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ConcurrentHashMap<String, byte[]> topics = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    private FlightRecorder(Segment[] segments, int segmentSize, int current) {
+        this.segments = segments;
+        this.segmentSize = segmentSize;
+        this.current = current;
+    }
+
+    /**
+     * Map (creating or resizing as needed) {@code count} segments totalling {@code totalBytes}
+     * in {@code dir}. Existing segments with a valid header are kept, and recording continues in
+     * a fresh generation after the newest one, so a restart doesn't wipe the previous run.
+     */
+    public static FlightRecorder open(Path dir, long totalBytes, int count) throws IOException {
+        Files.createDirectories(dir);
+        long per = (totalBytes / Math.max(2, count)) & ~7L;
+        if (per < 64 * 1024 || per > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("segment size " + per);
+        int size = (int) per;
+
+        Segment[] segs = new Segment[Math.max(2, count)];
+        int newest = -1, maxGen = 0;
+        try {
+            for (int i = 0; i < segs.length; i++) {
+                Path f = dir.resolve(String.format("seg-%02d.a8r", i));
+                try (RandomAccessFile raf = new RandomAccessFile(f.toFile(), "rw")) {
+                    if (raf.length() != size) raf.setLength(size);   // a resized ring starts over
+                }
+                FileChannel ch = FileChannel.open(f, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buf.order(ByteOrder.LITTLE_ENDIAN);
+                segs[i] = new Segment(f, ch, buf);
+                if (buf.getLong(0) == MAGIC && buf.getInt(8) == VERSION) {
+                    segs[i].gen = buf.getInt(12);
+                    segs[i].pos.set(size);   // full: only ever written again after a reset
+                    if (segs[i].gen > maxGen) { maxGen = segs[i].gen; newest = i; }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Segment s : segs) if (s != null) try { s.channel.close(); } catch (IOException ignored) {}
+            throw e;
+        }
+        int start = (newest + 1) % segs.length;
+        reset(segs[start], maxGen + 1);
+        return new FlightRecorder(segs, size, start);
+    }
+
+    /** Record one message; drops it (counted) when it can't fit a segment or the recorder is closed. */
+    public void append(byte direction, String topic, byte[] payload) {
+        if (closed) return;
+        byte[] t = topics.computeIfAbsent(topic, k -> k.getBytes(StandardCharsets.UTF_8));
+        int len = (RECORD_HEADER + t.length + payload.length + 7) & ~7;
+        if (len > segmentSize - SEGMENT_HEADER || t.length > 0xFFFF) { dropped.increment(); return; }
+
+        for (int attempt = 0; attempt < 4; attempt++) {
+            Segment s = segments[current];
+            int gen = s.gen;
+            int at = s.pos.getAndAdd(len);
+            if (at + len > segmentSize) { rotate(s); continue; }
+            ByteBuffer b = s.buf;
+            b.putLong(at + 8, Clock.wallMs());
+            b.putLong(at + 16, Clock.monoNs());
+            b.putLong(at + 24, seq.getAndIncrement());
+            b.put(at + 32, direction);
+            b.put(at + 33, (byte) 0);
+            b.putShort(at + 34, (short) t.length);
+            b.putInt(at + 36, payload.length);
+            b.put(at + RECORD_HEADER, t);
+            b.put(at + RECORD_HEADER + t.length, payload);
+            long prev = (long) LEN_GEN.getAcquire(b, at);
+            if (s.gen != gen || !LEN_GEN.compareAndSet(b, at, prev, (len & 0xFFFF_FFFFL) | ((long) gen << 32))) {   // commit
+                break;   // the segment was reused under us
+            }
+            records.increment();
+            return;
+        }
+        dropped.increment();
+    }
+
+    private synchronized void rotate(Segment full) {
+        if (segments[current] != full) return;   // someone else already moved on
+        int next = (current + 1) % segments.length;
+        reset(segments[next], full.gen + 1);
+        current = next;
+    }
+
+    private static void reset(Segment s, int gen) {
+        ByteBuffer b = s.buf;
+        b.putInt(SEGMENT_HEADER, 0);
+        b.putLong(0, MAGIC);
+        b.putInt(8, VERSION);
+        b.putLong(16, Clock.wallMs());
+        b.putLong(24, 0L);
+        b.putInt(12, gen);
+        s.gen = gen;
+        s.pos.set(SEGMENT_HEADER);
+    }
+
+    /** Offset just past the last committed record of generation {@code gen}, scanning from {@code from}. */
+    static int committedEnd(ByteBuffer b, int gen, int from, int limit) {
+        int at = from;
+        while (at + RECORD_HEADER <= limit) {
+            long word = (long) LEN_GEN.getAcquire(b, at);
+            int len = (int) word;
+            if ((int) (word >>> 32) != gen || len < RECORD_HEADER || (len & 7) != 0 || at + len > limit) break;
+            at += len;
+        }
+        return at;
+    }
+
+    /**
+     * Copy the committed records of every segment, oldest generation first, into {@code file}
+     * (appending continues meanwhile; records still being written are left out).
+     */
+    public Dump dump(Path file) throws IOException {
+        Segment[] order = Arrays.stream(segments).filter(s -> s.gen > 0)
+            .sorted(Comparator.comparingInt(s -> s.gen)).toArray(Segment[]::new);
+        long total = 0, count = 0;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Segment s : order) {
+                ByteBuffer b = s.buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                int gen = b.getInt(12);
+                if (gen != s.gen) continue;   // reused while we were dumping
+                int end = committedEnd(b, gen, SEGMENT_HEADER, segmentSize);
+                for (int at = SEGMENT_HEADER; at < end; at += b.getInt(at)) count++;
+
+                ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+                header.put(b.slice(0, SEGMENT_HEADER).order(ByteOrder.LITTLE_ENDIAN));
+                header.putLong(24, end);
+                header.flip();
+                while (header.hasRemaining()) out.write(header);
+                ByteBuffer body = b.slice(SEGMENT_HEADER, end - SEGMENT_HEADER);
+                while (body.hasRemaining()) out.write(body);
+                total += end;
+            }
+        }
+        return new Dump(file, total, count, order.length);
+    }
+
+    public long records() { return records.sum(); }
+    public long dropped() { return dropped.sum(); }
+    public long totalBytes() { return (long) segmentSize * segments.length; }
+
+    /** Flush the mappings and release the files; later appends are ignored. */
+    @Override
+    public void close() {
+        closed = true;
+        for (Segment s : segments) {
+            try { s.buf.force(); } catch (Throwable ignored) {}
+            try { s.channel.close(); } catch (IOException ignored) {}
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.kilab.auton8.mqtt;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Offline reader for {@link FlightRecorder} files: a live segment directory or a
+ * {@code recorder_dump} file. Records come out oldest first.
+ *
+ * <pre>
+ *   java -cp auton8-core.jar com.kilab.auton8.mqtt.FlightRecorderReader &lt;dir|file&gt;
+ *        [--from=&lt;epoch ms&gt;] [--to=&lt;epoch ms&gt;] [--type=plan_started] [--session=&lt;id&gt;]
+ *        [--dir=in|out] [--topic=mc/bot/cmd]
+ * </pre>
+ * Prints one JSON object per line: {ts_ms, mono_ns, seq, dir, topic, payload}. The type filter
+ * matches the payload's "event" or "type"; the session filter its "session_id".
+ */
+public final class FlightRecorderReader {
+    /** One recorded message. */
+    public record Entry(long wallMs, long monoNs, long seq, byte direction, String topic, byte[] payload) {
+        public String payloadString() { return new String(payload, StandardCharsets.UTF_8); }
+    }
+
+    private FlightRecorderReader() {}
+
+    /** Every committed record under {@code path} (directory of segments or a dump file), oldest first. */
+    public static void read(Path path, Consumer<Entry> sink) throws IOException {
+        List<ByteBuffer> segments = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.list(path)) {
+                for (Path f : files.filter(p -> p.getFileName().toString().matches("seg-\\d+\\.a8r")).toList()) {
+                    ByteBuffer b = load(f);
+                    if (valid(b, 0)) segments.add(b);
+                }
+            }
+            segments.sort(Comparator.comparingInt(b -> b.getInt(12)));
+        } else {
+            ByteBuffer file = load(path);
+            for (int at = 0; at + FlightRecorder.SEGMENT_HEADER <= file.limit() && valid(file, at); ) {
+                long used = file.getLong(at + 24);
+                if (used < FlightRecorder.SEGMENT_HEADER || at + used > file.limit()) break;
+                segments.add(file.slice(at, (int) used).order(ByteOrder.LITTLE_ENDIAN));
+                at += (int) used;
+            }
+        }
+        for (ByteBuffer b : segments) {
+            int gen = b.getInt(12);
+            int end = FlightRecorder.committedEnd(b, gen, FlightRecorder.SEGMENT_HEADER, b.limit());
+            for (int at = FlightRecorder.SEGMENT_HEADER; at < end; at += b.getInt(at)) {
+                int topicLen = b.getShort(at + 34) & 0xFFFF;
+                int payloadLen = b.getInt(at + 36);
+                byte[] topic = new byte[topicLen], payload = new byte[payloadLen];
+                b.get(at + FlightRecorder.RECORD_HEADER, topic);
+                b.get(at + FlightRecorder.RECORD_HEADER + topicLen, payload);
+                sink.accept(new Entry(b.getLong(at + 8), b.getLong(at + 16), b.getLong(at + 24), b.get(at + 32),
+                    new String(topic, StandardCharsets.UTF_8), payload));
+            }
+        }
+    }
+
+    private static boolean valid(ByteBuffer b, int at) {
+        return b.getLong(at) == FlightRecorder.MAGIC && b.getInt(at + 8) == FlightRecorder.VERSION;
+    }
+
+    private static ByteBuffer load(Path f) throws IOException {
+        try (FileChannel ch = FileChannel.open(f)) {
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: FlightRecorderReader <dir|file> [--from=ms] [--to=ms] [--type=t] [--session=id] [--dir=in|out] [--topic=t]");
+            System.exit(2);
+        }
+        long from = Long.MIN_VALUE, to = Long.MAX_VALUE;
+        String type = null, session = null, topic = null;
+        Byte direction = null;
+        for (int i = 1; i < args.length; i++) {
+            String a = args[i];
+            int eq = a.indexOf('=');
+            if (!a.startsWith("--") || eq < 0) continue;
+            String v = a.substring(eq + 1);
+            switch (a.substring(2, eq)) {
+                case "from"    -> from = Long.parseLong(v);
+                case "to"      -> to = Long.parseLong(v);
+                case "type"    -> type = v;
+                case "session" -> session = v;
+                case "topic"   -> topic = v;
+                case "dir"     -> direction = v.equalsIgnoreCase("in") ? FlightRecorder.IN : FlightRecorder.OUT;
+                default -> System.err.println("ignoring " + a);
+            }
+        }
+        final long fromMs = from, toMs = to;
+        final String typeFilter = type, sessionFilter = session, topicFilter = topic;
+        final Byte dirFilter = direction;
+        PrintStream out = System.out;
+        read(Path.of(args[0]), e -> {
+            if (e.wallMs() < fromMs || e.wallMs() > toMs) return;
+            if (dirFilter != null && e.direction() != dirFilter) return;
+            if (topicFilter != null && !topicFilter.equals(e.topic())) return;
+            JsonElement payload;
+            try { payload = JsonParser.parseString(e.payloadString()); }
+            catch (Exception ex) { payload = null; }
+            JsonObject p = payload != null && payload.isJsonObject() ? payload.getAsJsonObject() : null;
+            if (typeFilter != null && (p == null || !(typeFilter.equals(str(p, "event")) || typeFilter.equals(str(p, "type"))))) return;
+            if (sessionFilter != null && (p == null || !sessionFilter.equals(str(p, "session_id")))) return;
+
+            JsonObject line = new JsonObject();
+            line.addProperty("ts_ms", e.wallMs());
+            line.addProperty("mono_ns", e.monoNs());
+            line.addProperty("seq", e.seq());
+            line.addProperty("dir", e.direction() == FlightRecorder.IN ? "in" : "out");
+            line.addProperty("topic", e.topic());
+            if (payload != null) line.add("payload", payload);
+            else line.addProperty("payload", e.payloadString());
+            out.println(line);
+        });
+    }
+
+    private static String str(JsonObject o, String key) {
+        JsonElement v = o.get(key);
+        return v != null && v.isJsonPrimitive() ? v.getAsString() : null;
+    }
+}
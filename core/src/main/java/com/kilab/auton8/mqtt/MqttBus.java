@@ -0,0 +1,382 @@
+package com.kilab.auton8.mqtt;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.event.Event;
+import com.kilab.auton8.event.JsonSink;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.fault.ErrorReporter;
+import com.kilab.auton8.jfr.MessageArrivedEvent;
+import com.kilab.auton8.jfr.PublishEvent;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.trace.Span;
+import org.eclipse.paho.client.mqttv3.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+public final class MqttBus {
+    private final Config cfg;
+    private MqttAsyncClient client;
+
+    // topic -> handler
+    private final ConcurrentHashMap<String, MqttMessageHandler> handlers = new ConcurrentHashMap<>();
+    // topic -> qos (for auto re-subscribe)
+    private final ConcurrentHashMap<String, Integer> subs = new ConcurrentHashMap<>();
+
+    private volatile boolean announcedOnce = false;
+
+    // Optional flight recorder of everything sent and received (RecorderBridge owns it)
+    private volatile FlightRecorder recorder = null;
+
+    // Local transports (HTTP/SSE, simulators): every encoded publish is also handed to these, connected or not
+    private final CopyOnWriteArrayList<MqttMessageHandler> sinks = new CopyOnWriteArrayList<>();
+
+    // Handlers run one message at a time, whichever thread delivers it (paho, HTTP, rule actions)
+    private final ReentrantLock inbound = new ReentrantLock();
+
+    // Per-thread copy of everything published while a batch runs (see capture)
+    private static final ThreadLocal<MqttMessageHandler> TAP = new ThreadLocal<>();
+
+    // Per-session event sequence (a bus lives exactly as long as one session), lets n8n order
+    // events that share a timestamp and spot gaps.
+    private final AtomicLong seq = new AtomicLong();
+
+    // One encode buffer per publishing thread (client thread, paho callbacks); grows to the largest event once.
+    private static final ThreadLocal<JsonSink> SINK = ThreadLocal.withInitial(() -> new JsonSink(512));
+
+    // Metrics (no-ops while the registry is off)
+    private static final Counter PUBLISHED      = Metrics.get().counter("mqtt_published_total");
+    private static final Counter PUBLISH_BYTES  = Metrics.get().counter("mqtt_publish_bytes_total");
+    private static final Counter DROPPED        = Metrics.get().counter("mqtt_publish_dropped_total");
+    private static final Counter DELIVERED      = Metrics.get().counter("mqtt_delivered_total");
+    private static final Counter RECEIVED       = Metrics.get().counter("mqtt_received_total");
+    private static final Counter RECONNECTS     = Metrics.get().counter("mqtt_reconnects_total");
+    private static final Counter CONN_LOST      = Metrics.get().counter("mqtt_connection_lost_total");
+    private static final Histogram ENCODE_NS    = Metrics.get().histogram("mqtt_encode_ns");
+    private static final Histogram HANDLER_NS   = Metrics.get().histogram("mqtt_handler_ns");
+
+    // registered by connect(), removed by close()/abort(); only while they are still this bus's
+    private final LongSupplier connectedGauge = () -> isConnected() ? 1 : 0;
+    private final LongSupplier inflightGauge = () -> {
+        MqttAsyncClient c = client;
+        return c == null ? 0 : c.getInFlightMessageCount();
+    };
+
+    public MqttBus(Config cfg) {
+        this.cfg = cfg;
+    }
+
+    /** Record all traffic into {@code r} from now on (null stops recording). */
+    public void setRecorder(FlightRecorder r) { recorder = r; }
+
+    /**
+     * Also hand every encoded publish to {@code sink}, on the publishing thread; it must not block.
+     * While any sink is attached, publishing works without a broker, and connect() is a no-op
+     * when no broker URI is configured. Local transports feed commands back in via {@link #inject}.
+     */
+    public void addSink(MqttMessageHandler sink) { sinks.addIfAbsent(sink); }
+
+    public void removeSink(MqttMessageHandler sink) { sinks.remove(sink); }
+
+    /** Deliver {@code json} to the handler of {@code topic} as if it had arrived from the broker (any thread). */
+    public void inject(String topic, String json) {
+        arrived(topic, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Run {@code body} and hand {@code tap} every event published on this thread meanwhile
+     * (encoded, whether or not anything can be sent), e.g. to collect a batch's replies.
+     */
+    public void capture(MqttMessageHandler tap, Runnable body) {
+        MqttMessageHandler prev = TAP.get();
+        TAP.set(tap);
+        try { body.run(); }
+        finally {
+            if (prev == null) TAP.remove();
+            else TAP.set(prev);
+        }
+    }
+
+    /** Register a handler and subscribe now (and on reconnect). */
+    public void onMessage(String topic, MqttMessageHandler handler) {
+        handlers.put(topic, handler);
+        subs.put(topic, 1);
+        try {
+            if (client != null && client.isConnected()) client.subscribe(topic, 1);
+        } catch (Exception ignored) {}
+    }
+
+    public boolean isConnected() {
+        return client != null && client.isConnected();
+    }
+
+    public void connect() {
+        Metrics.get().gauge("mqtt_connected", connectedGauge);
+        Metrics.get().gauge("mqtt_inflight", inflightGauge);
+        try {
+            if (client != null && client.isConnected()) return;
+            if (!sinks.isEmpty() && (cfg.brokerUri == null || cfg.brokerUri.isBlank())) return;
+
+            client = new MqttAsyncClient(cfg.brokerUri, cfg.clientId);
+
+            MqttConnectOptions opts = new MqttConnectOptions();
+            opts.setAutomaticReconnect(true);
+            opts.setCleanSession(true);
+            opts.setKeepAliveInterval(60);
+            if (cfg.username != null && !cfg.username.isEmpty()) opts.setUserName(cfg.username);
+            if (cfg.password != null && !cfg.password.isEmpty()) opts.setPassword(cfg.password.toCharArray());
+
+            // LWT MUST include session_id so n8n can ignore stale sessions
+            JsonSink willOut = new JsonSink(128).sessionId(cfg.sessionId);
+            new StatusEvent("status", "offline").encode(willOut);
+            byte[] will = willOut.toByteArray();
+            opts.setWill(cfg.evtTopic, will, 1, false);
+
+            client.setCallback(new MqttCallbackExtended() {
+                @Override public void connectComplete(boolean reconnect, String serverURI) {
+                    try {
+                        // re-subscribe everything
+                        for (Map.Entry<String, Integer> e : subs.entrySet()) client.subscribe(e.getKey(), e.getValue());
+                        if (!announcedOnce) {
+                            publish(cfg.evtTopic, new StatusEvent("status", "connected"));
+                            announcedOnce = true;
+                        } else {
+                            RECONNECTS.inc();
+                            publish(cfg.evtTopic, new StatusEvent("status", "reconnected"));
+                        }
+                    } catch (Exception ignored) {}
+                }
+
+                @Override public void connectionLost(Throwable cause) {
+                    CONN_LOST.inc();
+                    publish(cfg.evtTopic, new StatusEvent("status", "connection_lost"));
+                }
+
+                @Override public void messageArrived(String topic, MqttMessage message) {
+                    arrived(topic, message.getPayload());
+                }
+
+                @Override public void deliveryComplete(IMqttDeliveryToken token) { DELIVERED.inc(); }
+            });
+
+            client.connect(opts).waitForCompletion(10_000);
+        } catch (Exception e) {
+            ErrorReporter.get().report("mqtt_connect", e);
+        }
+    }
+
+    private void arrived(String topic, byte[] payload) {
+        RECEIVED.inc();
+        FlightRecorder r = recorder;
+        if (r != null) r.append(FlightRecorder.IN, topic, payload);
+        MqttMessageHandler h = handlers.get(topic);
+        if (h == null) return;
+        MessageArrivedEvent jfr = new MessageArrivedEvent();
+        jfr.begin();
+        long t0 = Metrics.startTimer();
+        inbound.lock();
+        try {
+            h.handle(topic, new String(payload, StandardCharsets.UTF_8));
+        } catch (Throwable t) {
+            // an exception escaping to paho would drop the connection
+            ErrorReporter.get().report("mqtt_handler", t);
+        } finally {
+            inbound.unlock();
+        }
+        HANDLER_NS.recordSince(t0);
+        jfr.end();
+        if (jfr.shouldCommit()) {
+            jfr.topic = topic;
+            jfr.bytes = payload.length;
+            jfr.commit();
+        }
+    }
+
+    /** Ensure session_id (top-level and inside "message", if used), seq, trace ids, the span's rule and ts_ms/mono_ns are present. */
+    String ensureSession(String json, Span span) {
+        boolean hasSession = cfg.sessionId != null && !cfg.sessionId.isBlank();
+        try {
+            JsonElement el = JsonParser.parseString(json);
+            if (!el.isJsonObject()) return json;
+            JsonObject obj = el.getAsJsonObject();
+
+            if (!obj.has("seq"))     obj.addProperty("seq", seq.getAndIncrement());
+            if (!obj.has("ts_ms"))   obj.addProperty("ts_ms", Clock.wallMs());
+            if (!obj.has("mono_ns")) obj.addProperty("mono_ns", Clock.monoNs());
+            if (span != null && !obj.has("trace_id")) {
+                obj.addProperty("trace_id", span.traceId);
+                obj.addProperty("span_id", span.spanId);
+            }
+            if (span != null && span.rule != null && !obj.has("rule")) obj.addProperty("rule", span.rule);
+            if (!hasSession) return obj.toString();
+
+            if (!obj.has("session_id")) obj.addProperty("session_id", cfg.sessionId);
+            // If you ever wrap payloads under { message: {...} }
+            if (obj.has("message") && obj.get("message").isJsonObject()) {
+                JsonObject msg = obj.getAsJsonObject("message");
+                if (!msg.has("session_id")) msg.addProperty("session_id", cfg.sessionId);
+            }
+            return obj.toString();
+        } catch (Exception ignore) {
+            return json; // don't break publish if JSON parsing fails
+        }
+    }
+
+    /** Async publish (fire-and-forget); tagged with the trace of the command being dispatched, if any. */
+    public void publish(String topic, String json) { publish(topic, json, Span.active()); }
+
+    /** Async publish tagged with {@code span}'s trace ids (null = untraced). */
+    public void publish(String topic, String json, Span span) {
+        PublishEvent jfr = new PublishEvent();
+        jfr.begin();
+        int size = -1;
+        MqttMessageHandler tap = TAP.get();
+        try {
+            if (canSend() || tap != null) {
+                long t0 = Metrics.startTimer();
+                String full = ensureSession(json, span);
+                byte[] body = full.getBytes(StandardCharsets.UTF_8);
+                ENCODE_NS.recordSince(t0);
+                if (tap != null) tap(tap, topic, full);
+                if (canSend()) {
+                    send(topic, body);
+                    size = body.length;
+                } else {
+                    DROPPED.inc();
+                }
+            } else {
+                DROPPED.inc();
+            }
+        } catch (Exception e) {
+            DROPPED.inc();
+        }
+        commit(jfr, topic, size);
+    }
+
+    /** Async publish of a typed event: encoded straight to bytes, session_id written by the encoder. */
+    public void publish(String topic, Event event) { publish(topic, event, Span.active()); }
+
+    /** Typed publish tagged with {@code span}'s trace ids (null = untraced). */
+    public void publish(String topic, Event event, Span span) {
+        PublishEvent jfr = new PublishEvent();
+        jfr.begin();
+        int size = -1;
+        MqttMessageHandler tap = TAP.get();
+        try {
+            if (canSend() || tap != null) {
+                long t0 = Metrics.startTimer();
+                JsonSink out = SINK.get().reset().sessionId(cfg.sessionId).seq(seq.getAndIncrement());
+                if (span != null) out.trace(span.traceId, span.spanId).rule(span.rule);
+                event.encode(out);
+                byte[] body = out.toByteArray();
+                ENCODE_NS.recordSince(t0);
+                if (tap != null) tap(tap, topic, new String(body, StandardCharsets.UTF_8));
+                if (canSend()) {
+                    send(topic, body);
+                    size = body.length;
+                } else {
+                    DROPPED.inc();
+                }
+            } else {
+                DROPPED.inc();
+            }
+        } catch (Exception e) {
+            DROPPED.inc();
+        }
+        commit(jfr, topic, size);
+    }
+
+    private static void tap(MqttMessageHandler tap, String topic, String json) {
+        try { tap.handle(topic, json); } catch (Throwable ignored) {}
+    }
+
+    private static void commit(PublishEvent jfr, String topic, int size) {
+        jfr.end();
+        if (!jfr.shouldCommit()) return;
+        jfr.topic = topic;
+        jfr.bytes = Math.max(0, size);
+        jfr.dropped = size < 0;
+        jfr.commit();
+    }
+
+    private boolean canSend() {
+        return !sinks.isEmpty() || (client != null && client.isConnected());
+    }
+
+    private IMqttDeliveryToken send(String topic, byte[] body) throws MqttException {
+        FlightRecorder r = recorder;   // whatever went out, over MQTT, HTTP or both
+        if (r != null) r.append(FlightRecorder.OUT, topic, body);
+        if (!sinks.isEmpty()) {
+            String json = new String(body, StandardCharsets.UTF_8);
+            for (MqttMessageHandler sink : sinks) {
+                try { sink.handle(topic, json); } catch (Throwable ignored) {}
+            }
+        }
+        MqttAsyncClient c = client;
+        if (c == null || !c.isConnected()) {
+            if (cfg.brokerUri != null && !cfg.brokerUri.isBlank()) DROPPED.inc();   // sinks got it, MQTT didn't
+            return null;
+        }
+        IMqttDeliveryToken tok = c.publish(topic, body, 1, false);
+        PUBLISHED.inc();
+        PUBLISH_BYTES.add(body.length);
+        return tok;
+    }
+
+    /** Sync publish: wait for QoS1 delivery (use before disconnect). */
+    public void publishSync(String topic, String json, int timeoutMs) {
+        try {
+            if (canSend()) {
+                String body = ensureSession(json, Span.active());
+                IMqttDeliveryToken tok = send(topic, body.getBytes(StandardCharsets.UTF_8));
+                if (tok != null) tok.waitForCompletion(Math.max(1, timeoutMs));
+            } else {
+                DROPPED.inc();
+            }
+        } catch (Exception e) {
+            DROPPED.inc();
+        }
+    }
+
+    /** Graceful close: allow inflight messages to finish. */
+    public void close() {
+        removeGauges();
+        try {
+            if (client != null) {
+                try { if (client.isConnected()) client.disconnect().waitForCompletion(1500); } catch (Exception ignored) {}
+                try { client.close(); } catch (Exception ignored) {}
+            }
+        } finally {
+            client = null;
+        }
+    }
+
+    /** Drop the connection without a DISCONNECT packet, so the broker publishes the LWT (simulated crash). */
+    public void abort() {
+        removeGauges();
+        try {
+            if (client != null) {
+                try { client.disconnectForcibly(0, 500, false); } catch (Exception ignored) {}
+                try { client.close(); } catch (Exception ignored) {}
+            }
+        } finally {
+            client = null;
+        }
+    }
+
+    private void removeGauges() {
+        Metrics.get().removeGauge("mqtt_connected", connectedGauge);
+        Metrics.get().removeGauge("mqtt_inflight", inflightGauge);
+    }
+}
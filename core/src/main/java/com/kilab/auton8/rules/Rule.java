@@ -0,0 +1,263 @@
+package com.kilab.auton8.rules;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * One compiled rule: which events it listens to, a predicate over the event's fields and the
+ * actions to take, rate-limited by a cooldown.
+ *
+ * <pre>
+ * {id:"flee", on:"player_danger_enter" | [..] | "*",
+ *  when:{dist:{lt:8}, name:{ne:"Friend"}},       every field condition must hold
+ *  any:[{health:{lt:6}}, {hunger:{lte:2}}],       and at least one of these (optional)
+ *  do:[{baritone:"#stop"}, {say:"bye ${name}"}, {plan:"cancel"}, {cmd:{type:..}}, {publish:{event:..}}],
+ *  cooldown_ms:5000, enabled:true}
+ * </pre>
+ *
+ * Field paths are dot-separated ("obs.health", "data.status"). A condition is a literal (equals)
+ * or an object of ops: eq, ne, lt, lte, gt, gte, in, contains, exists. Everything is resolved
+ * once here (paths split, numbers unboxed), so matching an event is a few map lookups and
+ * compares. "${path}" in action strings is replaced by the triggering event's field.
+ */
+public final class Rule {
+    static final int MAX_ACTIONS = 16;
+    /** Floor on cooldown_ms, so a rule fires at most 10 times a second whatever it matches. */
+    static final long MIN_COOLDOWN_MS = 100L;
+    /** Ids end up as metric labels and error keys, so they're kept short and plain. */
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    /** A compiled test against one event. */
+    @FunctionalInterface
+    interface Cond { boolean test(JsonObject ev); }
+
+    public final String id;
+    final List<String> on;            // empty = any event
+    private final Cond when;
+    final List<JsonObject> actions;   // normalized: each has exactly one action key
+    final long cooldownMs;
+    final boolean enabled;
+    private final JsonObject source;
+
+    // runtime state, guarded by the owning RuleEngine
+    long hits, suppressed, lastFireMs = Long.MIN_VALUE, lastHitWallMs;
+
+    private Rule(String id, List<String> on, Cond when, List<JsonObject> actions, long cooldownMs, boolean enabled, JsonObject source) {
+        this.id = id;
+        this.on = on;
+        this.when = when;
+        this.actions = actions;
+        this.cooldownMs = cooldownMs;
+        this.enabled = enabled;
+        this.source = source;
+    }
+
+    boolean matches(JsonObject ev) { return when.test(ev); }
+
+    /** The actions ({kind: value}, one key each) with "${path}" filled in from {@code ev}. */
+    public List<JsonObject> actions(JsonObject ev) {
+        List<JsonObject> out = new ArrayList<>(actions.size());
+        for (JsonObject a : actions) out.add(fill(a, ev).getAsJsonObject());
+        return out;
+    }
+
+    /** The definition as pushed, plus its counters. */
+    JsonObject toJson() {
+        JsonObject o = source.deepCopy();
+        o.addProperty("hits", hits);
+        o.addProperty("suppressed", suppressed);
+        if (hits > 0) o.addProperty("last_hit_ms", lastHitWallMs);
+        return o;
+    }
+
+    /** @throws IllegalArgumentException with a short reason ("id", "on:x", "op:x", "action:x", ...) */
+    public static Rule compile(JsonObject j) {
+        String id = j.has("id") && j.get("id").isJsonPrimitive() ? j.get("id").getAsString() : "";
+        if (!ID.matcher(id).matches()) throw new IllegalArgumentException("id");
+
+        List<String> on = new ArrayList<>();
+        JsonElement o = j.get("on");
+        if (o == null) throw new IllegalArgumentException("on:" + id);
+        if (o.isJsonArray()) for (JsonElement e : o.getAsJsonArray()) on.add(e.getAsString());
+        else on.add(o.getAsString());
+        if (on.isEmpty()) throw new IllegalArgumentException("on:" + id);
+        if (on.contains("*")) on.clear();
+
+        Cond all = j.has("when") ? conjunction(id, obj(j.get("when"), "when:" + id)) : ev -> true;
+        Cond when = all;
+        if (j.has("any")) {
+            if (!j.get("any").isJsonArray()) throw new IllegalArgumentException("any:" + id);
+            List<Cond> alts = new ArrayList<>();
+            for (JsonElement e : j.getAsJsonArray("any")) alts.add(conjunction(id, obj(e, "any:" + id)));
+            Cond[] a = alts.toArray(new Cond[0]);
+            Cond anyOf = ev -> {
+                for (Cond c : a) if (c.test(ev)) return true;
+                return false;
+            };
+            when = ev -> all.test(ev) && anyOf.test(ev);
+        }
+
+        if (!j.has("do") || !j.get("do").isJsonArray()) throw new IllegalArgumentException("do:" + id);
+        List<JsonObject> actions = new ArrayList<>();
+        for (JsonElement e : j.getAsJsonArray("do")) actions.add(action(id, obj(e, "action:" + id)));
+        if (actions.isEmpty() || actions.size() > MAX_ACTIONS) throw new IllegalArgumentException("do:" + id);
+
+        long cooldown = j.has("cooldown_ms") ? j.get("cooldown_ms").getAsLong() : 1_000L;
+        if (cooldown < MIN_COOLDOWN_MS || cooldown > 3_600_000L) throw new IllegalArgumentException("cooldown_ms:" + id);
+        boolean enabled = !j.has("enabled") || j.get("enabled").getAsBoolean();
+        return new Rule(id, List.copyOf(on), when, List.copyOf(actions), cooldown, enabled, j.deepCopy());
+    }
+
+    private static Cond conjunction(String id, JsonObject when) {
+        List<Cond> conds = new ArrayList<>();
+        for (Map.Entry<String, JsonElement> e : when.entrySet()) {
+            String[] path = e.getKey().split("\\.");
+            JsonElement spec = e.getValue();
+            if (spec.isJsonObject()) {
+                for (Map.Entry<String, JsonElement> op : spec.getAsJsonObject().entrySet()) conds.add(op(id, path, op.getKey(), op.getValue()));
+            } else {
+                conds.add(op(id, path, "eq", spec));
+            }
+        }
+        Cond[] c = conds.toArray(new Cond[0]);
+        if (c.length == 1) return c[0];
+        return ev -> {
+            for (Cond x : c) if (!x.test(ev)) return false;
+            return true;
+        };
+    }
+
+    private static Cond op(String id, String[] path, String op, JsonElement v) {
+        switch (op) {
+            case "exists" -> {
+                boolean want = v.getAsBoolean();
+                return ev -> (field(ev, path) != null) == want;
+            }
+            case "lt", "lte", "gt", "gte" -> {
+                if (!isNumber(v)) throw new IllegalArgumentException("op:" + id + ":" + op);
+                double k = v.getAsDouble();
+                return switch (op) {
+                    case "lt"  -> ev -> { JsonPrimitive f = field(ev, path); return isNumber(f) && f.getAsDouble() <  k; };
+                    case "lte" -> ev -> { JsonPrimitive f = field(ev, path); return isNumber(f) && f.getAsDouble() <= k; };
+                    case "gt"  -> ev -> { JsonPrimitive f = field(ev, path); return isNumber(f) && f.getAsDouble() >  k; };
+                    default    -> ev -> { JsonPrimitive f = field(ev, path); return isNumber(f) && f.getAsDouble() >= k; };
+                };
+            }
+            case "eq", "ne" -> {
+                if (!v.isJsonPrimitive()) throw new IllegalArgumentException("op:" + id + ":" + op);
+                JsonPrimitive k = v.getAsJsonPrimitive();
+                boolean eq = op.equals("eq");
+                return ev -> same(field(ev, path), k) == eq;
+            }
+            case "in" -> {
+                if (!v.isJsonArray()) throw new IllegalArgumentException("op:" + id + ":in");
+                List<JsonPrimitive> ks = new ArrayList<>();
+                for (JsonElement e : v.getAsJsonArray()) ks.add(e.getAsJsonPrimitive());
+                return ev -> {
+                    JsonPrimitive f = field(ev, path);
+                    for (JsonPrimitive k : ks) if (same(f, k)) return true;
+                    return false;
+                };
+            }
+            case "contains" -> {
+                String k = v.getAsString();
+                return ev -> {
+                    JsonPrimitive f = field(ev, path);
+                    return f != null && f.isString() && f.getAsString().contains(k);
+                };
+            }
+            default -> throw new IllegalArgumentException("op:" + id + ":" + op);
+        }
+    }
+
+    /** Accepts {baritone|say|plan: "string"}, {cmd|publish: {...}}; exactly one key. */
+    private static JsonObject action(String id, JsonObject a) {
+        if (a.size() != 1) throw new IllegalArgumentException("action:" + id);
+        String kind = a.keySet().iterator().next();
+        JsonElement v = a.get(kind);
+        switch (kind) {
+            case "baritone" -> { if (!v.isJsonPrimitive() || !v.getAsString().startsWith("#")) throw new IllegalArgumentException("action:" + id + ":baritone"); }
+            case "say" -> { if (!v.isJsonPrimitive() || v.getAsString().isBlank()) throw new IllegalArgumentException("action:" + id + ":say"); }
+            case "plan" -> {
+                String s = v.isJsonPrimitive() ? v.getAsString() : "";
+                if (!List.of("pause", "resume", "skip", "cancel", "clear").contains(s)) throw new IllegalArgumentException("action:" + id + ":plan");
+            }
+            case "cmd" -> {
+                if (!v.isJsonObject() || !v.getAsJsonObject().has("type")) throw new IllegalArgumentException("action:" + id + ":cmd");
+                String t = v.getAsJsonObject().get("type").getAsString();
+                if (t.startsWith("rules_")) throw new IllegalArgumentException("action:" + id + ":cmd");   // no self-rewriting rules
+            }
+            case "publish" -> { if (!v.isJsonObject()) throw new IllegalArgumentException("action:" + id + ":publish"); }
+            default -> throw new IllegalArgumentException("action:" + id + ":" + kind);
+        }
+        return a;
+    }
+
+    /** Walk a dot path; null unless it ends on a primitive. */
+    static JsonPrimitive field(JsonObject ev, String[] path) {
+        JsonObject cur = ev;
+        for (int i = 0; i < path.length - 1; i++) {
+            JsonElement e = cur.get(path[i]);
+            if (e == null || !e.isJsonObject()) return null;
+            cur = e.getAsJsonObject();
+        }
+        JsonElement e = cur.get(path[path.length - 1]);
+        return e != null && e.isJsonPrimitive() ? e.getAsJsonPrimitive() : null;
+    }
+
+    private static boolean isNumber(JsonElement e) {
+        return e != null && e.isJsonPrimitive() && e.getAsJsonPrimitive().isNumber();
+    }
+
+    private static boolean same(JsonPrimitive f, JsonPrimitive k) {
+        if (f == null) return false;
+        if (f.isNumber() && k.isNumber()) return f.getAsDouble() == k.getAsDouble();
+        return f.equals(k);
+    }
+
+    private static JsonObject obj(JsonElement e, String reason) {
+        if (e == null || !e.isJsonObject()) throw new IllegalArgumentException(reason);
+        return e.getAsJsonObject();
+    }
+
+    /** Replace "${path}" in every string of {@code v} (deep) with the event's field; missing fields become "". */
+    static JsonElement fill(JsonElement v, JsonObject ev) {
+        if (v.isJsonPrimitive()) {
+            JsonPrimitive p = v.getAsJsonPrimitive();
+            return p.isString() && p.getAsString().contains("${") ? new JsonPrimitive(fill(p.getAsString(), ev)) : p;
+        }
+        if (v.isJsonArray()) {
+            JsonArray out = new JsonArray();
+            for (JsonElement e : v.getAsJsonArray()) out.add(fill(e, ev));
+            return out;
+        }
+        if (v.isJsonObject()) {
+            JsonObject out = new JsonObject();
+            for (Map.Entry<String, JsonElement> e : v.getAsJsonObject().entrySet()) out.add(e.getKey(), fill(e.getValue(), ev));
+            return out;
+        }
+        return v;
+    }
+
+    static String fill(String s, JsonObject ev) {
+        StringBuilder sb = new StringBuilder(s.length() + 16);
+        int i = 0;
+        while (i < s.length()) {
+            int start = s.indexOf("${", i);
+            int end = start < 0 ? -1 : s.indexOf('}', start);
+            if (end < 0) { sb.append(s, i, s.length()); break; }
+            sb.append(s, i, start);
+            JsonPrimitive f = field(ev, s.substring(start + 2, end).split("\\."));
+            if (f != null) sb.append(f.getAsString());
+            i = end + 1;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,146 @@
+package com.kilab.auton8.rules;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The installed {@link Rule}s, indexed by event type, and their evaluation against published
+ * events. Evaluation runs on whichever thread published; rules are swapped as a whole behind a
+ * volatile index, so it never sees a half-applied change.
+ *
+ * Before an event is even parsed it is checked for one of the indexed type names, so with no
+ * rule interested in it an event costs a few substring searches. Events published by rules
+ * themselves, and every event answering a command a rule injected (the command's span carries the
+ * rule id into the envelope), have "rule" set and are never evaluated, so a rule can't re-trigger
+ * itself or another rule in a loop.
+ */
+public final class RuleEngine {
+    public static final int MAX_RULES = 256;
+
+    private static final Counter SUPPRESSED = Metrics.get().counter("rules_suppressed_total");
+    private static final Histogram EVAL_NS  = Metrics.get().histogram("rules_eval_ns");
+
+    /** A rule whose predicate matched {@code event} and whose cooldown had passed. */
+    public record Fired(Rule rule, String type, JsonObject event, long hits) {}
+
+    private record Index(Map<String, Rule[]> byType, Rule[] any, String[] needles) {
+        static final Index EMPTY = new Index(Map.of(), NONE, new String[0]);
+    }
+
+    private static final Rule[] NONE = new Rule[0];
+
+    private final LinkedHashMap<String, Rule> rules = new LinkedHashMap<>();   // guarded by this
+    private volatile Index index = Index.EMPTY;
+
+    /** Replace every rule (already compiled, so validated as a whole). */
+    public synchronized void replace(List<Rule> next) {
+        if (next.size() > MAX_RULES) throw new IllegalArgumentException("too_many_rules");
+        rules.clear();
+        for (Rule r : next) rules.put(r.id, r);
+        reindex();
+    }
+
+    /** Add or replace one rule by id. */
+    public synchronized void put(Rule r) {
+        if (!rules.containsKey(r.id) && rules.size() >= MAX_RULES) throw new IllegalArgumentException("too_many_rules");
+        rules.put(r.id, r);
+        reindex();
+    }
+
+    public synchronized boolean remove(String id) {
+        boolean had = rules.remove(id) != null;
+        if (had) reindex();
+        return had;
+    }
+
+    public synchronized int size() { return rules.size(); }
+
+    /** Every rule as pushed, with hits / suppressed / last_hit_ms. */
+    public synchronized JsonArray toJson() {
+        JsonArray a = new JsonArray();
+        for (Rule r : rules.values()) a.add(r.toJson());
+        return a;
+    }
+
+    /** Match one published payload; returns the rules that fire, in install order (usually none). */
+    public List<Fired> evaluate(String json) {
+        Index ix = index;
+        if (ix.any.length == 0 && !mentionsAny(json, ix.needles)) return List.of();
+        long t0 = Metrics.startTimer();
+        List<Fired> out = List.of();
+        try {
+            JsonElement el = JsonParser.parseString(json);
+            if (!el.isJsonObject()) return out;
+            JsonObject ev = el.getAsJsonObject();
+            if (ev.has("rule")) return out;
+            String type = ev.has("event") ? ev.get("event").getAsString() : ev.has("type") ? ev.get("type").getAsString() : "";
+            Rule[] typed = ix.byType.getOrDefault(type, NONE);
+            if (typed.length == 0 && ix.any.length == 0) return out;
+            List<Fired> fired = match(ix.any, type, ev, match(typed, type, ev, null));
+            if (fired != null) out = fired;
+        } catch (Exception ignored) {
+            // not an event we can read
+        } finally {
+            EVAL_NS.recordSince(t0);
+        }
+        return out;
+    }
+
+    // ===== Internals =====
+
+    private List<Fired> match(Rule[] set, String type, JsonObject ev, List<Fired> out) {
+        for (Rule r : set) {
+            if (!r.enabled || !r.matches(ev)) continue;
+            Fired f = fire(r, type, ev);
+            if (f == null) continue;
+            if (out == null) out = new ArrayList<>(2);
+            out.add(f);
+        }
+        return out;
+    }
+
+    /** Count the hit and apply the cooldown; null if the rule is still cooling down. */
+    private synchronized Fired fire(Rule r, String type, JsonObject ev) {
+        long now = Clock.monoMs();
+        if (r.lastFireMs != Long.MIN_VALUE && now - r.lastFireMs < r.cooldownMs) {
+            r.suppressed++;
+            SUPPRESSED.inc();
+            return null;
+        }
+        r.lastFireMs = now;
+        r.lastHitWallMs = Clock.wallMs();
+        r.hits++;
+        Metrics.get().counter("rules_fired_total", "rule", r.id).inc();
+        return new Fired(r, type, ev, r.hits);
+    }
+
+    private void reindex() {
+        Map<String, List<Rule>> by = new HashMap<>();
+        List<Rule> any = new ArrayList<>();
+        for (Rule r : rules.values()) {
+            if (r.on.isEmpty()) any.add(r);
+            else for (String t : r.on) by.computeIfAbsent(t, k -> new ArrayList<>()).add(r);
+        }
+        Map<String, Rule[]> byType = new HashMap<>();
+        by.forEach((k, v) -> byType.put(k, v.toArray(new Rule[0])));
+        String[] needles = byType.keySet().stream().map(t -> "\"" + t + "\"").toArray(String[]::new);
+        index = new Index(Map.copyOf(byType), any.toArray(new Rule[0]), needles);
+    }
+
+    private static boolean mentionsAny(String json, String[] needles) {
+        for (String n : needles) if (json.contains(n)) return true;
+        return false;
+    }
+}
@@ -0,0 +1,25 @@
+package com.kilab.auton8.spi;
+
+/**
+ * Non-player entities, pulled on the game thread by the entity tracker. Loads and unloads are
+ * pushed through {@link GameEvents}; this is only for positions (which change without an event)
+ * and for a full resync when tracking starts in a world that is already populated.
+ */
+public interface EntityView {
+    /** Receives one entity: {@code kind} is hostile | passive | item | vehicle | other, {@code type} e.g. "minecraft:zombie". */
+    interface Sink {
+        void entity(int id, String kind, String type, double x, double y, double z);
+    }
+
+    /** No entities (simulators, benchmarks). */
+    EntityView NONE = new EntityView() {
+        @Override public boolean position(int entityId, double[] out) { return false; }
+        @Override public void forEach(Sink sink) {}
+    };
+
+    /** Current position of {@code entityId} into out[0..2]; false when it is no longer loaded. */
+    boolean position(int entityId, double[] out);
+
+    /** Every loaded non-player entity. */
+    void forEach(Sink sink);
+}
@@ -0,0 +1,29 @@
+package com.kilab.auton8.spi;
+
+import java.nio.file.Path;
+
+/**
+ * Write side of the game. Everything except {@link #execute(Runnable)} must be called on the
+ * game thread, which is where bridges already are inside tick tasks; MQTT handlers hop over
+ * with {@code execute} first.
+ */
+public interface GameActions {
+    /** Queue work onto the game thread (MinecraftClient.execute in the mod). */
+    void execute(Runnable task);
+
+    /** True when there is a connected player to send through. */
+    boolean canSend();
+
+    /**
+     * Send a chat line as the local player (plain chat or Baritone "#..." lines).
+     * Programmatic sends are reported to {@link GameEvents} with {@code programmatic = true}
+     * so the local "#..." hook doesn't count them twice.
+     */
+    void sendChat(String message);
+
+    /** Send a slash command, given WITHOUT the leading slash. */
+    void sendCommand(String command);
+
+    /** Where Auton8 may write files (recordings, dumps); the mod uses {@code <game dir>/auton8}. */
+    default Path dataDir() { return Path.of("auton8"); }
+}
@@ -0,0 +1,72 @@
+package com.kilab.auton8.spi;
+
+import com.kilab.auton8.fault.ErrorReporter;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Push side of the game: the adapter registers its game hooks exactly once and forwards
+ * them here; bridges add a listener in enable() and remove it in disable(), so re-toggling
+ * the module never stacks callbacks.
+ */
+public final class GameEvents {
+    private static final GameEvents INSTANCE = new GameEvents();
+
+    public static GameEvents get() { return INSTANCE; }
+
+    public interface Listener {
+        /** Joined a world/server. */
+        default void onJoin() {}
+        /** Left the current world/server. */
+        default void onDisconnect() {}
+        /** The local player sent a chat line; {@code programmatic} when sent via {@link GameActions}. */
+        default void onChatSent(String content, boolean programmatic) {}
+        /** Signed player chat from the server; {@code sender} may be null. */
+        default void onChatReceived(String text, String sender) {}
+        /** System/game message (plugin chat formats land here). */
+        default void onGameMessage(String text, boolean overlay) {}
+        /** A non-player entity was loaded into the client world (see {@link EntityView.Sink} for kind/type). */
+        default void onEntityAdded(int id, String kind, String type, double x, double y, double z) {}
+        /** A non-player entity was unloaded (despawned, killed, picked up, out of range). */
+        default void onEntityRemoved(int id) {}
+    }
+
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private GameEvents() {}
+
+    public void add(Listener l)    { listeners.addIfAbsent(l); }
+    public void remove(Listener l) { listeners.remove(l); }
+
+    public void fireJoin() {
+        for (Listener l : listeners) { try { l.onJoin(); } catch (Throwable t) { failed(l, t); } }
+    }
+
+    public void fireDisconnect() {
+        for (Listener l : listeners) { try { l.onDisconnect(); } catch (Throwable t) { failed(l, t); } }
+    }
+
+    public void fireChatSent(String content, boolean programmatic) {
+        for (Listener l : listeners) { try { l.onChatSent(content, programmatic); } catch (Throwable t) { failed(l, t); } }
+    }
+
+    public void fireChatReceived(String text, String sender) {
+        for (Listener l : listeners) { try { l.onChatReceived(text, sender); } catch (Throwable t) { failed(l, t); } }
+    }
+
+    public void fireGameMessage(String text, boolean overlay) {
+        for (Listener l : listeners) { try { l.onGameMessage(text, overlay); } catch (Throwable t) { failed(l, t); } }
+    }
+
+    public void fireEntityAdded(int id, String kind, String type, double x, double y, double z) {
+        for (Listener l : listeners) { try { l.onEntityAdded(id, kind, type, x, y, z); } catch (Throwable t) { failed(l, t); } }
+    }
+
+    public void fireEntityRemoved(int id) {
+        for (Listener l : listeners) { try { l.onEntityRemoved(id); } catch (Throwable t) { failed(l, t); } }
+    }
+
+    private static void failed(Listener l, Throwable t) {
+        ErrorReporter.get().report(l.getClass().getSimpleName(), t);
+    }
+}
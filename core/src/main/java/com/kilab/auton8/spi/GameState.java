@@ -0,0 +1,19 @@
+package com.kilab.auton8.spi;
+
+import com.kilab.auton8.core.TickSnapshot;
+
+/**
+ * Read side of the game, implemented by the Fabric mod (and by simulators/benchmarks).
+ * The core never touches game classes directly; everything it observes comes through here.
+ */
+public interface GameState {
+    /**
+     * Fill {@code snap} in place with the current state. Called on the game thread once at the
+     * start of every Auton8 tick; timestamps and tick number are already set by the scheduler.
+     * Implementations must not allocate per call in the steady state.
+     */
+    void capture(TickSnapshot snap);
+
+    /** Non-player entities, for the bridges that track them; none by default. */
+    default EntityView entities() { return EntityView.NONE; }
+}
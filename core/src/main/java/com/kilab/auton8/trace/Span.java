@@ -0,0 +1,153 @@
+package com.kilab.auton8.trace;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.event.SpanEvent;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One timed step of a command's trace, with W3C trace-context ids (32 / 16 lowercase hex).
+ *
+ * Every command on /cmd gets a root span at receipt (Auton8Core), continuing the caller's trace
+ * when the payload carries {@code traceparent} ("00-<trace>-<span>-<flags>") or
+ * {@code trace_id} [+ {@code span_id}]. Events published while that command is being dispatched
+ * carry its trace_id/span_id automatically; bridges that finish the work later (client thread,
+ * Baritone ticks) capture the span and pass it along explicitly.
+ *
+ * A command injected by a local rule carries "rule":id; its root span (and every child) keeps
+ * that id, and every event published with the span is tagged with it, so the rules engine can
+ * tell a rule's own consequences from fresh events.
+ *
+ * Not thread-safe; a span is ended once, by whoever owns it.
+ */
+public final class Span {
+    // Root span of the command currently being dispatched on this (MQTT) thread
+    private static final ThreadLocal<Span> ACTIVE = new ThreadLocal<>();
+
+    public final String traceId;
+    public final String spanId;
+    public final String parentId;   // null for a root we started ourselves
+    public final String name;
+    public final long startWallMs;
+    public final long startNs;
+    public final String rule;       // id of the local rule that issued the command, else null
+    private final long sentWallMs;  // caller's send time on our clock (-1 = unknown); roots only
+
+    private Span(String traceId, String spanId, String parentId, String name, long startWallMs, long startNs, String rule, long sentWallMs) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.name = name;
+        this.startWallMs = startWallMs;
+        this.startNs = startNs;
+        this.rule = rule;
+        this.sentWallMs = sentWallMs;
+    }
+
+    /** New trace, starting now. */
+    public static Span root(String name) {
+        return new Span(hex(2), hex(1), null, name, Clock.wallMs(), Clock.monoNs(), null, -1L);
+    }
+
+    /**
+     * Root span for a received command, named after its "type".
+     *
+     * @param offsetMs n8n clock minus ours (ClockBridge), used to place the payload's ts_ms on our clock
+     */
+    public static Span inbound(String json, long offsetMs) {
+        long wall = Clock.wallMs(), mono = Clock.monoNs();
+        String traceId = null, parentId = null, name = "cmd", rule = null;
+        long sent = -1L;
+        try {
+            JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+            if (j.has("type")) name = j.get("type").getAsString();
+            if (j.has("traceparent")) {
+                String[] p = j.get("traceparent").getAsString().split("-");
+                if (p.length >= 3) {
+                    traceId = traceHex(p[1]);
+                    parentId = traceId != null && isHex(p[2], 16) ? p[2].toLowerCase(Locale.ROOT) : null;
+                }
+            }
+            if (traceId == null && j.has("trace_id")) {
+                traceId = traceHex(j.get("trace_id").getAsString());
+                String s = j.has("span_id") ? j.get("span_id").getAsString() : null;
+                parentId = traceId != null && s != null && isHex(s, 16) ? s.toLowerCase(Locale.ROOT) : null;
+            }
+            if (j.has("rule") && j.get("rule").isJsonPrimitive()) rule = j.get("rule").getAsString();
+            if (j.has("ts_ms")) sent = j.get("ts_ms").getAsLong() - offsetMs;
+        } catch (Exception ignored) {}
+        if (traceId == null) { traceId = hex(2); parentId = null; }
+        return new Span(traceId, hex(1), parentId, name, wall, mono, rule, sent);
+    }
+
+    /** Child of this span, starting now. */
+    public Span child(String name) {
+        return new Span(traceId, hex(1), spanId, name, Clock.wallMs(), Clock.monoNs(), rule, -1L);
+    }
+
+    /**
+     * The time the command spent between the caller's ts_ms and our receipt (broker + network),
+     * as an already-ended child span; null when the payload had no ts_ms.
+     */
+    public Span queueSpan() {
+        if (sentWallMs < 0) return null;
+        long waitMs = Math.max(0L, startWallMs - sentWallMs);
+        return new Span(traceId, hex(1), spanId, "queue", startWallMs - waitMs, startNs - waitMs * 1_000_000L, rule, -1L);
+    }
+
+    /** Span event ending now; publish it with this span so the envelope carries its ids. */
+    public SpanEvent end(String status) { return endAt(status, Clock.monoNs()); }
+
+    public SpanEvent endAt(String status, long endNs) {
+        return new SpanEvent(name, parentId, startWallMs, Math.max(0L, (endNs - startNs) / 1_000L), status);
+    }
+
+    // ---- active command (set by the /cmd dispatcher)
+
+    public static void enter(Span span) { ACTIVE.set(span); }
+
+    public static void exit() { ACTIVE.remove(); }
+
+    /** Root span of the command being dispatched on this thread, or null outside a dispatch. */
+    public static Span active() { return ACTIVE.get(); }
+
+    /** {@link #active()}, or a fresh root when a command handler is invoked directly. */
+    public static Span activeOrRoot(String name) {
+        Span s = ACTIVE.get();
+        return s != null ? s : root(name);
+    }
+
+    // ---- ids
+
+    private static String hex(int longs) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        StringBuilder sb = new StringBuilder(16 * longs);
+        for (int i = 0; i < longs; i++) {
+            long v;
+            do { v = r.nextLong(); } while (v == 0L);   // all-zero ids are invalid
+            String h = Long.toHexString(v);
+            for (int pad = h.length(); pad < 16; pad++) sb.append('0');
+            sb.append(h);
+        }
+        return sb.toString();
+    }
+
+    /** 32-hex trace id (64-bit ids are left-padded), or null if malformed / all zero. */
+    private static String traceHex(String s) {
+        if (s == null) return null;
+        if (isHex(s, 16)) s = "0000000000000000" + s;
+        if (!isHex(s, 32) || s.chars().allMatch(c -> c == '0')) return null;
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isHex(String s, int len) {
+        if (s.length() != len) return false;
+        for (int i = 0; i < len; i++) {
+            if (Character.digit(s.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+}
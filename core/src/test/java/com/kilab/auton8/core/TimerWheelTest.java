@@ -0,0 +1,71 @@
+package com.kilab.auton8.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** 8 slots of 10 ms: one revolution is 80 ms. */
+class TimerWheelTest {
+    private final TimerWheel<String> wheel = new TimerWheel<>(8, 10, 0);
+    private final List<TimerWheel.Timer<String>> expired = new ArrayList<>();
+
+    @Test
+    void timerBeyondOneRevolutionWaitsForItsOwnDeadline() {
+        TimerWheel.Timer<String> far = wheel.add(250, "far");
+
+        // the cursor passes far's bucket at 10, 90 and 170 before its own tick (25)
+        for (long now = 10; now < 250; now += 10) {
+            assertEquals(0, wheel.advance(now, expired), "fired early at " + now);
+        }
+        assertTrue(far.pending());
+
+        assertEquals(1, wheel.advance(250, expired));
+        assertSame(far, expired.get(0));
+        assertFalse(far.pending());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void gapLongerThanOneRevolutionIsOneSweep() {
+        wheel.add(15, "a");
+        wheel.add(75, "b");
+        wheel.add(300, "c");
+        wheel.add(1500, "later");
+
+        assertEquals(3, wheel.advance(1000, expired));
+        assertEquals(List.of("a", "b", "c"), expired.stream().map(TimerWheel.Timer::payload).sorted().toList());
+        assertEquals(1, wheel.size());
+
+        expired.clear();
+        assertEquals(0, wheel.advance(1490, expired));
+        assertEquals(1, wheel.advance(1500, expired));
+        assertEquals("later", expired.get(0).payload());
+    }
+
+    @Test
+    void cancelledTimerNeverFires() {
+        TimerWheel.Timer<String> t = wheel.add(40, "x");
+        wheel.add(40, "y");
+
+        assertTrue(wheel.cancel(t));
+        assertFalse(wheel.cancel(t));
+        assertEquals(1, wheel.advance(100, expired));
+        assertEquals("y", expired.get(0).payload());
+        assertFalse(wheel.cancel(expired.get(0)));
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextAdvance() {
+        wheel.advance(500, expired);
+        wheel.add(100, "late");
+
+        assertEquals(1, wheel.advance(510, expired));
+        assertEquals(0, wheel.size());
+    }
+}
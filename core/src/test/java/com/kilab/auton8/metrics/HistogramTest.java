@@ -0,0 +1,59 @@
+package com.kilab.auton8.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** 16 sub-buckets per power of two: values below 16 get a slot each, above that ~6% wide. */
+class HistogramTest {
+    private static final long[] EDGES = {0, 1, 15, 16, 1L << 62, Long.MAX_VALUE};
+
+    private boolean wasOn;
+
+    @BeforeEach
+    void enable() {
+        wasOn = Metrics.on;
+        Metrics.on = true;
+    }
+
+    @AfterEach
+    void restore() { Metrics.on = wasOn; }
+
+    @Test
+    void edgeValuesLandInRange() {
+        assertEquals(0, Histogram.index(0));
+        assertEquals(1, Histogram.index(1));
+        assertEquals(15, Histogram.index(15));
+        assertEquals(16, Histogram.index(16));
+        assertEquals(959, Histogram.index(Long.MAX_VALUE));
+        for (long v : EDGES) {
+            int i = Histogram.index(v);
+            assertTrue(i >= 0 && i < 960, "index " + i + " for " + v);
+            assertTrue(Histogram.upperBound(i) >= v, "upper bound below " + v);
+        }
+    }
+
+    @Test
+    void recordsEdgeValues() {
+        Histogram h = new Histogram();
+        for (long v : EDGES) h.record(v);
+
+        Histogram.Snapshot s = h.snapshot();
+        assertEquals(EDGES.length, s.count);
+        assertEquals(Long.MAX_VALUE, s.max);
+        assertEquals(0, s.quantile(0.0));
+        assertEquals(Long.MAX_VALUE, s.quantile(1.0));
+    }
+
+    @Test
+    void bucketsAreContiguous() {
+        for (int i = 1; i < 960; i++) {
+            long lo = Histogram.upperBound(i - 1) + 1;
+            assertEquals(i, Histogram.index(lo), "first value of bucket " + i);
+            assertEquals(i, Histogram.index(Histogram.upperBound(i)), "last value of bucket " + i);
+        }
+    }
+}
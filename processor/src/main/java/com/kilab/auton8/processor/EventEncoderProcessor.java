@@ -0,0 +1,304 @@
+package com.kilab.auton8.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates {@code <Record>Encoder} classes for records annotated with
+ * {@code com.kilab.auton8.event.JsonEvent} / {@code JsonPart}.
+ *
+ * The generated code writes straight into a {@code JsonSink}: keys are pre-encoded byte[]
+ * constants, values go through the sink's typed {@code value(...)} overloads, reference
+ * components are skipped when null. Annotations are matched by name so this module has no
+ * dependency on :core.
+ */
+public final class EventEncoderProcessor extends AbstractProcessor {
+    private static final String PKG = "com.kilab.auton8.event";
+    private static final String JSON_EVENT = PKG + ".JsonEvent";
+    private static final String JSON_PART = PKG + ".JsonPart";
+    private static final String JSON_NAME = PKG + ".JsonName";
+    private static final String EVENT_TYPE = PKG + ".EventType";
+    private static final String SINK = PKG + ".JsonSink";
+
+    private Elements elements;
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment env) {
+        super.init(env);
+        elements = env.getElementUtils();
+        filer = env.getFiler();
+        messager = env.getMessager();
+    }
+
+    @Override public Set<String> getSupportedAnnotationTypes() { return Set.of(JSON_EVENT, JSON_PART); }
+
+    @Override public SourceVersion getSupportedSourceVersion() { return SourceVersion.latestSupported(); }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement ann : annotations) {
+            boolean event = ann.getQualifiedName().contentEquals(JSON_EVENT);
+            for (Element el : round.getElementsAnnotatedWith(ann)) {
+                if (el.getKind() != ElementKind.RECORD) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "@" + ann.getSimpleName() + " requires a record", el);
+                    continue;
+                }
+                try {
+                    generate((TypeElement) el, event);
+                } catch (IOException e) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "cannot write encoder: " + e.getMessage(), el);
+                }
+            }
+        }
+        return true;
+    }
+
+    // ---- model
+
+    private enum Kind { PRIMITIVE, BOXED, STRING, PART }
+
+    /** {@code unboxed} is the primitive name for BOXED; {@code partEncoder} the encoder FQN for PART. */
+    private record Field(String accessor, String key, Kind kind, String unboxed, String partEncoder) {}
+
+    private void generate(TypeElement rec, boolean event) throws IOException {
+        String pkg = elements.getPackageOf(rec).getQualifiedName().toString();
+        String recName = qualifiedInPackage(rec);
+        String encName = encoderName(rec);
+
+        String discriminatorKey = null, fixedType = null, typeAccessor = null;
+        if (event) {
+            AnnotationMirror m = mirror(rec, JSON_EVENT);
+            fixedType = stringValue(m, "value", "");
+            discriminatorKey = stringValue(m, "key", "event");
+        }
+
+        List<Field> fields = new ArrayList<>();
+        for (RecordComponentElement rc : rec.getRecordComponents()) {
+            String name = rc.getSimpleName().toString();
+            if (event && has(rc, EVENT_TYPE)) {
+                if (!isString(rc.asType())) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "@EventType must be a String", rc);
+                    return;
+                }
+                typeAccessor = name;
+                continue;
+            }
+            AnnotationMirror nameAnn = mirror(rc, JSON_NAME);
+            String key = nameAnn != null ? stringValue(nameAnn, "value", name) : snake(name);
+            Field f = field(rc, name, key);
+            if (f == null) return;
+            fields.add(f);
+        }
+        if (event && fixedType.isEmpty() && typeAccessor == null) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                "@JsonEvent needs a value or an @EventType component", rec);
+            return;
+        }
+
+        StringBuilder src = new StringBuilder(1024);
+        src.append("package ").append(pkg).append(";\n\n");
+        src.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        src.append("public final class ").append(encName).append(" {\n");
+
+        // pre-encoded keys
+        if (event) {
+            if (typeAccessor != null) {
+                src.append("    private static final byte[] K_TYPE = ").append(SINK).append(".ascii(")
+                   .append(lit(quoteKey(discriminatorKey))).append(");\n");
+            } else {
+                src.append("    private static final byte[] HEAD = ").append(SINK).append(".ascii(")
+                   .append(lit("{" + quoteKey(discriminatorKey) + jsonString(fixedType))).append(");\n");
+            }
+        }
+        for (Field f : fields) {
+            src.append("    private static final byte[] K_").append(f.accessor()).append(" = ")
+               .append(SINK).append(".ascii(").append(lit(quoteKey(f.key()))).append(");\n");
+        }
+        src.append("\n    private ").append(encName).append("() {}\n\n");
+
+        if (event) {
+            src.append("    /** Append {@code e} as a complete event object, envelope included. */\n");
+            src.append("    public static void encode(").append(recName).append(" e, ").append(SINK).append(" out) {\n");
+            if (typeAccessor != null) {
+                src.append("        out.beginObject();\n");
+                src.append("        out.key(K_TYPE);\n");
+                src.append("        out.value(e.").append(typeAccessor).append("());\n");
+            } else {
+                src.append("        out.raw(HEAD);\n");
+            }
+            writeFields(src, fields, "e");
+            src.append("        out.envelope();\n");
+            src.append("        out.endObject();\n");
+            src.append("    }\n");
+        } else {
+            src.append("    /** Append {@code p} as a nested JSON object. */\n");
+            src.append("    public static void write(").append(recName).append(" p, ").append(SINK).append(" out) {\n");
+            src.append("        out.beginObject();\n");
+            writeFields(src, fields, "p");
+            src.append("        out.endObject();\n");
+            src.append("    }\n");
+        }
+        src.append("}\n");
+
+        String fqn = pkg.isEmpty() ? encName : pkg + "." + encName;
+        try (Writer w = filer.createSourceFile(fqn, rec).openWriter()) {
+            w.write(src.toString());
+        }
+    }
+
+    private static void writeFields(StringBuilder src, List<Field> fields, String v) {
+        for (Field f : fields) {
+            String get = v + "." + f.accessor() + "()";
+            switch (f.kind()) {
+                case PRIMITIVE -> {
+                    src.append("        out.key(K_").append(f.accessor()).append(");\n");
+                    src.append("        out.value(").append(get).append(");\n");
+                }
+                case BOXED, STRING -> {
+                    src.append("        if (").append(get).append(" != null) {\n");
+                    src.append("            out.key(K_").append(f.accessor()).append(");\n");
+                    src.append("            out.value(").append(f.kind() == Kind.BOXED ? get + "." + f.unboxed() + "Value()" : get)
+                       .append(");\n");
+                    src.append("        }\n");
+                }
+                case PART -> {
+                    src.append("        if (").append(get).append(" != null) {\n");
+                    src.append("            out.key(K_").append(f.accessor()).append(");\n");
+                    src.append("            ").append(f.partEncoder()).append(".write(").append(get).append(", out);\n");
+                    src.append("        }\n");
+                }
+            }
+        }
+    }
+
+    private Field field(RecordComponentElement rc, String name, String key) {
+        TypeMirror t = rc.asType();
+        TypeKind k = t.getKind();
+        switch (k) {
+            case BOOLEAN, INT, LONG, FLOAT, DOUBLE, SHORT, BYTE -> { return new Field(name, key, Kind.PRIMITIVE, null, null); }
+            default -> {}
+        }
+        if (k == TypeKind.DECLARED) {
+            TypeElement te = (TypeElement) ((DeclaredType) t).asElement();
+            String q = te.getQualifiedName().toString();
+            if (q.equals("java.lang.String")) return new Field(name, key, Kind.STRING, null, null);
+            String unboxed = switch (q) {
+                case "java.lang.Boolean" -> "boolean";
+                case "java.lang.Integer" -> "int";
+                case "java.lang.Long" -> "long";
+                case "java.lang.Float" -> "float";
+                case "java.lang.Double" -> "double";
+                default -> null;
+            };
+            if (unboxed != null) return new Field(name, key, Kind.BOXED, unboxed, null);
+            if (te.getKind() == ElementKind.RECORD && has(te, JSON_PART)) {
+                String encPkg = elements.getPackageOf(te).getQualifiedName().toString();
+                String enc = encPkg.isEmpty() ? encoderName(te) : encPkg + "." + encoderName(te);
+                return new Field(name, key, Kind.PART, null, enc);
+            }
+        }
+        messager.printMessage(Diagnostic.Kind.ERROR,
+            "unsupported component type " + t + " (primitives, boxed, String or @JsonPart records)", rc);
+        return null;
+    }
+
+    // ---- helpers
+
+    /** Nested records get their enclosing names joined with '_' (LifeEvent.Coords -> LifeEvent_CoordsEncoder). */
+    private static String encoderName(TypeElement te) {
+        StringBuilder sb = new StringBuilder(te.getSimpleName());
+        for (Element e = te.getEnclosingElement(); e instanceof TypeElement outer; e = e.getEnclosingElement()) {
+            sb.insert(0, outer.getSimpleName() + "_");
+        }
+        return sb.append("Encoder").toString();
+    }
+
+    private String qualifiedInPackage(TypeElement te) {
+        PackageElement p = elements.getPackageOf(te);
+        String q = te.getQualifiedName().toString();
+        return p.isUnnamed() ? q : q.substring(p.getQualifiedName().length() + 1);
+    }
+
+    private static boolean isString(TypeMirror t) {
+        return t.getKind() == TypeKind.DECLARED
+            && ((TypeElement) ((DeclaredType) t).asElement()).getQualifiedName().contentEquals("java.lang.String");
+    }
+
+    private static boolean has(Element e, String annotation) { return mirror(e, annotation) != null; }
+
+    private static AnnotationMirror mirror(Element e, String annotation) {
+        for (AnnotationMirror m : e.getAnnotationMirrors()) {
+            if (((TypeElement) m.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) return m;
+        }
+        // record component annotations may only have been propagated to the accessor
+        if (e instanceof RecordComponentElement rc && rc.getAccessor() != null && e != rc.getAccessor()) {
+            ExecutableElement acc = rc.getAccessor();
+            for (AnnotationMirror m : acc.getAnnotationMirrors()) {
+                if (((TypeElement) m.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) return m;
+            }
+        }
+        return null;
+    }
+
+    private static String stringValue(AnnotationMirror m, String name, String def) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : m.getElementValues().entrySet()) {
+            if (e.getKey().getSimpleName().contentEquals(name)) return String.valueOf(e.getValue().getValue());
+        }
+        return def;
+    }
+
+    private static String snake(String camel) {
+        StringBuilder sb = new StringBuilder(camel.length() + 4);
+        for (int i = 0; i < camel.length(); i++) {
+            char c = camel.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) sb.append('_');
+                sb.append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String quoteKey(String key) { return jsonString(key) + ":"; }
+
+    /** Compile-time JSON string (keys and fixed event names are plain ASCII, but escape anyway). */
+    private static String jsonString(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20 || c > 0x7e) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    private String lit(String s) { return elements.getConstantExpression(s); }
+}
@@ -1,5 +1,6 @@
 package com.kilab.auton8;
 
+import com.kilab.auton8.fabric.FabricHooks;
 import com.kilab.auton8.modules.MqttLinkModule;
 import com.kilab.auton8.modules.TimelapseModule;
 import net.fabricmc.api.ModInitializer;
@@ -14,6 +15,9 @@ public class Mod implements ModInitializer {
         var m1 = new MqttLinkModule();
         var m2 = new TimelapseModule();
 
+        // Tick + chat + connection hooks, registered once; bridges subscribe through the core.
+        FabricHooks.register();
+
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
 
             if (!(client.currentScreen instanceof TitleScreen)) return;
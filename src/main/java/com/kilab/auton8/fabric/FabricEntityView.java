@@ -0,0 +1,53 @@
+package com.kilab.auton8.fabric;
+
+import com.kilab.auton8.spi.EntityView;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.entity.SpawnGroup;
+import net.minecraft.entity.mob.Monster;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.vehicle.VehicleEntity;
+
+import java.util.IdentityHashMap;
+
+/** {@link EntityView} over the client world; also classifies entities for the load/unload hooks. */
+public final class FabricEntityView implements EntityView {
+    public static final FabricEntityView INSTANCE = new FabricEntityView();
+
+    // type id strings, built once per entity type (game thread only)
+    private final IdentityHashMap<EntityType<?>, String> typeIds = new IdentityHashMap<>();
+
+    private FabricEntityView() {}
+
+    @Override
+    public boolean position(int entityId, double[] out) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        Entity e = mc.world != null ? mc.world.getEntityById(entityId) : null;
+        if (e == null || e.isRemoved()) return false;
+        out[0] = e.getX(); out[1] = e.getY(); out[2] = e.getZ();
+        return true;
+    }
+
+    @Override
+    public void forEach(Sink sink) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.world == null) return;
+        for (Entity e : mc.world.getEntities()) {
+            if (e instanceof PlayerEntity || e.isRemoved()) continue;
+            sink.entity(e.getId(), kind(e), type(e), e.getX(), e.getY(), e.getZ());
+        }
+    }
+
+    static String kind(Entity e) {
+        if (e instanceof ItemEntity) return "item";
+        if (e instanceof VehicleEntity) return "vehicle";
+        if (e instanceof Monster) return "hostile";
+        return e.getType().getSpawnGroup() != SpawnGroup.MISC ? "passive" : "other";
+    }
+
+    String type(Entity e) {
+        return typeIds.computeIfAbsent(e.getType(), t -> EntityType.getId(t).toString());
+    }
+}
@@ -0,0 +1,51 @@
+package com.kilab.auton8.fabric;
+
+import com.kilab.auton8.spi.GameActions;
+import net.minecraft.client.MinecraftClient;
+
+import java.nio.file.Path;
+
+/** {@link GameActions} backed by MinecraftClient and the player's network handler. */
+public final class FabricGameActions implements GameActions {
+    public static final FabricGameActions INSTANCE = new FabricGameActions();
+
+    // Set while WE (the mod) are sending chat, so the local "#..." hook can tell.
+    private static final ThreadLocal<Boolean> PROGRAMMATIC_SEND = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private FabricGameActions() {}
+
+    static boolean isProgrammaticSend() { return PROGRAMMATIC_SEND.get(); }
+
+    @Override
+    public void execute(Runnable task) {
+        MinecraftClient.getInstance().execute(task);
+    }
+
+    @Override
+    public boolean canSend() {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        return mc.player != null && mc.player.networkHandler != null;
+    }
+
+    @Override
+    public void sendChat(String message) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null || mc.player.networkHandler == null) return;
+        PROGRAMMATIC_SEND.set(Boolean.TRUE);
+        try { mc.player.networkHandler.sendChatMessage(message); }
+        finally { PROGRAMMATIC_SEND.set(Boolean.FALSE); }
+    }
+
+    @Override
+    public void sendCommand(String command) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.player == null || mc.player.networkHandler == null) return;
+        // Fabric 1.21.x: commands use sendChatCommand WITHOUT the leading slash
+        mc.player.networkHandler.sendChatCommand(command);
+    }
+
+    @Override
+    public Path dataDir() {
+        return MinecraftClient.getInstance().runDirectory.toPath().resolve("auton8");
+    }
+}
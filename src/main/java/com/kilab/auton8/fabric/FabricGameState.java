@@ -0,0 +1,187 @@
+package com.kilab.auton8.fabric;
+
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.spi.EntityView;
+import com.kilab.auton8.spi.GameState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.client.network.ServerInfo;
+import net.minecraft.entity.player.HungerManager;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+import java.lang.reflect.Method;
+
+/** {@link GameState} that reads MinecraftClient (and Baritone, if installed) into the tick snapshot. */
+public final class FabricGameState implements GameState {
+    public static final FabricGameState INSTANCE = new FabricGameState();
+
+    // identity caches so strings are only rebuilt when the value actually changes
+    private RegistryKey<World> lastDimKey;
+    private ServerInfo lastServerEntry;
+    private boolean serverResolved;
+
+    private final BaritoneFacade baritone = new BaritoneFacade();
+
+    private FabricGameState() {}
+
+    @Override
+    public void capture(TickSnapshot snap) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+
+        snap.integratedServer = mc.isIntegratedServerRunning();
+        ServerInfo entry = mc.getCurrentServerEntry();
+        if (!serverResolved || entry != lastServerEntry) {
+            serverResolved = true;
+            lastServerEntry = entry;
+            snap.serverTag = JsonUtils.serverTagOf(entry != null, entry != null ? entry.address : null);
+        }
+        snap.singleplayer = snap.integratedServer || entry == null;
+        snap.localName = mc.getSession() != null ? mc.getSession().getUsername() : "unknown";
+
+        snap.clearOthers();
+        ClientPlayerEntity p = mc.player;
+        if (p == null || mc.world == null) {
+            snap.inWorld = false;
+            snap.baritonePathing = snap.baritoneBuilderActive = snap.baritoneProcessActive = false;
+            return;
+        }
+        snap.inWorld = true;
+
+        RegistryKey<World> key = mc.world.getRegistryKey();
+        if (key != lastDimKey) {
+            lastDimKey = key;
+            snap.dimensionId = key.getValue().toString();
+            snap.dimension = TickSnapshot.normalizeDimension(key.getValue().getPath());
+        }
+
+        Vec3d pos = p.getPos();
+        snap.x = pos.x; snap.y = pos.y; snap.z = pos.z;
+        snap.yaw = p.getYaw();
+        snap.pitch = p.getPitch();
+        Vec3d v = p.getVelocity();
+        snap.vx = v.x; snap.vy = v.y; snap.vz = v.z;
+        snap.onGround = p.isOnGround();
+
+        snap.health = p.getHealth();
+        snap.alive = p.isAlive() && snap.health > 0f;
+        HungerManager hm = p.getHungerManager();
+        snap.hunger = hm.getFoodLevel();
+        snap.saturation = hm.getSaturationLevel();
+
+        for (PlayerEntity other : mc.world.getPlayers()) {
+            if (other == p) continue;
+            TickSnapshot.PlayerSample s = snap.addOther();
+            s.entityId = other.getId();
+            s.uuid = other.getUuid();
+            s.name = other.getGameProfile().getName();
+            s.x = other.getX(); s.y = other.getY(); s.z = other.getZ();
+        }
+
+        snap.baritonePathing = baritone.isPathing();
+        snap.baritoneBuilderActive = baritone.isBuilderActive();
+        snap.baritoneProcessActive = snap.baritoneBuilderActive || baritone.isMineActive();
+    }
+
+    @Override
+    public EntityView entities() { return FabricEntityView.INSTANCE; }
+
+    /** Reflective access to the optional Baritone API (no compile-time dependency). */
+    private static final class BaritoneFacade {
+        private Object provider;
+        private Object baritone;
+        private Method mGetProvider;
+        private Method mGetPrimary;
+        private Method mGetPathing;
+        private Method mIsPathing;
+        private Method mGetBuilder;
+        private Method mBuilderActive;
+        private Method mGetMine;
+        private Method mMineActive;
+
+        private boolean initTried = false;
+        private boolean initOk = false;
+
+        boolean isPathing() {
+            ensureInit();
+            if (!initOk) return false;
+            try {
+                Object pathing = (mGetPathing != null && baritone != null) ? mGetPathing.invoke(baritone) : null;
+                if (pathing != null && mIsPathing != null) {
+                    Object b = mIsPathing.invoke(pathing);
+                    return (b instanceof Boolean) && (Boolean) b;
+                }
+            } catch (Throwable ignored) {}
+            return false;
+        }
+
+        boolean isBuilderActive() {
+            ensureInit();
+            try {
+                if (baritone != null && mGetBuilder != null && mBuilderActive != null) {
+                    Object builder = mGetBuilder.invoke(baritone);
+                    if (builder != null) {
+                        Object b = mBuilderActive.invoke(builder);
+                        return (b instanceof Boolean) && (Boolean) b;
+                    }
+                }
+            } catch (Throwable ignored) {}
+            return false;
+        }
+
+        boolean isMineActive() {
+            ensureInit();
+            try {
+                if (baritone != null && mGetMine != null && mMineActive != null) {
+                    Object mine = mGetMine.invoke(baritone);
+                    if (mine != null) {
+                        Object b = mMineActive.invoke(mine);
+                        return (b instanceof Boolean) && (Boolean) b;
+                    }
+                }
+            } catch (Throwable ignored) {}
+            return false;
+        }
+
+        private void ensureInit() {
+            if (initTried) return;
+            initTried = true;
+            try {
+                Class<?> cAPI = Class.forName("baritone.api.BaritoneAPI");
+                Class<?> cProv = Class.forName("baritone.api.IBaritoneProvider");
+                Class<?> cBar  = Class.forName("baritone.api.IBaritone");
+
+                mGetProvider = cAPI.getMethod("getProvider");
+                provider = mGetProvider.invoke(null);
+                if (provider == null) return;
+
+                mGetPrimary = cProv.getMethod("getPrimaryBaritone");
+                baritone = mGetPrimary.invoke(provider);
+                if (baritone == null) return;
+
+                try {
+                    mGetPathing = cBar.getMethod("getPathingBehavior");
+                    Class<?> cPath = Class.forName("baritone.api.behavior.IPathingBehavior");
+                    mIsPathing = cPath.getMethod("isPathing");
+                } catch (Throwable ignored) {}
+
+                try {
+                    mGetBuilder = cBar.getMethod("getBuilderProcess");
+                    Class<?> cBuilder = Class.forName("baritone.api.process.IBuilderProcess");
+                    mBuilderActive = cBuilder.getMethod("isActive");
+                } catch (Throwable ignored) {}
+
+                try {
+                    mGetMine = cBar.getMethod("getMineProcess");
+                    Class<?> cMine = Class.forName("baritone.api.process.IMineProcess");
+                    mMineActive = cMine.getMethod("isActive");
+                } catch (Throwable ignored) {}
+
+                initOk = true;
+            } catch (Throwable ignored) { initOk = false; }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.kilab.auton8.fabric;
+
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.spi.GameEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
+import net.fabricmc.fabric.api.client.message.v1.ClientSendMessageEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.minecraft.entity.player.PlayerEntity;
+
+/**
+ * The only place the mod registers Fabric callbacks. Fabric offers no unregister, so this
+ * runs once at init and forwards into the core's {@link TickScheduler} and {@link GameEvents};
+ * bridges come and go by adding/removing tasks and listeners there.
+ */
+public final class FabricHooks {
+    private static boolean registered = false;
+
+    private FabricHooks() {}
+
+    public static synchronized void register() {
+        if (registered) return;
+        registered = true;
+
+        ClientTickEvents.END_CLIENT_TICK.register(client -> TickScheduler.get().tick(FabricGameState.INSTANCE));
+
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> GameEvents.get().fireJoin());
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> GameEvents.get().fireDisconnect());
+
+        ClientSendMessageEvents.CHAT.register(content ->
+            GameEvents.get().fireChatSent(content, FabricGameActions.isProgrammaticSend()));
+
+        ClientReceiveMessageEvents.CHAT.register((message, signed, sender, params, ts) ->
+            GameEvents.get().fireChatReceived(message.getString(), sender != null ? sender.getName() : null));
+
+        ClientReceiveMessageEvents.GAME.register((message, overlay) ->
+            GameEvents.get().fireGameMessage(message.getString(), overlay));
+
+        // players are read per tick by FabricGameState; everything else is tracked from these
+        ClientEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (entity instanceof PlayerEntity) return;
+            GameEvents.get().fireEntityAdded(entity.getId(), FabricEntityView.kind(entity), FabricEntityView.INSTANCE.type(entity),
+                entity.getX(), entity.getY(), entity.getZ());
+        });
+        ClientEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (entity instanceof PlayerEntity) return;
+            GameEvents.get().fireEntityRemoved(entity.getId());
+        });
+    }
+}
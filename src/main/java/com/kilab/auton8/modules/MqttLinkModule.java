@@ -2,6 +2,8 @@ package com.kilab.auton8.modules;
 
 import com.kilab.auton8.core.Auton8Core;
 import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.fabric.FabricGameActions;
 
 import com.kilab.auton8.meteordummy.*;
 import com.kilab.auton8.meteordummy.Module;
@@ -50,25 +52,28 @@ public class MqttLinkModule extends Module {
         cfg.sessionId = currentSessionId;
 
         // Initial flags from settings
-        cfg.allowChatRx         = true; // Publish received chat to MQTT
-        cfg.allowChatTx         = true; // Allow agent to send chat via MQTT
-        cfg.allowTelemetry      = true; // Publish position/health status
-        cfg.allowBaritone       = true; // Accept # commands from MQTT
-        cfg.telemetryIntervalMs = 5000; // Range: 250 - 15000
+        cfg.live.set(RuntimeConfig.DEFAULTS
+            .withScopes(
+                true,   // Publish received chat to MQTT
+                true,   // Allow agent to send chat via MQTT
+                true,   // Publish position/health status
+                true)   // Accept # commands from MQTT
+            .with("telemetry_interval_ms", 5000)); // Range: 250 - 15000
 
         // Bring up core (connect MQTT, start bridges)
-        core = new Auton8Core(cfg);
+        core = new Auton8Core(cfg, FabricGameActions.INSTANCE);
         core.enable();
 
         // Ask to announce session_start on the next tick (post-connect)
         sessionHelloPending = true;
 
         // Seed caches
-        lastChatRx   = cfg.allowChatRx;
-        lastChatTx   = cfg.allowChatTx;
-        lastTel      = cfg.allowTelemetry;
-        lastBaritone = cfg.allowBaritone;
-        lastTelemMs  = cfg.telemetryIntervalMs;
+        RuntimeConfig rc = cfg.live.get();
+        lastChatRx   = rc.allowChatRx();
+        lastChatTx   = rc.allowChatTx();
+        lastTel      = rc.allowTelemetry();
+        lastBaritone = rc.allowBaritone();
+        lastTelemMs  = rc.telemetryIntervalMs();
     }
 
     @Override
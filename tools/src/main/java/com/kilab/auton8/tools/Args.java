@@ -0,0 +1,34 @@
+package com.kilab.auton8.tools;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** {@code --key=value} / {@code --flag} command line for the tool mains; unknown keys are ignored. */
+public final class Args {
+    private final Map<String, String> values = new HashMap<>();
+
+    public Args(String[] argv) {
+        for (String a : argv) {
+            if (!a.startsWith("--")) continue;
+            int eq = a.indexOf('=');
+            if (eq < 0) values.put(a.substring(2), "true");
+            else values.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+    }
+
+    public String str(String key, String def) { return values.getOrDefault(key, def); }
+
+    public long num(String key, long def) {
+        String v = values.get(key);
+        return v == null ? def : Long.parseLong(v.replace("_", ""));
+    }
+
+    public double dbl(String key, double def) {
+        String v = values.get(key);
+        return v == null ? def : Double.parseDouble(v);
+    }
+
+    public boolean flag(String key) { return Boolean.parseBoolean(values.getOrDefault(key, "false")); }
+
+    public boolean has(String key) { return values.containsKey(key); }
+}
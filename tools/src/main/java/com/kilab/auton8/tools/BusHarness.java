@@ -0,0 +1,233 @@
+package com.kilab.auton8.tools;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.metrics.Counter;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.tools.broker.MiniBroker;
+import org.eclipse.paho.client.mqttv3.*;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a real {@link MqttBus} against an in-process {@link MiniBroker} on a random loopback
+ * port and checks throughput, publish latency, reconnect time and loss against thresholds.
+ *
+ * <pre>
+ *   --rate=2000            target publishes per second (all sources)
+ *   --seconds=10           publish duration
+ *   --size=256             payload bytes (padding added to the status detail)
+ *   --qos0-share=0.0       share of traffic published at QoS 0 by a second, raw Paho client
+ *                          (MqttBus itself always publishes at QoS 1)
+ *   --restart-at=0         seconds into the run to restart the broker (0 = never)
+ *   --down-ms=500          how long the broker stays down on restart
+ *   --slow-consumer-ms=0   add a second subscriber whose deliveries the broker delays by this much
+ *   --min-throughput=0     msgs/s received; --max-p99-ms=0; --max-reconnect-ms=0; --max-loss=0.0
+ * </pre>
+ *
+ * Latency is end to end (publish call to subscriber callback) and per publish call; loss counts
+ * QoS 1 messages the bus accepted while connected that never reached the subscriber (with a
+ * restart this includes whatever the bus sent before the subscriber had resubscribed). Exits 1
+ * when any threshold (0 = unchecked) is missed, so CI can run it.
+ */
+public final class BusHarness {
+    private static final String EVT = "mc/harness-bot/events";
+    private static final String RAW = EVT + "/raw";
+
+    public static void main(String[] argv) throws Exception {
+        Args a = new Args(argv);
+        long rate = Math.max(1, a.num("rate", 2000));
+        long seconds = Math.max(1, a.num("seconds", 10));
+        int size = (int) a.num("size", 256);
+        double qos0Share = a.dbl("qos0-share", 0.0);
+        long restartAt = a.num("restart-at", 0);
+        long downMs = a.num("down-ms", 500);
+        long slowMs = a.num("slow-consumer-ms", 0);
+
+        Metrics.setEnabled(true);
+        Histogram e2e = Metrics.get().histogram("harness_e2e_ns");
+        Histogram call = Metrics.get().histogram("harness_publish_call_ns");
+        Counter busDropped = Metrics.get().counter("mqtt_publish_dropped_total");
+
+        try (MiniBroker broker = new MiniBroker(0, 50_000).start()) {
+            System.out.println("broker " + broker.uri());
+
+            // Measuring subscriber: QoS 1 on the bus topic, QoS 0 on the raw topic
+            int maxIdx = (int) Math.min(Integer.MAX_VALUE - 1, rate * seconds + 1);
+            BitSet seen = new BitSet(maxIdx);
+            AtomicLong received = new AtomicLong(), duplicates = new AtomicLong(), rawReceived = new AtomicLong();
+            MqttAsyncClient sub = client(broker, "harness-sub");
+            MqttAsyncClient subRef = sub;
+            sub.setCallback(new MqttCallbackExtended() {
+                @Override public void connectComplete(boolean reconnect, String serverURI) {
+                    // clean session: a restarted broker has forgotten the subscriptions
+                    if (!reconnect) return;
+                    try { subRef.subscribe(EVT, 1); subRef.subscribe(RAW, 0); } catch (MqttException ignored) {}
+                }
+                @Override public void connectionLost(Throwable cause) { }
+                @Override public void deliveryComplete(IMqttDeliveryToken token) { }
+                @Override public void messageArrived(String topic, MqttMessage m) {
+                    long now = System.nanoTime();
+                    String s = new String(m.getPayload(), StandardCharsets.UTF_8);
+                    if (RAW.equals(topic)) {
+                        rawReceived.incrementAndGet();
+                        e2e.record(now - sentAt(s));
+                        return;
+                    }
+                    JsonObject j = JsonParser.parseString(s).getAsJsonObject();
+                    if (!j.has("event") || !"harness".equals(j.get("event").getAsString())) return;
+                    String detail = j.get("detail").getAsString();
+                    int idx = Integer.parseInt(detail.substring(0, detail.indexOf(':')));
+                    e2e.record(now - sentAt(detail));
+                    synchronized (seen) {
+                        if (seen.get(idx)) { duplicates.incrementAndGet(); return; }
+                        seen.set(idx);
+                    }
+                    received.incrementAndGet();
+                }
+            });
+            connect(sub);
+            sub.subscribe(EVT, 1).waitForCompletion(5_000);
+            sub.subscribe(RAW, 0).waitForCompletion(5_000);
+
+            MqttAsyncClient slow = null;
+            if (slowMs > 0) {
+                broker.slowConsumer("harness-slow", slowMs);
+                slow = client(broker, "harness-slow");
+                connect(slow);
+                slow.subscribe(EVT, 1).waitForCompletion(5_000);
+            }
+
+            MqttAsyncClient raw = qos0Share > 0 ? client(broker, "harness-raw") : null;
+            if (raw != null) connect(raw);
+
+            Config cfg = new Config();
+            cfg.brokerUri = broker.uri();
+            cfg.clientId = "harness-bot";
+            cfg.evtTopic = EVT;
+            cfg.cmdTopic = "mc/harness-bot/cmd";
+            cfg.sessionId = UUID.randomUUID().toString();
+            MqttBus bus = new MqttBus(cfg);
+            bus.connect();
+            if (!bus.isConnected()) throw new IllegalStateException("bus did not connect to " + broker.uri());
+
+            // Fault injection runs beside the publisher so pacing isn't disturbed
+            AtomicLong reconnectMs = new AtomicLong(-1);
+            Thread restarter = null;
+            if (restartAt > 0 && restartAt < seconds) {
+                restarter = Thread.ofPlatform().name("harness-restart").start(() -> {
+                    try {
+                        Thread.sleep(restartAt * 1000);
+                        broker.restart(downMs);
+                        long up = System.nanoTime();
+                        while (!bus.isConnected() && System.nanoTime() - up < 120_000_000_000L) Thread.sleep(5);
+                        reconnectMs.set((System.nanoTime() - up) / 1_000_000L);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                });
+            }
+
+            // Paced publisher: message i is due at start + i/rate, late ones go out immediately
+            String pad = "x".repeat(Math.max(0, size - 64));
+            long dropped0 = busDropped.value();
+            long busSent = 0, rawSent = 0;
+            long start = System.nanoTime(), intervalNs = 1_000_000_000L / rate, total = rate * seconds;
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            for (int i = 0; i < total; i++) {
+                long due = start + i * intervalNs;
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    if (wait > 200_000) Thread.sleep(0, (int) Math.min(999_999, wait - 100_000)); else Thread.onSpinWait();
+                }
+                long t0 = System.nanoTime();
+                String detail = i + ":" + t0 + ":" + pad;
+                if (raw != null && rnd.nextDouble() < qos0Share) {
+                    try { raw.publish(RAW, detail.getBytes(StandardCharsets.UTF_8), 0, false); } catch (MqttException ignored) {}
+                    rawSent++;
+                } else {
+                    bus.publish(EVT, new StatusEvent("harness", detail));
+                    busSent++;
+                }
+                call.record(System.nanoTime() - t0);
+            }
+            long publishNs = System.nanoTime() - start;
+            long dropped = busDropped.value() - dropped0;
+
+            // Drain: wait until the subscriber has gone quiet for a second
+            long last = -1;
+            for (int i = 0; i < 30 && received.get() + rawReceived.get() != last; i++) {
+                last = received.get() + rawReceived.get();
+                Thread.sleep(1000);
+            }
+            if (restarter != null) restarter.join();
+
+            Histogram.Snapshot lat = e2e.snapshot(), calls = call.snapshot();
+            long accepted = Math.max(0, busSent - dropped);
+            double loss = accepted == 0 ? 0.0 : Math.max(0, accepted - received.get()) / (double) accepted;
+            double throughput = (received.get() + rawReceived.get()) / (publishNs / 1e9);
+
+            System.out.printf(Locale.ROOT, "published   bus=%d raw_qos0=%d in %.2fs (target %d/s)%n", busSent, rawSent, publishNs / 1e9, rate);
+            System.out.printf(Locale.ROOT, "received    bus=%d raw_qos0=%d dup=%d  throughput=%.0f msg/s%n", received.get(), rawReceived.get(), duplicates.get(), throughput);
+            System.out.printf(Locale.ROOT, "bus drops   %d (disconnected/inflight full)  loss=%.4f of %d accepted%n", dropped, loss, accepted);
+            System.out.printf(Locale.ROOT, "e2e ms      p50=%.2f p99=%.2f max=%.2f%n", lat.quantile(0.5) / 1e6, lat.quantile(0.99) / 1e6, lat.max / 1e6);
+            System.out.printf(Locale.ROOT, "publish us  p50=%.1f p99=%.1f max=%.1f%n", calls.quantile(0.5) / 1e3, calls.quantile(0.99) / 1e3, calls.max / 1e3);
+            System.out.printf(Locale.ROOT, "broker      received=%d delivered=%d queue_drops=%d connects=%d%n", broker.received(), broker.delivered(), broker.dropped(), broker.connects());
+            if (reconnectMs.get() >= 0) System.out.printf(Locale.ROOT, "reconnect   %d ms after broker came back%n", reconnectMs.get());
+
+            boolean ok = true;
+            ok &= check("min-throughput", a.dbl("min-throughput", 0), throughput, true);
+            ok &= check("max-p99-ms", a.dbl("max-p99-ms", 0), lat.quantile(0.99) / 1e6, false);
+            ok &= check("max-reconnect-ms", a.dbl("max-reconnect-ms", 0), reconnectMs.get(), false);
+            ok &= check("max-loss", a.dbl("max-loss", 0), loss, false);
+
+            bus.close();
+            closeQuietly(sub);
+            closeQuietly(slow);
+            closeQuietly(raw);
+            System.out.println(ok ? "PASS" : "FAIL");
+            System.exit(ok ? 0 : 1);
+        }
+    }
+
+    /** Send time (System.nanoTime) from an "index:nanos:padding" detail. */
+    private static long sentAt(String detail) {
+        int a = detail.indexOf(':'), b = detail.indexOf(':', a + 1);
+        return Long.parseLong(detail.substring(a + 1, b));
+    }
+
+    private static boolean check(String name, double limit, double actual, boolean atLeast) {
+        if (limit <= 0) return true;
+        boolean ok = atLeast ? actual >= limit : actual >= 0 && actual <= limit;
+        if (!ok) System.out.printf(Locale.ROOT, "threshold   %s=%s missed (actual %.4f)%n", name, limit, actual);
+        return ok;
+    }
+
+    private static MqttAsyncClient client(MiniBroker broker, String id) throws MqttException {
+        return new MqttAsyncClient(broker.uri(), id, new MemoryPersistence());
+    }
+
+    private static void connect(MqttAsyncClient c) throws MqttException {
+        MqttConnectOptions o = new MqttConnectOptions();
+        o.setAutomaticReconnect(true);
+        o.setCleanSession(true);
+        o.setMaxInflight(65_535);
+        c.connect(o).waitForCompletion(5_000);
+    }
+
+    private static void closeQuietly(MqttAsyncClient c) {
+        if (c == null) return;
+        try { c.disconnect().waitForCompletion(1_000); } catch (Exception ignored) {}
+        try { c.close(); } catch (Exception ignored) {}
+    }
+}
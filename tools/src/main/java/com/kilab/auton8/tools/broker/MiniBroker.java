@@ -0,0 +1,324 @@
+package com.kilab.auton8.tools.broker;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process MQTT 3.1.1 broker for harnesses: loopback only, QoS 0/1, + and # filters,
+ * retained messages and wills; no persistence, auth or QoS 2.
+ *
+ * Every connection gets a bounded outbound queue drained by its own virtual thread, so a slow
+ * subscriber fills (and overflows, counted in {@link #dropped()}) its own queue instead of
+ * blocking publishers. Fault injection: {@link #stop()} drops every connection like a crash,
+ * {@link #restart(long)} comes back on the same port, {@link #slowConsumer} delays deliveries
+ * to matching client ids.
+ */
+public final class MiniBroker implements AutoCloseable {
+    private static final int CONNECT = 1, PUBLISH = 3, PUBACK = 4, SUBSCRIBE = 8, UNSUBSCRIBE = 10,
+                             PINGREQ = 12, DISCONNECT = 14;
+
+    private final int queueLimit;
+    private volatile int port;
+    private ServerSocket server;                                   // guarded by this
+    private final Set<Conn> conns = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Conn> byClientId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, byte[]> retained = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> consumerDelayNs = new ConcurrentHashMap<>();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder connects = new LongAdder();
+
+    /** @param port 0 = pick a free port on first start (kept across restarts) */
+    public MiniBroker(int port, int queueLimit) {
+        this.port = port;
+        this.queueLimit = Math.max(1, queueLimit);
+    }
+
+    public MiniBroker() { this(0, 10_000); }
+
+    public synchronized MiniBroker start() throws IOException {
+        if (server != null) return this;
+        ServerSocket s = new ServerSocket();
+        s.setReuseAddress(true);
+        s.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        port = s.getLocalPort();
+        server = s;
+        Thread.ofPlatform().daemon().name("minibroker-accept-" + port).start(() -> acceptLoop(s));
+        return this;
+    }
+
+    /** Close the listener and every connection without wills, as a crashed broker would. */
+    public synchronized void stop() {
+        if (server == null) return;
+        try { server.close(); } catch (IOException ignored) {}
+        server = null;
+        for (Conn c : conns) c.close(false);
+        conns.clear();
+        byClientId.clear();
+        retained.clear();
+    }
+
+    /** {@link #stop()}, stay down for {@code downMs}, start again on the same port. */
+    public void restart(long downMs) throws IOException, InterruptedException {
+        stop();
+        if (downMs > 0) Thread.sleep(downMs);
+        start();
+    }
+
+    @Override public void close() { stop(); }
+
+    public int port()     { return port; }
+    public String uri()   { return "tcp://127.0.0.1:" + port; }
+
+    /** Delay every delivery to clients whose id starts with {@code clientIdPrefix} (0 removes it). */
+    public void slowConsumer(String clientIdPrefix, long delayMs) {
+        if (delayMs <= 0) consumerDelayNs.remove(clientIdPrefix);
+        else consumerDelayNs.put(clientIdPrefix, delayMs * 1_000_000L);
+    }
+
+    public long received()  { return received.sum(); }
+    public long delivered() { return delivered.sum(); }
+    /** Deliveries thrown away because a subscriber's outbound queue was full. */
+    public long dropped()   { return dropped.sum(); }
+    public long connects()  { return connects.sum(); }
+    public int connections(){ return conns.size(); }
+
+    // ===== Internals =====
+
+    private void acceptLoop(ServerSocket s) {
+        while (!s.isClosed()) {
+            try {
+                Socket sock = s.accept();
+                sock.setTcpNoDelay(true);
+                Conn c = new Conn(sock);
+                conns.add(c);
+                Thread.ofVirtual().name("minibroker-conn").start(c::readLoop);
+            } catch (IOException e) {
+                return; // closed
+            }
+        }
+    }
+
+    private void route(String topic, byte[] payload, int qos, Conn from) {
+        for (Conn c : conns) {
+            int granted = -1;
+            for (Map.Entry<String, Integer> e : c.subs.entrySet()) {
+                if (matches(e.getKey(), topic)) granted = Math.max(granted, e.getValue());
+            }
+            if (granted >= 0) c.deliver(topic, payload, Math.min(qos, granted), false);
+        }
+    }
+
+    static boolean matches(String filter, String topic) {
+        String[] f = filter.split("/", -1), t = topic.split("/", -1);
+        for (int i = 0; i < f.length; i++) {
+            if (f[i].equals("#")) return true;
+            if (i >= t.length) return false;
+            if (!f[i].equals("+") && !f[i].equals(t[i])) return false;
+        }
+        return f.length == t.length;
+    }
+
+    private final class Conn {
+        final Socket sock;
+        final DataInputStream in;
+        final OutputStream out;
+        final BlockingQueue<byte[]> outq = new ArrayBlockingQueue<>(queueLimit);
+        final ConcurrentHashMap<String, Integer> subs = new ConcurrentHashMap<>();
+        final AtomicInteger nextId = new AtomicInteger(1);
+        volatile String clientId = "";
+        volatile long delayNs = 0L;
+        volatile boolean closed = false;
+        String willTopic; byte[] willPayload; int willQos; boolean willRetain;
+
+        Conn(Socket sock) throws IOException {
+            this.sock = sock;
+            this.in = new DataInputStream(sock.getInputStream());
+            this.out = sock.getOutputStream();
+        }
+
+        void readLoop() {
+            boolean clean = false;
+            try {
+                while (true) {
+                    int h = in.read();
+                    if (h < 0) break;
+                    int len = readLength();
+                    byte[] body = in.readNBytes(len);
+                    if (body.length < len) break;
+                    if ((h >> 4) == DISCONNECT) { clean = true; break; }
+                    handle(h, body);
+                }
+            } catch (IOException ignored) {
+            } finally {
+                close(!clean);
+            }
+        }
+
+        private void handle(int h, byte[] b) throws IOException {
+            Reader r = new Reader(b);
+            switch (h >> 4) {
+                case CONNECT -> {
+                    r.str();                         // "MQTT" / "MQIsdp"
+                    r.u8();                          // level
+                    int flags = r.u8();
+                    r.u16();                         // keepalive (not enforced)
+                    clientId = r.str();
+                    if ((flags & 0x04) != 0) {
+                        willTopic = r.str();
+                        willPayload = r.bin();
+                        willQos = Math.min(1, (flags >> 3) & 3);
+                        willRetain = (flags & 0x20) != 0;
+                    }
+                    Conn prev = byClientId.put(clientId, this);
+                    if (prev != null && prev != this) prev.close(true);   // session takeover
+                    for (Map.Entry<String, Long> e : consumerDelayNs.entrySet()) {
+                        if (clientId.startsWith(e.getKey())) delayNs = e.getValue();
+                    }
+                    connects.increment();
+                    Thread.ofVirtual().name("minibroker-out").start(this::writeLoop);
+                    writeNow(new byte[] {0x20, 0x02, 0x00, 0x00});
+                }
+                case PUBLISH -> {
+                    int qos = (h >> 1) & 3;
+                    boolean retain = (h & 1) != 0;
+                    String topic = r.str();
+                    int id = qos > 0 ? r.u16() : 0;
+                    byte[] payload = r.rest();
+                    received.increment();
+                    if (qos > 0) writeNow(new byte[] {0x40, 0x02, (byte) (id >> 8), (byte) id});
+                    if (retain) {
+                        if (payload.length == 0) retained.remove(topic);
+                        else retained.put(topic, payload);
+                    }
+                    route(topic, payload, Math.min(1, qos), this);
+                }
+                case PUBACK -> { }
+                case SUBSCRIBE -> {
+                    int id = r.u16();
+                    java.io.ByteArrayOutputStream granted = new java.io.ByteArrayOutputStream();
+                    while (r.remaining() > 0) {
+                        String filter = r.str();
+                        int q = Math.min(1, r.u8() & 3);
+                        subs.put(filter, q);
+                        granted.write(q);
+                        for (Map.Entry<String, byte[]> e : retained.entrySet()) {
+                            if (matches(filter, e.getKey())) deliver(e.getKey(), e.getValue(), q, true);
+                        }
+                    }
+                    writeNow(frame(0x90, u16(id), granted.toByteArray()));
+                }
+                case UNSUBSCRIBE -> {
+                    int id = r.u16();
+                    while (r.remaining() > 0) subs.remove(r.str());
+                    writeNow(new byte[] {(byte) 0xB0, 0x02, (byte) (id >> 8), (byte) id});
+                }
+                case PINGREQ -> writeNow(new byte[] {(byte) 0xD0, 0x00});
+                default -> { }
+            }
+        }
+
+        void deliver(String topic, byte[] payload, int qos, boolean retain) {
+            if (closed) return;
+            byte[] t = topic.getBytes(StandardCharsets.UTF_8);
+            byte[] head = qos > 0 ? u16(nextId.getAndUpdate(i -> i >= 0xFFFF ? 1 : i + 1)) : new byte[0];
+            byte[] msg = frame(0x30 | (qos << 1) | (retain ? 1 : 0), u16(t.length), t, head, payload);
+            if (outq.offer(msg)) delivered.increment();
+            else dropped.increment();
+        }
+
+        private void writeLoop() {
+            try {
+                while (!closed) {
+                    byte[] msg = outq.take();
+                    long d = delayNs;
+                    if (d > 0) Thread.sleep(d / 1_000_000L, (int) (d % 1_000_000L));
+                    writeNow(msg);
+                }
+            } catch (InterruptedException | IOException ignored) {
+                close(true);
+            }
+        }
+
+        private void writeNow(byte[] bytes) throws IOException {
+            synchronized (out) {
+                out.write(bytes);
+                out.flush();
+            }
+        }
+
+        void close(boolean publishWill) {
+            if (closed) return;
+            closed = true;
+            try { sock.close(); } catch (IOException ignored) {}
+            conns.remove(this);
+            byClientId.remove(clientId, this);
+            outq.clear();
+            outq.offer(new byte[0]);   // wake the writer
+            if (publishWill && willTopic != null && server != null) {
+                if (willRetain) retained.put(willTopic, willPayload);
+                route(willTopic, willPayload, willQos, this);
+            }
+        }
+
+        private int readLength() throws IOException {
+            int value = 0, mult = 1;
+            for (int i = 0; i < 4; i++) {
+                int b = in.read();
+                if (b < 0) throw new EOFException();
+                value += (b & 0x7F) * mult;
+                if ((b & 0x80) == 0) return value;
+                mult <<= 7;
+            }
+            throw new IOException("malformed length");
+        }
+    }
+
+    private static final class Reader {
+        final byte[] b; int pos = 0;
+        Reader(byte[] b) { this.b = b; }
+        int remaining() { return b.length - pos; }
+        int u8()  { return b[pos++] & 0xFF; }
+        int u16() { return (u8() << 8) | u8(); }
+        byte[] bin() { int n = u16(); byte[] o = java.util.Arrays.copyOfRange(b, pos, pos + n); pos += n; return o; }
+        String str() { return new String(bin(), StandardCharsets.UTF_8); }
+        byte[] rest() { byte[] o = java.util.Arrays.copyOfRange(b, pos, b.length); pos = b.length; return o; }
+    }
+
+    private static byte[] u16(int v) { return new byte[] {(byte) (v >> 8), (byte) v}; }
+
+    private static byte[] frame(int header, byte[]... parts) {
+        int len = 0;
+        for (byte[] p : parts) len += p.length;
+        byte[] out = new byte[1 + varLen(len) + len];
+        out[0] = (byte) header;
+        int pos = 1, v = len;
+        do {
+            int d = v % 128;
+            v /= 128;
+            out[pos++] = (byte) (v > 0 ? d | 0x80 : d);
+        } while (v > 0);
+        for (byte[] p : parts) { System.arraycopy(p, 0, out, pos, p.length); pos += p.length; }
+        return out;
+    }
+
+    private static int varLen(int len) {
+        return len < 128 ? 1 : len < 16_384 ? 2 : len < 2_097_152 ? 3 : 4;
+    }
+}
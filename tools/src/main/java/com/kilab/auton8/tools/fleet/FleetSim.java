@@ -0,0 +1,173 @@
+package com.kilab.auton8.tools.fleet;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.tools.Args;
+import com.kilab.auton8.tools.broker.MiniBroker;
+import org.eclipse.paho.client.mqttv3.*;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless fleet: N {@link VirtualBot}s, one virtual thread each, against a broker (embedded
+ * {@link MiniBroker} unless {@code --broker} is given, e.g. the one n8n listens on).
+ *
+ * <pre>
+ *   --bots=100 --seconds=60 --ramp-ms=5000      fleet size, run length, connect ramp
+ *   --broker=tcp://host:1883                    external broker (default: embedded)
+ *   --telemetry-ms=1000 --chat-per-min=6 --proximity-per-min=4 --plans-per-min=1
+ *   --crash-share=0.1                           share of bots that end without DISCONNECT (LWT)
+ *   --ping-rate=20                              /cmd pings per second across the fleet
+ *   --report-s=5                                progress line interval
+ * </pre>
+ *
+ * A monitor client subscribes to {@code mc/+/events} and reports fan-in throughput, fan-in
+ * latency (envelope {@code mono_ns} to arrival; bots share this JVM's clock), command round
+ * trip through the bots' /cmd handlers, and how many LWTs the broker delivered.
+ */
+public final class FleetSim {
+
+    public static void main(String[] argv) throws Exception {
+        Args a = new Args(argv);
+        int bots = (int) Math.max(1, a.num("bots", 100));
+        long seconds = Math.max(1, a.num("seconds", 60));
+        long rampMs = a.num("ramp-ms", 5_000);
+        double crashShare = a.dbl("crash-share", 0.1);
+        double pingRate = a.dbl("ping-rate", 20);
+        long reportS = Math.max(1, a.num("report-s", 5));
+        VirtualBot.Profile profile = new VirtualBot.Profile(
+            Math.max(50, a.num("telemetry-ms", 1_000)),
+            a.dbl("chat-per-min", 6), a.dbl("proximity-per-min", 4), a.dbl("plans-per-min", 1));
+
+        Metrics.setEnabled(true);
+        Histogram fanIn = Metrics.get().histogram("fleet_fanin_ns");
+        Histogram rtt = Metrics.get().histogram("fleet_cmd_rtt_ms");
+        LongAdder in = new LongAdder();
+        AtomicLong wills = new AtomicLong();
+        Map<String, LongAdder> byType = new ConcurrentHashMap<>();
+
+        MiniBroker broker = a.has("broker") ? null : new MiniBroker(0, 100_000).start();
+        String uri = broker != null ? broker.uri() : a.str("broker", "");
+        System.out.println("broker " + uri + (broker != null ? " (embedded)" : ""));
+
+        MqttAsyncClient monitor = new MqttAsyncClient(uri, "fleet-monitor-" + ProcessHandle.current().pid(), new MemoryPersistence());
+        monitor.setCallback(new MqttCallback() {
+            @Override public void connectionLost(Throwable cause) { }
+            @Override public void deliveryComplete(IMqttDeliveryToken token) { }
+            @Override public void messageArrived(String topic, MqttMessage m) {
+                long arrived = Clock.monoNs();
+                in.increment();
+                try {
+                    JsonObject j = JsonParser.parseString(new String(m.getPayload(), StandardCharsets.UTF_8)).getAsJsonObject();
+                    String type = j.has("event") ? j.get("event").getAsString() : j.has("type") ? j.get("type").getAsString() : "?";
+                    byType.computeIfAbsent(type, k -> new LongAdder()).increment();
+                    if (j.has("mono_ns")) fanIn.record(arrived - j.get("mono_ns").getAsLong());
+                    if ("pong".equals(type) && j.has("t0")) rtt.record(Clock.wallMs() - j.get("t0").getAsLong());
+                    // status:offline is only ever sent as the LWT
+                    if ("status".equals(type) && j.has("detail") && "offline".equals(j.get("detail").getAsString())) wills.incrementAndGet();
+                } catch (Exception ignored) { }
+            }
+        });
+        MqttConnectOptions o = new MqttConnectOptions();
+        o.setCleanSession(true);
+        o.setMaxInflight(65_535);
+        monitor.connect(o).waitForCompletion(10_000);
+        monitor.subscribe("mc/+/events", 1).waitForCompletion(10_000);
+
+        // Bots: staggered over the ramp, each on its own virtual thread
+        List<VirtualBot> fleet = new CopyOnWriteArrayList<>();
+        long start = System.nanoTime();
+        long endNs = start + TimeUnit.MILLISECONDS.toNanos(rampMs) + TimeUnit.SECONDS.toNanos(seconds);
+        int crashes = 0;
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < bots; i++) {
+            long delayMs = rampMs * i / bots;
+            boolean crash = i < Math.round(bots * crashShare);
+            if (crash) crashes++;
+            VirtualBot bot = new VirtualBot(uri, String.format(Locale.ROOT, "sim-%04d", i), profile, 0x5EED + i);
+            pool.submit(() -> {
+                Thread.sleep(delayMs);
+                fleet.add(bot);
+                try {
+                    bot.run(endNs, crash);
+                } finally {
+                    fleet.remove(bot);
+                }
+                return null;
+            });
+        }
+        pool.shutdown();
+
+        // Command driver: pings random running bots through their /cmd topic
+        Thread pinger = null;
+        if (pingRate > 0) {
+            long gapNs = (long) (1e9 / pingRate);
+            pinger = Thread.ofVirtual().name("fleet-pinger").start(() -> {
+                long n = 0;
+                while (System.nanoTime() < endNs) {
+                    try {
+                        List<VirtualBot> live = List.copyOf(fleet);
+                        if (!live.isEmpty()) {
+                            VirtualBot bot = live.get(ThreadLocalRandom.current().nextInt(live.size()));
+                            String ping = "{\"type\":\"ping\",\"id\":\"" + (n++) + "\",\"t0\":" + Clock.wallMs() + "}";
+                            monitor.publish("mc/" + bot.clientId() + "/cmd", ping.getBytes(StandardCharsets.UTF_8), 1, false);
+                        }
+                        Thread.sleep(gapNs / 1_000_000L, (int) (gapNs % 1_000_000L));
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (Exception ignored) { }
+                }
+            });
+        }
+
+        // Progress
+        long lastIn = 0, lastAt = start;
+        while (!pool.awaitTermination(reportS, TimeUnit.SECONDS)) {
+            long now = System.nanoTime(), total = in.sum();
+            long connected = fleet.stream().filter(VirtualBot::isConnected).count();
+            Histogram.Snapshot f = fanIn.snapshot();
+            System.out.printf(Locale.ROOT, "t=%5.1fs bots=%d/%d in=%.0f msg/s fan-in p50=%.1fms p99=%.1fms%s%n",
+                (now - start) / 1e9, connected, bots, (total - lastIn) / ((now - lastAt) / 1e9),
+                f.quantile(0.5) / 1e6, f.quantile(0.99) / 1e6,
+                broker != null ? " broker_drops=" + broker.dropped() : "");
+            lastIn = total;
+            lastAt = now;
+        }
+        if (pinger != null) pinger.join();
+        Thread.sleep(2_000);   // let the last session_end / LWTs arrive
+
+        long elapsedNs = System.nanoTime() - start;
+        Histogram.Snapshot f = fanIn.snapshot(), r = rtt.snapshot();
+        System.out.println("---- fleet summary ----");
+        System.out.printf(Locale.ROOT, "bots        %d (%d crashed, %d LWTs seen)%n", bots, crashes, wills.get());
+        System.out.printf(Locale.ROOT, "fan-in      %d msgs, %.0f msg/s avg%n", in.sum(), in.sum() / (elapsedNs / 1e9));
+        System.out.printf(Locale.ROOT, "latency ms  p50=%.2f p99=%.2f max=%.2f%n", f.quantile(0.5) / 1e6, f.quantile(0.99) / 1e6, f.max / 1e6);
+        System.out.printf(Locale.ROOT, "cmd rtt ms  n=%d p50=%d p99=%d max=%d%n", r.count, r.quantile(0.5), r.quantile(0.99), r.max);
+        if (broker != null) {
+            System.out.printf(Locale.ROOT, "broker      received=%d delivered=%d queue_drops=%d connects=%d%n",
+                broker.received(), broker.delivered(), broker.dropped(), broker.connects());
+        }
+        new TreeMap<>(byType).forEach((k, v) -> System.out.printf(Locale.ROOT, "  %-22s %d%n", k, v.sum()));
+
+        try { monitor.disconnect().waitForCompletion(1_000); } catch (Exception ignored) {}
+        try { monitor.close(); } catch (Exception ignored) {}
+        if (broker != null) broker.close();
+        System.exit(0);
+    }
+}
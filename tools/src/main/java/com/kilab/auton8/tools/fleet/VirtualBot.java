@@ -0,0 +1,201 @@
+package com.kilab.auton8.tools.fleet;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.JsonUtils;
+import com.kilab.auton8.event.ChatEvent;
+import com.kilab.auton8.event.CoordsEvent;
+import com.kilab.auton8.event.PlanEvent;
+import com.kilab.auton8.event.PlayerProximityEvent;
+import com.kilab.auton8.event.PongEvent;
+import com.kilab.auton8.event.StatusEvent;
+import com.kilab.auton8.event.TelemetryEvent;
+import com.kilab.auton8.mqtt.MqttBus;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * One simulated bot: its own {@link MqttBus} (client id, LWT, session_id) publishing the same
+ * event shapes as the real bridges, and a /cmd handler answering like them. Everything runs on
+ * the caller's (virtual) thread in {@link #run}; commands arrive on the bus's callback thread.
+ */
+final class VirtualBot {
+    /** Per-bot event mix; rates are per minute, 0 disables a stream. */
+    record Profile(long telemetryMs, double chatPerMin, double proximityPerMin, double plansPerMin) {}
+
+    private static final String[] NAMES = { "Steve", "Alex", "Notch", "jeb_", "Dinnerbone", "Grumm" };
+    private static final String[] LINES = { "hi", "anyone selling diamonds?", "lag", "gg", "where is spawn", "brb" };
+
+    private final Config cfg = new Config();
+    private final MqttBus bus;
+    private final Profile profile;
+    private final SplittableRandom rnd;
+
+    // random walk, touched only by run(); commands read a possibly slightly stale copy
+    private volatile double x, y = 64, z;
+    private double heading;
+    private String nearby;          // name of the player currently in proximity, if any
+    private String planId;
+    private int planStep = -1, planSize;
+
+    VirtualBot(String brokerUri, String clientId, Profile profile, long seed) {
+        this.profile = profile;
+        this.rnd = new SplittableRandom(seed);
+        cfg.brokerUri = brokerUri;
+        cfg.clientId = clientId;
+        cfg.cmdTopic = "mc/" + clientId + "/cmd";
+        cfg.evtTopic = "mc/" + clientId + "/events";
+        cfg.sessionId = UUID.randomUUID().toString();
+        this.bus = new MqttBus(cfg);
+        this.x = rnd.nextInt(-2000, 2000);
+        this.z = rnd.nextInt(-2000, 2000);
+        this.heading = rnd.nextDouble(Math.PI * 2);
+    }
+
+    String clientId() { return cfg.clientId; }
+    boolean isConnected() { return bus.isConnected(); }
+
+    /**
+     * Connect, announce the session, emit the event mix until {@code untilNs}
+     * (System.nanoTime), then end the session cleanly or, with {@code crash}, drop the
+     * connection so the broker fires the LWT.
+     */
+    void run(long untilNs, boolean crash) throws InterruptedException {
+        bus.onMessage(cfg.cmdTopic, (topic, json) -> onCommand(json));
+        bus.connect();
+        connected();
+        bus.publish(cfg.evtTopic, new StatusEvent("session_start", "begin"));
+
+        long now = System.nanoTime();
+        long nextTelemetry = now + (long) (rnd.nextDouble() * profile.telemetryMs()) * 1_000_000L;
+        long nextChat = now + gapNs(profile.chatPerMin());
+        long nextProx = now + gapNs(profile.proximityPerMin());
+        long nextPlan = now + gapNs(profile.plansPerMin());
+        long nextStep = Long.MAX_VALUE;
+
+        while ((now = System.nanoTime()) < untilNs) {
+            if (now >= nextTelemetry) {
+                walk(profile.telemetryMs() / 1000.0);
+                bus.publish(cfg.evtTopic, new TelemetryEvent(x, y, z, (float) rnd.nextDouble(6, 20), rnd.nextInt(10, 21),
+                    (float) rnd.nextDouble(5), "minecraft:overworld"));
+                nextTelemetry += profile.telemetryMs() * 1_000_000L;
+            }
+            if (now >= nextChat) {
+                bus.publish(cfg.evtTopic, new ChatEvent(pick(NAMES), pick(LINES), "server_chat"));
+                nextChat = now + gapNs(profile.chatPerMin());
+            }
+            if (now >= nextProx) {
+                proximity();
+                nextProx = now + gapNs(profile.proximityPerMin());
+            }
+            if (now >= nextPlan && planId == null) {
+                startPlan();
+                nextStep = now + 1_000_000_000L;
+                nextPlan = now + gapNs(profile.plansPerMin());
+            }
+            if (now >= nextStep) {
+                nextStep = stepPlan() ? now + rnd.nextLong(500, 3_000) * 1_000_000L : Long.MAX_VALUE;
+            }
+            long next = Math.min(Math.min(nextTelemetry, nextChat), Math.min(Math.min(nextProx, nextPlan), nextStep));
+            long sleepNs = Math.min(next, untilNs) - System.nanoTime();
+            if (sleepNs > 0) Thread.sleep(sleepNs / 1_000_000L, (int) (sleepNs % 1_000_000L));
+        }
+
+        if (crash) {
+            bus.abort();
+        } else {
+            bus.publish(cfg.evtTopic, new StatusEvent("status", "disconnected"));
+            JsonObject end = JsonUtils.baseEventObj("session_end", "end", cfg.sessionId);
+            bus.publishSync(cfg.evtTopic, JsonUtils.wrap(end), 750);
+            bus.close();
+        }
+    }
+
+    // ===== Commands (bus callback thread) =====
+
+    private void onCommand(String json) {
+        long t1 = Clock.wallMs();
+        JsonObject j = JsonParser.parseString(json).getAsJsonObject();
+        String type = j.has("type") ? j.get("type").getAsString() : "";
+        switch (type) {
+            case "ping" -> bus.publish(cfg.evtTopic, new PongEvent(
+                j.has("id") ? j.get("id").getAsString() : null,
+                j.has("t0") ? j.get("t0").getAsLong() : null, t1, Clock.wallMs()));
+            case "say" -> bus.publish(cfg.evtTopic, new StatusEvent("said", j.has("msg") ? j.get("msg").getAsString() : ""));
+            case "baritone_cmd" -> {
+                String cmd = j.has("cmd") ? j.get("cmd").getAsString() : null;
+                if (cmd == null || !cmd.startsWith("#") || cmd.length() > 120) {
+                    bus.publish(cfg.evtTopic, new StatusEvent("cmd_reject", "bad_cmd"));
+                } else {
+                    bus.publish(cfg.evtTopic, new StatusEvent("accepted", cmd));
+                }
+            }
+            case "get_status" -> bus.publish(cfg.evtTopic, new TelemetryEvent(x, y, z, 20f, 20, 5f, "minecraft:overworld"));
+            case "get_coords" -> bus.publish(cfg.evtTopic, new CoordsEvent(x, y, z, "minecraft:overworld"));
+            default -> { }
+        }
+    }
+
+    // ===== Streams =====
+
+    private void walk(double seconds) {
+        heading += rnd.nextDouble(-0.4, 0.4);
+        double d = 4.3 * seconds;   // walking speed, blocks/s
+        x += Math.cos(heading) * d;
+        z += Math.sin(heading) * d;
+    }
+
+    private void proximity() {
+        double dist = rnd.nextDouble(20, 128);
+        double px = x + dist, pz = z;
+        if (nearby == null) {
+            nearby = pick(NAMES);
+            bus.publish(cfg.evtTopic, new PlayerProximityEvent(PlayerProximityEvent.SPOTTED, nearby,
+                UUID.nameUUIDFromBytes(nearby.getBytes()).toString(), px, y, pz, dist));
+        } else {
+            bus.publish(cfg.evtTopic, new PlayerProximityEvent(PlayerProximityEvent.LEFT_RADIUS, nearby,
+                UUID.nameUUIDFromBytes(nearby.getBytes()).toString(), px, y, pz, dist));
+            nearby = null;
+        }
+    }
+
+    private void startPlan() {
+        planId = UUID.randomUUID().toString().substring(0, 8);
+        planSize = rnd.nextInt(2, 6);
+        planStep = -1;
+        bus.publish(cfg.evtTopic, new PlanEvent("plan_started", new PlanEvent.Data(planId, planSize, -1, null, null, null)));
+    }
+
+    /** Finish the current step and start the next; false once the plan is done. */
+    private boolean stepPlan() {
+        if (planStep >= 0) {
+            bus.publish(cfg.evtTopic, new PlanEvent("plan_step_finished",
+                new PlanEvent.Data(planId, null, planStep, "#goto", rnd.nextInt(10) == 0 ? "timeout" : "done", null)));
+        }
+        if (++planStep >= planSize) {
+            bus.publish(cfg.evtTopic, new PlanEvent("plan_finished", new PlanEvent.Data(planId, 0, planStep, null, null, "done")));
+            planId = null;
+            return false;
+        }
+        bus.publish(cfg.evtTopic, new PlanEvent("plan_step_started", new PlanEvent.Data(planId, null, planStep, "#goto", "start", null)));
+        return true;
+    }
+
+    /** status:connected with reset:true, as ConnectionBridge sends it (StatusEvent has no reset flag). */
+    private void connected() {
+        JsonObject ev = JsonUtils.baseEventObj("status", "connected", cfg.sessionId);
+        ev.addProperty("reset", true);
+        bus.publish(cfg.evtTopic, JsonUtils.wrap(ev));
+    }
+
+    private long gapNs(double perMinute) {
+        if (perMinute <= 0) return Long.MAX_VALUE / 2;
+        // exponential inter-arrival times: events from many bots look like a Poisson stream
+        return (long) (-Math.log(1 - rnd.nextDouble()) * 60_000 / perMinute * 1_000_000L);
+    }
+
+    private String pick(String[] from) { return from[rnd.nextInt(from.length)]; }
+}
@@ -0,0 +1,194 @@
+package com.kilab.auton8.tools.latency;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Auton8Core;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.RuntimeConfig;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.tools.Args;
+import com.kilab.auton8.tools.broker.MiniBroker;
+import org.eclipse.paho.client.mqttv3.*;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of the /cmd path, from n8n publishing a command to the mod's "accepted"
+ * reaching a subscriber, through a local {@link MiniBroker}, a real {@link Auton8Core} and a
+ * {@link StubClient} game loop. Each command is split into stages, all on this JVM's monotonic
+ * clock:
+ * <pre>
+ *   net_in       publish -> root span start (broker, Paho callback thread, first parse)
+ *   dispatch     root span start -> GameActions.execute (config/chat/baritone parses, hop)
+ *   client_wait  execute -> queued work starts on the client thread (next frame / tick)
+ *   handler      work starts -> "accepted" encoded (envelope mono_ns)
+ *   publish_out  encoded -> received by the subscriber
+ *   total        publish -> received
+ * </pre>
+ * Options: --commands=baritone_cmd,server_chat --warmup=200 --iterations=1000 --gap-ms=20
+ * --frame-ms=16 (0 = work only runs at ticks) --tick-ms=50 --out=results.json
+ * --baseline=old.json --max-regress=0.25 (exit 1 when a p50/p99 grew by more than that).
+ */
+public final class CmdLatencyBench {
+    static final String[] STAGES = { "net_in", "dispatch", "client_wait", "handler", "publish_out", "total" };
+
+    public static void main(String[] argv) throws Exception {
+        Args a = new Args(argv);
+        String[] commands = a.str("commands", "baritone_cmd,server_chat").split(",");
+        int warmup = (int) a.num("warmup", 200);
+        int iterations = (int) a.num("iterations", 1_000);
+        long gapMs = a.num("gap-ms", 20);
+
+        Metrics.setEnabled(true);
+        Map<String, Histogram> hist = new LinkedHashMap<>();
+        for (String c : commands) {
+            for (String s : STAGES) hist.put(c + "/" + s, Metrics.get().histogram("bench_cmd_" + s + "_ns", "cmd", c));
+        }
+
+        try (MiniBroker broker = new MiniBroker().start()) {
+            StubClient client = new StubClient(a.num("frame-ms", 16), a.num("tick-ms", 50));
+
+            Config cfg = new Config();
+            cfg.brokerUri = broker.uri();
+            cfg.clientId = "bench-bot";
+            cfg.cmdTopic = "mc/bench-bot/cmd";
+            cfg.evtTopic = "mc/bench-bot/events";
+            cfg.sessionId = UUID.randomUUID().toString();
+            cfg.live.set(RuntimeConfig.DEFAULTS.withScopes(false, true, false, true)
+                .with("server_chat_min_interval_ms", 0));
+            Auton8Core core = new Auton8Core(cfg, client);
+            client.start();
+            core.enable();
+
+            // n8n side: one client publishes commands and waits for each "accepted"
+            ConcurrentHashMap<String, CountDownLatch> waiting = new ConcurrentHashMap<>();
+            ConcurrentHashMap<String, long[]> acks = new ConcurrentHashMap<>();
+            MqttAsyncClient n8n = new MqttAsyncClient(broker.uri(), "bench-n8n", new MemoryPersistence());
+            n8n.setCallback(new MqttCallback() {
+                @Override public void connectionLost(Throwable cause) { }
+                @Override public void deliveryComplete(IMqttDeliveryToken token) { }
+                @Override public void messageArrived(String topic, MqttMessage m) {
+                    long arrived = Clock.monoNs();
+                    JsonObject j = JsonParser.parseString(new String(m.getPayload(), StandardCharsets.UTF_8)).getAsJsonObject();
+                    String kind = j.has("event") ? j.get("event").getAsString() : j.has("type") ? j.get("type").getAsString() : "";
+                    if (!"accepted".equals(kind) || !j.has("trace_id")) return;
+                    String trace = j.get("trace_id").getAsString();
+                    CountDownLatch l = waiting.remove(trace);
+                    if (l == null) return;
+                    acks.put(trace, new long[] { j.get("mono_ns").getAsLong(), arrived });
+                    l.countDown();
+                }
+            });
+            MqttConnectOptions o = new MqttConnectOptions();
+            o.setCleanSession(true);
+            n8n.connect(o).waitForCompletion(5_000);
+            n8n.subscribe(cfg.evtTopic, 1).waitForCompletion(5_000);
+
+            int timeouts = 0;
+            for (int i = 0; i < warmup + iterations; i++) {
+                String cmd = commands[i % commands.length];
+                String trace = UUID.randomUUID().toString().replace("-", "");
+                CountDownLatch latch = new CountDownLatch(1);
+                waiting.put(trace, latch);
+                StubClient.Stamps st = client.track(trace);
+                String payload = payload(cmd, trace);
+                st.sent = Clock.monoNs();
+                n8n.publish(cfg.cmdTopic, payload.getBytes(StandardCharsets.UTF_8), 1, false);
+                boolean ok = latch.await(5, TimeUnit.SECONDS);
+                client.take(trace);
+                long[] ack = acks.remove(trace);
+                if (!ok || ack == null) { waiting.remove(trace); timeouts++; continue; }
+                if (i >= warmup && st.runStart > 0) {
+                    hist.get(cmd + "/net_in").record(st.dispatchStart - st.sent);
+                    hist.get(cmd + "/dispatch").record(st.executeCalled - st.dispatchStart);
+                    hist.get(cmd + "/client_wait").record(st.runStart - st.executeCalled);
+                    hist.get(cmd + "/handler").record(ack[0] - st.runStart);
+                    hist.get(cmd + "/publish_out").record(ack[1] - ack[0]);
+                    hist.get(cmd + "/total").record(ack[1] - st.sent);
+                }
+                // jitter so commands don't phase-lock with the frame/tick cadence
+                Thread.sleep(gapMs + ThreadLocalRandom.current().nextLong(0, Math.max(1, gapMs)));
+            }
+
+            try { n8n.disconnect().waitForCompletion(1_000); } catch (Exception ignored) {}
+            n8n.close();
+            core.disable();
+            client.stop();
+
+            Map<String, Map<String, Double>> results = report(hist, timeouts);
+            if (a.has("out")) {
+                Gson gson = new GsonBuilder().setPrettyPrinting().create();
+                Files.writeString(Path.of(a.str("out", "")), gson.toJson(results));
+            }
+            boolean ok = !a.has("baseline") || compare(results, Path.of(a.str("baseline", "")), a.dbl("max-regress", 0.25));
+            System.exit(ok ? 0 : 1);
+        }
+    }
+
+    private static String payload(String cmd, String trace) {
+        JsonObject j = new JsonObject();
+        j.addProperty("type", cmd);
+        switch (cmd) {
+            case "baritone_cmd" -> j.addProperty("cmd", "#set allowSprint true");
+            case "server_chat"  -> j.addProperty("text", "hello from the bench");
+            default -> throw new IllegalArgumentException("unsupported command: " + cmd);
+        }
+        j.addProperty("trace_id", trace);
+        j.addProperty("ts_ms", Clock.wallMs());
+        return j.toString();
+    }
+
+    /** Print p50/p99/max in microseconds per command and stage; returns the same as a map. */
+    private static Map<String, Map<String, Double>> report(Map<String, Histogram> hist, int timeouts) {
+        Map<String, Map<String, Double>> out = new LinkedHashMap<>();
+        System.out.printf(Locale.ROOT, "%-26s %8s %10s %10s %10s%n", "stage (us)", "n", "p50", "p99", "max");
+        for (Map.Entry<String, Histogram> e : hist.entrySet()) {
+            Histogram.Snapshot s = e.getValue().snapshot();
+            Map<String, Double> row = new LinkedHashMap<>();
+            row.put("n", (double) s.count);
+            row.put("p50_us", s.quantile(0.5) / 1e3);
+            row.put("p99_us", s.quantile(0.99) / 1e3);
+            row.put("max_us", s.max / 1e3);
+            out.put(e.getKey(), row);
+            System.out.printf(Locale.ROOT, "%-26s %8d %10.1f %10.1f %10.1f%n", e.getKey(), s.count, row.get("p50_us"), row.get("p99_us"), row.get("max_us"));
+        }
+        if (timeouts > 0) System.out.println("timeouts: " + timeouts);
+        return out;
+    }
+
+    /** Compare p50/p99 against a previous --out file; true when nothing regressed beyond {@code maxRegress}. */
+    @SuppressWarnings("unchecked")
+    private static boolean compare(Map<String, Map<String, Double>> now, Path baseline, double maxRegress) throws Exception {
+        Map<String, Map<String, Double>> base = new Gson().fromJson(Files.readString(baseline), Map.class);
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Double>> e : now.entrySet()) {
+            Map<String, Double> b = base.get(e.getKey());
+            if (b == null) continue;
+            for (String q : new String[] { "p50_us", "p99_us" }) {
+                double was = b.getOrDefault(q, 0.0), is = e.getValue().get(q);
+                if (was > 0 && is > was * (1 + maxRegress)) {
+                    regressions.add(String.format(Locale.ROOT, "%s %s: %.1f -> %.1f us (+%.0f%%)", e.getKey(), q, was, is, (is / was - 1) * 100));
+                }
+            }
+        }
+        regressions.forEach(r -> System.out.println("REGRESSION " + r));
+        return regressions.isEmpty();
+    }
+}
@@ -0,0 +1,108 @@
+package com.kilab.auton8.tools.latency;
+
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.spi.GameActions;
+import com.kilab.auton8.spi.GameState;
+import com.kilab.auton8.trace.Span;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Stand-in for MinecraftClient: a "client thread" that drains the {@link #execute} queue once
+ * per rendered frame and runs {@link TickScheduler#tick} every 50 ms, like the real game loop.
+ *
+ * For commands registered with {@link #track}, it stamps when the dispatcher hopped over
+ * (execute called, plus the root span's start) and when the queued work began running.
+ */
+final class StubClient implements GameActions, GameState {
+    /** Monotonic stamps (Clock.monoNs) of one command; 0 = not reached. */
+    static final class Stamps {
+        volatile long sent, dispatchStart, executeCalled, runStart;
+    }
+
+    private final long frameNs, tickNs;
+    private final LinkedBlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentHashMap<String, Stamps> tracked = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+    private Thread thread;
+
+    /** @param frameMs render frame length; 0 = queued work only runs at ticks */
+    StubClient(long frameMs, long tickMs) {
+        this.frameNs = frameMs * 1_000_000L;
+        this.tickNs = Math.max(1, tickMs) * 1_000_000L;
+    }
+
+    void start() {
+        thread = Thread.ofPlatform().name("stub-client").start(this::loop);
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    Stamps track(String traceId) {
+        Stamps s = new Stamps();
+        tracked.put(traceId, s);
+        return s;
+    }
+
+    Stamps take(String traceId) { return tracked.remove(traceId); }
+
+    private void loop() {
+        long nextTick = System.nanoTime(), nextFrame = nextTick;
+        while (running) {
+            long now = System.nanoTime();
+            if (now >= nextTick) {
+                drain();
+                TickScheduler.get().tick(this);
+                nextTick += tickNs;
+                if (nextTick <= now) nextTick = now + tickNs;
+            }
+            if (frameNs > 0 && now >= nextFrame) {
+                drain();
+                nextFrame = now + frameNs;
+            }
+            long wake = frameNs > 0 ? Math.min(nextTick, nextFrame) : nextTick;
+            long sleep = wake - System.nanoTime();
+            if (sleep > 0) java.util.concurrent.locks.LockSupport.parkNanos(sleep);
+        }
+    }
+
+    private void drain() {
+        for (Runnable r; (r = queue.poll()) != null; ) {
+            try { r.run(); } catch (Throwable t) { t.printStackTrace(); }
+        }
+    }
+
+    // ===== GameActions =====
+
+    @Override public void execute(Runnable task) {
+        Span span = Span.active();
+        Stamps s = span == null ? null : tracked.get(span.traceId);
+        if (s == null) { queue.add(task); return; }
+        s.dispatchStart = span.startNs;
+        s.executeCalled = Clock.monoNs();
+        queue.add(() -> { s.runStart = Clock.monoNs(); task.run(); });
+    }
+
+    @Override public boolean canSend() { return true; }
+    @Override public void sendChat(String message) { }
+    @Override public void sendCommand(String command) { }
+
+    // ===== GameState =====
+
+    @Override public void capture(TickSnapshot snap) {
+        snap.inWorld = true;
+        snap.alive = true;
+        snap.dimensionId = "minecraft:overworld";
+        snap.dimension = "overworld";
+        snap.localName = "bench";
+        snap.health = 20f;
+        snap.hunger = 20;
+        snap.onGround = true;
+    }
+}
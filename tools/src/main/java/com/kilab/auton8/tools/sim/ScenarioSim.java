@@ -0,0 +1,249 @@
+package com.kilab.auton8.tools.sim;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.kilab.auton8.core.Auton8Core;
+import com.kilab.auton8.core.Clock;
+import com.kilab.auton8.core.Config;
+import com.kilab.auton8.core.TickScheduler;
+import com.kilab.auton8.metrics.Histogram;
+import com.kilab.auton8.metrics.Metrics;
+import com.kilab.auton8.mqtt.MqttBus;
+import com.kilab.auton8.mqtt.MqttMessageHandler;
+import com.kilab.auton8.spi.GameEvents;
+import com.kilab.auton8.tools.Args;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deterministic headless run of the real bridges against a scripted {@link SimWorld} on a
+ * {@link VirtualClock}: ticks are executed back to back (thousands per second), every event
+ * the bridges publish is captured through the bus's local sink, and per-task tick cost is
+ * reported.
+ *
+ * <pre>
+ *   --scenario=tools/scenarios/goto_reached.json   script (see below)
+ *   --out=events.jsonl     write the normalized event stream
+ *   --expect=golden.jsonl  compare against a previous --out, exit 1 on the first difference
+ *   --players=0            extra randomly wandering players (load)
+ *   --repeat=1             run the scenario N times back to back (cost at scale)
+ * </pre>
+ *
+ * Scenario: {"tick_ms":50, "duration_ms":60000, "seed":1, "start":{"x":0,"y":64,"z":0},
+ * "config":{runtime config patch}, "steps":[{"at":ms, &lt;one action&gt;}, ...]} with actions
+ * cmd {json sent to /cmd}, walk {"to":[x,z],"speed"}, teleport [x,y,z], health v,
+ * respawn [x,y,z], baritone {"pathing","builder","process","stall","speed"},
+ * player {"name","at":[x,z],"to":[x,z],"speed"}, player_leave name, join, leave,
+ * chat_in {"text","sender"}.
+ *
+ * Ids that are random by design (session, trace, span, plan ids) are dropped from the
+ * captured events, so a run with the same scenario and code always yields the same stream.
+ */
+public final class ScenarioSim {
+    private static final Set<String> RANDOM_KEYS = Set.of("session_id", "trace_id", "span_id", "parent_span_id", "plan_id", "planId");
+
+    public static void main(String[] argv) throws Exception {
+        Args a = new Args(argv);
+        JsonObject scenario = JsonParser.parseString(Files.readString(Path.of(a.str("scenario", "scenarios/goto_reached.json")))).getAsJsonObject();
+        int repeat = (int) Math.max(1, a.num("repeat", 1));
+        int players = (int) a.num("players", 0);
+
+        List<String> events = new ArrayList<>();
+        long ticks = 0, t0 = System.nanoTime();
+        for (int r = 0; r < repeat; r++) {
+            List<String> run = new ArrayList<>();
+            ticks += run(scenario, players, run);
+            if (r == 0) events = run;
+        }
+        long realNs = System.nanoTime() - t0;
+
+        System.out.printf(Locale.ROOT, "%d ticks in %.2fs real (%.0f ticks/s), %d events%n",
+            ticks, realNs / 1e9, ticks / (realNs / 1e9), events.size());
+        System.out.printf(Locale.ROOT, "%-34s %10s %10s %10s %10s%n", "tick task (us)", "runs", "p50", "p99", "max");
+        for (Map.Entry<String, Histogram.Snapshot> e : Metrics.get().histogramSnapshots().entrySet()) {
+            if (!e.getKey().startsWith("tick_task_ns")) continue;
+            Histogram.Snapshot s = e.getValue();
+            System.out.printf(Locale.ROOT, "%-34s %10d %10.1f %10.1f %10.1f%n", e.getKey().substring("tick_task_ns".length()),
+                s.count, s.quantile(0.5) / 1e3, s.quantile(0.99) / 1e3, s.max / 1e3);
+        }
+
+        if (a.has("out")) Files.write(Path.of(a.str("out", "")), events);
+        boolean ok = true;
+        if (a.has("expect")) {
+            List<String> expected = Files.readAllLines(Path.of(a.str("expect", "")));
+            ok = compare(expected, events);
+            System.out.println(ok ? "MATCH " + expected.size() + " events" : "MISMATCH");
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    /** One pass of the scenario; appends normalized events to {@code out} and returns the ticks run. */
+    private static long run(JsonObject sc, int players, List<String> out) throws Exception {
+        long tickMs = num(sc, "tick_ms", 50);
+        long durationMs = num(sc, "duration_ms", 60_000);
+        VirtualClock clock = new VirtualClock(num(sc, "epoch_ms", 1_700_000_000_000L));
+        Clock.use(clock);
+
+        SimWorld world = new SimWorld(Files.createTempDirectory("auton8-sim"), num(sc, "seed", 1));
+        if (sc.has("start")) {
+            JsonObject s = sc.getAsJsonObject("start");
+            world.x = dbl(s, "x", 0); world.y = dbl(s, "y", 64); world.z = dbl(s, "z", 0);
+            world.health = (float) dbl(s, "health", 20);
+        }
+        if (players > 0) world.addWalkers(players, 256);
+
+        Config cfg = new Config();
+        cfg.clientId = "sim";
+        cfg.cmdTopic = "mc/sim/cmd";
+        cfg.evtTopic = "mc/sim/events";
+        cfg.sessionId = "sim";
+        // Nothing that depends on real CPU time may reach the event stream: no budget downshifts,
+        // profiler or metrics publishes (tick cost is still recorded, see below).
+        cfg.live.set(cfg.live.get().withScopes(true, true, true, true).withPatch(JsonParser.parseString(
+            "{\"recorder_total_mb\":0,\"tick_budget_us\":0,\"tick_profile_interval_ms\":0,\"metrics_interval_ms\":0}").getAsJsonObject()));
+        if (sc.has("config")) {
+            JsonObject patch = sc.getAsJsonObject("config");
+            cfg.live.update(c -> c.withPatch(patch));
+        }
+
+        Auton8Core core = new Auton8Core(cfg, world);
+        MqttBus bus = core.bus();
+        // Publishes to /cmd (e.g. enable()'s "#cancel") loop back like they would through a broker,
+        // on the next tick so handlers never re-enter.
+        ArrayDeque<String> loopback = new ArrayDeque<>();
+        MqttMessageHandler sink = (topic, json) -> {
+            if (topic.equals(cfg.cmdTopic)) { loopback.add(json); return; }
+            out.add(normalize(clock.nowMs(), topic, json));
+        };
+        bus.addSink(sink);
+        core.enable();
+        Metrics.setEnabled(true);   // MetricsBridge turned the registry off (no interval/port)
+        GameEvents.get().fireJoin();
+
+        List<JsonObject> steps = new ArrayList<>();
+        if (sc.has("steps")) for (JsonElement e : sc.getAsJsonArray("steps")) steps.add(e.getAsJsonObject());
+        steps.sort(Comparator.comparingLong(s -> num(s, "at", 0)));   // stable: same-time steps keep file order
+        int next = 0;
+
+        long ticks = 0;
+        for (long now = 0; now < durationMs; now += tickMs) {
+            clock.advanceMs(tickMs);
+            while (next < steps.size() && num(steps.get(next), "at", 0) <= clock.nowMs()) apply(steps.get(next++), world, bus, cfg);
+            for (String cmd; (cmd = loopback.poll()) != null; ) bus.inject(cfg.cmdTopic, cmd);
+            world.step(tickMs);
+            world.runQueued();
+            TickScheduler.get().tick(world);
+            ticks++;
+        }
+
+        GameEvents.get().fireDisconnect();
+        core.disable();
+        bus.removeSink(sink);
+        Clock.use(null);
+        return ticks;
+    }
+
+    private static void apply(JsonObject s, SimWorld w, MqttBus bus, Config cfg) {
+        if (s.has("cmd")) bus.inject(cfg.cmdTopic, s.get("cmd").toString());
+        if (s.has("walk")) {
+            JsonObject o = s.getAsJsonObject("walk");
+            JsonArray to = o.getAsJsonArray("to");
+            w.walkTx = to.get(0).getAsDouble();
+            w.walkTz = to.get(1).getAsDouble();
+            w.walkSpeed = dbl(o, "speed", 4.3);
+            w.walking = true;
+        }
+        if (s.has("teleport")) {
+            JsonArray p = s.getAsJsonArray("teleport");
+            w.x = p.get(0).getAsDouble(); w.y = p.get(1).getAsDouble(); w.z = p.get(2).getAsDouble();
+        }
+        if (s.has("health")) {
+            w.health = s.get("health").getAsFloat();
+            if (w.health <= 0) { w.alive = false; w.autopilot = false; w.pathing = false; w.walking = false; }
+        }
+        if (s.has("respawn")) {
+            JsonArray p = s.getAsJsonArray("respawn");
+            w.x = p.get(0).getAsDouble(); w.y = p.get(1).getAsDouble(); w.z = p.get(2).getAsDouble();
+            w.alive = true;
+            w.health = 20f;
+        }
+        if (s.has("baritone")) {
+            JsonObject b = s.getAsJsonObject("baritone");
+            if (b.has("pathing")) w.pathing = b.get("pathing").getAsBoolean();
+            if (b.has("builder")) w.builderActive = b.get("builder").getAsBoolean();
+            if (b.has("process")) w.processActive = b.get("process").getAsBoolean();
+            if (b.has("stall"))   w.stalled = b.get("stall").getAsBoolean();
+            if (b.has("speed"))   w.baritoneSpeed = b.get("speed").getAsDouble();
+        }
+        if (s.has("player")) {
+            JsonObject p = s.getAsJsonObject("player");
+            JsonArray at = p.has("at") ? p.getAsJsonArray("at") : null;
+            SimWorld.Other o = w.player(p.get("name").getAsString(),
+                at != null ? at.get(0).getAsDouble() : w.x, at != null ? at.get(1).getAsDouble() : w.z);
+            if (at != null) { o.x = at.get(0).getAsDouble(); o.z = at.get(1).getAsDouble(); o.tx = o.x; o.tz = o.z; }
+            if (p.has("to")) { o.tx = p.getAsJsonArray("to").get(0).getAsDouble(); o.tz = p.getAsJsonArray("to").get(1).getAsDouble(); }
+            o.speed = dbl(p, "speed", 4.3);
+        }
+        if (s.has("player_leave")) w.others.remove(s.get("player_leave").getAsString());
+        if (s.has("join"))  { w.inWorld = true; GameEvents.get().fireJoin(); }
+        if (s.has("leave")) { GameEvents.get().fireDisconnect(); w.inWorld = false; }
+        if (s.has("chat_in")) {
+            JsonObject c = s.getAsJsonObject("chat_in");
+            GameEvents.get().fireChatReceived(c.get("text").getAsString(), c.has("sender") ? c.get("sender").getAsString() : null);
+        }
+    }
+
+    /** {"t":virtual ms,"topic":...,"event":{payload without random ids}} as one line. */
+    private static String normalize(long t, String topic, String json) {
+        JsonObject line = new JsonObject();
+        line.addProperty("t", t);
+        line.addProperty("topic", topic);
+        JsonElement p;
+        try { p = JsonParser.parseString(json); } catch (Exception e) { p = null; }
+        if (p != null && p.isJsonObject()) {
+            strip(p.getAsJsonObject());
+            line.add("event", p);
+        } else {
+            line.addProperty("raw", json);
+        }
+        return line.toString();
+    }
+
+    private static void strip(JsonObject o) {
+        for (String k : RANDOM_KEYS) o.remove(k);
+        for (Map.Entry<String, JsonElement> e : o.entrySet()) {
+            if (e.getValue().isJsonObject()) strip(e.getValue().getAsJsonObject());
+        }
+    }
+
+    private static boolean compare(List<String> expected, List<String> actual) {
+        int n = Math.min(expected.size(), actual.size());
+        for (int i = 0; i < n; i++) {
+            if (!expected.get(i).equals(actual.get(i))) {
+                System.out.println("first difference at event " + i + ":");
+                System.out.println("  expected " + expected.get(i));
+                System.out.println("  actual   " + actual.get(i));
+                return false;
+            }
+        }
+        if (expected.size() != actual.size()) {
+            System.out.println("event count differs: expected " + expected.size() + ", got " + actual.size());
+            return false;
+        }
+        return true;
+    }
+
+    private static long num(JsonObject o, String k, long def) { return o.has(k) ? o.get(k).getAsLong() : def; }
+
+    private static double dbl(JsonObject o, String k, double def) { return o.has(k) ? o.get(k).getAsDouble() : def; }
+}
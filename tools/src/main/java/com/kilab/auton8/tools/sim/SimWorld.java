@@ -0,0 +1,188 @@
+package com.kilab.auton8.tools.sim;
+
+import com.kilab.auton8.core.TickSnapshot;
+import com.kilab.auton8.spi.GameActions;
+import com.kilab.auton8.spi.GameEvents;
+import com.kilab.auton8.spi.GameState;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scripted game for {@link ScenarioSim}: the local player, other players and Baritone's
+ * process flags, advanced in fixed steps of virtual time. Work queued with {@link #execute}
+ * runs at the start of the next tick, like MinecraftClient's task queue.
+ *
+ * "#goto x [y] z" sent through {@link #sendChat} drives a tiny autopilot (pathing while
+ * walking there at {@link #baritoneSpeed}); "#stop"/"#cancel" end it, and a stall keeps
+ * pathing on without moving, which is what Baritone looks like when it is stuck.
+ */
+final class SimWorld implements GameState, GameActions {
+    private static final Pattern GOTO = Pattern.compile("#goto\\s+(-?\\d+)(?:\\s+(-?\\d+))?\\s+(-?\\d+)\\s*");
+
+    /** Another player moving in a straight line towards its target, then standing still. */
+    static final class Other {
+        final int entityId;
+        final UUID uuid;
+        final String name;
+        double x, y, z, tx, tz, speed;
+
+        Other(int entityId, String name, double x, double y, double z) {
+            this.entityId = entityId;
+            this.uuid = UUID.nameUUIDFromBytes(("sim:" + name).getBytes(StandardCharsets.UTF_8));
+            this.name = name;
+            this.x = x; this.y = y; this.z = z;
+            this.tx = x; this.tz = z;
+        }
+    }
+
+    // local player
+    boolean inWorld = true, alive = true;
+    double x, y = 64, z;
+    float health = 20f;
+    int hunger = 20;
+    String dimension = "overworld";
+
+    // scripted walk (independent of Baritone)
+    double walkTx, walkTz, walkSpeed;
+    boolean walking;
+
+    // Baritone
+    double baritoneSpeed = 4.3;
+    boolean autopilot, stalled, pathing, builderActive, processActive;
+    double goalX, goalZ;
+
+    final Map<String, Other> others = new LinkedHashMap<>();
+    final List<String> sentChat = new ArrayList<>();
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    private final Path dataDir;
+    private int nextEntityId = 100;
+
+    // random walkers for load runs
+    private final SplittableRandom rnd;
+    private final List<Other> walkers = new ArrayList<>();
+
+    SimWorld(Path dataDir, long seed) {
+        this.dataDir = dataDir;
+        this.rnd = new SplittableRandom(seed);
+    }
+
+    Other player(String name, double px, double pz) {
+        return others.computeIfAbsent(name, n -> new Other(nextEntityId++, n, px, y, pz));
+    }
+
+    /** {@code count} extra players wandering randomly within {@code radius} blocks of the origin. */
+    void addWalkers(int count, double radius) {
+        for (int i = 0; i < count; i++) {
+            Other o = new Other(nextEntityId++, "walker" + i, rnd.nextDouble(-radius, radius), 64, rnd.nextDouble(-radius, radius));
+            o.speed = rnd.nextDouble(1, 6);
+            walkers.add(o);
+        }
+    }
+
+    /** Move everything by {@code dtMs} of virtual time. */
+    void step(long dtMs) {
+        double dt = dtMs / 1000.0;
+        if (alive && walking) {
+            walking = !moveTowards(walkTx, walkTz, walkSpeed * dt);
+        }
+        if (alive && autopilot && !stalled) {
+            if (moveTowards(goalX, goalZ, baritoneSpeed * dt)) { autopilot = false; pathing = false; }
+        }
+        for (Other o : others.values()) {
+            double dx = o.tx - o.x, dz = o.tz - o.z, d = Math.hypot(dx, dz), s = o.speed * dt;
+            if (d <= s || d == 0) { o.x = o.tx; o.z = o.tz; }
+            else { o.x += dx / d * s; o.z += dz / d * s; }
+        }
+        for (Other o : walkers) {
+            if (Math.hypot(o.tx - o.x, o.tz - o.z) < 0.5) {
+                o.tx = o.x + rnd.nextDouble(-64, 64);
+                o.tz = o.z + rnd.nextDouble(-64, 64);
+            }
+            double dx = o.tx - o.x, dz = o.tz - o.z, d = Math.hypot(dx, dz), s = o.speed * dt;
+            if (d <= s) { o.x = o.tx; o.z = o.tz; } else { o.x += dx / d * s; o.z += dz / d * s; }
+        }
+    }
+
+    /** True once the player has arrived. */
+    private boolean moveTowards(double tx, double tz, double dist) {
+        double dx = tx - x, dz = tz - z, d = Math.hypot(dx, dz);
+        if (d <= dist) { x = tx; z = tz; return true; }
+        x += dx / d * dist;
+        z += dz / d * dist;
+        return false;
+    }
+
+    /** Run the work queued since the last tick (client thread). */
+    void runQueued() {
+        for (Runnable r; (r = queue.poll()) != null; ) r.run();
+    }
+
+    // ===== GameActions =====
+
+    @Override public void execute(Runnable task) { queue.add(task); }
+
+    @Override public boolean canSend() { return inWorld; }
+
+    @Override public void sendChat(String message) {
+        sentChat.add(message);
+        String low = message.trim().toLowerCase();
+        Matcher m = GOTO.matcher(low);
+        if (m.matches()) {
+            goalX = Integer.parseInt(m.group(1)) + 0.5;
+            goalZ = Integer.parseInt(m.group(3)) + 0.5;
+            autopilot = true;
+            pathing = true;
+            stalled = false;
+        } else if (low.equals("#stop") || low.equals("#cancel")) {
+            autopilot = false;
+            pathing = false;
+        }
+        GameEvents.get().fireChatSent(message, true);
+    }
+
+    @Override public void sendCommand(String command) { sentChat.add("/" + command); }
+
+    @Override public Path dataDir() { return dataDir; }
+
+    // ===== GameState =====
+
+    @Override public void capture(TickSnapshot snap) {
+        snap.inWorld = inWorld;
+        snap.dimensionId = "minecraft:" + dimension;
+        snap.dimension = TickSnapshot.normalizeDimension(dimension);
+        snap.serverTag = "sim";
+        snap.integratedServer = false;
+        snap.singleplayer = false;
+        snap.localName = "SimBot";
+        snap.x = x; snap.y = y; snap.z = z;
+        snap.onGround = true;
+        snap.alive = alive;
+        snap.health = health;
+        snap.hunger = hunger;
+        snap.saturation = 5f;
+        snap.baritonePathing = pathing;
+        snap.baritoneBuilderActive = builderActive;
+        snap.baritoneProcessActive = processActive || builderActive;
+        snap.clearOthers();
+        if (!inWorld) return;
+        for (Other o : others.values()) fill(snap.addOther(), o);
+        for (Other o : walkers) fill(snap.addOther(), o);
+    }
+
+    private static void fill(TickSnapshot.PlayerSample s, Other o) {
+        s.entityId = o.entityId;
+        s.uuid = o.uuid;
+        s.name = o.name;
+        s.x = o.x; s.y = o.y; s.z = o.z;
+    }
+}
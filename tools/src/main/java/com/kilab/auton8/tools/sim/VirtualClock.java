@@ -0,0 +1,20 @@
+package com.kilab.auton8.tools.sim;
+
+import com.kilab.auton8.core.Clock;
+
+/** Clock that only moves when the simulator advances it; installed with {@link Clock#use}. */
+final class VirtualClock implements Clock.Source {
+    private final long epochMs;
+    private volatile long monoNs;
+
+    VirtualClock(long epochMs) {
+        this.epochMs = epochMs;
+    }
+
+    void advanceMs(long ms) { monoNs += ms * 1_000_000L; }
+
+    long nowMs() { return monoNs / 1_000_000L; }
+
+    @Override public long wallMs() { return epochMs + monoNs / 1_000_000L; }
+    @Override public long monoNs() { return monoNs; }
+}